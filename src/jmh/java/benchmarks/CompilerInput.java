@@ -0,0 +1,100 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import lexer.Lexer;
+import lexer.LexerException;
+import lineevaluation.LineEvaluator;
+import node.APrg;
+import node.Node;
+import node.Start;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import parser.Parser;
+import parser.ParserException;
+import programgeneration.ProgramGenerator;
+import symboltable.SymbolTable;
+import symboltable.SymbolTableBuilder;
+import typecheck.TypeChecker;
+
+/**
+ * Benchmark input with the results of all phases up to type checking, so that
+ * each benchmark measures a single phase. Inputs are either programs from
+ * {@code src/test/resources/algorithms} or synthetic programs of a shape and
+ * size, e.g., {@code synthetic-functions-100} for 100 functions. Synthetic
+ * programs always use the same seed.
+ */
+@State(Scope.Benchmark)
+public class CompilerInput {
+  static final String PATH_ALGORITHMS = "src/test/resources/algorithms/";
+  static final String SYNTHETIC_PREFIX = "synthetic-";
+  static final long SEED = 1;
+
+  @Param({"Binomial", "Euclid", "Fibonacci", "Sarrus",
+      "synthetic-functions-10", "synthetic-functions-100", "synthetic-functions-1000",
+      "synthetic-functions-5000", "synthetic-nesting-30", "synthetic-expressions-200"})
+  public String program;
+
+  public String source;
+  public Start ast;
+  public LineEvaluator lineEvaluator;
+  public SymbolTable symbolTable;
+
+  /** Read or generate the source code and run all phases up to type checking. */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException, LexerException, ParserException {
+    if (this.program.startsWith(SYNTHETIC_PREFIX)) {
+      String[] shapeAndSize = this.program.substring(SYNTHETIC_PREFIX.length()).split("-");
+      ProgramGenerator.Settings settings = getSyntheticSettings(
+          shapeAndSize[0], Integer.parseInt(shapeAndSize[1]));
+      this.source = new ProgramGenerator(SEED, settings).generate();
+    } else {
+      this.source = Files.readString(Path.of(PATH_ALGORITHMS + this.program + ".easy"));
+    }
+
+    this.ast = parse(this.source);
+    this.lineEvaluator = new LineEvaluator();
+    this.ast.apply(this.lineEvaluator);
+    SymbolTableBuilder symbolTableBuilder = new SymbolTableBuilder();
+    this.ast.apply(symbolTableBuilder);
+    this.symbolTable = symbolTableBuilder.getSymbolTable();
+    TypeChecker typeChecker = new TypeChecker(this.symbolTable, this.lineEvaluator);
+    this.ast.apply(typeChecker);
+
+    if (symbolTableBuilder.errorsOccurred() || typeChecker.errorsOccurred()) {
+      throw new IllegalStateException("Benchmark input %s is invalid.".formatted(this.program));
+    }
+  }
+
+  /** Lex and parse the given source code. */
+  public static Start parse(String source) throws IOException, LexerException, ParserException {
+    Lexer lexer = new Lexer(new PushbackReader(new StringReader(source)));
+    return new Parser(lexer).parse();
+  }
+
+  /** Get the subtrees of all functions, including main. */
+  public List<Node> getFunctionSubTrees() {
+    APrg program = (APrg) this.ast.getPPrg();
+    List<Node> functionSubTrees = new ArrayList<>(program.getFunc());
+    functionSubTrees.add(program.getMain());
+    return functionSubTrees;
+  }
+
+  /* Settings for synthetic programs, e.g., many functions or deeply nested statements. */
+  private static ProgramGenerator.Settings getSyntheticSettings(String shape, int size) {
+    return switch (shape) {
+      case "functions" -> ProgramGenerator.Settings.withFunctions(size);
+      case "nesting" -> new ProgramGenerator.Settings(10, 10, 3, size, 8, 8);
+      case "expressions" -> new ProgramGenerator.Settings(10, 10, 4, 2, size, size);
+      default -> throw new IllegalArgumentException("Unknown program shape " + shape);
+    };
+  }
+}
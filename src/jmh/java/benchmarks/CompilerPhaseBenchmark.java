@@ -0,0 +1,81 @@
+package benchmarks;
+
+import codegeneration.CodeElement;
+import codegeneration.CodeGenerator;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lexer.LexerException;
+import lineevaluation.LineEvaluator;
+import livenessanalysis.LivenessAnalyzer;
+import node.Node;
+import node.Start;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+import parser.ParserException;
+import stackdepthevaluation.StackDepthEvaluator;
+import symboltable.SymbolTable;
+import symboltable.SymbolTableBuilder;
+import typecheck.TypeChecker;
+
+/**
+ * Benchmarks for the single phases of the compiler. Each benchmark runs one
+ * phase on the results of the previous phases from {@link CompilerInput}. The
+ * interference graph benchmark lives in the liveness analysis package, as it
+ * needs access to the dataflow graphs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompilerPhaseBenchmark {
+
+  @Benchmark
+  public Start parse(CompilerInput input) throws IOException, LexerException, ParserException {
+    return CompilerInput.parse(input.source);
+  }
+
+  @Benchmark
+  public LineEvaluator lineEvaluation(CompilerInput input) {
+    LineEvaluator lineEvaluator = new LineEvaluator();
+    input.ast.apply(lineEvaluator);
+    return lineEvaluator;
+  }
+
+  @Benchmark
+  public SymbolTable symbolTable(CompilerInput input) {
+    SymbolTableBuilder symbolTableBuilder = new SymbolTableBuilder();
+    input.ast.apply(symbolTableBuilder);
+    return symbolTableBuilder.getSymbolTable();
+  }
+
+  @Benchmark
+  public boolean typeCheck(CompilerInput input) {
+    TypeChecker typeChecker = new TypeChecker(input.symbolTable, input.lineEvaluator);
+    input.ast.apply(typeChecker);
+    return typeChecker.errorsOccurred();
+  }
+
+  @Benchmark
+  public LivenessAnalyzer liveness(CompilerInput input) {
+    return new LivenessAnalyzer(input.ast, input.symbolTable, input.lineEvaluator);
+  }
+
+  @Benchmark
+  public void stackDepth(CompilerInput input, Blackhole blackhole) {
+    for (Node functionSubTree : input.getFunctionSubTrees()) {
+      StackDepthEvaluator stackDepthEvaluator = new StackDepthEvaluator();
+      functionSubTree.apply(stackDepthEvaluator);
+      blackhole.consume(stackDepthEvaluator.getMaxDepthCounter());
+    }
+  }
+
+  @Benchmark
+  public List<CodeElement> codeGeneration(CompilerInput input) {
+    CodeGenerator codeGenerator = new CodeGenerator(
+        input.program.replace('-', '_'), input.symbolTable, input.lineEvaluator);
+    input.ast.apply(codeGenerator);
+    return codeGenerator.getElements();
+  }
+}
@@ -0,0 +1,49 @@
+package livenessanalysis;
+
+import benchmarks.CompilerInput;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import node.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark for building and coloring the interference graphs of all
+ * functions, based on dataflow graphs with solved in- and out-sets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InterferenceGraphBenchmark {
+
+  /** Dataflow graphs per function of the benchmark input. */
+  @State(Scope.Benchmark)
+  public static class DataflowGraphs {
+    HashMap<String, DataflowGraph> graphs;
+
+    @Setup(Level.Trial)
+    public void setUp(CompilerInput input) {
+      this.graphs = new HashMap<>();
+      FunctionSubTreeExtractor functionSubTreeExtractor = new FunctionSubTreeExtractor();
+      input.ast.apply(functionSubTreeExtractor);
+      for (HashMap.Entry<String, Node> entry
+          : functionSubTreeExtractor.getFunctionSubTrees().entrySet()) {
+        this.graphs.put(entry.getKey(),
+            new DataflowGraph(input.symbolTable, input.lineEvaluator, entry.getValue()));
+      }
+    }
+  }
+
+  @Benchmark
+  public void interferenceGraph(
+      CompilerInput input, DataflowGraphs dataflowGraphs, Blackhole blackhole) {
+    dataflowGraphs.graphs.forEach((functionName, dataflowGraph) -> blackhole.consume(
+        new InterferenceGraph(input.symbolTable, dataflowGraph.getEnd(), functionName)));
+  }
+}
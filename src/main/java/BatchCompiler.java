@@ -0,0 +1,180 @@
+import compilecache.CompileCache;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import optimization.Optimization;
+
+/**
+ * Compiler for many source files within a single JVM. Each file gets its own
+ * EasyCompiler instance, and a fixed pool of workers compiles the files
+ * concurrently. The outputs per file are buffered and printed in the order of
+ * the given files, i.e., diagnostics of different files never interleave.
+ */
+public class BatchCompiler {
+  private final List<String> sourceFilePaths;
+  private final int workers;
+  private final EasyCompiler.OutputFormat outputFormat;
+  private final Set<Optimization> optimizations;
+  private final boolean verbose;
+  private CompileCache compileCache;
+
+  /**
+   * Compiler for many source files within a single JVM.
+   *
+   * @param sourceFilePaths Paths to source files
+   * @param workers         Number of concurrent compilations
+   * @param outputFormat    Output format of the compilations
+   * @param verbose         Flag indicating if additional logs occur
+   */
+  public BatchCompiler(List<String> sourceFilePaths, int workers,
+      EasyCompiler.OutputFormat outputFormat, boolean verbose) {
+    this(sourceFilePaths, workers, outputFormat, EnumSet.noneOf(Optimization.class), verbose);
+  }
+
+  /**
+   * Compiler for many source files within a single JVM.
+   *
+   * @param sourceFilePaths Paths to source files
+   * @param workers         Number of concurrent compilations
+   * @param outputFormat    Output format of the compilations
+   * @param optimizations   Enabled optimizations of the compilations
+   * @param verbose         Flag indicating if additional logs occur
+   */
+  public BatchCompiler(List<String> sourceFilePaths, int workers,
+      EasyCompiler.OutputFormat outputFormat, Set<Optimization> optimizations,
+      boolean verbose) {
+    this.sourceFilePaths = sourceFilePaths;
+    this.workers = workers;
+    this.outputFormat = outputFormat;
+    this.optimizations = optimizations;
+    this.verbose = verbose;
+  }
+
+  /**
+   * Set the on-disk cache that all compilations share. Defaults to no cache.
+   *
+   * @param compileCache Cache for outputs of compilations, or null
+   */
+  public void setCompileCache(CompileCache compileCache) {
+    this.compileCache = compileCache;
+  }
+
+  /**
+   * Collect the source files from the given paths. Directories are searched
+   * recursively for files with the suffix ".easy", other paths are kept as they
+   * are.
+   *
+   * @param paths Paths to source files and directories
+   * @return List of paths to source files
+   */
+  static List<String> collectSourceFiles(List<String> paths) throws IOException {
+    List<String> sourceFilePaths = new ArrayList<>();
+    for (String path : paths) {
+      Path currPath = Paths.get(path);
+      if (Files.isDirectory(currPath)) {
+        try (Stream<Path> files = Files.walk(currPath)) {
+          files.filter(Files::isRegularFile)
+              .map(Path::toString)
+              .filter(file -> file.endsWith(".easy"))
+              .sorted()
+              .forEach(sourceFilePaths::add);
+        }
+      } else {
+        sourceFilePaths.add(path);
+      }
+    }
+    return sourceFilePaths;
+  }
+
+  /**
+   * Compile all source files and print the outputs per file.
+   *
+   * @return Exit status, i.e., 0 if all files compiled successfully and 1
+   *         otherwise
+   */
+  public int compileAll() {
+    final PrintStream originalOut = System.out;
+    final PrintStream originalErr = System.err;
+    final ThreadLocalOutputStream routedOut = new ThreadLocalOutputStream(originalOut);
+    final ThreadLocalOutputStream routedErr = new ThreadLocalOutputStream(originalErr);
+    final ExecutorService pool = Executors.newFixedThreadPool(this.workers);
+    int successfulCompilations = 0;
+
+    System.setOut(new PrintStream(routedOut, true));
+    System.setErr(new PrintStream(routedErr, true));
+    try {
+      List<Future<BatchResult>> results = new ArrayList<>();
+      for (String sourceFilePath : this.sourceFilePaths) {
+        results.add(pool.submit(() -> compileFile(sourceFilePath, routedOut, routedErr)));
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        originalOut.println("%s:".formatted(this.sourceFilePaths.get(i)));
+        try {
+          BatchResult result = results.get(i).get();
+          originalOut.print(result.output());
+          if (result.successful()) {
+            successfulCompilations++;
+          }
+        } catch (ExecutionException e) {
+          // e.g., an error that the compilation of this file does not catch
+          originalOut.println("An unexpected error occurred: %s".formatted(e.getCause()));
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      originalOut.println("An unexpected error occurred: %s".formatted(e.getMessage()));
+    } finally {
+      pool.shutdownNow();
+      System.setOut(originalOut);
+      System.setErr(originalErr);
+    }
+
+    originalOut.println("Compiled %d of %d files successfully.".formatted(
+        successfulCompilations, this.sourceFilePaths.size()));
+    return (successfulCompilations == this.sourceFilePaths.size()) ? 0 : 1;
+  }
+
+  /* Compile a single source file and capture all of its outputs. */
+  BatchResult compileFile(String sourceFilePath,
+      ThreadLocalOutputStream routedOut, ThreadLocalOutputStream routedErr) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    boolean successful = false;
+
+    routedOut.register(output);
+    routedErr.register(output);
+    try {
+      if (FileHandler.isValidFilePath(sourceFilePath)) {
+        EasyCompiler easyCompiler = new EasyCompiler(sourceFilePath, this.verbose);
+        easyCompiler.setOptimizations(this.optimizations);
+        easyCompiler.setCompileCache(this.compileCache);
+        successful = easyCompiler.compile(this.outputFormat);
+      } else {
+        System.out.println("Invalid file path '%s'.".formatted(sourceFilePath));
+      }
+    } catch (Exception e) {
+      System.out.println("An unexpected error occurred: %s".formatted(e.getMessage()));
+    } finally {
+      routedOut.unregister();
+      routedErr.unregister();
+    }
+
+    return new BatchResult(sourceFilePath, successful, output.toString());
+  }
+
+  /* Result of the compilation of a single source file. */
+  record BatchResult(String sourceFilePath, boolean successful, String output) {
+  }
+}
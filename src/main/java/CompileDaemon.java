@@ -0,0 +1,190 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server that keeps a warm compiler in a long-running JVM, i.e., the classes
+ * of lexer, parser and AST are loaded and compiled by the JIT only once. It
+ * accepts the command line arguments of clients over a Unix domain socket,
+ * executes them concurrently with a fixed pool of workers and sends back their
+ * outputs and exit statuses.
+ *
+ * <p>A request consists of the client's working directory, the number of
+ * arguments and the arguments. A response consists of the number of output
+ * bytes, the output and the exit status.
+ */
+public class CompileDaemon implements AutoCloseable {
+  private final Path socketPath;
+  private final ServerSocketChannel serverChannel;
+  private final ExecutorService pool;
+
+  /**
+   * Server that listens on the given socket, replacing a socket file that a
+   * crashed daemon left behind.
+   *
+   * @param socketPath Path of the Unix domain socket
+   * @param workers    Number of concurrently executed requests
+   * @throws IOException If another daemon listens on the socket or binding fails
+   */
+  public CompileDaemon(Path socketPath, int workers) throws IOException {
+    if (isListening(socketPath)) {
+      throw new IOException("A compile daemon already listens on %s.".formatted(socketPath));
+    }
+    Files.deleteIfExists(socketPath);
+
+    this.socketPath = socketPath;
+    this.serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    this.serverChannel.bind(UnixDomainSocketAddress.of(socketPath));
+    try { // other users must not compile with our permissions
+      Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+    } catch (UnsupportedOperationException e) {
+      // file systems without POSIX permissions keep their defaults
+    }
+    socketPath.toFile().deleteOnExit(); // e.g., when the daemon is terminated by a signal
+    this.pool = Executors.newFixedThreadPool(workers);
+  }
+
+  /** Get the socket in the temporary directory that daemon and client use by default. */
+  public static Path getDefaultSocketPath() {
+    return Path.of(System.getProperty("java.io.tmpdir"),
+        "easycompiler-%s.sock".formatted(System.getProperty("user.name")));
+  }
+
+  /* Check if a daemon accepts connections on the given socket. */
+  static boolean isListening(Path socketPath) {
+    if (!Files.exists(socketPath)) {
+      return false;
+    }
+    try {
+      SocketChannel.open(UnixDomainSocketAddress.of(socketPath)).close();
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Accept and execute requests until the daemon is closed. The outputs of
+   * each request are captured separately, i.e., concurrent requests never see
+   * each other's diagnostics.
+   *
+   * @throws IOException If accepting a connection fails
+   */
+  public void serve() throws IOException {
+    final PrintStream originalOut = System.out;
+    final PrintStream originalErr = System.err;
+    final ThreadLocalOutputStream routedOut = new ThreadLocalOutputStream(originalOut);
+    final ThreadLocalOutputStream routedErr = new ThreadLocalOutputStream(originalErr);
+
+    System.setOut(new PrintStream(routedOut, true));
+    System.setErr(new PrintStream(routedErr, true));
+    originalOut.println("Compile daemon listening on %s.".formatted(this.socketPath));
+    try {
+      while (true) {
+        SocketChannel client;
+        try {
+          client = this.serverChannel.accept();
+        } catch (ClosedChannelException e) { // closed by close(), e.g., from another thread
+          break;
+        }
+        this.pool.submit(() -> handle(client, routedOut, routedErr));
+      }
+    } finally {
+      System.setOut(originalOut);
+      System.setErr(originalErr);
+    }
+  }
+
+  /* Execute the request of a single client and send back its outputs. */
+  private void handle(SocketChannel client,
+      ThreadLocalOutputStream routedOut, ThreadLocalOutputStream routedErr) {
+    try (client) {
+      DataInputStream in = new DataInputStream(
+          new BufferedInputStream(Channels.newInputStream(client)));
+      Path workingDirectory = Path.of(in.readUTF());
+      String[] args = new String[in.readInt()];
+      for (int i = 0; i < args.length; i++) {
+        args[i] = in.readUTF();
+      }
+
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      int exitStatus;
+      routedOut.register(output);
+      routedErr.register(output);
+      try {
+        exitStatus = EasyCompiler.execute(args, workingDirectory, true);
+      } finally {
+        routedOut.unregister();
+        routedErr.unregister();
+      }
+
+      DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Channels.newOutputStream(client)));
+      out.writeInt(output.size());
+      output.writeTo(out);
+      out.writeInt(exitStatus);
+      out.flush();
+    } catch (EOFException e) {
+      // probes of isListening() disconnect without a request
+    } catch (IOException e) { // the client went away, i.e., nobody waits for the outputs
+      System.err.println("Failed to answer a client: %s".formatted(e.getMessage()));
+    }
+  }
+
+  /**
+   * Send command line arguments to the daemon and wait for their execution.
+   *
+   * @param socketPath       Path of the daemon's socket
+   * @param workingDirectory Directory that relative paths refer to
+   * @param args             Command line arguments
+   * @return Outputs and exit status of the execution
+   * @throws IOException If the daemon cannot be reached
+   */
+  static DaemonResponse send(Path socketPath, Path workingDirectory, List<String> args)
+      throws IOException {
+    try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+      DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Channels.newOutputStream(channel)));
+      out.writeUTF(workingDirectory.toAbsolutePath().toString());
+      out.writeInt(args.size());
+      for (String arg : args) {
+        out.writeUTF(arg);
+      }
+      out.flush();
+
+      DataInputStream in = new DataInputStream(
+          new BufferedInputStream(Channels.newInputStream(channel)));
+      byte[] output = in.readNBytes(in.readInt());
+      return new DaemonResponse(output, in.readInt());
+    }
+  }
+
+  /** Stop accepting requests, finish the accepted ones and remove the socket file. */
+  @Override
+  public void close() throws IOException {
+    this.serverChannel.close();
+    this.pool.shutdown();
+    Files.deleteIfExists(this.socketPath);
+  }
+
+  /* Outputs and exit status of a request. */
+  record DaemonResponse(byte[] output, int exitStatus) {
+  }
+}
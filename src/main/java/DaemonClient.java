@@ -0,0 +1,44 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Thin client for the compile daemon. It forwards its command line arguments
+ * and working directory to a running daemon, prints the daemon's outputs and
+ * exits with the daemon's exit status. Without a daemon, it executes the
+ * arguments within its own JVM, i.e., like the EasyCompiler itself.
+ *
+ * <p>The environment variable EASYCOMPILER_SOCKET overrides the default socket.
+ */
+public class DaemonClient {
+  /**
+   * Forwards the command line arguments to the compile daemon.
+   *
+   * @param args Command line arguments of the EasyCompiler
+   */
+  public static void main(String[] args) {
+    String socketVariable = System.getenv("EASYCOMPILER_SOCKET");
+    Path socketPath = (socketVariable != null)
+        ? Path.of(socketVariable) : CompileDaemon.getDefaultSocketPath();
+    if (!CompileDaemon.isListening(socketPath)) {
+      System.err.println("No compile daemon listens on %s, compiling within this JVM."
+          .formatted(socketPath));
+      EasyCompiler.main(args);
+      return;
+    }
+
+    try {
+      CompileDaemon.DaemonResponse response = CompileDaemon.send(
+          socketPath, Path.of(""), Arrays.asList(args));
+      System.out.write(response.output());
+      System.out.flush();
+      if (response.exitStatus() != 0) {
+        System.exit(response.exitStatus());
+      }
+    } catch (IOException e) {
+      System.out.println("An error occurred while contacting the compile daemon: %s"
+          .formatted(e.getMessage()));
+      System.exit(1);
+    }
+  }
+}
@@ -1,15 +1,55 @@
+import analysis.Analysis;
+import codegeneration.ClassFileAssembler;
+import codegeneration.CodeElement;
+import codegeneration.CodeElement.MethodEnd;
+import codegeneration.CodeElement.MethodHeader;
 import codegeneration.CodeGenerator;
+import codegeneration.JasminWriter;
+import codegeneration.PeepholeOptimizer;
+import compilecache.CompileCache;
+import incremental.FunctionCache;
+import incremental.FunctionFingerprint;
+import incremental.FunctionResult;
+import incremental.LivenessReport;
+import interpreter.Interpreter;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.PushbackReader;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import lexer.Lexer;
 import lexer.LexerException;
 import lineevaluation.LineEvaluator;
 import livenessanalysis.LivenessAnalyzer;
+import livenessanalysis.LocalSlotAllocation;
 import livenessanalysis.UnusedValue;
+import node.AFunc;
+import node.APrg;
+import node.Node;
+import node.PFunc;
 import node.Start;
+import optimization.ConstantFolder;
+import optimization.DeadCodeEliminator;
+import optimization.Optimization;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -20,24 +60,53 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import parser.Parser;
 import parser.ParserException;
+import profiling.AstNodeCounter;
+import profiling.CompilationProfile;
+import profiling.PhaseMetrics;
+import profiling.PhaseTimer;
 import symboltable.Symbol;
 import symboltable.SymbolTable;
 import symboltable.SymbolTableBuilder;
 import typecheck.TypeChecker;
+import typecheck.TypeError;
 
 /** Compiler for the Easy language. */
 public class EasyCompiler {
+  private static final long DEFAULT_CACHE_MEGABYTES = 256;
+  private static String compilerVersion;
   private boolean verbose;
   private Start ast;
-  ArrayList<String> code;
+  private List<CodeElement> codeElements;
   private SymbolTable symbolTable;
   private SymbolTableBuilder symbolTableBuilder;
   private TypeChecker typeChecker;
   private LivenessAnalyzer livenessAnalyzer;
   private LineEvaluator lineEvaluator;
   private boolean parseErrorOccurred = false;
+  private boolean constantsFolded = false;
+  private boolean deadCodeEliminated = false;
+  private int livenessWorkers = 1;
+  private EnumSet<Optimization> optimizations = EnumSet.noneOf(Optimization.class);
+  private CompilationProfile profile;
+  private CompileCache compileCache;
+  private FunctionCache functionCache;
+  // Incremental compilations only: function subtrees in source order and their results
+  private LinkedHashMap<String, Node> functionNodes;
+  private HashMap<String, FunctionResult> functionResults;
+  private HashSet<String> typeCheckedFunctions;
+  private List<String> codeFunctions;
   public FileHandler fileHandler;
 
+  /** Output formats of a compilation. */
+  public enum OutputFormat {
+    JASMIN, CLASS
+  }
+
+  /** Output formats of a compilation profile. */
+  public enum ProfileFormat {
+    TEXT, JSON
+  }
+
   /**
    * Constructor for the EasyCompiler class. Please note that each instance
    * handles a single source file.
@@ -61,6 +130,18 @@ public class EasyCompiler {
     this.fileHandler = new FileHandler(sourceFilePath);
   }
 
+  /**
+   * Constructor for the EasyCompiler class that handles a source in memory,
+   * e.g., a program of the REPL.
+   *
+   * @param sourceFilePath Path that determines the program name
+   * @param source         Source code of the program
+   */
+  EasyCompiler(String sourceFilePath, String source) {
+    this.verbose = false;
+    this.fileHandler = new FileHandler(sourceFilePath, source);
+  }
+
   /* Generates options for the command line interface parser. */
   private static Options generateCommandLineOptions() {
     OptionGroup mainCommandGroup = new OptionGroup();
@@ -71,6 +152,20 @@ public class EasyCompiler {
         .argName("filePath")
         .desc("Compile the given source file. Includes parsing and type-checking.")
         .build());
+    mainCommandGroup.addOption(Option.builder("r")
+        .longOpt("run")
+        .hasArg(true)
+        .argName("filePath")
+        .desc("Compile the given source file in memory and run it within this JVM. "
+            + "Remaining arguments are passed to the program.")
+        .build());
+    mainCommandGroup.addOption(Option.builder("x")
+        .longOpt("interpret")
+        .hasArg(true)
+        .argName("filePath")
+        .desc("Interpret the given source file, i.e., execute its type-checked AST without "
+            + "generating code. Suits short-running programs.")
+        .build());
     mainCommandGroup.addOption(Option.builder("p")
         .longOpt("parse")
         .hasArg(true)
@@ -89,6 +184,27 @@ public class EasyCompiler {
         .argName("filePath")
         .desc("Liveness analysis for each function in the source file. Includes type checking.")
         .build());
+    mainCommandGroup.addOption(Option.builder("b")
+        .longOpt("batch")
+        .hasArgs()
+        .argName("paths")
+        .desc("Compile many source files concurrently. Directories are searched for source files.")
+        .build());
+    mainCommandGroup.addOption(Option.builder("d")
+        .longOpt("daemon")
+        .hasArg(true)
+        .optionalArg(true)
+        .argName("socketPath")
+        .desc("Keep a warm compiler running that executes the commands of DaemonClient "
+            + "concurrently. Listens on a Unix domain socket in the temporary directory by "
+            + "default.")
+        .build());
+    mainCommandGroup.addOption(Option.builder("i")
+        .longOpt("repl")
+        .hasArg(false)
+        .desc("Start an interactive session that compiles and runs function definitions and "
+            + "statements as soon as they are entered.")
+        .build());
     mainCommandGroup.addOption(Option.builder("h")
         .longOpt("help")
         .hasArg(false)
@@ -99,6 +215,60 @@ public class EasyCompiler {
     options.addOptionGroup(mainCommandGroup);
     options.addOption("v", "verbose", false,
         "Enables more detailed outputs.");
+    options.addOption(Option.builder("j")
+        .longOpt("jobs")
+        .hasArg(true)
+        .argName("number")
+        .desc("Number of concurrent compilations in batch and daemon mode (defaults to the "
+            + "number of processors) or of concurrently analyzed functions in liveness "
+            + "analysis.")
+        .build());
+    options.addOption(Option.builder("f")
+        .longOpt("format")
+        .hasArg(true)
+        .argName("format")
+        .desc("Output format of compilations: \"jasmin\" (default) for Jasmin assembler or "
+            + "\"class\" for class files.")
+        .build());
+    options.addOption(Option.builder("O")
+        .longOpt("optimize")
+        .hasArg(true)
+        .argName("optimizations")
+        .desc("Comma-separated optimizations for compilations: \"registers\" to share local "
+            + "slots between non-interfering variables, \"constants\" to fold constant "
+            + "expressions, \"deadcode\" to remove dead and unreachable code, \"peephole\" to "
+            + "simplify the emitted instructions, or \"all\".")
+        .build());
+    options.addOption(Option.builder()
+        .longOpt("profile")
+        .hasArg(true)
+        .optionalArg(true)
+        .argName("format")
+        .desc("Prints time, memory and sizes per phase and function of a compilation or run "
+            + "to stderr: \"text\" (default) or \"json\".")
+        .build());
+    options.addOption(Option.builder()
+        .longOpt("cache")
+        .hasArg(true)
+        .optionalArg(true)
+        .argName("directory")
+        .desc("Reuses outputs of earlier compilations with identical sources and options from "
+            + "an on-disk cache, which defaults to \"~/.cache/easycompiler\".")
+        .build());
+    options.addOption(Option.builder()
+        .longOpt("incremental")
+        .hasArg(false)
+        .desc("Reuses type errors, liveness results and code of functions that did not change "
+            + "since an earlier compilation of the same source file in this JVM, e.g., in the "
+            + "compile daemon.")
+        .build());
+    options.addOption(Option.builder()
+        .longOpt("cacheSize")
+        .hasArg(true)
+        .argName("megabytes")
+        .desc("Size limit of the compile cache, which evicts the least recently used outputs "
+            + "(defaults to %d).".formatted(DEFAULT_CACHE_MEGABYTES))
+        .build());
 
     return options;
   }
@@ -112,12 +282,127 @@ public class EasyCompiler {
         options, "", true);
   }
 
+  /* Determines the number of workers from the command line options. */
+  private static int getJobs(CommandLine parsedOptions, int defaultJobs) throws ParseException {
+    int jobs = defaultJobs;
+    if (parsedOptions.hasOption("j")) {
+      jobs = Integer.parseInt(parsedOptions.getOptionValue("j"));
+    }
+    if (jobs < 1) {
+      throw new ParseException("The number of jobs needs to be positive.");
+    }
+    return jobs;
+  }
+
+  /* Determines the output format for compilations from the command line options. */
+  private static OutputFormat getOutputFormat(CommandLine parsedOptions) throws ParseException {
+    String format = parsedOptions.getOptionValue("f", "jasmin");
+    try {
+      return OutputFormat.valueOf(format.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ParseException("Unknown output format \"%s\".".formatted(format));
+    }
+  }
+
+  /* Determines the profile format from the command line options, or null without profiling. */
+  private static ProfileFormat getProfileFormat(CommandLine parsedOptions)
+      throws ParseException {
+    if (!parsedOptions.hasOption("profile")) {
+      return null;
+    }
+    String format = parsedOptions.getOptionValue("profile", "text");
+    try {
+      return ProfileFormat.valueOf(format.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ParseException("Unknown profile format \"%s\".".formatted(format));
+    }
+  }
+
+  /*
+   * Prints the profile of a compilation in the given format to stderr, if profiling is enabled,
+   * i.e., apart from the outputs of the compilation and the program.
+   */
+  private static void printProfile(EasyCompiler easyCompiler, ProfileFormat profileFormat) {
+    if (profileFormat == ProfileFormat.JSON) {
+      System.err.print(easyCompiler.getProfile().toJson());
+    } else if (profileFormat == ProfileFormat.TEXT) {
+      System.err.print(easyCompiler.getProfile().toText());
+    }
+  }
+
+  /* Opens the compile cache from the command line options, or returns null without caching. */
+  private static CompileCache getCompileCache(CommandLine parsedOptions, Path workingDirectory)
+      throws ParseException, IOException {
+    if (!parsedOptions.hasOption("cache")) {
+      return null;
+    }
+    Path directory = workingDirectory.resolve(parsedOptions.getOptionValue("cache",
+        Path.of(System.getProperty("user.home"), ".cache", "easycompiler").toString()));
+    long megabytes = DEFAULT_CACHE_MEGABYTES;
+    if (parsedOptions.hasOption("cacheSize")) {
+      megabytes = Long.parseLong(parsedOptions.getOptionValue("cacheSize"));
+    }
+    if (megabytes < 0) {
+      throw new ParseException("The cache size needs to be non-negative.");
+    }
+    return new CompileCache(directory, megabytes * 1024 * 1024);
+  }
+
+  /* Gets the function cache of the source file, or returns null without incremental compilation. */
+  private static FunctionCache getFunctionCache(CommandLine parsedOptions, String filePath,
+      Set<Optimization> optimizations) {
+    if (!parsedOptions.hasOption("incremental")) {
+      return null;
+    }
+    return FunctionCache.forSourceFile(Path.of(filePath),
+        optimizations.stream().map(Optimization::getOptionName).toList());
+  }
+
+  /* Determines the enabled optimizations from the command line options. */
+  private static EnumSet<Optimization> getOptimizations(CommandLine parsedOptions)
+      throws ParseException {
+    EnumSet<Optimization> optimizations = EnumSet.noneOf(Optimization.class);
+    if (!parsedOptions.hasOption("O")) {
+      return optimizations;
+    }
+
+    for (String optionName : parsedOptions.getOptionValue("O").split(",")) {
+      if (optionName.equals("all")) {
+        optimizations.addAll(EnumSet.allOf(Optimization.class));
+      } else {
+        try {
+          optimizations.add(Optimization.fromOptionName(optionName));
+        } catch (IllegalArgumentException e) {
+          throw new ParseException(e.getMessage());
+        }
+      }
+    }
+    return optimizations;
+  }
+
   /**
    * Checks command line arguments and starts the EasyCompiler.
    *
    * @param args Command line arguments
    */
   public static void main(String[] args) {
+    int exitStatus = execute(args, Path.of(""), false);
+    if (exitStatus != 0) {
+      System.exit(exitStatus);
+    }
+  }
+
+  /**
+   * Executes the command of the given command line arguments, e.g., within
+   * this JVM or on behalf of a client of the compile daemon.
+   *
+   * @param args             Command line arguments
+   * @param workingDirectory Directory that relative paths refer to
+   * @param withinDaemon     Flag indicating if the compile daemon executes the
+   *                         command, which excludes batch, daemon and REPL mode
+   * @return Exit status, i.e., 0 unless a run or batch compilation failed
+   */
+  static int execute(String[] args, Path workingDirectory, boolean withinDaemon) {
     Options options = generateCommandLineOptions();
     CommandLine parsedOptions;
 
@@ -126,25 +411,65 @@ public class EasyCompiler {
       parsedOptions = cliParser.parse(options, args);
 
       EasyCompiler easyCompiler;
-      String filePath;
+      String filePath = getSourceFilePath(parsedOptions, workingDirectory);
+      if ((filePath != null) && !FileHandler.isValidFilePath(filePath)) {
+        System.out.println("Invalid file path '%s'.".formatted(filePath));
+        return 0;
+      }
       boolean verbose = parsedOptions.hasOption("v");
+      if (withinDaemon && (parsedOptions.hasOption("b") || parsedOptions.hasOption("d")
+          || parsedOptions.hasOption("i"))) {
+        System.out.println("The compile daemon does not support batch, daemon and REPL mode.");
+        return 1;
+      }
+
       if (parsedOptions.hasOption("h")) {
         printCorrectCall(options);
       } else if (parsedOptions.hasOption("c")) {
-        filePath = parsedOptions.getOptionValue("c");
         easyCompiler = new EasyCompiler(filePath, verbose);
-        easyCompiler.compile();
+        EnumSet<Optimization> optimizations = getOptimizations(parsedOptions);
+        easyCompiler.setOptimizations(optimizations);
+        easyCompiler.setFunctionCache(getFunctionCache(parsedOptions, filePath, optimizations));
+        easyCompiler.setCompileCache(getCompileCache(parsedOptions, workingDirectory));
+        ProfileFormat profileFormat = getProfileFormat(parsedOptions);
+        easyCompiler.setProfiling(profileFormat != null);
+        easyCompiler.compile(getOutputFormat(parsedOptions));
+        printProfile(easyCompiler, profileFormat);
+      } else if (parsedOptions.hasOption("r")) {
+        easyCompiler = new EasyCompiler(filePath, verbose);
+        EnumSet<Optimization> optimizations = getOptimizations(parsedOptions);
+        easyCompiler.setOptimizations(optimizations);
+        easyCompiler.setFunctionCache(getFunctionCache(parsedOptions, filePath, optimizations));
+        ProfileFormat profileFormat = getProfileFormat(parsedOptions);
+        easyCompiler.setProfiling(profileFormat != null);
+        boolean successful = easyCompiler.run(parsedOptions.getArgs());
+        printProfile(easyCompiler, profileFormat);
+        if (!successful) {
+          return 1;
+        }
+      } else if (parsedOptions.hasOption("x")) {
+        easyCompiler = new EasyCompiler(filePath, verbose);
+        easyCompiler.setOptimizations(getOptimizations(parsedOptions));
+        ProfileFormat profileFormat = getProfileFormat(parsedOptions);
+        easyCompiler.setProfiling(profileFormat != null);
+        boolean successful = easyCompiler.interpret();
+        printProfile(easyCompiler, profileFormat);
+        if (!successful) {
+          return 1;
+        }
       } else if (parsedOptions.hasOption("p")) {
-        filePath = parsedOptions.getOptionValue("p");
         easyCompiler = new EasyCompiler(filePath, verbose);
         easyCompiler.parse();
       } else if (parsedOptions.hasOption("t")) {
-        filePath = parsedOptions.getOptionValue("t");
         easyCompiler = new EasyCompiler(filePath, verbose);
+        easyCompiler.setFunctionCache(
+            getFunctionCache(parsedOptions, filePath, EnumSet.noneOf(Optimization.class)));
         easyCompiler.typeCheck();
       } else if (parsedOptions.hasOption("l")) {
-        filePath = parsedOptions.getOptionValue("l");
         easyCompiler = new EasyCompiler(filePath, verbose);
+        easyCompiler.setLivenessWorkers(getJobs(parsedOptions, 1));
+        easyCompiler.setFunctionCache(
+            getFunctionCache(parsedOptions, filePath, EnumSet.noneOf(Optimization.class)));
         System.out.println("Liveness analysis\n-----------------\n");
         easyCompiler.getUnusedArgumentsPerFunction();
         System.out.println();
@@ -153,12 +478,42 @@ public class EasyCompiler {
         easyCompiler.getUnusedVariableValuesPerFunction();
         System.out.println();
         easyCompiler.getMinimumRegistersPerFunction();
+      } else if (parsedOptions.hasOption("b")) {
+        List<String> paths = Arrays.stream(parsedOptions.getOptionValues("b"))
+            .map(path -> workingDirectory.resolve(path).toString()).toList();
+        int jobs = getJobs(parsedOptions, Runtime.getRuntime().availableProcessors());
+
+        BatchCompiler batchCompiler = new BatchCompiler(BatchCompiler.collectSourceFiles(paths),
+            jobs, getOutputFormat(parsedOptions), getOptimizations(parsedOptions), verbose);
+        batchCompiler.setCompileCache(getCompileCache(parsedOptions, workingDirectory));
+        return batchCompiler.compileAll();
+      } else if (parsedOptions.hasOption("d")) {
+        String socketPath = parsedOptions.getOptionValue("d");
+        Path socket = (socketPath != null)
+            ? workingDirectory.resolve(socketPath) : CompileDaemon.getDefaultSocketPath();
+        int jobs = getJobs(parsedOptions, Runtime.getRuntime().availableProcessors());
+        try (CompileDaemon compileDaemon = new CompileDaemon(socket, jobs)) {
+          compileDaemon.serve();
+        }
+      } else if (parsedOptions.hasOption("i")) {
+        new Repl().serve(new BufferedReader(new InputStreamReader(System.in)));
       }
-    } catch (ParseException e) {
+    } catch (ParseException | NumberFormatException e) {
       printCorrectCall(options);
     } catch (Exception e) {
       System.out.println("An unexpected error occurred: %s".formatted(e.getMessage()));
     }
+    return 0;
+  }
+
+  /* Determines the source file of single-file commands relative to the working directory. */
+  private static String getSourceFilePath(CommandLine parsedOptions, Path workingDirectory) {
+    for (String command : List.of("c", "r", "x", "p", "t", "l")) {
+      if (parsedOptions.hasOption(command)) {
+        return workingDirectory.resolve(parsedOptions.getOptionValue(command)).toString();
+      }
+    }
+    return null;
   }
 
   // -------
@@ -173,12 +528,19 @@ public class EasyCompiler {
     }
 
     try {
+      PhaseTimer timer = startPhase();
       this.ast = generateAbstractSyntaxTree();
+      PhaseMetrics parseMetrics = endPhase(timer, "parse");
+      if (parseMetrics != null) {
+        parseMetrics.addSize("astNodes", AstNodeCounter.countNodes(this.ast));
+      }
       if (this.verbose) {
         printAbstractSyntaxTree();
       }
+      timer = startPhase();
       this.lineEvaluator = new LineEvaluator();
       this.ast.apply(this.lineEvaluator);
+      endPhase(timer, "lineEvaluation");
     } catch (IOException e) {
       String filePath = this.fileHandler.getFilePath();
       System.out.println(
@@ -219,9 +581,17 @@ public class EasyCompiler {
     if (!parse()) {
       return false;
     } else if (this.symbolTableBuilder == null) {
+      PhaseTimer timer = startPhase();
       this.symbolTableBuilder = new SymbolTableBuilder();
       this.ast.apply(symbolTableBuilder);
       this.symbolTable = symbolTableBuilder.getSymbolTable();
+      PhaseMetrics symbolTableMetrics = endPhase(timer, "symbolTable");
+      if (symbolTableMetrics != null) {
+        addSymbolTableSizes(symbolTableMetrics);
+      }
+      if ((this.functionCache != null) && !this.symbolTableBuilder.errorsOccurred()) {
+        planIncrementalCompilation();
+      }
     }
 
     return !this.symbolTableBuilder.errorsOccurred();
@@ -232,13 +602,126 @@ public class EasyCompiler {
       return false;
     } else if (this.typeChecker == null) {
       buildSymbolTable();
+      PhaseTimer timer = startPhase();
       this.typeChecker = new TypeChecker(this.symbolTable, this.lineEvaluator);
-      this.ast.apply(this.typeChecker);
+      if (isIncremental()) {
+        typeCheckIncrementally();
+      } else {
+        this.ast.apply(this.typeChecker);
+      }
+      endPhase(timer, "typeCheck");
     }
 
     return !(this.symbolTableBuilder.errorsOccurred() || this.typeChecker.errorsOccurred());
   }
 
+  /**
+   * Set the cache for results per function of earlier compilations. Defaults
+   * to no cache, i.e., every compilation processes all functions.
+   *
+   * @param functionCache Cache for results per function, or null
+   */
+  void setFunctionCache(FunctionCache functionCache) {
+    this.functionCache = functionCache;
+  }
+
+  /* Check if this compilation reuses results of unchanged functions. */
+  private boolean isIncremental() {
+    return this.functionNodes != null;
+  }
+
+  /*
+   * Fingerprint each function, and take over the results of functions whose
+   * fingerprint and callee signatures match the cached ones.
+   */
+  private void planIncrementalCompilation() {
+    PhaseTimer timer = startPhase();
+    this.functionNodes = new LinkedHashMap<>();
+    APrg program = (APrg) this.ast.getPPrg();
+    for (PFunc function : program.getFunc()) {
+      this.functionNodes.put(((AFunc) function).getId().getText(), function);
+    }
+    this.functionNodes.put("main", program.getMain());
+
+    this.functionResults = new HashMap<>();
+    this.typeCheckedFunctions = new HashSet<>();
+    int reusedFunctions = 0;
+    for (Map.Entry<String, Node> function : this.functionNodes.entrySet()) {
+      FunctionFingerprint fingerprint = FunctionFingerprint.of(function.getValue());
+      TreeMap<String, String> calleeSignatures = new TreeMap<>();
+      fingerprint.callees().forEach(callee -> calleeSignatures.put(
+          callee, this.symbolTable.getFunctionDescriptor(callee)));
+
+      FunctionResult result = this.functionCache.get(function.getKey());
+      if ((result != null) && result.matches(fingerprint, calleeSignatures)) {
+        this.functionResults.put(function.getKey(), result.movedTo(fingerprint.startLine()));
+        reusedFunctions++;
+      } else {
+        this.functionResults.put(function.getKey(),
+            new FunctionResult(fingerprint, Collections.unmodifiableMap(calleeSignatures)));
+      }
+    }
+    this.functionCache.retainAll(this.functionNodes.keySet());
+
+    PhaseMetrics fingerprintMetrics = endPhase(timer, "fingerprints");
+    if (fingerprintMetrics != null) {
+      fingerprintMetrics.addSize("functions", this.functionNodes.size());
+      fingerprintMetrics.addSize("reusedFunctions", reusedFunctions);
+    }
+  }
+
+  /* Type check changed functions, and print the errors of unchanged ones again. */
+  private void typeCheckIncrementally() {
+    for (Map.Entry<String, Node> function : this.functionNodes.entrySet()) {
+      FunctionResult result = this.functionResults.get(function.getKey());
+      if (result.typeErrors() != null) {
+        this.typeChecker.printErrors(result.typeErrors());
+      } else {
+        List<TypeError> errors = this.typeChecker.getErrors();
+        int firstError = errors.size();
+        function.getValue().apply(this.typeChecker);
+        this.typeCheckedFunctions.add(function.getKey());
+        storeFunctionResult(function.getKey(),
+            result.withTypeErrors(errors.subList(firstError, errors.size())));
+      }
+    }
+  }
+
+  /*
+   * Type check functions whose type errors were reused, as later phases need
+   * the types of their nodes. These functions have no type errors, as later
+   * phases only run for programs without errors.
+   */
+  private void ensureTypeChecked(Collection<String> functionNames) {
+    for (String functionName : functionNames) {
+      if (this.typeCheckedFunctions.add(functionName)) {
+        this.functionNodes.get(functionName).apply(this.typeChecker);
+      }
+    }
+  }
+
+  /* Get the functions in source order whose results lack the given part. */
+  private List<String> getFunctionsWithout(Predicate<FunctionResult> hasPart) {
+    return this.functionNodes.keySet().stream()
+        .filter(functionName -> !hasPart.test(this.functionResults.get(functionName)))
+        .toList();
+  }
+
+  private void storeFunctionResult(String functionName, FunctionResult result) {
+    this.functionResults.put(functionName, result);
+    this.functionCache.put(functionName, result);
+  }
+
+  /* Apply a walker to the functions that need code, or to the whole AST if all of them do. */
+  private void applyToCodeFunctions(Analysis walker) {
+    if (this.codeFunctions == null) {
+      this.ast.apply(walker);
+    } else {
+      this.codeFunctions.forEach(
+          functionName -> this.functionNodes.get(functionName).apply(walker));
+    }
+  }
+
   int getSymbolErrorNumber() {
     buildSymbolTable();
     return symbolTableBuilder.getErrorNumber();
@@ -253,14 +736,41 @@ public class EasyCompiler {
   // Liveness-Analysis
   // -----------------
 
+  /**
+   * Set the number of functions that the liveness analysis analyzes
+   * concurrently. Defaults to a single worker, i.e., a sequential analysis.
+   *
+   * @param livenessWorkers Number of concurrently analyzed functions
+   */
+  void setLivenessWorkers(int livenessWorkers) {
+    this.livenessWorkers = livenessWorkers;
+  }
+
+  /**
+   * Set the optimizations for code generation. Defaults to no optimizations.
+   *
+   * @param optimizations Enabled optimizations
+   */
+  void setOptimizations(Set<Optimization> optimizations) {
+    this.optimizations = EnumSet.noneOf(Optimization.class);
+    this.optimizations.addAll(optimizations);
+  }
+
   boolean liveness() {
     if (parse() && typeCheck()) {
       if (this.livenessAnalyzer == null) {
-        this.livenessAnalyzer = new LivenessAnalyzer(
-            this.ast, this.symbolTable, this.lineEvaluator);
+        PhaseTimer timer = startPhase();
+        if (isIncremental()) {
+          analyzeLivenessIncrementally();
+        } else {
+          this.livenessAnalyzer = new LivenessAnalyzer(
+              this.ast, this.symbolTable, this.lineEvaluator, this.livenessWorkers);
+        }
+        if (this.profile != null) { // includes interference graphs, as in concurrent analyses
+          addLivenessSizes(timer);
+        }
         if (this.verbose) {
-          ArrayList<String> functionNames = this.symbolTable.getScopeNames();
-          for (String function : functionNames) {
+          for (String function : this.livenessAnalyzer.getFunctionNames()) {
             this.livenessAnalyzer.printDataflowGraph(function);
           }
         }
@@ -271,10 +781,54 @@ public class EasyCompiler {
     }
   }
 
+  /*
+   * Analyze the functions without reused liveness results, or the functions
+   * that need code during code generation, as their local slots depend on the
+   * analysis of their optimized AST.
+   */
+  private void analyzeLivenessIncrementally() {
+    List<String> analyzedFunctions = (this.codeFunctions != null)
+        ? this.codeFunctions : getFunctionsWithout(result -> result.liveness() != null);
+    ensureTypeChecked(analyzedFunctions);
+    this.livenessAnalyzer = new LivenessAnalyzer(this.ast, this.symbolTable,
+        this.lineEvaluator, this.livenessWorkers, analyzedFunctions);
+
+    HashMap<String, List<Symbol>> unusedArguments =
+        this.livenessAnalyzer.getUnusedArgumentsPerFunction();
+    HashMap<String, List<Symbol>> unusedDeclarations =
+        this.livenessAnalyzer.getUnusedVariableDeclarationssPerFunction();
+    HashMap<String, List<UnusedValue>> unusedValues =
+        this.livenessAnalyzer.getUnusedVariableValuesPerFunction();
+    HashMap<String, Integer> minimumRegisters =
+        this.livenessAnalyzer.getMinimumRegistersPerFunction();
+    for (String functionName : analyzedFunctions) {
+      storeFunctionResult(functionName, this.functionResults.get(functionName).withLiveness(
+          new LivenessReport(unusedArguments.get(functionName),
+              unusedDeclarations.get(functionName), unusedValues.get(functionName),
+              minimumRegisters.get(functionName))));
+    }
+  }
+
+  /* Get a liveness result per function from the analyzer, or from all function results. */
+  private <T> HashMap<String, T> getLivenessPerFunction(
+      Function<LivenessAnalyzer, HashMap<String, T>> analyzerResult,
+      Function<LivenessReport, T> reportResult) {
+    if (!isIncremental()) {
+      return analyzerResult.apply(this.livenessAnalyzer);
+    }
+    HashMap<String, T> results = new HashMap<>();
+    this.functionResults.forEach((functionName, result) -> {
+      if (result.liveness() != null) {
+        results.put(functionName, reportResult.apply(result.liveness()));
+      }
+    });
+    return results;
+  }
+
   HashMap<String, List<Symbol>> getUnusedArgumentsPerFunction() {
     if (liveness()) {
-      HashMap<String, List<Symbol>> unusedArguments = this.livenessAnalyzer
-          .getUnusedArgumentsPerFunction();
+      HashMap<String, List<Symbol>> unusedArguments = getLivenessPerFunction(
+          LivenessAnalyzer::getUnusedArgumentsPerFunction, LivenessReport::unusedArguments);
 
       unusedArguments.forEach((function, currUnusedArguments) -> System.out
           .println("Unused arguments for %s: %s".formatted(function, currUnusedArguments)));
@@ -287,8 +841,9 @@ public class EasyCompiler {
 
   HashMap<String, List<Symbol>> getUnusedVariableDeclarationsPerFunction() {
     if (liveness()) {
-      HashMap<String, List<Symbol>> unusedDeclarations = this.livenessAnalyzer
-          .getUnusedVariableDeclarationssPerFunction();
+      HashMap<String, List<Symbol>> unusedDeclarations = getLivenessPerFunction(
+          LivenessAnalyzer::getUnusedVariableDeclarationssPerFunction,
+          LivenessReport::unusedDeclarations);
 
       unusedDeclarations.forEach((function, currUnusedDeclarations) -> System.out
           .println("Unused variable declarations for %s: %s".formatted(function, currUnusedDeclarations)));
@@ -301,8 +856,8 @@ public class EasyCompiler {
 
   HashMap<String, List<UnusedValue>> getUnusedVariableValuesPerFunction() {
     if (liveness()) {
-      HashMap<String, List<UnusedValue>> unusedValues = this.livenessAnalyzer
-          .getUnusedVariableValuesPerFunction();
+      HashMap<String, List<UnusedValue>> unusedValues = getLivenessPerFunction(
+          LivenessAnalyzer::getUnusedVariableValuesPerFunction, LivenessReport::unusedValues);
 
       for (String functionName : unusedValues.keySet()) {
         System.err.println("Potentially unused variable values for %s:".formatted(functionName));
@@ -320,7 +875,8 @@ public class EasyCompiler {
 
   HashMap<String, Integer> getMinimumRegistersPerFunction() {
     if (liveness()) {
-      HashMap<String, Integer> minRegs = this.livenessAnalyzer.getMinimumRegistersPerFunction();
+      HashMap<String, Integer> minRegs = getLivenessPerFunction(
+          LivenessAnalyzer::getMinimumRegistersPerFunction, LivenessReport::minimumRegisters);
 
       minRegs.forEach((function, registerCount) -> System.out
           .println("Minimum registers for %s: %d".formatted(function, registerCount)));
@@ -335,21 +891,449 @@ public class EasyCompiler {
   // Compilation
   // ------------
 
-  void compile() {
-    if (generateCode() && fileHandler.writeOutputFile(this.code)) {
+  boolean compile() {
+    return compile(OutputFormat.JASMIN);
+  }
+
+  /**
+   * Set the on-disk cache for compilations. Defaults to no cache, i.e., every
+   * compilation generates its output from scratch.
+   *
+   * @param compileCache Cache for outputs of compilations, or null
+   */
+  void setCompileCache(CompileCache compileCache) {
+    this.compileCache = compileCache;
+  }
+
+  boolean compile(OutputFormat outputFormat) {
+    String cacheKey = (this.compileCache != null) ? computeCacheKey(outputFormat) : null;
+    if ((cacheKey != null) && restoreFromCache(cacheKey, outputFormat)) {
       System.out.println("Successful!");
+      return true;
     }
+
+    boolean written;
+    if (outputFormat == OutputFormat.CLASS) {
+      if (!generateCode()) {
+        return false;
+      }
+      byte[] classFile = assembleClassFile();
+      PhaseTimer timer = startPhase();
+      written = fileHandler.writeClassFile(classFile);
+      endPhase(timer, "output");
+    } else {
+      if (!prepareCodeGeneration()) {
+        return false;
+      }
+      // Write each method as soon as it is generated, i.e., the whole code is never in memory
+      PhaseTimer timer = startPhase();
+      written = fileHandler.writeOutputFile(
+          writer -> generateCode(new JasminWriter(writer)::write));
+      if (timer != null) { // code generation ran within, and has its own phase
+        this.profile.addPhase(
+            timer.stop("output").without(this.profile.getPhase("codeGeneration")));
+      }
+    }
+
+    if (written) {
+      if (cacheKey != null) {
+        storeInCache(cacheKey, outputFormat);
+      }
+      System.out.println("Successful!");
+    }
+    return written;
+  }
+
+  /* Hash the source and everything else that determines the output, or null on read errors. */
+  private String computeCacheKey(OutputFormat outputFormat) {
+    byte[] source;
+    try {
+      source = Files.readAllBytes(Path.of(fileHandler.getFilePath()));
+    } catch (IOException e) {
+      return null; // the compilation reports unreadable source files
+    }
+    List<String> parts = new ArrayList<>();
+    parts.add(getCompilerVersion());
+    parts.add(fileHandler.getProgramName());
+    parts.add(outputFormat.name());
+    this.optimizations.forEach(optimization -> parts.add(optimization.getOptionName()));
+    return CompileCache.computeKey(source, parts);
+  }
+
+  /* Copy a cached output instead of compiling, i.e., no phase from parsing onwards runs. */
+  private boolean restoreFromCache(String cacheKey, OutputFormat outputFormat) {
+    PhaseTimer timer = startPhase();
+    boolean hit;
+    try {
+      hit = this.compileCache.restore(cacheKey, getOutputFilePath(outputFormat));
+    } catch (IOException e) {
+      System.out.println("An error occurred while reading the compile cache: %s"
+          .formatted(e.getMessage()));
+      hit = false;
+    }
+    PhaseMetrics cacheMetrics = endPhase(timer, "cache");
+    if (cacheMetrics != null) {
+      cacheMetrics.addSize("hits", hit ? 1 : 0);
+    }
+    return hit;
+  }
+
+  private void storeInCache(String cacheKey, OutputFormat outputFormat) {
+    try {
+      this.compileCache.store(cacheKey, getOutputFilePath(outputFormat));
+    } catch (IOException e) { // the output itself is fine, so the compilation still succeeds
+      System.out.println("An error occurred while writing the compile cache: %s"
+          .formatted(e.getMessage()));
+    }
+  }
+
+  private Path getOutputFilePath(OutputFormat outputFormat) {
+    return Path.of((outputFormat == OutputFormat.CLASS)
+        ? fileHandler.getClassFileNameAndPath() : fileHandler.getJasminFileNameAndPath());
+  }
+
+  /*
+   * Identify the build of this compiler for cache keys, i.e., the size and
+   * modification time of its jar, or the newest class file during development.
+   */
+  private static synchronized String getCompilerVersion() {
+    if (compilerVersion == null) {
+      compilerVersion = "unknown";
+      try {
+        Path codeSource = Path.of(EasyCompiler.class.getProtectionDomain()
+            .getCodeSource().getLocation().toURI());
+        if (Files.isRegularFile(codeSource)) {
+          compilerVersion = "jar:%d:%d".formatted(Files.size(codeSource),
+              Files.getLastModifiedTime(codeSource).toMillis());
+        } else {
+          try (Stream<Path> files = Files.walk(codeSource)) {
+            compilerVersion = "classes:%d".formatted(files.filter(Files::isRegularFile)
+                .mapToLong(file -> file.toFile().lastModified()).max().orElse(0));
+          }
+        }
+      } catch (IOException | URISyntaxException | SecurityException e) {
+        // keep the unknown version, i.e., cached outputs only depend on source and options
+      }
+    }
+    return compilerVersion;
+  }
+
+  /**
+   * Compile the program in memory and run it within the current JVM. The
+   * program writes its outputs to the current standard output.
+   *
+   * @param args Arguments for the program's main method
+   * @return True, if the program compiled and terminated without an exception
+   */
+  boolean run(String[] args) {
+    if (!generateCode()) {
+      return false;
+    }
+
+    byte[] classFile = assembleClassFile();
+    ProgramClassLoader classLoader = new ProgramClassLoader(
+        fileHandler.getProgramName(), classFile);
+    PhaseTimer timer = startPhase();
+    try {
+      classLoader.runMain(args);
+      endPhase(timer, "execution");
+    } catch (InvocationTargetException e) {
+      System.out.println("Runtime-Error: %s".formatted(e.getCause()));
+      return false;
+    } catch (ReflectiveOperationException | LinkageError e) {
+      System.out.println("An error occurred while loading the program: %s".formatted(e));
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Interpret the program without generating code, i.e., compile its
+   * type-checked AST into closures and execute them within the current JVM.
+   * The program writes the same outputs as its compiled version.
+   *
+   * @return True, if the program type checked and terminated without an exception
+   */
+  boolean interpret() {
+    if (!prepareCodeGeneration()) {
+      return false;
+    }
+
+    PhaseTimer timer = startPhase();
+    Interpreter interpreter = new Interpreter(this.symbolTable);
+    interpreter.compile((APrg) this.ast.getPPrg());
+    PhaseMetrics compilationMetrics = endPhase(timer, "closureCompilation");
+    if (compilationMetrics != null) {
+      compilationMetrics.addSize("compiledNodes", interpreter.getCompiledNodes());
+    }
+    timer = startPhase();
+    try {
+      interpreter.run();
+      endPhase(timer, "execution");
+    } catch (RuntimeException | StackOverflowError e) {
+      System.out.println("Runtime-Error: %s".formatted(e));
+      return false;
+    }
+    return true;
   }
 
   boolean generateCode() {
-    if (parse() && typeCheck()) {
-      CodeGenerator codeGenerator = new CodeGenerator(
-          fileHandler.getProgramName(), this.symbolTable, this.lineEvaluator);
+    if (!prepareCodeGeneration()) {
+      return false;
+    }
+    List<CodeElement> elements = new ArrayList<>();
+    generateCode(elements::addAll);
+    this.codeElements = elements;
+    return true;
+  }
+
+  /* Parse and type check the program, and run the optimizations and analyses on its AST. */
+  private boolean prepareCodeGeneration() {
+    if (!parse() || !typeCheck()) {
+      return false;
+    }
+    if (isIncremental() && (this.codeFunctions == null)) {
+      this.codeFunctions = getFunctionsWithout(result -> result.code() != null);
+      ensureTypeChecked(this.codeFunctions);
+      this.livenessAnalyzer = null; // it may lack functions that need code
+    }
+    if (this.optimizations.contains(Optimization.CONSTANT_FOLDING)) {
+      foldConstants();
+    }
+    if (this.optimizations.contains(Optimization.DEAD_CODE_ELIMINATION)) {
+      eliminateDeadCode();
+    }
+    if (this.optimizations.contains(Optimization.REGISTER_ALLOCATION) || (this.profile != null)) {
+      liveness();
+    }
+    return true;
+  }
+
+  /*
+   * Generate code for the prepared AST and pass the code of each method on as
+   * soon as it is complete, after the optional peephole optimization.
+   */
+  private void generateCode(Consumer<List<CodeElement>> methodConsumer) {
+    PhaseTimer timer = startPhase();
+    HashMap<String, LocalSlotAllocation> slotAllocations = null;
+    if (this.optimizations.contains(Optimization.REGISTER_ALLOCATION)) {
+      slotAllocations = this.livenessAnalyzer.getLocalSlotAllocationsPerFunction();
+    }
+    PeepholeOptimizer peepholeOptimizer = this.optimizations.contains(Optimization.PEEPHOLE)
+        ? new PeepholeOptimizer() : null;
+    long[] jasminLines = { 0 };
+    Consumer<List<CodeElement>> emitMethod = code -> {
+      if (this.profile != null) {
+        jasminLines[0] += code.size();
+        addCodeSizes(code);
+      }
+      methodConsumer.accept(code);
+    };
+
+    CodeGenerator codeGenerator = new CodeGenerator(fileHandler.getProgramName(),
+        this.symbolTable, this.lineEvaluator, slotAllocations, methodCode -> {
+          List<CodeElement> code = (peepholeOptimizer == null)
+              ? methodCode : peepholeOptimizer.optimize(methodCode);
+          String functionName = getMethodName(code);
+          if (isIncremental() && (functionName != null)) {
+            storeFunctionResult(functionName,
+                this.functionResults.get(functionName).withCode(code));
+          }
+          emitMethod.accept(code);
+        });
+    if (isIncremental()) {
+      // Methods appear in source order, and unchanged ones reuse their code
+      codeGenerator.inAPrg((APrg) this.ast.getPPrg());
+      for (Map.Entry<String, Node> function : this.functionNodes.entrySet()) {
+        List<CodeElement> code = this.functionResults.get(function.getKey()).code();
+        if (code != null) {
+          emitMethod.accept(code);
+        } else {
+          function.getValue().apply(codeGenerator);
+        }
+      }
+    } else {
       ast.apply(codeGenerator);
-      this.code = codeGenerator.getCode();
+    }
 
-      return true;
+    PhaseMetrics codeGenerationMetrics = endPhase(timer, "codeGeneration");
+    if (codeGenerationMetrics != null) {
+      codeGenerationMetrics.addSize("jasminLines", jasminLines[0]);
+      if (peepholeOptimizer != null) {
+        codeGenerationMetrics.addSize("peepholeRewrites", peepholeOptimizer.getRewrites());
+      }
+    }
+  }
+
+  /* Translate the generated code elements into lines of Jasmin code, if there are any. */
+  ArrayList<String> getJasminCode() {
+    return (this.codeElements == null) ? null : CodeElement.toJasmin(this.codeElements);
+  }
+
+  /* Get the generated code elements, or null if no code was generated. */
+  List<CodeElement> getCodeElements() {
+    return this.codeElements;
+  }
+
+  /* Get the symbol table, or null if the program was not parsed successfully. */
+  SymbolTable getSymbolTable() {
+    return this.symbolTable;
+  }
+
+  /* Fold constant expressions once, before the liveness analysis and code generation. */
+  private void foldConstants() {
+    if (this.constantsFolded) {
+      return;
+    }
+    PhaseTimer timer = startPhase();
+    ConstantFolder constantFolder = new ConstantFolder(this.symbolTable);
+    applyToCodeFunctions(constantFolder);
+    this.constantsFolded = true;
+    this.livenessAnalyzer = null; // its graphs may refer to replaced expressions
+    PhaseMetrics foldingMetrics = endPhase(timer, "constantFolding");
+    if (foldingMetrics != null) {
+      foldingMetrics.addSize("foldedExpressions", constantFolder.getFoldedExpressions());
+    }
+  }
+
+  /*
+   * Remove dead code once, before code generation. Repeats the liveness analysis
+   * and elimination until nothing changes, as removed writes may render other
+   * writes dead.
+   */
+  private void eliminateDeadCode() {
+    if (this.deadCodeEliminated) {
+      return;
+    }
+    PhaseTimer timer = startPhase();
+    int removedStatements = 0;
+    int iterations = 0;
+    int removedInIteration;
+    do {
+      LivenessAnalyzer analyzer = new LivenessAnalyzer(this.ast, this.symbolTable,
+          this.lineEvaluator, this.livenessWorkers,
+          (this.codeFunctions != null) ? this.codeFunctions : this.symbolTable.getScopeNames());
+      DeadCodeEliminator deadCodeEliminator = new DeadCodeEliminator(this.symbolTable, analyzer);
+      applyToCodeFunctions(deadCodeEliminator);
+      removedInIteration = deadCodeEliminator.getRemovedStatements();
+      removedStatements += removedInIteration;
+      iterations++;
+    } while (removedInIteration > 0);
+    this.deadCodeEliminated = true;
+    this.livenessAnalyzer = null; // its graphs may refer to removed statements
+    PhaseMetrics eliminationMetrics = endPhase(timer, "deadCodeElimination");
+    if (eliminationMetrics != null) {
+      eliminationMetrics.addSize("removedStatements", removedStatements);
+      eliminationMetrics.addSize("iterations", iterations);
     }
-    return false;
   }
+
+  private byte[] assembleClassFile() {
+    PhaseTimer timer = startPhase();
+    byte[] classFile = ClassFileAssembler.assembleElements(this.codeElements);
+    PhaseMetrics assemblyMetrics = endPhase(timer, "assembly");
+    if (assemblyMetrics != null) {
+      assemblyMetrics.addSize("classFileBytes", classFile.length);
+    }
+    return classFile;
+  }
+
+  // ---------
+  // Profiling
+  // ---------
+
+  /**
+   * Enable or disable profiling. Enabled profiling measures every phase and
+   * collects sizes per phase and function. It runs the liveness analysis
+   * during code generation, to report the sizes of its graphs.
+   *
+   * @param profiling Flag indicating if profiling is enabled
+   */
+  public void setProfiling(boolean profiling) {
+    this.profile = profiling ? new CompilationProfile(fileHandler.getProgramName()) : null;
+  }
+
+  /**
+   * Get the metrics of all phases that ran since profiling was enabled.
+   *
+   * @return Profile of this compilation, or null if profiling is disabled
+   */
+  public CompilationProfile getProfile() {
+    return this.profile;
+  }
+
+  /* Start measuring a phase, if profiling is enabled. */
+  private PhaseTimer startPhase() {
+    return (this.profile != null) ? PhaseTimer.start() : null;
+  }
+
+  /* Finish measuring a phase and add it to the profile. Returns null without profiling. */
+  private PhaseMetrics endPhase(PhaseTimer timer, String phaseName) {
+    if (timer == null) {
+      return null;
+    }
+    PhaseMetrics phaseMetrics = timer.stop(phaseName);
+    this.profile.addPhase(phaseMetrics);
+    return phaseMetrics;
+  }
+
+  private void addSymbolTableSizes(PhaseMetrics symbolTableMetrics) {
+    int symbols = 0;
+    for (String scopeName : this.symbolTable.getScopeNames()) {
+      int scopeSymbols = this.symbolTable.countSymbolsInScope(scopeName);
+      this.profile.addFunctionMetric(scopeName, "symbols", scopeSymbols);
+      symbols += scopeSymbols;
+    }
+    symbolTableMetrics.addSize("functions", this.symbolTable.getScopeNames().size());
+    symbolTableMetrics.addSize("symbols", symbols);
+  }
+
+  private void addLivenessSizes(PhaseTimer timer) {
+    HashMap<String, Integer> dataflowNodes = new HashMap<>();
+    HashMap<String, Integer> interferenceEdges = new HashMap<>();
+    List<String> analyzedFunctions = this.livenessAnalyzer.getFunctionNames();
+    for (String scopeName : analyzedFunctions) {
+      dataflowNodes.put(scopeName, this.livenessAnalyzer.countDataflowNodes(scopeName));
+      interferenceEdges.put(scopeName, this.livenessAnalyzer.countInterferenceEdges(scopeName));
+    }
+    PhaseMetrics livenessMetrics = endPhase(timer, "liveness");
+
+    HashMap<String, Long> analysisNanos = this.livenessAnalyzer.getAnalysisNanosPerFunction();
+    for (String scopeName : analyzedFunctions) {
+      this.profile.addFunctionMetric(scopeName, "dataflowNodes", dataflowNodes.get(scopeName));
+      this.profile.addFunctionMetric(
+          scopeName, "interferenceEdges", interferenceEdges.get(scopeName));
+      this.profile.addFunctionMetric(scopeName, "livenessNanos", analysisNanos.get(scopeName));
+    }
+    livenessMetrics.addSize("dataflowNodes",
+        dataflowNodes.values().stream().mapToInt(Integer::intValue).sum());
+    livenessMetrics.addSize("interferenceEdges",
+        interferenceEdges.values().stream().mapToInt(Integer::intValue).sum());
+  }
+
+  /* Get the function of the first method in the given code, or null for the constructor. */
+  private static String getMethodName(List<CodeElement> code) {
+    for (CodeElement element : code) {
+      if ((element instanceof MethodHeader header) && header.isStatic()) {
+        return header.name();
+      }
+    }
+    return null;
+  }
+
+  /* Count the Jasmin lines per method of the given code, i.e., per function. */
+  private void addCodeSizes(List<CodeElement> code) {
+    String methodName = null;
+    int methodStart = 0;
+    for (int i = 0; i < code.size(); i++) {
+      if ((code.get(i) instanceof MethodHeader header) && header.isStatic()) {
+        methodName = header.name();
+        methodStart = i;
+      } else if ((code.get(i) instanceof MethodEnd) && (methodName != null)) {
+        this.profile.addFunctionMetric(methodName, "jasminLines", i - methodStart + 1);
+        methodName = null;
+      }
+    }
+  }
+
 }
@@ -2,19 +2,23 @@ import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.util.function.Consumer;
 
 /** Handler for file operations for a single source file path. */
 public class FileHandler {
   private final Path sourceFilePath;
+  private final String source;
 
   /**
    * Check if the source file exists and generate a FileHandler object.
@@ -27,6 +31,22 @@ public class FileHandler {
       System.exit(0);
     }
     this.sourceFilePath = Paths.get(sourceFilePath);
+    this.source = null;
+  }
+
+  /**
+   * Generate a FileHandler object for a source that only exists in memory,
+   * e.g., a program of the REPL. Its path only determines the program name.
+   *
+   * @param sourceFilePath The path of the Easy source file.
+   * @param source         The source code of the program.
+   */
+  public FileHandler(String sourceFilePath, String source) {
+    if (!isValidFilePath(sourceFilePath)) {
+      throw new IllegalArgumentException("Invalid file path '%s'.".formatted(sourceFilePath));
+    }
+    this.sourceFilePath = Paths.get(sourceFilePath);
+    this.source = source;
   }
 
   /* Check if the given path exists and if the file name is valid. */
@@ -50,16 +70,38 @@ public class FileHandler {
     return this.sourceFilePath.toString().replace(".easy", ".j");
   }
 
-  /* Write the generated Jasmin code into a corresponding file. */
-  boolean writeOutputFile(ArrayList<String> code) {
-    if (code == null) {
+  /* Generate a class file path, i.e., replace the suffix. */
+  String getClassFileNameAndPath() {
+    return this.sourceFilePath.toString().replace(".easy", ".class");
+  }
+
+  /*
+   * Write Jasmin code into a corresponding file, while the given generator
+   * produces it, i.e., the code does not need to be in memory as a whole.
+   */
+  boolean writeOutputFile(Consumer<Writer> codeGenerator) {
+    Path jasminFile = Paths.get(getJasminFileNameAndPath());
+    try (Writer writer = Files.newBufferedWriter(
+        jasminFile, StandardCharsets.UTF_8, CREATE, TRUNCATE_EXISTING)) {
+      codeGenerator.accept(writer);
+    } catch (IOException | UncheckedIOException e) {
+      System.out.println("An error occurred while writing the output file.");
+      e.printStackTrace();
+      return false;
+    }
+    return true;
+  }
+
+  /* Write the generated class file next to the source file. */
+  boolean writeClassFile(byte[] classFile) {
+    if (classFile == null) {
       System.out.println("Cannot write output file, because no code was generated.");
       return false;
     }
 
     try {
-      Path jasminFile = Paths.get(getJasminFileNameAndPath());
-      Files.write(jasminFile, code, StandardCharsets.UTF_8, CREATE, TRUNCATE_EXISTING);
+      Path classFilePath = Paths.get(getClassFileNameAndPath());
+      Files.write(classFilePath, classFile, CREATE, TRUNCATE_EXISTING);
     } catch (IOException e) {
       System.out.println("An error occurred while writing the output file.");
       e.printStackTrace();
@@ -68,9 +110,10 @@ public class FileHandler {
     return true;
   }
 
-  /* Generate a PushbackReader for the source file. */
-  PushbackReader getPushbackReader() throws FileNotFoundException {
-    FileReader fileReader = new FileReader(this.sourceFilePath.toFile());
-    return new PushbackReader(fileReader);
+  /* Generate a PushbackReader for the UTF-8 source file or the source in memory. */
+  PushbackReader getPushbackReader() throws IOException {
+    Reader reader = (this.source != null) ? new StringReader(this.source)
+        : new FileReader(this.sourceFilePath.toFile(), StandardCharsets.UTF_8);
+    return new PushbackReader(reader);
   }
 }
@@ -0,0 +1,46 @@
+import java.lang.reflect.Method;
+
+/**
+ * Class loader for a single compiled Easy program. It defines the program's
+ * class from the bytes in memory, such that the program runs within the
+ * current JVM. Compiled programs only reference classes of the Java platform,
+ * so the platform class loader is the parent, and the compiler's own classes
+ * never shadow a program with the same name.
+ */
+class ProgramClassLoader extends ClassLoader {
+  private final String programName;
+  private final byte[] classFile;
+
+  /**
+   * Class loader for a single compiled Easy program.
+   *
+   * @param programName Name of the program's class
+   * @param classFile   Bytes of the program's class file
+   */
+  ProgramClassLoader(String programName, byte[] classFile) {
+    super(ClassLoader.getPlatformClassLoader());
+    this.programName = programName;
+    this.classFile = classFile;
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    if (name.equals(this.programName)) {
+      return defineClass(name, this.classFile, 0, this.classFile.length);
+    }
+    return super.findClass(name);
+  }
+
+  /**
+   * Load the program's class and invoke its main method.
+   *
+   * @param args Arguments for the program's main method
+   * @throws ReflectiveOperationException If the class cannot be loaded or the
+   *                                      program throws an exception
+   */
+  void runMain(String[] args) throws ReflectiveOperationException {
+    Class<?> programClass = loadClass(this.programName);
+    Method mainMethod = programClass.getMethod("main", String[].class);
+    mainMethod.invoke(null, (Object) args);
+  }
+}
@@ -0,0 +1,455 @@
+import codegeneration.ClassFileAssembler;
+import codegeneration.CodeElement;
+import codegeneration.CodeElement.Instruction;
+import codegeneration.CodeElement.LocalsLimit;
+import codegeneration.CodeElement.MethodHeader;
+import codegeneration.CodeElement.StackLimit;
+import codegeneration.Opcode;
+import codegeneration.Operand;
+import codegeneration.Operand.FloatValue;
+import codegeneration.Operand.IntValue;
+import codegeneration.Operand.MemberReference;
+import codegeneration.Operand.StringValue;
+import incremental.FunctionCache;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+import lexer.LexerException;
+import node.ADeclStat;
+import node.AFunc;
+import node.AInitStat;
+import node.AMain;
+import node.APrg;
+import node.PFunc;
+import node.PStat;
+import node.Start;
+import node.TIdentifier;
+import parser.ParserException;
+import symboltable.Symbol;
+import symboltable.SymbolTable;
+import symboltable.Type;
+
+/**
+ * Interactive session that compiles and runs snippets of Easy code within a
+ * warm JVM, i.e., lexer, parser, type checker and code generator are loaded
+ * and compiled by the JIT only once. A snippet either defines functions, which
+ * later snippets may call, or consists of declarations and statements, which
+ * run immediately as the body of the main function.
+ *
+ * <p>Each snippet is compiled as a whole program in memory, and the functions
+ * of earlier snippets reuse their results via a {@link FunctionCache}.
+ * Variables keep their values between snippets: the main method receives them
+ * as strings in its argument array and stores them there again before it
+ * returns. A snippet that fails to compile or throws leaves the session
+ * unchanged.
+ */
+public class Repl {
+  private static final String PROGRAM_PATH = "Repl.easy";
+  private static final String MAIN_HEADER = "none <- main() {";
+  private static final Pattern DEFINITION =
+      Pattern.compile("^\\s*(boolean|float|int|none|string)\\s*<-");
+  private final LinkedHashMap<String, String> functions = new LinkedHashMap<>();
+  private final LinkedHashMap<String, Variable> variables = new LinkedHashMap<>();
+  private final FunctionCache functionCache = new FunctionCache();
+
+  /**
+   * Variable of the session.
+   *
+   * @param type  Type of the variable
+   * @param value Value as passed to the main method, e.g., "1" for true
+   */
+  record Variable(Type type, String value) {
+  }
+
+  /* Variable of a snippet's main method with its index in the argument array. */
+  private record Binding(int index, Symbol symbol, boolean hasValue) {
+  }
+
+  /**
+   * Read snippets and commands line by line and evaluate each snippet as soon
+   * as it is complete, i.e., its braces are balanced and it ends with a
+   * semicolon or brace. Compiler diagnostics and program outputs go to the
+   * standard output.
+   *
+   * @param in Reader of the user's input
+   * @throws IOException If reading the input fails
+   */
+  public void serve(BufferedReader in) throws IOException {
+    System.out.println("Easy REPL: enter function definitions, statements or :help.");
+    StringBuilder snippet = new StringBuilder();
+    while (true) {
+      System.out.print(snippet.isEmpty() ? "easy> " : "  ... ");
+      System.out.flush();
+      String line = in.readLine();
+      if (line == null) {
+        break;
+      } else if (snippet.isEmpty() && line.strip().startsWith(":")) {
+        if (!executeCommand(line.strip())) {
+          break;
+        }
+        continue;
+      }
+
+      snippet.append(line).append('\n');
+      if (snippet.toString().isBlank()) {
+        snippet.setLength(0);
+      } else if (isComplete(snippet)) {
+        evaluate(snippet.toString());
+        snippet.setLength(0);
+      }
+    }
+  }
+
+  /* Execute a command of the session, and return false if the session ends. */
+  private boolean executeCommand(String command) {
+    switch (command) {
+      case ":quit", ":q":
+        return false;
+      case ":reset":
+        this.functions.clear();
+        this.variables.clear();
+        System.out.println("Removed all functions and variables.");
+        break;
+      case ":program":
+        System.out.print(buildProgram(this.functions, Set.of(), ""));
+        break;
+      case ":vars":
+        this.variables.forEach((name, variable) -> System.out.println("%s %s = %s".formatted(
+            variable.type().name().toLowerCase(), name, getDisplayValue(variable))));
+        break;
+      case ":help":
+        System.out.println("Enter function definitions, or declarations and statements of the "
+            + "main function.");
+        System.out.println(":vars     print the variables and their values");
+        System.out.println(":program  print the program of the session, whose lines "
+            + "diagnostics refer to");
+        System.out.println(":reset    remove all functions and variables");
+        System.out.println(":quit     end the session");
+        break;
+      default:
+        System.out.println("Unknown command \"%s\", see :help.".formatted(command));
+    }
+    return true;
+  }
+
+  /**
+   * Check if a snippet is complete, i.e., its braces are balanced and its last
+   * character outside of comments is a semicolon or closing brace.
+   *
+   * @param text Lines of the snippet so far
+   * @return True, if the snippet can be evaluated
+   */
+  static boolean isComplete(CharSequence text) {
+    String snippet = text.toString();
+    int depth = 0;
+    char last = ' ';
+    for (int i = 0; i < snippet.length(); i++) {
+      char c = snippet.charAt(i);
+      if (c == '"') { // string literals contain no escapes
+        i = snippet.indexOf('"', i + 1);
+        if (i < 0) {
+          return false;
+        }
+      } else if (snippet.startsWith("//", i)) {
+        i = snippet.indexOf('\n', i);
+        if (i < 0) {
+          return false;
+        }
+        continue;
+      } else if (snippet.startsWith("/*", i)) {
+        i = snippet.indexOf("*/", i + 2);
+        if (i < 0) {
+          return false;
+        }
+        i++;
+        continue;
+      } else if (c == '{') {
+        depth++;
+      } else if (c == '}') {
+        depth--;
+      }
+      if (!Character.isWhitespace(c)) {
+        last = c;
+      }
+    }
+    return (depth <= 0) && ((last == ';') || (last == '}'));
+  }
+
+  /**
+   * Evaluate a snippet, i.e., define its functions or run its statements.
+   *
+   * @param snippet Function definitions, or declarations and statements
+   * @return True, if the snippet compiled and ran without an exception
+   */
+  boolean evaluate(String snippet) {
+    String text = snippet.endsWith("\n") ? snippet : snippet + "\n"; // ends line comments
+    Start definitions = parseOrNull(text + MAIN_HEADER + "}\n");
+    if ((definitions != null) || DEFINITION.matcher(text).find()) {
+      return define(text, definitions);
+    }
+    return execute(text);
+  }
+
+  /* Add or replace the functions of a snippet, if the program still compiles with them. */
+  private boolean define(String text, Start definitions) {
+    LinkedHashMap<String, String> newFunctions = new LinkedHashMap<>(this.functions);
+    List<String> names = new ArrayList<>();
+    if (definitions != null) {
+      splitDefinitions(text, ((APrg) definitions.getPPrg()).getFunc()).forEach((name, source) -> {
+        newFunctions.put(name, source);
+        names.add(name);
+      });
+    } else { // let the compiler report the syntax error
+      newFunctions.put("", text);
+    }
+
+    EasyCompiler compiler = createCompiler(buildProgram(newFunctions, Set.of(), ""));
+    if (!compiler.generateCode()) {
+      return false;
+    }
+    this.functions.clear();
+    this.functions.putAll(newFunctions);
+    names.forEach(name -> System.out.println("Defined function %s.".formatted(name)));
+    return true;
+  }
+
+  /* Run the declarations and statements of a snippet with the variables of the session. */
+  private boolean execute(String text) {
+    List<String> declaredNames = getDeclaredNames(text);
+    EasyCompiler compiler = createCompiler(
+        buildProgram(this.functions, Set.copyOf(declaredNames), text));
+    if (!compiler.generateCode()) {
+      return false;
+    }
+
+    // Kept variables come first, as in the program, followed by the snippet's ones
+    List<String> names = new ArrayList<>(this.variables.keySet());
+    names.removeAll(declaredNames);
+    int keptVariables = names.size();
+    names.addAll(declaredNames);
+    SymbolTable symbolTable = compiler.getSymbolTable();
+    String[] values = new String[names.size()];
+    List<Binding> bindings = new ArrayList<>();
+    for (int i = 0; i < names.size(); i++) {
+      boolean kept = i < keptVariables;
+      values[i] = kept ? this.variables.get(names.get(i)).value() : null;
+      bindings.add(new Binding(i, symbolTable.getSymbol("main", names.get(i)), kept));
+    }
+
+    List<CodeElement> code = passVariables(compiler.getCodeElements(), bindings,
+        symbolTable.countSymbolsInScope("main"));
+    ProgramClassLoader classLoader = new ProgramClassLoader(
+        compiler.fileHandler.getProgramName(), ClassFileAssembler.assembleElements(code));
+    try {
+      classLoader.runMain(values);
+    } catch (InvocationTargetException e) {
+      System.out.println("Runtime-Error: %s".formatted(e.getCause()));
+      return false;
+    } catch (ReflectiveOperationException | LinkageError e) {
+      System.out.println("An error occurred while loading the program: %s".formatted(e));
+      return false;
+    }
+
+    this.variables.clear();
+    for (Binding binding : bindings) {
+      this.variables.put(names.get(binding.index()),
+          new Variable(binding.symbol().getType(), values[binding.index()]));
+    }
+    return true;
+  }
+
+  /* Create a compiler for a program of the session, which reuses results of unchanged functions. */
+  private EasyCompiler createCompiler(String program) {
+    EasyCompiler compiler = new EasyCompiler(PROGRAM_PATH, program);
+    compiler.setFunctionCache(this.functionCache);
+    return compiler;
+  }
+
+  /*
+   * Build a program with the given functions and main body. Variables of the
+   * session are declared first, unless the body declares them again.
+   */
+  private String buildProgram(Map<String, String> programFunctions,
+      Set<String> redeclaredVariables, String body) {
+    StringBuilder program = new StringBuilder();
+    for (String function : programFunctions.values()) {
+      program.append(function);
+      if (!function.endsWith("\n")) {
+        program.append('\n');
+      }
+    }
+    program.append(MAIN_HEADER).append('\n');
+    this.variables.forEach((name, variable) -> {
+      if (!redeclaredVariables.contains(name)) {
+        program.append("%s %s;\n".formatted(variable.type().name().toLowerCase(), name));
+      }
+    });
+    return program.append(body).append("}\n").toString();
+  }
+
+  /* Get the names of the variables that a snippet declares, or none if it cannot be parsed. */
+  private static List<String> getDeclaredNames(String text) {
+    Start program = parseOrNull(MAIN_HEADER + "\n" + text + "}\n");
+    if (program == null) {
+      return List.of();
+    }
+    List<String> names = new ArrayList<>();
+    for (PStat declaration : ((AMain) ((APrg) program.getPPrg()).getMain()).getDeclarations()) {
+      if (declaration instanceof ADeclStat declStat) {
+        names.add(declStat.getId().getText());
+      } else if (declaration instanceof AInitStat initStat) {
+        names.add(initStat.getId().getText());
+      }
+    }
+    return names;
+  }
+
+  /* Parse a program, or return null if it contains syntax errors. */
+  private static Start parseOrNull(String program) {
+    try {
+      return new EasyCompiler(PROGRAM_PATH, program).generateAbstractSyntaxTree();
+    } catch (IOException | LexerException | ParserException e) {
+      return null;
+    }
+  }
+
+  /*
+   * Split function definitions into the source of each function. A function
+   * starts at its return type, which precedes the arrow before its identifier.
+   */
+  private static LinkedHashMap<String, String> splitDefinitions(
+      String text, List<PFunc> definitions) {
+    List<Integer> lineStarts = new ArrayList<>(List.of(0));
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if ((c == '\n') || ((c == '\r') && !text.startsWith("\n", i + 1))) {
+        lineStarts.add(i + 1);
+      }
+    }
+
+    List<Integer> starts = new ArrayList<>();
+    for (PFunc definition : definitions) {
+      TIdentifier id = ((AFunc) definition).getId();
+      int start = lineStarts.get(id.getLine() - 1) + id.getPos() - 1;
+      start = skipBackwards(text, start, Character::isWhitespace) - "<-".length();
+      start = skipBackwards(text, start, Character::isWhitespace);
+      starts.add(starts.isEmpty() ? 0 : skipBackwards(text, start, Character::isLetter));
+    }
+
+    LinkedHashMap<String, String> sources = new LinkedHashMap<>();
+    for (int i = 0; i < definitions.size(); i++) {
+      int end = (i + 1 < starts.size()) ? starts.get(i + 1) : text.length();
+      sources.put(((AFunc) definitions.get(i)).getId().getText(),
+          text.substring(starts.get(i), end));
+    }
+    return sources;
+  }
+
+  /* Move backwards over the characters before the given index that match the predicate. */
+  private static int skipBackwards(String text, int index, IntPredicate predicate) {
+    while ((index > 0) && predicate.test(text.charAt(index - 1))) {
+      index--;
+    }
+    return index;
+  }
+
+  /*
+   * Let the main method load the variables from its argument array, or
+   * initialize new ones, and store them again before each return. The array
+   * moves to the spare local slot, as the first variable reuses slot 0.
+   */
+  private static List<CodeElement> passVariables(List<CodeElement> code,
+      List<Binding> bindings, int arraySlot) {
+    List<CodeElement> passingCode = new ArrayList<>();
+    boolean inMain = false;
+    for (CodeElement element : code) {
+      if (element instanceof MethodHeader header) {
+        inMain = header.isStatic() && header.name().equals("main");
+      } else if (inMain && (element instanceof StackLimit stackLimit)) {
+        element = new StackLimit(Math.max(stackLimit.size(), 3)); // array, index, value
+      }
+      if (inMain && (element instanceof Instruction instruction)
+          && (instruction.opcode() == Opcode.RETURN)) {
+        bindings.forEach(binding -> addStore(passingCode, binding, arraySlot));
+      }
+      passingCode.add(element);
+
+      if (inMain && (element instanceof LocalsLimit)) {
+        passingCode.add(new Instruction(Opcode.ALOAD_0));
+        passingCode.add(new Instruction(Opcode.ASTORE, arraySlot));
+        bindings.forEach(binding -> addLoad(passingCode, binding, arraySlot));
+      }
+    }
+    return passingCode;
+  }
+
+  /* Add code that initializes a variable with its passed value or a default value. */
+  private static void addLoad(List<CodeElement> code, Binding binding, int arraySlot) {
+    Type type = binding.symbol().getType();
+    if (binding.hasValue()) {
+      code.add(new Instruction(Opcode.ALOAD, arraySlot));
+      code.add(new Instruction(Opcode.LDC, binding.index()));
+      code.add(new Instruction(Opcode.AALOAD));
+      if (type == Type.FLOAT) {
+        code.add(new Instruction(Opcode.INVOKESTATIC, new MemberReference(
+            "java/lang/Float", "parseFloat", "(Ljava/lang/String;)F")));
+      } else if (type != Type.STRING) { // boolean and int are stored as int
+        code.add(new Instruction(Opcode.INVOKESTATIC, new MemberReference(
+            "java/lang/Integer", "parseInt", "(Ljava/lang/String;)I")));
+      }
+    } else {
+      Operand defaultValue = switch (type) {
+        case FLOAT -> new FloatValue(0.0f);
+        case STRING -> new StringValue("");
+        default -> new IntValue(0);
+      };
+      code.add(new Instruction(Opcode.LDC, defaultValue));
+    }
+    code.add(new Instruction(getStoreOpcode(type), binding.symbol().getVariableNumber()));
+  }
+
+  /* Add code that stores a variable's value as a string in the argument array. */
+  private static void addStore(List<CodeElement> code, Binding binding, int arraySlot) {
+    Type type = binding.symbol().getType();
+    code.add(new Instruction(Opcode.ALOAD, arraySlot));
+    code.add(new Instruction(Opcode.LDC, binding.index()));
+    switch (type) {
+      case FLOAT -> {
+        code.add(new Instruction(Opcode.FLOAD, binding.symbol().getVariableNumber()));
+        code.add(new Instruction(Opcode.INVOKESTATIC, new MemberReference(
+            "java/lang/String", "valueOf", "(F)Ljava/lang/String;")));
+      }
+      case STRING -> code.add(new Instruction(Opcode.ALOAD,
+          binding.symbol().getVariableNumber()));
+      default -> {
+        code.add(new Instruction(Opcode.ILOAD, binding.symbol().getVariableNumber()));
+        code.add(new Instruction(Opcode.INVOKESTATIC, new MemberReference(
+            "java/lang/String", "valueOf", "(I)Ljava/lang/String;")));
+      }
+    }
+    code.add(new Instruction(Opcode.AASTORE));
+  }
+
+  private static Opcode getStoreOpcode(Type type) {
+    return switch (type) {
+      case FLOAT -> Opcode.FSTORE;
+      case STRING -> Opcode.ASTORE;
+      default -> Opcode.ISTORE;
+    };
+  }
+
+  /* Get the value of a variable as the Easy program would print it. */
+  private static String getDisplayValue(Variable variable) {
+    if (variable.type() == Type.BOOLEAN) {
+      return Boolean.toString(!variable.value().equals("0"));
+    }
+    return variable.value();
+  }
+}
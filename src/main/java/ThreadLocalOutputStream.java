@@ -0,0 +1,54 @@
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that forwards all bytes to the stream registered for the
+ * current thread. Threads without a registered stream write to the fallback
+ * stream. Wrapping System.out into a PrintStream on top of this stream allows
+ * capturing the outputs of concurrent compilations separately.
+ */
+class ThreadLocalOutputStream extends OutputStream {
+  private final OutputStream fallback;
+  private final ThreadLocal<OutputStream> targets;
+
+  /**
+   * Output stream that forwards all bytes to the stream registered for the
+   * current thread.
+   *
+   * @param fallback Stream for threads without a registered stream.
+   */
+  ThreadLocalOutputStream(OutputStream fallback) {
+    this.fallback = fallback;
+    this.targets = new ThreadLocal<>();
+  }
+
+  /* Redirect all outputs of the current thread into the given stream. */
+  void register(OutputStream target) {
+    this.targets.set(target);
+  }
+
+  /* Redirect all outputs of the current thread into the fallback stream again. */
+  void unregister() {
+    this.targets.remove();
+  }
+
+  private OutputStream getTarget() {
+    OutputStream target = this.targets.get();
+    return (target == null) ? this.fallback : target;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    getTarget().write(b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    getTarget().write(b, off, len);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    getTarget().flush();
+  }
+}
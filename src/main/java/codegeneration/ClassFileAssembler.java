@@ -0,0 +1,403 @@
+package codegeneration;
+
+import codegeneration.CodeElement.ClassHeader;
+import codegeneration.CodeElement.Instruction;
+import codegeneration.CodeElement.Label;
+import codegeneration.CodeElement.LineNumber;
+import codegeneration.CodeElement.LocalsLimit;
+import codegeneration.CodeElement.MethodEnd;
+import codegeneration.CodeElement.MethodHeader;
+import codegeneration.CodeElement.SourceFile;
+import codegeneration.CodeElement.StackLimit;
+import codegeneration.CodeElement.SuperClass;
+import codegeneration.Operand.ClassReference;
+import codegeneration.Operand.Constant;
+import codegeneration.Operand.FloatValue;
+import codegeneration.Operand.IntValue;
+import codegeneration.Operand.LabelReference;
+import codegeneration.Operand.MemberReference;
+import codegeneration.Operand.StringValue;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Assembler that translates the code of the CodeGenerator into a class file in
+ * memory, i.e., without writing a Jasmin file and calling the Jasmin assembler.
+ * It supports the code elements and the subset of Jasmin that the
+ * CodeGenerator emits. The class
+ * file targets Java 5, so the JVM verifies it without stack map frames.
+ */
+public class ClassFileAssembler {
+  private static final int MAGIC = 0xCAFEBABE;
+  private static final int MAJOR_VERSION = 49;
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_STATIC = 0x0008;
+  private static final int ACC_SUPER = 0x0020;
+  private static final int OPCODE_WIDE = 0xc4;
+
+  private final ConstantPool constantPool = new ConstantPool();
+  private final List<byte[]> methods = new ArrayList<>();
+  private String className;
+  private String superClassName = "java/lang/Object";
+  private String sourceFileName;
+  private MethodAssembler currentMethod;
+
+  /**
+   * Assemble the given Jasmin code into a class file.
+   *
+   * @param code Lines of Jasmin code, as generated by the CodeGenerator
+   * @return Bytes of the class file
+   */
+  public static byte[] assemble(List<String> code) {
+    return assembleElements(CodeElement.fromJasmin(code));
+  }
+
+  /**
+   * Assemble the given code elements into a class file.
+   *
+   * @param elements Code elements, as generated by the CodeGenerator
+   * @return Bytes of the class file
+   */
+  public static byte[] assembleElements(List<CodeElement> elements) {
+    ClassFileAssembler assembler = new ClassFileAssembler();
+    for (CodeElement element : elements) {
+      assembler.addElement(element);
+    }
+    return assembler.toByteArray();
+  }
+
+  private void addElement(CodeElement element) {
+    if (element instanceof Instruction instruction) {
+      this.currentMethod.addInstruction(instruction.opcode(), instruction.operand());
+    } else if (element instanceof Label label) {
+      this.currentMethod.addLabel(label.name());
+    } else if (element instanceof LineNumber lineNumber) {
+      this.currentMethod.addLineNumber(lineNumber.line());
+    } else if (element instanceof SourceFile sourceFile) {
+      this.sourceFileName = sourceFile.name();
+    } else if (element instanceof ClassHeader classHeader) {
+      this.className = classHeader.name();
+    } else if (element instanceof SuperClass superClass) {
+      this.superClassName = superClass.name();
+    } else if (element instanceof MethodHeader methodHeader) {
+      this.currentMethod = new MethodAssembler(methodHeader);
+    } else if (element instanceof StackLimit stackLimit) {
+      this.currentMethod.setMaxStack(stackLimit.size());
+    } else if (element instanceof LocalsLimit localsLimit) {
+      this.currentMethod.setMaxLocals(localsLimit.size());
+    } else if (element instanceof MethodEnd) {
+      this.methods.add(this.currentMethod.toByteArray());
+      this.currentMethod = null;
+    }
+  }
+
+  private byte[] toByteArray() {
+    try {
+      int thisClassIndex = this.constantPool.addClass(this.className);
+      int superClassIndex = this.constantPool.addClass(this.superClassName);
+      int sourceFileAttributeIndex = this.constantPool.addUtf8("SourceFile");
+      int sourceFileIndex = (this.sourceFileName == null)
+          ? 0 : this.constantPool.addUtf8(this.sourceFileName);
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(MAGIC);
+      out.writeShort(0); // minor version
+      out.writeShort(MAJOR_VERSION);
+      this.constantPool.writeTo(out);
+      out.writeShort(ACC_PUBLIC | ACC_SUPER);
+      out.writeShort(thisClassIndex);
+      out.writeShort(superClassIndex);
+      out.writeShort(0); // interfaces
+      out.writeShort(0); // fields
+      out.writeShort(this.methods.size());
+      for (byte[] method : this.methods) {
+        out.write(method);
+      }
+      if (this.sourceFileName == null) {
+        out.writeShort(0);
+      } else {
+        out.writeShort(1);
+        out.writeShort(sourceFileAttributeIndex);
+        out.writeInt(2);
+        out.writeShort(sourceFileIndex);
+      }
+      return bytes.toByteArray();
+    } catch (IOException e) { // Should never happen for in-memory streams
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // Helpers
+  /* Remove a comment, i.e., a semicolon at a token start outside of strings. */
+  static String stripComment(String line) {
+    boolean inString = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == '"' && (i == 0 || line.charAt(i - 1) != '\\')) {
+        inString = !inString;
+      } else if (c == ';' && !inString && (i == 0 || Character.isWhitespace(line.charAt(i - 1)))) {
+        return line.substring(0, i);
+      }
+    }
+    return line;
+  }
+
+  /** Translate a quoted Jasmin string literal into its value, e.g., for the interpreter. */
+  public static String parseStringLiteral(String literal) {
+    StringBuilder value = new StringBuilder();
+    for (int i = 1; i < literal.length() - 1; i++) {
+      char c = literal.charAt(i);
+      if (c != '\\' || i + 1 >= literal.length() - 1) {
+        value.append(c);
+        continue;
+      }
+
+      char escaped = literal.charAt(++i);
+      switch (escaped) {
+        case 'n':
+          value.append('\n');
+          break;
+        case 't':
+          value.append('\t');
+          break;
+        case 'r':
+          value.append('\r');
+          break;
+        case 'b':
+          value.append('\b');
+          break;
+        case 'f':
+          value.append('\f');
+          break;
+        case 'u':
+          value.append((char) Integer.parseInt(literal.substring(i + 1, i + 5), 16));
+          i += 4;
+          break;
+        default: // quotes, backslashes and unknown escapes
+          value.append(escaped);
+      }
+    }
+    return value.toString();
+  }
+
+  /* Instruction with resolved operand, i.e., an index or value. */
+  private record EncodedInstruction(Opcode opcode, int operand, String label, int size) {
+  }
+
+  /**
+   * Assembler for a single method. Collects instructions, labels and line
+   * numbers, and resolves the jump targets after the last instruction.
+   */
+  private class MethodAssembler {
+    private final int accessFlags;
+    private final int nameIndex;
+    private final int descriptorIndex;
+    private final List<EncodedInstruction> instructions = new ArrayList<>();
+    private final HashMap<String, Integer> labelOffsets = new HashMap<>();
+    private final List<int[]> lineNumbers = new ArrayList<>();
+    private final int argumentSlots;
+    private int maxStack = -1; // not limited by the code
+    private int maxLocals = 0;
+    private int codeLength = 0;
+
+    MethodAssembler(MethodHeader header) {
+      this.accessFlags = ACC_PUBLIC | (header.isStatic() ? ACC_STATIC : 0);
+      this.nameIndex = constantPool.addUtf8(header.name());
+      this.descriptorIndex = constantPool.addUtf8(header.descriptor());
+      this.argumentSlots = countArgumentSlots(header.descriptor()) + (header.isStatic() ? 0 : 1);
+    }
+
+    /* Count the local slots of the arguments in the given method descriptor. */
+    private static int countArgumentSlots(String descriptor) {
+      int slots = 0;
+      int i = 1;
+      while (descriptor.charAt(i) != ')') {
+        char type = descriptor.charAt(i);
+        slots += (type == 'J' || type == 'D') ? 2 : 1;
+        while (descriptor.charAt(i) == '[') {
+          i++;
+        }
+        i = (descriptor.charAt(i) == 'L') ? descriptor.indexOf(';', i) + 1 : i + 1;
+      }
+      return slots;
+    }
+
+    void setMaxStack(int maxStack) {
+      this.maxStack = maxStack;
+    }
+
+    void setMaxLocals(int maxLocals) {
+      this.maxLocals = maxLocals;
+    }
+
+    void addLineNumber(int lineNumber) {
+      this.lineNumbers.add(new int[] { this.codeLength, lineNumber });
+    }
+
+    void addLabel(String label) {
+      this.labelOffsets.put(label, this.codeLength);
+    }
+
+    void addInstruction(Opcode opcode, Operand operand) {
+      EncodedInstruction instruction;
+      switch (opcode.getOperandKind()) {
+        case BYTE:
+          instruction = new EncodedInstruction(opcode, ((IntValue) operand).value(), null, 2);
+          break;
+        case SHORT:
+          instruction = new EncodedInstruction(opcode, ((IntValue) operand).value(), null, 3);
+          break;
+        case BRANCH:
+          instruction = new EncodedInstruction(
+              opcode, 0, ((LabelReference) operand).name(), 3);
+          break;
+        case CONSTANT:
+          int constantIndex = addConstant((Constant) operand);
+          instruction = new EncodedInstruction(
+              opcode, constantIndex, null, (constantIndex > 255) ? 3 : 2);
+          break;
+        case LOCAL:
+          int local = ((IntValue) operand).value();
+          int localSize = (local <= 3) ? 1 : ((local <= 255) ? 2 : 4);
+          instruction = new EncodedInstruction(opcode, local, null, localSize);
+          break;
+        case FIELD:
+          MemberReference field = (MemberReference) operand;
+          int fieldIndex = constantPool.addFieldRef(
+              field.owner(), field.name(), field.descriptor());
+          instruction = new EncodedInstruction(opcode, fieldIndex, null, 3);
+          break;
+        case METHOD:
+          MemberReference method = (MemberReference) operand;
+          int methodIndex = constantPool.addMethodRef(
+              method.owner(), method.name(), method.descriptor());
+          instruction = new EncodedInstruction(opcode, methodIndex, null, 3);
+          break;
+        case CLASS:
+          int classIndex = constantPool.addClass(((ClassReference) operand).name());
+          instruction = new EncodedInstruction(opcode, classIndex, null, 3);
+          break;
+        default:
+          instruction = new EncodedInstruction(opcode, 0, null, 1);
+      }
+
+      this.instructions.add(instruction);
+      this.codeLength += instruction.size();
+    }
+
+    private int addConstant(Constant constant) {
+      if (constant instanceof StringValue string) {
+        return constantPool.addString(string.value());
+      } else if (constant instanceof FloatValue floatValue) {
+        return constantPool.addFloat(floatValue.value());
+      }
+      return constantPool.addInteger(((IntValue) constant).value());
+    }
+
+    byte[] toByteArray() {
+      if (this.codeLength > 65535) {
+        throw new IllegalStateException("Method exceeds the maximum code length of the JVM.");
+      }
+
+      try {
+        ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        for (EncodedInstruction instruction : this.instructions) {
+          writeInstruction(code, instruction, codeBytes.size());
+        }
+
+        int codeAttributeIndex = constantPool.addUtf8("Code");
+        int lineNumberTableIndex = constantPool.addUtf8("LineNumberTable");
+        int lineNumberTableLength = 2 + 4 * this.lineNumbers.size();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(this.accessFlags);
+        out.writeShort(this.nameIndex);
+        out.writeShort(this.descriptorIndex);
+        out.writeShort(1); // attributes: code
+        out.writeShort(codeAttributeIndex);
+        out.writeInt(12 + this.codeLength + 6 + lineNumberTableLength);
+        // Methods without limits (e.g., the constructor) get safe upper bounds
+        out.writeShort((this.maxStack < 0) ? this.instructions.size() : this.maxStack);
+        out.writeShort(Math.max(this.maxLocals, this.argumentSlots));
+        out.writeInt(this.codeLength);
+        codeBytes.writeTo(out);
+        out.writeShort(0); // exception table
+        out.writeShort(1); // attributes of code: line number table
+        out.writeShort(lineNumberTableIndex);
+        out.writeInt(lineNumberTableLength);
+        out.writeShort(this.lineNumbers.size());
+        for (int[] lineNumber : this.lineNumbers) {
+          out.writeShort(lineNumber[0]);
+          out.writeShort(lineNumber[1]);
+        }
+        return bytes.toByteArray();
+      } catch (IOException e) { // Should never happen for in-memory streams
+        throw new IllegalStateException(e);
+      }
+    }
+
+    private void writeInstruction(
+        DataOutputStream code, EncodedInstruction instruction, int offset) throws IOException {
+      Opcode opcode = instruction.opcode();
+      switch (opcode.getOperandKind()) {
+        case NONE:
+          code.writeByte(opcode.getCode());
+          break;
+        case BYTE:
+          code.writeByte(opcode.getCode());
+          code.writeByte(instruction.operand());
+          break;
+        case CONSTANT:
+          if (instruction.size() == 2) {
+            code.writeByte(opcode.getCode());
+            code.writeByte(instruction.operand());
+          } else {
+            code.writeByte(0x13); // ldc_w
+            code.writeShort(instruction.operand());
+          }
+          break;
+        case LOCAL:
+          writeLocalInstruction(code, opcode.getCode(), instruction.operand());
+          break;
+        case BRANCH:
+          Integer target = this.labelOffsets.get(instruction.label());
+          if (target == null) {
+            throw new IllegalStateException("Unknown label \"%s\".".formatted(instruction.label()));
+          }
+          int branchOffset = target - offset;
+          if (branchOffset < Short.MIN_VALUE || branchOffset > Short.MAX_VALUE) {
+            throw new IllegalStateException("Branch offset exceeds the JVM's limit.");
+          }
+          code.writeByte(opcode.getCode());
+          code.writeShort(branchOffset);
+          break;
+        default: // two byte operands: sipush, constant pool indices
+          code.writeByte(opcode.getCode());
+          code.writeShort(instruction.operand());
+      }
+    }
+
+    private void writeLocalInstruction(DataOutputStream code, int opcode, int local)
+        throws IOException {
+      if (local <= 3) { // e.g., iload_0 to iload_3
+        int shortFormBase = (opcode < 0x36)
+            ? 0x1a + (opcode - 0x15) * 4 : 0x3b + (opcode - 0x36) * 4;
+        code.writeByte(shortFormBase + local);
+      } else if (local <= 255) {
+        code.writeByte(opcode);
+        code.writeByte(local);
+      } else {
+        code.writeByte(OPCODE_WIDE);
+        code.writeByte(opcode);
+        code.writeShort(local);
+      }
+    }
+  }
+}
@@ -1,25 +1,97 @@
 package codegeneration;
 
+import codegeneration.CodeElement.Blank;
+import codegeneration.CodeElement.ClassHeader;
+import codegeneration.CodeElement.Instruction;
+import codegeneration.CodeElement.Label;
+import codegeneration.CodeElement.LineNumber;
+import codegeneration.CodeElement.LocalsLimit;
+import codegeneration.CodeElement.MethodEnd;
+import codegeneration.CodeElement.MethodHeader;
+import codegeneration.CodeElement.SourceFile;
+import codegeneration.CodeElement.StackLimit;
+import codegeneration.CodeElement.SuperClass;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
-/** Cache for generated code lines. */
+/**
+ * Cache for generated code elements. With a method consumer, the cache only
+ * holds the elements of the current method and passes them on once complete.
+ */
 public class CodeCache {
-  private final ArrayList<String> code = new ArrayList<>();
+  private final Consumer<List<CodeElement>> methodConsumer;
+  private ArrayList<CodeElement> elements = new ArrayList<>();
 
-  void addIndentedLine(String line) {
-    code.add(String.format("\t%s", line));
+  CodeCache() {
+    this(null);
   }
 
-  void addLines(List<String> lines) {
-    code.addAll(lines);
+  CodeCache(Consumer<List<CodeElement>> methodConsumer) {
+    this.methodConsumer = methodConsumer;
   }
 
-  void addIndentedLines(List<String> lines) {
-    lines.forEach(this::addIndentedLine);
+  void addInstruction(Opcode opcode) {
+    elements.add(new Instruction(opcode));
   }
 
+  void addInstruction(Opcode opcode, Operand operand) {
+    elements.add(new Instruction(opcode, operand));
+  }
+
+  void addInstruction(Opcode opcode, int operand) {
+    elements.add(new Instruction(opcode, operand));
+  }
+
+  void addBranch(Opcode opcode, String label) {
+    elements.add(new Instruction(opcode, new Operand.LabelReference(label)));
+  }
+
+  void addLabel(String label) {
+    elements.add(new Label(label));
+  }
+
+  void addLineNumber(int line, String description) {
+    elements.add(new LineNumber(line, description));
+  }
+
+  void addClassHeader(String sourceFile, String className, String superClass) {
+    elements.add(new SourceFile(sourceFile));
+    elements.add(new ClassHeader(className));
+    elements.add(new SuperClass(superClass));
+  }
+
+  void addMethodHeader(boolean isStatic, String name, String descriptor) {
+    elements.add(new MethodHeader(isStatic, name, descriptor));
+  }
+
+  void addLimits(int stack, int locals) {
+    elements.add(new StackLimit(stack));
+    elements.add(new LocalsLimit(locals));
+  }
+
+  void addMethodEnd() {
+    elements.add(new MethodEnd());
+  }
+
+  void addBlank() {
+    elements.add(new Blank());
+  }
+
+  /* Pass the elements of the completed method to the consumer and start with an empty cache. */
+  void completeMethod() {
+    if (this.methodConsumer != null) {
+      this.methodConsumer.accept(this.elements);
+      this.elements = new ArrayList<>();
+    }
+  }
+
+  public List<CodeElement> getElements() {
+    return this.elements;
+  }
+
+  /** Get the lines of Jasmin code for the cached elements. */
   public ArrayList<String> getCode() {
-    return this.code;
+    return CodeElement.toJasmin(this.elements);
   }
 }
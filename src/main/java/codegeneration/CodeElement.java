@@ -0,0 +1,219 @@
+package codegeneration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Element of the code that the CodeGenerator emits, i.e., an instruction, a
+ * label, a line number, a directive such as a method header, or a blank line.
+ * Optimizations and backends work on these elements, and only writing a
+ * Jasmin file translates them into text.
+ */
+public sealed interface CodeElement {
+  /** Get the line of Jasmin code for this element. */
+  String toJasmin();
+
+  /** Instruction with an optional operand, e.g., a local slot, constant or label. */
+  record Instruction(Opcode opcode, Operand operand) implements CodeElement {
+    /**
+     * Instruction with an operand that fits its opcode.
+     *
+     * @throws IllegalArgumentException If the operand does not fit the opcode
+     */
+    public Instruction {
+      if (!opcode.getOperandKind().accepts(operand)) {
+        throw new IllegalArgumentException("Operand %s does not fit instruction \"%s\"."
+            .formatted(operand, opcode.getMnemonic()));
+      }
+    }
+
+    public Instruction(Opcode opcode) {
+      this(opcode, null);
+    }
+
+    public Instruction(Opcode opcode, int operand) {
+      this(opcode, new Operand.IntValue(operand));
+    }
+
+    @Override
+    public String toJasmin() {
+      if (this.operand == null) {
+        return "\t" + this.opcode.getMnemonic();
+      }
+      return "\t" + this.opcode.getMnemonic() + " " + this.operand.toJasmin();
+    }
+  }
+
+  /** Jump target within a method. */
+  record Label(String name) implements CodeElement {
+    @Override
+    public String toJasmin() {
+      return "\t" + this.name + ":";
+    }
+  }
+
+  /** Line in the source code of the following instructions, with an optional description. */
+  record LineNumber(int line, String description) implements CodeElement {
+    @Override
+    public String toJasmin() {
+      if (this.description == null) {
+        return "\t.line " + this.line;
+      }
+      return "\t.line " + this.line + " ; " + this.description;
+    }
+  }
+
+  /** Name of the source file that the class comes from. */
+  record SourceFile(String name) implements CodeElement {
+    @Override
+    public String toJasmin() {
+      return ".source " + this.name;
+    }
+  }
+
+  /** Name of the class, e.g., "Euclid". */
+  record ClassHeader(String name) implements CodeElement {
+    @Override
+    public String toJasmin() {
+      return ".class " + this.name;
+    }
+  }
+
+  /** Name of the super class, e.g., "java/lang/Object". */
+  record SuperClass(String name) implements CodeElement {
+    @Override
+    public String toJasmin() {
+      return ".super " + this.name;
+    }
+  }
+
+  /** Start of a public method, e.g., "main" with "([Ljava/lang/String;)V". */
+  record MethodHeader(boolean isStatic, String name, String descriptor)
+      implements CodeElement {
+    @Override
+    public String toJasmin() {
+      return ".method public " + (this.isStatic ? "static " : "") + this.name + this.descriptor;
+    }
+  }
+
+  /** Maximal depth of the operand stack of a method. */
+  record StackLimit(int size) implements CodeElement {
+    @Override
+    public String toJasmin() {
+      return "\t.limit stack " + this.size;
+    }
+  }
+
+  /** Number of local slots of a method, including its arguments. */
+  record LocalsLimit(int size) implements CodeElement {
+    @Override
+    public String toJasmin() {
+      return "\t.limit locals " + this.size;
+    }
+  }
+
+  /** End of a method. */
+  record MethodEnd() implements CodeElement {
+    @Override
+    public String toJasmin() {
+      return ".end method";
+    }
+  }
+
+  /** Blank line that separates methods and their parts in Jasmin code. */
+  record Blank() implements CodeElement {
+    @Override
+    public String toJasmin() {
+      return "";
+    }
+  }
+
+  /**
+   * Translate the given elements into lines of Jasmin code.
+   *
+   * @param elements Elements of the code, e.g., as generated by the CodeGenerator
+   * @return Lines of Jasmin code
+   */
+  static ArrayList<String> toJasmin(List<CodeElement> elements) {
+    ArrayList<String> code = new ArrayList<>(elements.size());
+    for (CodeElement element : elements) {
+      code.add(element.toJasmin());
+    }
+    return code;
+  }
+
+  /**
+   * Parse a line of Jasmin code, as written by {@link #toJasmin()}.
+   *
+   * @param line Line of Jasmin code
+   * @return Element of the line, or a blank line for empty lines and comments
+   * @throws IllegalArgumentException If the line is not supported or malformed
+   */
+  static CodeElement fromJasmin(String line) {
+    String stripped = ClassFileAssembler.stripComment(line).strip();
+    if (stripped.isEmpty()) {
+      return new Blank();
+    }
+
+    String[] parts = stripped.split("\\s+", 2);
+    String operand = (parts.length > 1) ? parts[1] : null;
+    if (stripped.startsWith(".") && !parts[0].equals(".end") && (operand == null)) {
+      throw new IllegalArgumentException("Missing arguments in \"%s\".".formatted(stripped));
+    }
+    try {
+      switch (parts[0]) {
+        case ".line":
+          int comment = line.indexOf(';', line.indexOf(".line"));
+          String description = (comment < 0) ? null : line.substring(comment + 1).strip();
+          return new LineNumber(Integer.parseInt(operand), description);
+        case ".source":
+          return new SourceFile(operand);
+        case ".class":
+          return new ClassHeader(getLastWord(operand));
+        case ".super":
+          return new SuperClass(getLastWord(operand));
+        case ".method":
+          String[] words = operand.split("\\s+");
+          String signature = words[words.length - 1];
+          int parenthesis = signature.indexOf('(');
+          return new MethodHeader(List.of(words).contains("static"),
+              signature.substring(0, parenthesis), signature.substring(parenthesis));
+        case ".limit":
+          String[] limit = operand.split("\\s+");
+          int size = Integer.parseInt(limit[1]);
+          return limit[0].equals("stack") ? new StackLimit(size) : new LocalsLimit(size);
+        case ".end":
+          return new MethodEnd();
+        default:
+          if (stripped.startsWith(".")) {
+            throw new IllegalArgumentException(
+                "Unsupported directive \"%s\".".formatted(stripped));
+          } else if (stripped.endsWith(":")) {
+            return new Label(stripped.substring(0, stripped.length() - 1));
+          }
+          Opcode opcode = Opcode.fromMnemonic(parts[0]);
+          return new Instruction(opcode, Operand.fromJasmin(opcode.getOperandKind(), operand));
+      }
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Malformed line \"%s\".".formatted(stripped), e);
+    }
+  }
+
+  private static String getLastWord(String text) {
+    return text.substring(text.lastIndexOf(' ') + 1);
+  }
+
+  /**
+   * Parse lines of Jasmin code.
+   *
+   * @param code Lines of Jasmin code
+   * @return Elements of the lines
+   */
+  static List<CodeElement> fromJasmin(List<String> code) {
+    List<CodeElement> elements = new ArrayList<>(code.size());
+    for (String line : code) {
+      elements.add(fromJasmin(line));
+    }
+    return elements;
+  }
+}
@@ -1,10 +1,16 @@
 package codegeneration;
 
 import analysis.DepthFirstAdapter;
+import codegeneration.Operand.ClassReference;
+import codegeneration.Operand.FloatValue;
+import codegeneration.Operand.MemberReference;
+import codegeneration.Operand.StringValue;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import lineevaluation.LineEvaluator;
+import livenessanalysis.LocalSlotAllocation;
 import node.AAddExpr;
 import node.AAndExpr;
 import node.AAssignStat;
@@ -46,22 +52,33 @@ import node.PStat;
 import node.TIdentifier;
 import stackdepthevaluation.StackDepthEvaluator;
 import symboltable.FunctionArgumentTypeList;
+import symboltable.Symbol;
 import symboltable.SymbolTable;
 import symboltable.Type;
 
-/** The code generator walks the AST and generates Jasmin code. */
+/**
+ * The code generator walks the AST and generates code elements, i.e.,
+ * instructions, labels and directives that translate into Jasmin code.
+ */
 public class CodeGenerator extends DepthFirstAdapter {
+  private static final String STRING_BUILDER = "java/lang/StringBuilder";
+  private static final MemberReference PRINT_STREAM =
+      new MemberReference("java/lang/System", "out", "Ljava/io/PrintStream;");
+  private static final MemberReference STRING_EQUALS =
+      new MemberReference("java/lang/String", "equals", "(Ljava/lang/Object;)Z");
+
   private final CodeCache cache;
   private final String programName;
   private final SymbolTable symbolTable;
   private final LineEvaluator lineEvaluator;
+  private final Map<String, LocalSlotAllocation> slotAllocations;
   private int lastContinueLabel;
   private int lastHeadLabel;
   private int lastTrueLabel;
 
   /**
-   * The CodeGenerator walks the AST using Depth First Search and emits Jasmin
-   * assembly code.
+   * The CodeGenerator walks the AST using Depth First Search and emits code
+   * elements for Jasmin assembly code.
    *
    * @param programName   Name of the program, used for source and class name
    * @param symbolTable   Filled symbol table
@@ -69,10 +86,47 @@ public class CodeGenerator extends DepthFirstAdapter {
    */
   public CodeGenerator(
       String programName, SymbolTable symbolTable, LineEvaluator lineEvaluator) {
-    this.cache = new CodeCache();
+    this(programName, symbolTable, lineEvaluator, null);
+  }
+
+  /**
+   * The CodeGenerator walks the AST using Depth First Search and emits code
+   * elements for Jasmin assembly code. Variables use the local slots from the
+   * given allocations, i.e., non-interfering variables may share a slot.
+   *
+   * @param programName     Name of the program, used for source and class name
+   * @param symbolTable     Filled symbol table
+   * @param lineEvaluator   Line evaluator that was applied to the AST
+   * @param slotAllocations Local slot allocation per function, or null to use
+   *                        one slot per variable
+   */
+  public CodeGenerator(String programName, SymbolTable symbolTable,
+      LineEvaluator lineEvaluator, Map<String, LocalSlotAllocation> slotAllocations) {
+    this(programName, symbolTable, lineEvaluator, slotAllocations, null);
+  }
+
+  /**
+   * The CodeGenerator walks the AST using Depth First Search and emits code
+   * elements for Jasmin assembly code. It passes the elements of each method
+   * to the given consumer as soon as the method is complete, and does not
+   * keep them, i.e., the class header comes with the constructor.
+   *
+   * @param programName     Name of the program, used for source and class name
+   * @param symbolTable     Filled symbol table
+   * @param lineEvaluator   Line evaluator that was applied to the AST
+   * @param slotAllocations Local slot allocation per function, or null to use
+   *                        one slot per variable
+   * @param methodConsumer  Consumer for the elements of each method, or null to
+   *                        keep all elements for {@link #getElements()}
+   */
+  public CodeGenerator(String programName, SymbolTable symbolTable,
+      LineEvaluator lineEvaluator, Map<String, LocalSlotAllocation> slotAllocations,
+      Consumer<List<CodeElement>> methodConsumer) {
+    this.cache = new CodeCache(methodConsumer);
     this.programName = programName;
     this.symbolTable = symbolTable;
     this.lineEvaluator = lineEvaluator;
+    this.slotAllocations = slotAllocations;
     this.lastContinueLabel = 0;
     this.lastHeadLabel = 0;
     this.lastTrueLabel = 0;
@@ -81,36 +135,28 @@ public class CodeGenerator extends DepthFirstAdapter {
   // Basic structure and function definitions
   @Override
   public void inAPrg(APrg node) { // pretend to be a java class internally
-    String[] fileHead = {
-        String.format(".source %s.java", this.programName),
-        String.format(".class %s", this.programName),
-        ".super java/lang/Object" };
-    String[] objectInit = {
-        ".method public <init>()V",
-        "\taload_0",
-        "\tinvokespecial java/lang/Object/<init>()V",
-        "\treturn",
-        ".end method", "" };
-    cache.addLines(Arrays.asList(fileHead));
-    cache.addLines(Arrays.asList(objectInit));
+    cache.addClassHeader(this.programName + ".java", this.programName, "java/lang/Object");
+
+    cache.addMethodHeader(false, "<init>", "()V");
+    cache.addInstruction(Opcode.ALOAD_0);
+    cache.addInstruction(Opcode.INVOKESPECIAL,
+        new MemberReference("java/lang/Object", "<init>", "()V"));
+    cache.addInstruction(Opcode.RETURN);
+    cache.addMethodEnd();
+    cache.addBlank();
+    cache.completeMethod();
   }
 
   @Override
   public void caseAMain(AMain node) {
+    resetLabels();
     StackDepthEvaluator stackDepthEvaluator = new StackDepthEvaluator();
     node.apply(stackDepthEvaluator);
 
-    final String[] beginMainFunction = {
-        ".method public static main([Ljava/lang/String;)V",
-        String.format("\t.limit stack %d", stackDepthEvaluator.getMaxDepthCounter()),
-        String.format("\t.limit locals %d",
-            symbolTable.countSymbolsInScope("main") + 1), // all type-checked symbols and args[]
-        "" };
-    final String[] endMainFunction = {
-        "", "\treturn", ".end method", ""
-    };
-
-    cache.addLines(Arrays.asList(beginMainFunction));
+    cache.addMethodHeader(true, "main", "([Ljava/lang/String;)V");
+    cache.addLimits(stackDepthEvaluator.getMaxDepthCounter(),
+        countLocalSlots("main") + 1); // all type-checked symbols and args[]
+    cache.addBlank();
 
     for (PStat currDecl : node.getDeclarations()) {
       currDecl.apply(this);
@@ -119,11 +165,12 @@ public class CodeGenerator extends DepthFirstAdapter {
       currStat.apply(this);
     }
 
-    cache.addLines(Arrays.asList(endMainFunction));
+    addMethodEnd();
   }
 
   @Override
   public void caseAFunc(AFunc node) {
+    resetLabels();
     StackDepthEvaluator stackDepthEvaluator = new StackDepthEvaluator();
     node.apply(stackDepthEvaluator);
     TIdentifier functionId = node.getId();
@@ -133,17 +180,9 @@ public class CodeGenerator extends DepthFirstAdapter {
     FunctionArgumentTypeList argumentTypeList = symbolTable.getFunctionArgumentTypes(functionName);
     String argumentJvmTypeString = argumentTypeList.getJvmTypeString();
 
-    final String[] beginFunction = {
-        ".method public static %s(%s)%s".formatted(
-            functionName, argumentJvmTypeString, returnJvmType),
-        "\t.limit stack %d".formatted(stackDepthEvaluator.getMaxDepthCounter()),
-        "\t.limit locals %d".formatted(symbolTable.countSymbolsInScope(functionName)),
-        "" };
-    final String[] endFunction = {
-        "", "\treturn", ".end method", ""
-    };
-
-    cache.addLines(Arrays.asList(beginFunction));
+    cache.addMethodHeader(true, functionName, "(" + argumentJvmTypeString + ")" + returnJvmType);
+    cache.addLimits(stackDepthEvaluator.getMaxDepthCounter(), countLocalSlots(functionName));
+    cache.addBlank();
 
     for (PStat currDecl : node.getDeclarations()) {
       currDecl.apply(this);
@@ -152,7 +191,7 @@ public class CodeGenerator extends DepthFirstAdapter {
       currStat.apply(this);
     }
 
-    cache.addLines(Arrays.asList(endFunction));
+    addMethodEnd();
   }
 
   // Statements
@@ -161,13 +200,12 @@ public class CodeGenerator extends DepthFirstAdapter {
     addLineNumber(node, "if statement");
     final String continueLabel = getNewContinueLabel();
 
-    // generate condition and skip then-body if false (i.e., equal to 0)
-    node.getExpr().apply(this);
-    cache.addIndentedLine(String.format("ifeq %s", continueLabel));
+    // generate condition and skip then-body if false
+    generateConditionCode(node.getExpr(), continueLabel, false);
 
     // generate body (failed condition jumps to end of body)
     node.getThenBlock().apply(this);
-    cache.addIndentedLine(String.format("%s:", continueLabel));
+    cache.addLabel(continueLabel);
   }
 
   @Override
@@ -176,18 +214,17 @@ public class CodeGenerator extends DepthFirstAdapter {
     final String continueLabelElse = getNewContinueLabel();
     final String continueLabelEnd = getNewContinueLabel();
 
-    // generate condition and skip then-body if false (i.e., equal to 0)
-    node.getExpr().apply(this);
-    cache.addIndentedLine(String.format("ifeq %s", continueLabelElse));
+    // generate condition and skip then-body if false
+    generateConditionCode(node.getExpr(), continueLabelElse, false);
 
     // generate then-body
     node.getThenBlock().apply(this);
-    cache.addIndentedLine(String.format("goto %s", continueLabelEnd));
+    cache.addBranch(Opcode.GOTO, continueLabelEnd);
 
     // generate else-block
-    cache.addIndentedLine(String.format("%s:", continueLabelElse));
+    cache.addLabel(continueLabelElse);
     node.getElseBlock().apply(this);
-    cache.addIndentedLine(String.format("%s:", continueLabelEnd));
+    cache.addLabel(continueLabelEnd);
   }
 
   @Override
@@ -196,15 +233,14 @@ public class CodeGenerator extends DepthFirstAdapter {
     final String headLabel = getNewHeadLabel();
     final String continueLabel = getNewContinueLabel();
 
-    // generate head and skip while-body if false (i.e., equal to 0)
-    cache.addIndentedLine(String.format("%s:", headLabel));
-    node.getExpr().apply(this);
-    cache.addIndentedLine(String.format("ifeq %s", continueLabel));
+    // generate head and skip while-body if false
+    cache.addLabel(headLabel);
+    generateConditionCode(node.getExpr(), continueLabel, false);
 
     // generate body
     node.getBody().apply(this);
-    cache.addIndentedLine(String.format("goto %s", headLabel));
-    cache.addIndentedLine(String.format("%s:", continueLabel));
+    cache.addBranch(Opcode.GOTO, headLabel);
+    cache.addLabel(continueLabel);
   }
 
   @Override
@@ -224,11 +260,10 @@ public class CodeGenerator extends DepthFirstAdapter {
       currArg.apply(this);
     }
 
-    final String functionCall = "invokestatic %s/%s(%s)%s".formatted(
-        this.programName, functionName, argumentJvmTypeString, returnJvmType);
-    cache.addIndentedLine(functionCall);
+    cache.addInstruction(Opcode.INVOKESTATIC, new MemberReference(this.programName,
+        functionName, "(" + argumentJvmTypeString + ")" + returnJvmType));
     if (!returnType.equals(Type.NONE)) {
-      cache.addIndentedLine("pop"); // ignore return value
+      cache.addInstruction(Opcode.POP); // ignore return value
     }
   }
 
@@ -249,9 +284,8 @@ public class CodeGenerator extends DepthFirstAdapter {
       currArg.apply(this);
     }
 
-    final String functionCall = "invokestatic %s/%s(%s)%s".formatted(
-        this.programName, functionName, argumentJvmTypeString, returnJvmType);
-    cache.addIndentedLine(functionCall);
+    cache.addInstruction(Opcode.INVOKESTATIC, new MemberReference(this.programName,
+        functionName, "(" + argumentJvmTypeString + ")" + returnJvmType));
   }
 
   @Override
@@ -269,16 +303,16 @@ public class CodeGenerator extends DepthFirstAdapter {
     switch (returnType) {
       case BOOLEAN:
       case INT:
-        cache.addIndentedLine("ireturn");
+        cache.addInstruction(Opcode.IRETURN);
         break;
       case FLOAT:
-        cache.addIndentedLine("freturn");
+        cache.addInstruction(Opcode.FRETURN);
         break;
       case STRING:
-        cache.addIndentedLine("areturn");
+        cache.addInstruction(Opcode.ARETURN);
         break;
       default:
-        cache.addIndentedLine("return");
+        cache.addInstruction(Opcode.RETURN);
     }
   }
 
@@ -290,19 +324,15 @@ public class CodeGenerator extends DepthFirstAdapter {
 
     expr.apply(this); // put expression value on the stack
 
-    String[] preparePrint = {
-        "getstatic java/lang/System/out Ljava/io/PrintStream;",
-        "swap" };
-    cache.addIndentedLines(Arrays.asList(preparePrint));
+    cache.addInstruction(Opcode.GETSTATIC, PRINT_STREAM);
+    cache.addInstruction(Opcode.SWAP);
 
     if (type.equals(Type.FLOAT) && node.getExpr().getType().equals(Type.INT)) {
-      cache.addIndentedLine("i2f");
+      cache.addInstruction(Opcode.I2F);
     }
 
-    String printCommand = String.format(
-        "invokevirtual java/io/PrintStream/print(%s)V",
-        type.getJvmType());
-    cache.addIndentedLine(printCommand);
+    cache.addInstruction(Opcode.INVOKEVIRTUAL, new MemberReference(
+        "java/io/PrintStream", "print", "(" + type.getJvmType() + ")V"));
   }
 
   @Override
@@ -313,19 +343,15 @@ public class CodeGenerator extends DepthFirstAdapter {
 
     expr.apply(this); // put expression value on the stack
 
-    String[] preparePrint = {
-        "getstatic java/lang/System/out Ljava/io/PrintStream;",
-        "swap" };
-    cache.addIndentedLines(Arrays.asList(preparePrint));
+    cache.addInstruction(Opcode.GETSTATIC, PRINT_STREAM);
+    cache.addInstruction(Opcode.SWAP);
 
     if (type.equals(Type.FLOAT) && node.getExpr().getType().equals(Type.INT)) {
-      cache.addIndentedLine("i2f");
+      cache.addInstruction(Opcode.I2F);
     }
 
-    String printCommand = String.format(
-        "invokevirtual java/io/PrintStream/println(%s)V",
-        type.getJvmType());
-    cache.addIndentedLine(printCommand);
+    cache.addInstruction(Opcode.INVOKEVIRTUAL, new MemberReference(
+        "java/io/PrintStream", "println", "(" + type.getJvmType() + ")V"));
   }
 
   // Variable statements
@@ -343,7 +369,8 @@ public class CodeGenerator extends DepthFirstAdapter {
   public void outAInitStat(AInitStat node) {
     String id = node.getId().getText();
     String scopeName = symbolTable.determineScope(node);
-    generateAssignCode(scopeName, id, node.getExpr().getType().equals(Type.INT));
+    Symbol symbol = symbolTable.getSymbol(node, id);
+    generateAssignCode(scopeName, symbol, node.getExpr().getType().equals(Type.INT));
   }
 
   @Override
@@ -355,7 +382,8 @@ public class CodeGenerator extends DepthFirstAdapter {
   public void outAAssignStat(AAssignStat node) {
     String id = node.getId().getText();
     String scopeName = symbolTable.determineScope(node);
-    generateAssignCode(scopeName, id, node.getExpr().getType().equals(Type.INT));
+    Symbol symbol = symbolTable.getSymbol(node, id);
+    generateAssignCode(scopeName, symbol, node.getExpr().getType().equals(Type.INT));
   }
 
   // Arithmetic operations
@@ -363,10 +391,10 @@ public class CodeGenerator extends DepthFirstAdapter {
   public void caseAAddExpr(AAddExpr node) {
     if (node.getType().equals(Type.FLOAT)) {
       generateArithmeticChildren(node.getLeft(), node.getRight(), true);
-      cache.addIndentedLine("fadd");
+      cache.addInstruction(Opcode.FADD);
     } else if (node.getType().equals(Type.INT)) {
       generateArithmeticChildren(node.getLeft(), node.getRight(), false);
-      cache.addIndentedLine("iadd");
+      cache.addInstruction(Opcode.IADD);
     }
   }
 
@@ -374,10 +402,10 @@ public class CodeGenerator extends DepthFirstAdapter {
   public void caseASubExpr(ASubExpr node) {
     if (node.getType().equals(Type.FLOAT)) {
       generateArithmeticChildren(node.getLeft(), node.getRight(), true);
-      cache.addIndentedLine("fsub");
+      cache.addInstruction(Opcode.FSUB);
     } else if (node.getType().equals(Type.INT)) {
       generateArithmeticChildren(node.getLeft(), node.getRight(), false);
-      cache.addIndentedLine("isub");
+      cache.addInstruction(Opcode.ISUB);
     }
   }
 
@@ -385,10 +413,10 @@ public class CodeGenerator extends DepthFirstAdapter {
   public void caseAMulExpr(AMulExpr node) {
     if (node.getType().equals(Type.FLOAT)) {
       generateArithmeticChildren(node.getLeft(), node.getRight(), true);
-      cache.addIndentedLine("fmul");
+      cache.addInstruction(Opcode.FMUL);
     } else if (node.getType().equals(Type.INT)) {
       generateArithmeticChildren(node.getLeft(), node.getRight(), false);
-      cache.addIndentedLine("imul");
+      cache.addInstruction(Opcode.IMUL);
     }
   }
 
@@ -396,63 +424,79 @@ public class CodeGenerator extends DepthFirstAdapter {
   public void caseADivExpr(ADivExpr node) {
     if (node.getType().equals(Type.FLOAT)) {
       generateArithmeticChildren(node.getLeft(), node.getRight(), true);
-      cache.addIndentedLine("fdiv");
+      cache.addInstruction(Opcode.FDIV);
     } else if (node.getType().equals(Type.INT)) {
       generateArithmeticChildren(node.getLeft(), node.getRight(), false);
-      cache.addIndentedLine("idiv");
+      cache.addInstruction(Opcode.IDIV);
     }
   }
 
   @Override
   public void outAModExpr(AModExpr node) {
-    cache.addIndentedLine("irem");
+    cache.addInstruction(Opcode.IREM);
   }
 
-  // Boolean operations
+  // Boolean operations (short-circuit, i.e., the right operand is only evaluated if needed)
   @Override
-  public void outAAndExpr(AAndExpr node) {
-    cache.addIndentedLine("iand"); // logic of "and" behaves like multiplication
+  public void caseAAndExpr(AAndExpr node) {
+    generateBooleanValueCode(node);
   }
 
   @Override
-  public void outAOrExpr(AOrExpr node) {
-    cache.addIndentedLine("ior");
+  public void caseAOrExpr(AOrExpr node) {
+    generateBooleanValueCode(node);
   }
 
-  // String operations
+  // String operations (a chain of concats appends all operands to a single StringBuilder)
   @Override
-  public void inAConcatExpr(AConcatExpr node) {
-    List<String> stringBufferInit = Arrays.asList(
-        "new java/lang/StringBuffer  ; concat",
-        "dup",
-        "invokespecial java/lang/StringBuffer/<init>()V");
-    cache.addIndentedLines(stringBufferInit);
+  public void caseAConcatExpr(AConcatExpr node) {
+    List<PExpr> operands = new ArrayList<>();
+    collectConcatOperands(node, operands);
+
+    cache.addInstruction(Opcode.NEW, new ClassReference(STRING_BUILDER));
+    cache.addInstruction(Opcode.DUP);
+    cache.addInstruction(Opcode.LDC, estimateConcatLength(operands));
+    cache.addInstruction(Opcode.INVOKESPECIAL,
+        new MemberReference(STRING_BUILDER, "<init>", "(I)V"));
+    for (PExpr operand : operands) {
+      operand.apply(this);
+      cache.addInstruction(Opcode.INVOKEVIRTUAL, getAppendCommand(operand));
+    }
+    cache.addInstruction(Opcode.INVOKEVIRTUAL,
+        new MemberReference(STRING_BUILDER, "toString", "()Ljava/lang/String;"));
   }
 
-  private String getAppendCommand(PExpr node) {
-    /* Get append command for a StringBuilder using the correct type. */
-    String baseCommand = "invokevirtual java/lang/StringBuffer/append(%s)Ljava/lang/StringBuffer;";
-    String jvmType = node.getType().getJvmType();
-    return baseCommand.formatted(jvmType);
+  private static void collectConcatOperands(PExpr node, List<PExpr> operands) {
+    /* Flattens nested concats into their operands from left to right. */
+    if (node instanceof AConcatExpr concatExpr) {
+      collectConcatOperands(concatExpr.getLeft(), operands);
+      collectConcatOperands(concatExpr.getRight(), operands);
+    } else {
+      operands.add(node);
+    }
   }
 
-  @Override
-  public void caseAConcatExpr(AConcatExpr node) {
-    inAConcatExpr(node);
-    if (node.getLeft() != null) {
-      node.getLeft().apply(this);
-    }
-    cache.addIndentedLine(getAppendCommand(node.getLeft()));
-    if (node.getRight() != null) {
-      node.getRight().apply(this);
+  private static int estimateConcatLength(List<PExpr> operands) {
+    /* Estimates the length of a concat for the capacity of its StringBuilder. */
+    int length = 0;
+    for (PExpr operand : operands) {
+      if (operand instanceof AStringExpr stringExpr) {
+        length += stringExpr.getLit().getText().length() - 2; // without quotes
+      } else if (operand.getType().equals(Type.BOOLEAN)) {
+        length += 5; // "false"
+      } else if (operand.getType().equals(Type.INT)) {
+        length += 11; // "-2147483648"
+      } else { // e.g., float values and string variables
+        length += 16;
+      }
     }
-    cache.addIndentedLine(getAppendCommand(node.getRight()));
-    outAConcatExpr(node);
+    return length;
   }
 
-  @Override
-  public void outAConcatExpr(AConcatExpr node) {
-    cache.addIndentedLine("invokevirtual java/lang/StringBuffer/toString()Ljava/lang/String;");
+  private MemberReference getAppendCommand(PExpr node) {
+    /* Get append command for a StringBuilder using the correct type. */
+    return new MemberReference(STRING_BUILDER, "append",
+        "(" + node.getType().getJvmType() + ")Ljava/lang/StringBuilder;");
   }
 
   // Unary operations
@@ -461,70 +505,74 @@ public class CodeGenerator extends DepthFirstAdapter {
   public void outAUminusExpr(AUminusExpr node) {
     if (node.getType().equals(Type.FLOAT)) {
       if (node.getExpr().getType().equals(Type.INT)) {
-        cache.addIndentedLine("i2f");
+        cache.addInstruction(Opcode.I2F);
       }
-      cache.addIndentedLine("fneg");
+      cache.addInstruction(Opcode.FNEG);
     } else if (node.getType().equals(Type.INT)) {
-      cache.addIndentedLine("ineg");
+      cache.addInstruction(Opcode.INEG);
     }
   }
 
   @Override
   public void outANotExpr(ANotExpr node) {
     // logic of "not" behaves like adding 1 mod 2
-    String[] lines = { "ldc 1", "iadd", "ldc 2", "irem" };
-    cache.addIndentedLines(Arrays.asList(lines));
+    cache.addInstruction(Opcode.LDC, 1);
+    cache.addInstruction(Opcode.IADD);
+    cache.addInstruction(Opcode.LDC, 2);
+    cache.addInstruction(Opcode.IREM);
   }
 
   // Comparison expressions (calculate a boolean value with true=1, false=0)
   @Override
-  public void outAEqExpr(AEqExpr node) {
+  public void caseAEqExpr(AEqExpr node) {
     if (node.getLeft().getType().equals(Type.STRING)) {
-      cache.addIndentedLine("invokevirtual java/lang/String/equals(Ljava/lang/Object;)Z");
+      node.getLeft().apply(this);
+      node.getRight().apply(this);
+      cache.addInstruction(Opcode.INVOKEVIRTUAL, STRING_EQUALS);
     } else {
-      cache.addIndentedLines(Arrays.asList(getComparisonCode("ifeq")));
+      generateComparisonCode(getComparison(node));
     }
   }
 
   @Override
-  public void outANeqExpr(ANeqExpr node) {
+  public void caseANeqExpr(ANeqExpr node) {
     if (node.getLeft().getType().equals(Type.STRING)) {
-      cache.addIndentedLine("invokevirtual java/lang/String/equals(Ljava/lang/Object;)Z");
+      node.getLeft().apply(this);
+      node.getRight().apply(this);
+      cache.addInstruction(Opcode.INVOKEVIRTUAL, STRING_EQUALS);
 
       // negate
       final String trueLabel = getNewTrueLabel();
       final String continueLabel = getNewContinueLabel();
-      List<String> negationCode = Arrays.asList(
-          String.format("ifeq %s", trueLabel),
-          "ldc 0",
-          String.format("goto %s", continueLabel),
-          String.format("%s:", trueLabel),
-          "ldc 1",
-          String.format("%s:", continueLabel));
-      cache.addIndentedLines(negationCode);
+      cache.addBranch(Opcode.IFEQ, trueLabel);
+      cache.addInstruction(Opcode.LDC, 0);
+      cache.addBranch(Opcode.GOTO, continueLabel);
+      cache.addLabel(trueLabel);
+      cache.addInstruction(Opcode.LDC, 1);
+      cache.addLabel(continueLabel);
     } else {
-      cache.addIndentedLines(Arrays.asList(getComparisonCode("ifne")));
+      generateComparisonCode(getComparison(node));
     }
   }
 
   @Override
-  public void outALteqExpr(ALteqExpr node) {
-    cache.addIndentedLines(Arrays.asList(getComparisonCode("ifle")));
+  public void caseALteqExpr(ALteqExpr node) {
+    generateComparisonCode(getComparison(node));
   }
 
   @Override
-  public void outALtExpr(ALtExpr node) {
-    cache.addIndentedLines(Arrays.asList(getComparisonCode("iflt")));
+  public void caseALtExpr(ALtExpr node) {
+    generateComparisonCode(getComparison(node));
   }
 
   @Override
-  public void outAGteqExpr(AGteqExpr node) {
-    cache.addIndentedLines(Arrays.asList(getComparisonCode("ifge")));
+  public void caseAGteqExpr(AGteqExpr node) {
+    generateComparisonCode(getComparison(node));
   }
 
   @Override
-  public void outAGtExpr(AGtExpr node) {
-    cache.addIndentedLines(Arrays.asList(getComparisonCode("ifgt")));
+  public void caseAGtExpr(AGtExpr node) {
+    generateComparisonCode(getComparison(node));
   }
 
   // Literal expressions
@@ -533,114 +581,259 @@ public class CodeGenerator extends DepthFirstAdapter {
     String value = node.getLit().getText();
 
     if (value.equals("true")) {
-      cache.addIndentedLine("ldc 1");
+      cache.addInstruction(Opcode.LDC, 1);
     } else {
-      cache.addIndentedLine("ldc 0");
+      cache.addInstruction(Opcode.LDC, 0);
     }
   }
 
   @Override
   public void outAFloatExpr(AFloatExpr node) {
-    cache.addIndentedLine(String.format("ldc %s", node.getLit().getText()));
+    cache.addInstruction(Opcode.LDC, new FloatValue(Float.parseFloat(node.getLit().getText())));
   }
 
   @Override
   public void outAIdExpr(AIdExpr node) {
     String id = node.getId().getText();
     String scopeName = symbolTable.determineScope(node);
-    int varNumber = symbolTable.getVariableNumber(scopeName, id);
-    String loadCommand = "";
+    Symbol symbol = symbolTable.getSymbol(node, id);
+    int varNumber = getLocalSlot(scopeName, symbol);
+    Opcode loadCommand;
 
-    switch (this.symbolTable.getSymbolType(scopeName, id)) {
+    switch (symbol.getType()) {
       case FLOAT:
-        loadCommand = "fload";
+        loadCommand = Opcode.FLOAD;
         break;
       case STRING:
-        loadCommand = "aload";
+        loadCommand = Opcode.ALOAD;
         break;
       default: // boolean and int are stored as int
-        loadCommand = "iload";
+        loadCommand = Opcode.ILOAD;
     }
 
-    cache.addIndentedLine(String.format("%s %s", loadCommand, varNumber));
+    cache.addInstruction(loadCommand, varNumber);
   }
 
   @Override
   public void outAIntExpr(AIntExpr node) {
-    cache.addIndentedLine(String.format("ldc %s", node.getLit().getText()));
+    cache.addInstruction(Opcode.LDC, Integer.parseInt(node.getLit().getText()));
   }
 
   @Override
   public void outAStringExpr(AStringExpr node) {
-    cache.addIndentedLine(String.format("ldc %s", node.getLit().getText()));
+    cache.addInstruction(Opcode.LDC,
+        new StringValue(ClassFileAssembler.parseStringLiteral(node.getLit().getText())));
   }
 
   // Helpers
+  int getLocalSlot(String scopeName, Symbol symbol) {
+    /* Determines the local slot of a variable, i.e., its allocated slot or number. */
+    if (this.slotAllocations == null) {
+      return symbol.getVariableNumber();
+    }
+    return this.slotAllocations.get(scopeName).getSlot(symbol);
+  }
+
+  int countLocalSlots(String scopeName) {
+    /* Counts the local slots that the variables of a function need. */
+    if (this.slotAllocations == null) {
+      return symbolTable.countSymbolsInScope(scopeName);
+    }
+    return this.slotAllocations.get(scopeName).getSlotCount();
+  }
+
   String getNewContinueLabel() {
     /* Generates a unique label to continue after assembly control structures. */
-    return String.format("C%d", ++this.lastContinueLabel);
+    return "C" + (++this.lastContinueLabel);
   }
 
   String getNewTrueLabel() {
     /* Generates a unique label for true cases in assembly instructions. */
-    return String.format("T%d", ++this.lastTrueLabel);
+    return "T" + (++this.lastTrueLabel);
+  }
+
+  void resetLabels() {
+    /*
+     * Labels are local to each method, so numbering them per method makes the
+     * code of a method independent of the methods before it.
+     */
+    this.lastContinueLabel = 0;
+    this.lastHeadLabel = 0;
+    this.lastTrueLabel = 0;
   }
 
   String getNewHeadLabel() {
     /* Generates a unique head label for assembly instructions. */
-    return String.format("H%d", ++this.lastHeadLabel);
+    return "H" + (++this.lastHeadLabel);
   }
 
-  String[] getComparisonCode(String operand) {
+  void generateComparisonCode(Comparison comparison) {
     /* Generates comparison code for boolean, float and int. */
     final String continueLabel = getNewContinueLabel();
     final String trueLabel = getNewTrueLabel();
-    return new String[] {
-        "isub",
-        String.format("%s %s", operand, trueLabel),
-        "ldc 0",
-        String.format("goto %s", continueLabel),
-        String.format("%s:", trueLabel),
-        "ldc 1",
-        String.format("%s:", continueLabel) };
+    generateComparisonBranch(comparison, trueLabel, true);
+    cache.addInstruction(Opcode.LDC, 0);
+    cache.addBranch(Opcode.GOTO, continueLabel);
+    cache.addLabel(trueLabel);
+    cache.addInstruction(Opcode.LDC, 1);
+    cache.addLabel(continueLabel);
   }
 
-  void generateAssignCode(String scopeName, String id, boolean castInt) {
-    int varNumber = symbolTable.getVariableNumber(scopeName, id);
-    String storeCommand = "";
+  void generateBooleanValueCode(PExpr node) {
+    /* Generates a boolean value with true=1, false=0 for a condition with jumps. */
+    final String continueLabel = getNewContinueLabel();
+    final String falseLabel = getNewContinueLabel();
+    generateConditionCode(node, falseLabel, false);
+    cache.addInstruction(Opcode.LDC, 1);
+    cache.addBranch(Opcode.GOTO, continueLabel);
+    cache.addLabel(falseLabel);
+    cache.addInstruction(Opcode.LDC, 0);
+    cache.addLabel(continueLabel);
+  }
+
+  void generateConditionCode(PExpr node, String target, boolean jumpIfTrue) {
+    /*
+     * Generates a jump to the target if the condition equals jumpIfTrue, and
+     * falls through otherwise. Boolean operations become jump chains without
+     * materializing their operands, and comparisons of numbers branch directly.
+     */
+    if (node instanceof AAndExpr andExpr) {
+      generateShortCircuitCode(andExpr.getLeft(), andExpr.getRight(), false, target, jumpIfTrue);
+    } else if (node instanceof AOrExpr orExpr) {
+      generateShortCircuitCode(orExpr.getLeft(), orExpr.getRight(), true, target, jumpIfTrue);
+    } else if (node instanceof ANotExpr notExpr) {
+      generateConditionCode(notExpr.getExpr(), target, !jumpIfTrue);
+    } else if (node instanceof ABooleanExpr booleanExpr) {
+      if (Boolean.parseBoolean(booleanExpr.getLit().getText()) == jumpIfTrue) {
+        cache.addBranch(Opcode.GOTO, target);
+      }
+    } else {
+      Comparison comparison = getComparison(node);
+      if (comparison != null) {
+        generateComparisonBranch(comparison, target, jumpIfTrue);
+      } else { // e.g., variables, function calls and string comparisons
+        node.apply(this);
+        cache.addBranch(jumpIfTrue ? Opcode.IFNE : Opcode.IFEQ, target);
+      }
+    }
+  }
 
-    switch (this.symbolTable.getSymbolType(scopeName, id)) {
+  private void generateShortCircuitCode(PExpr left, PExpr right, boolean isOr,
+      String target, boolean jumpIfTrue) {
+    /*
+     * Generates "left and right" (or "left or right") as jumps: if the left
+     * operand already decides the result, the right one is skipped.
+     */
+    if (isOr == jumpIfTrue) { // either operand alone reaches the target
+      generateConditionCode(left, target, jumpIfTrue);
+      generateConditionCode(right, target, jumpIfTrue);
+    } else { // the left operand decides the opposite result on its own
+      final String skipLabel = getNewContinueLabel();
+      generateConditionCode(left, skipLabel, isOr);
+      generateConditionCode(right, target, jumpIfTrue);
+      cache.addLabel(skipLabel);
+    }
+  }
+
+  private void generateComparisonBranch(Comparison comparison, String target,
+      boolean jumpIfTrue) {
+    /*
+     * Generates a jump to the target if the comparison equals jumpIfTrue. Ints
+     * and booleans branch with if_icmpXX. Floats are compared by fcmpl or
+     * fcmpg and branch on the result, and int operands are only converted if
+     * the other operand is a float. NaN makes every comparison but != false,
+     * i.e., < and <= use fcmpg, which yields 1 for NaN, and the others fcmpl.
+     */
+    boolean isFloat = comparison.left().getType().equals(Type.FLOAT)
+        || comparison.right().getType().equals(Type.FLOAT);
+    generateArithmeticChildren(comparison.left(), comparison.right(), isFloat);
+
+    Opcode branch = jumpIfTrue ? comparison.branch() : comparison.branch().getNegatedBranch();
+    if (isFloat) {
+      boolean isLess = (comparison.branch() == Opcode.IFLT) || (comparison.branch() == Opcode.IFLE);
+      cache.addInstruction(isLess ? Opcode.FCMPG : Opcode.FCMPL);
+      cache.addBranch(branch, target);
+    } else {
+      cache.addBranch(branch.getIntComparison(), target);
+    }
+  }
+
+  private static Comparison getComparison(PExpr node) {
+    /* Gets the operands and ifXX branch of comparisons of numbers or booleans, or null. */
+    Comparison comparison = null;
+    if (node instanceof AEqExpr eq) {
+      comparison = new Comparison(eq.getLeft(), eq.getRight(), Opcode.IFEQ);
+    } else if (node instanceof ANeqExpr neq) {
+      comparison = new Comparison(neq.getLeft(), neq.getRight(), Opcode.IFNE);
+    } else if (node instanceof ALtExpr lt) {
+      comparison = new Comparison(lt.getLeft(), lt.getRight(), Opcode.IFLT);
+    } else if (node instanceof ALteqExpr lteq) {
+      comparison = new Comparison(lteq.getLeft(), lteq.getRight(), Opcode.IFLE);
+    } else if (node instanceof AGtExpr gt) {
+      comparison = new Comparison(gt.getLeft(), gt.getRight(), Opcode.IFGT);
+    } else if (node instanceof AGteqExpr gteq) {
+      comparison = new Comparison(gteq.getLeft(), gteq.getRight(), Opcode.IFGE);
+    }
+    if ((comparison != null) && comparison.left().getType().equals(Type.STRING)) {
+      return null;
+    }
+    return comparison;
+  }
+
+  /* Comparison of numbers or booleans, with the ifXX branch that tests its result. */
+  private record Comparison(PExpr left, PExpr right, Opcode branch) {
+  }
+
+  void generateAssignCode(String scopeName, Symbol symbol, boolean castInt) {
+    int varNumber = getLocalSlot(scopeName, symbol);
+    Opcode storeCommand;
+
+    switch (symbol.getType()) {
       case FLOAT:
         if (castInt) {
-          cache.addIndentedLine("i2f");
+          cache.addInstruction(Opcode.I2F);
         }
-        storeCommand = "fstore";
+        storeCommand = Opcode.FSTORE;
         break;
       case STRING:
-        storeCommand = "astore";
+        storeCommand = Opcode.ASTORE;
         break;
       default: // boolean and int are stored as int
-        storeCommand = "istore";
+        storeCommand = Opcode.ISTORE;
     }
 
-    cache.addIndentedLine(String.format("%s %s", storeCommand, varNumber));
+    cache.addInstruction(storeCommand, varNumber);
   }
 
   void generateArithmeticChildren(PExpr left, PExpr right, boolean cast) {
     left.apply(this);
     if (cast && left.getType().equals(Type.INT)) {
-      cache.addIndentedLine("i2f");
+      cache.addInstruction(Opcode.I2F);
     }
     right.apply(this);
     if (cast && right.getType().equals(Type.INT)) {
-      cache.addIndentedLine("i2f");
+      cache.addInstruction(Opcode.I2F);
     }
   }
 
   void addLineNumber(Node node, String description) {
-    cache.addIndentedLine(".line %d ; %s".formatted(this.lineEvaluator.getLine(node), description));
+    cache.addLineNumber(this.lineEvaluator.getLine(node), description);
+  }
+
+  void addMethodEnd() {
+    cache.addBlank();
+    cache.addInstruction(Opcode.RETURN);
+    cache.addMethodEnd();
+    cache.addBlank();
+    cache.completeMethod();
+  }
+
+  /** Get the generated code elements, e.g., for optimizations or the class file assembler. */
+  public List<CodeElement> getElements() {
+    return this.cache.getElements();
   }
 
+  /** Get the generated code as lines of Jasmin code. */
   public ArrayList<String> getCode() {
     return this.cache.getCode();
   }
@@ -0,0 +1,155 @@
+package codegeneration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * Constant pool of a class file. Equal constants share a single entry, and
+ * each method returns the index of the requested entry.
+ */
+class ConstantPool {
+  private static final int TAG_UTF8 = 1;
+  private static final int TAG_INTEGER = 3;
+  private static final int TAG_FLOAT = 4;
+  private static final int TAG_CLASS = 7;
+  private static final int TAG_STRING = 8;
+  private static final int TAG_FIELD_REF = 9;
+  private static final int TAG_METHOD_REF = 10;
+  private static final int TAG_NAME_AND_TYPE = 12;
+
+  private final ByteArrayOutputStream bytes;
+  private final DataOutputStream entries;
+  private final HashMap<String, Integer> indices;
+  private int nextIndex;
+
+  ConstantPool() {
+    this.bytes = new ByteArrayOutputStream();
+    this.entries = new DataOutputStream(bytes);
+    this.indices = new HashMap<>();
+    this.nextIndex = 1; // index 0 is reserved
+  }
+
+  int addUtf8(String value) {
+    String key = "utf8:" + value;
+    Integer index = indices.get(key);
+    if (index == null) {
+      index = addEntry(key, out -> {
+        out.writeByte(TAG_UTF8);
+        out.writeUTF(value);
+      });
+    }
+    return index;
+  }
+
+  int addInteger(int value) {
+    String key = "int:" + value;
+    Integer index = indices.get(key);
+    if (index == null) {
+      index = addEntry(key, out -> {
+        out.writeByte(TAG_INTEGER);
+        out.writeInt(value);
+      });
+    }
+    return index;
+  }
+
+  int addFloat(float value) {
+    String key = "float:" + Float.floatToRawIntBits(value);
+    Integer index = indices.get(key);
+    if (index == null) {
+      index = addEntry(key, out -> {
+        out.writeByte(TAG_FLOAT);
+        out.writeFloat(value);
+      });
+    }
+    return index;
+  }
+
+  int addClass(String internalName) {
+    String key = "class:" + internalName;
+    Integer index = indices.get(key);
+    if (index == null) {
+      int nameIndex = addUtf8(internalName);
+      index = addEntry(key, out -> {
+        out.writeByte(TAG_CLASS);
+        out.writeShort(nameIndex);
+      });
+    }
+    return index;
+  }
+
+  int addString(String value) {
+    String key = "string:" + value;
+    Integer index = indices.get(key);
+    if (index == null) {
+      int valueIndex = addUtf8(value);
+      index = addEntry(key, out -> {
+        out.writeByte(TAG_STRING);
+        out.writeShort(valueIndex);
+      });
+    }
+    return index;
+  }
+
+  int addFieldRef(String owner, String name, String descriptor) {
+    return addMemberRef(TAG_FIELD_REF, owner, name, descriptor);
+  }
+
+  int addMethodRef(String owner, String name, String descriptor) {
+    return addMemberRef(TAG_METHOD_REF, owner, name, descriptor);
+  }
+
+  private int addMemberRef(int tag, String owner, String name, String descriptor) {
+    String key = "member%d:%s.%s:%s".formatted(tag, owner, name, descriptor);
+    Integer index = indices.get(key);
+    if (index == null) {
+      int classIndex = addClass(owner);
+      int nameAndTypeIndex = addNameAndType(name, descriptor);
+      index = addEntry(key, out -> {
+        out.writeByte(tag);
+        out.writeShort(classIndex);
+        out.writeShort(nameAndTypeIndex);
+      });
+    }
+    return index;
+  }
+
+  private int addNameAndType(String name, String descriptor) {
+    String key = "nameAndType:%s:%s".formatted(name, descriptor);
+    Integer index = indices.get(key);
+    if (index == null) {
+      int nameIndex = addUtf8(name);
+      int descriptorIndex = addUtf8(descriptor);
+      index = addEntry(key, out -> {
+        out.writeByte(TAG_NAME_AND_TYPE);
+        out.writeShort(nameIndex);
+        out.writeShort(descriptorIndex);
+      });
+    }
+    return index;
+  }
+
+  private int addEntry(String key, EntryWriter writer) {
+    try {
+      writer.write(this.entries);
+    } catch (IOException e) { // Should never happen for in-memory streams
+      throw new IllegalStateException(e);
+    }
+    int index = this.nextIndex++;
+    this.indices.put(key, index);
+    return index;
+  }
+
+  /** Write the number of entries and all entries into the class file. */
+  void writeTo(DataOutputStream out) throws IOException {
+    out.writeShort(this.nextIndex);
+    this.bytes.writeTo(out);
+  }
+
+  /* Writer for the bytes of a single constant pool entry. */
+  private interface EntryWriter {
+    void write(DataOutputStream out) throws IOException;
+  }
+}
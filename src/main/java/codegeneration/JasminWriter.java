@@ -0,0 +1,37 @@
+package codegeneration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+/** Writer for code elements that translates them into lines of Jasmin code. */
+public class JasminWriter {
+  private final Writer writer;
+
+  /**
+   * Writer for Jasmin code that appends to the given writer.
+   *
+   * @param writer Writer for the Jasmin file, preferably a buffered one
+   */
+  public JasminWriter(Writer writer) {
+    this.writer = writer;
+  }
+
+  /**
+   * Write a line of Jasmin code per element.
+   *
+   * @param elements Elements of the code, e.g., of a single method
+   * @throws UncheckedIOException If the underlying writer fails
+   */
+  public void write(List<CodeElement> elements) {
+    try {
+      for (CodeElement element : elements) {
+        this.writer.write(element.toJasmin());
+        this.writer.write(System.lineSeparator());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package codegeneration;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/** JVM instructions that the CodeGenerator emits, with their mnemonics and encodings. */
+public enum Opcode {
+  NOP("nop", 0x00, OperandKind.NONE),
+  ICONST_M1("iconst_m1", 0x02, OperandKind.NONE),
+  ICONST_0("iconst_0", 0x03, OperandKind.NONE),
+  ICONST_1("iconst_1", 0x04, OperandKind.NONE),
+  ICONST_2("iconst_2", 0x05, OperandKind.NONE),
+  ICONST_3("iconst_3", 0x06, OperandKind.NONE),
+  ICONST_4("iconst_4", 0x07, OperandKind.NONE),
+  ICONST_5("iconst_5", 0x08, OperandKind.NONE),
+  FCONST_0("fconst_0", 0x0b, OperandKind.NONE),
+  FCONST_1("fconst_1", 0x0c, OperandKind.NONE),
+  FCONST_2("fconst_2", 0x0d, OperandKind.NONE),
+  BIPUSH("bipush", 0x10, OperandKind.BYTE),
+  SIPUSH("sipush", 0x11, OperandKind.SHORT),
+  LDC("ldc", 0x12, OperandKind.CONSTANT),
+  ILOAD("iload", 0x15, OperandKind.LOCAL),
+  FLOAD("fload", 0x17, OperandKind.LOCAL),
+  ALOAD("aload", 0x19, OperandKind.LOCAL),
+  ALOAD_0("aload_0", 0x2a, OperandKind.NONE),
+  AALOAD("aaload", 0x32, OperandKind.NONE),
+  ISTORE("istore", 0x36, OperandKind.LOCAL),
+  FSTORE("fstore", 0x38, OperandKind.LOCAL),
+  ASTORE("astore", 0x3a, OperandKind.LOCAL),
+  AASTORE("aastore", 0x53, OperandKind.NONE),
+  POP("pop", 0x57, OperandKind.NONE),
+  DUP("dup", 0x59, OperandKind.NONE),
+  SWAP("swap", 0x5f, OperandKind.NONE),
+  IADD("iadd", 0x60, OperandKind.NONE),
+  FADD("fadd", 0x62, OperandKind.NONE),
+  ISUB("isub", 0x64, OperandKind.NONE),
+  FSUB("fsub", 0x66, OperandKind.NONE),
+  IMUL("imul", 0x68, OperandKind.NONE),
+  FMUL("fmul", 0x6a, OperandKind.NONE),
+  IDIV("idiv", 0x6c, OperandKind.NONE),
+  FDIV("fdiv", 0x6e, OperandKind.NONE),
+  IREM("irem", 0x70, OperandKind.NONE),
+  INEG("ineg", 0x74, OperandKind.NONE),
+  FNEG("fneg", 0x76, OperandKind.NONE),
+  IAND("iand", 0x7e, OperandKind.NONE),
+  IOR("ior", 0x80, OperandKind.NONE),
+  IXOR("ixor", 0x82, OperandKind.NONE),
+  I2F("i2f", 0x86, OperandKind.NONE),
+  FCMPL("fcmpl", 0x95, OperandKind.NONE),
+  FCMPG("fcmpg", 0x96, OperandKind.NONE),
+  IFEQ("ifeq", 0x99, OperandKind.BRANCH),
+  IFNE("ifne", 0x9a, OperandKind.BRANCH),
+  IFLT("iflt", 0x9b, OperandKind.BRANCH),
+  IFGE("ifge", 0x9c, OperandKind.BRANCH),
+  IFGT("ifgt", 0x9d, OperandKind.BRANCH),
+  IFLE("ifle", 0x9e, OperandKind.BRANCH),
+  IF_ICMPEQ("if_icmpeq", 0x9f, OperandKind.BRANCH),
+  IF_ICMPNE("if_icmpne", 0xa0, OperandKind.BRANCH),
+  IF_ICMPLT("if_icmplt", 0xa1, OperandKind.BRANCH),
+  IF_ICMPGE("if_icmpge", 0xa2, OperandKind.BRANCH),
+  IF_ICMPGT("if_icmpgt", 0xa3, OperandKind.BRANCH),
+  IF_ICMPLE("if_icmple", 0xa4, OperandKind.BRANCH),
+  GOTO("goto", 0xa7, OperandKind.BRANCH),
+  IRETURN("ireturn", 0xac, OperandKind.NONE),
+  FRETURN("freturn", 0xae, OperandKind.NONE),
+  ARETURN("areturn", 0xb0, OperandKind.NONE),
+  RETURN("return", 0xb1, OperandKind.NONE),
+  GETSTATIC("getstatic", 0xb2, OperandKind.FIELD),
+  INVOKEVIRTUAL("invokevirtual", 0xb6, OperandKind.METHOD),
+  INVOKESPECIAL("invokespecial", 0xb7, OperandKind.METHOD),
+  INVOKESTATIC("invokestatic", 0xb8, OperandKind.METHOD),
+  NEW("new", 0xbb, OperandKind.CLASS);
+
+  private static final HashMap<String, Opcode> MNEMONICS = new HashMap<>();
+  private static final Map<Opcode, Opcode> NEGATED_BRANCHES = new EnumMap<>(Opcode.class);
+  private static final Map<Opcode, Opcode> INT_COMPARISONS = new EnumMap<>(Opcode.class);
+
+  static {
+    for (Opcode opcode : values()) {
+      MNEMONICS.put(opcode.mnemonic, opcode);
+    }
+
+    Opcode[][] negatedPairs = {
+        { IFEQ, IFNE }, { IFLT, IFGE }, { IFGT, IFLE },
+        { IF_ICMPEQ, IF_ICMPNE }, { IF_ICMPLT, IF_ICMPGE }, { IF_ICMPGT, IF_ICMPLE } };
+    for (Opcode[] pair : negatedPairs) {
+      NEGATED_BRANCHES.put(pair[0], pair[1]);
+      NEGATED_BRANCHES.put(pair[1], pair[0]);
+    }
+
+    INT_COMPARISONS.put(IFEQ, IF_ICMPEQ);
+    INT_COMPARISONS.put(IFNE, IF_ICMPNE);
+    INT_COMPARISONS.put(IFLT, IF_ICMPLT);
+    INT_COMPARISONS.put(IFGE, IF_ICMPGE);
+    INT_COMPARISONS.put(IFGT, IF_ICMPGT);
+    INT_COMPARISONS.put(IFLE, IF_ICMPLE);
+  }
+
+  private final String mnemonic;
+  private final int code;
+  private final OperandKind operandKind;
+
+  /** Kinds of operands that determine the encoding of an instruction. */
+  public enum OperandKind {
+    NONE, BYTE, SHORT, CONSTANT, LOCAL, BRANCH, FIELD, METHOD, CLASS;
+
+    /** Check if the given operand, or null for none, fits this kind. */
+    public boolean accepts(Operand operand) {
+      return switch (this) {
+        case NONE -> operand == null;
+        case BYTE, SHORT, LOCAL -> operand instanceof Operand.IntValue;
+        case CONSTANT -> operand instanceof Operand.Constant;
+        case BRANCH -> operand instanceof Operand.LabelReference;
+        case FIELD -> (operand instanceof Operand.MemberReference member) && !member.isMethod();
+        case METHOD -> (operand instanceof Operand.MemberReference member) && member.isMethod();
+        case CLASS -> operand instanceof Operand.ClassReference;
+      };
+    }
+  }
+
+  Opcode(String mnemonic, int code, OperandKind operandKind) {
+    this.mnemonic = mnemonic;
+    this.code = code;
+    this.operandKind = operandKind;
+  }
+
+  public String getMnemonic() {
+    return this.mnemonic;
+  }
+
+  public int getCode() {
+    return this.code;
+  }
+
+  public OperandKind getOperandKind() {
+    return this.operandKind;
+  }
+
+  /** Check if this opcode jumps to a label, i.e., conditional branches and goto. */
+  public boolean isBranch() {
+    return this.operandKind == OperandKind.BRANCH;
+  }
+
+  /** Check if the instruction after this opcode is never reached from this opcode. */
+  public boolean isUnconditionalJump() {
+    return (this == GOTO) || (this == IRETURN) || (this == FRETURN) || (this == ARETURN)
+        || (this == RETURN);
+  }
+
+  /** Get the conditional branch that jumps exactly when this one does not, or null. */
+  public Opcode getNegatedBranch() {
+    return NEGATED_BRANCHES.get(this);
+  }
+
+  /**
+   * Get the branch that compares two ints like this branch compares an int
+   * with zero, e.g., if_icmplt for iflt, or null for other opcodes.
+   */
+  public Opcode getIntComparison() {
+    return INT_COMPARISONS.get(this);
+  }
+
+  /**
+   * Find the opcode with the given mnemonic.
+   *
+   * @param mnemonic Mnemonic of the opcode in Jasmin, e.g., "iload"
+   * @return Opcode with the given mnemonic
+   * @throws IllegalArgumentException If no opcode has the given mnemonic
+   */
+  public static Opcode fromMnemonic(String mnemonic) {
+    Opcode opcode = MNEMONICS.get(mnemonic);
+    if (opcode == null) {
+      throw new IllegalArgumentException("Unsupported instruction \"%s\".".formatted(mnemonic));
+    }
+    return opcode;
+  }
+}
@@ -0,0 +1,135 @@
+package codegeneration;
+
+/**
+ * Operand of an instruction, i.e., a number, a constant, a label or a
+ * reference to a class, field or method. Backends use the operands as they
+ * are, and only writing a Jasmin file translates them into text.
+ */
+public sealed interface Operand {
+  /** Get the Jasmin code for this operand. */
+  String toJasmin();
+
+  /** Constant that ldc pushes, i.e., an int, float or string. */
+  sealed interface Constant extends Operand {
+  }
+
+  /** Int value, i.e., a local slot, an immediate value or an int constant. */
+  record IntValue(int value) implements Constant {
+    @Override
+    public String toJasmin() {
+      return Integer.toString(this.value);
+    }
+  }
+
+  /** Float constant. */
+  record FloatValue(float value) implements Constant {
+    @Override
+    public String toJasmin() {
+      return Float.toString(this.value);
+    }
+  }
+
+  /** String constant, i.e., its value without quotes and escapes. */
+  record StringValue(String value) implements Constant {
+    @Override
+    public String toJasmin() {
+      StringBuilder literal = new StringBuilder("\"");
+      for (char c : this.value.toCharArray()) {
+        switch (c) {
+          case '\n' -> literal.append("\\n");
+          case '\t' -> literal.append("\\t");
+          case '\r' -> literal.append("\\r");
+          case '\b' -> literal.append("\\b");
+          case '\f' -> literal.append("\\f");
+          case '"', '\\' -> literal.append('\\').append(c);
+          default -> {
+            if (Character.isISOControl(c)) {
+              literal.append("\\u%04x".formatted((int) c));
+            } else {
+              literal.append(c);
+            }
+          }
+        }
+      }
+      return literal.append('"').toString();
+    }
+  }
+
+  /** Label that a branch jumps to. */
+  record LabelReference(String name) implements Operand {
+    @Override
+    public String toJasmin() {
+      return this.name;
+    }
+  }
+
+  /** Class, e.g., for new. */
+  record ClassReference(String name) implements Operand {
+    @Override
+    public String toJasmin() {
+      return this.name;
+    }
+  }
+
+  /** Field or method of a class, e.g., "java/lang/System", "out", "Ljava/io/PrintStream;". */
+  record MemberReference(String owner, String name, String descriptor) implements Operand {
+    /** Check if this member is a method, i.e., its descriptor has arguments. */
+    public boolean isMethod() {
+      return this.descriptor.startsWith("(");
+    }
+
+    @Override
+    public String toJasmin() {
+      String separator = isMethod() ? "" : " ";
+      return this.owner + "/" + this.name + separator + this.descriptor;
+    }
+  }
+
+  /**
+   * Parse the operand of an instruction in Jasmin code.
+   *
+   * @param kind    Kind of operand that the instruction takes
+   * @param operand Operand in Jasmin code
+   * @return Operand, or null for instructions without operand
+   * @throws IllegalArgumentException If the operand does not fit the kind
+   */
+  static Operand fromJasmin(Opcode.OperandKind kind, String operand) {
+    if (kind == Opcode.OperandKind.NONE) {
+      return null;
+    } else if (operand == null) {
+      throw new IllegalArgumentException("Missing operand.");
+    }
+
+    try {
+      switch (kind) {
+        case BYTE:
+        case SHORT:
+        case LOCAL:
+          return new IntValue(Integer.parseInt(operand));
+        case BRANCH:
+          return new LabelReference(operand);
+        case CLASS:
+          return new ClassReference(operand);
+        case CONSTANT:
+          if (operand.startsWith("\"")) {
+            return new StringValue(ClassFileAssembler.parseStringLiteral(operand));
+          } else if (operand.contains(".") || operand.contains("e") || operand.contains("E")) {
+            return new FloatValue(Float.parseFloat(operand));
+          }
+          return new IntValue(Integer.parseInt(operand));
+        case FIELD:
+          String[] fieldParts = operand.split("\\s+");
+          int fieldSlash = fieldParts[0].lastIndexOf('/');
+          return new MemberReference(fieldParts[0].substring(0, fieldSlash),
+              fieldParts[0].substring(fieldSlash + 1), fieldParts[1]);
+        default: // methods
+          int parenthesis = operand.indexOf('(');
+          int methodSlash = operand.lastIndexOf('/', parenthesis);
+          return new MemberReference(operand.substring(0, methodSlash),
+              operand.substring(methodSlash + 1, parenthesis), operand.substring(parenthesis));
+      }
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Malformed operand \"%s\".".formatted(operand), e);
+    }
+  }
+}
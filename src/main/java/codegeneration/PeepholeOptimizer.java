@@ -0,0 +1,362 @@
+package codegeneration;
+
+import codegeneration.CodeElement.Instruction;
+import codegeneration.CodeElement.Label;
+import codegeneration.CodeElement.LineNumber;
+import codegeneration.CodeElement.MethodEnd;
+import codegeneration.CodeElement.MethodHeader;
+import codegeneration.Operand.FloatValue;
+import codegeneration.Operand.IntValue;
+import codegeneration.Operand.LabelReference;
+import codegeneration.Operand.MemberReference;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Peephole optimizer for the code of the CodeGenerator. It rewrites short
+ * sequences of instructions within each method until none matches anymore:
+ * comparisons branch with {@code if_icmpXX} instead of subtracting, booleans
+ * that are only tested by a branch are not materialized, constants use the
+ * shortest load instruction, print statements load the print stream first
+ * instead of swapping, and redundant jumps, unreachable instructions and
+ * unused labels are removed.
+ *
+ * <p>Comparisons with {@code if_icmpXX} do not overflow, unlike the difference
+ * of both operands, e.g., for comparisons with the minimal int value.
+ */
+public class PeepholeOptimizer {
+  private static final MemberReference PRINT_STREAM =
+      new MemberReference("java/lang/System", "out", "Ljava/io/PrintStream;");
+  private static final Set<Opcode> SINGLE_LOADS = EnumSet.of(
+      Opcode.LDC, Opcode.BIPUSH, Opcode.SIPUSH, Opcode.ILOAD, Opcode.FLOAD, Opcode.ALOAD,
+      Opcode.ICONST_M1, Opcode.ICONST_0, Opcode.ICONST_1, Opcode.ICONST_2, Opcode.ICONST_3,
+      Opcode.ICONST_4, Opcode.ICONST_5, Opcode.FCONST_0, Opcode.FCONST_1, Opcode.FCONST_2);
+
+  private int rewrites = 0;
+
+  /**
+   * Optimize the given code, i.e., all of its methods.
+   *
+   * @param code Code elements, as generated by the CodeGenerator
+   * @return Optimized code elements
+   */
+  public List<CodeElement> optimize(List<CodeElement> code) {
+    List<CodeElement> optimizedCode = new ArrayList<>(code.size());
+    List<CodeElement> methodBody = null;
+    for (CodeElement element : code) {
+      if (element instanceof MethodHeader) {
+        optimizedCode.add(element);
+        methodBody = new ArrayList<>();
+      } else if (element instanceof MethodEnd) {
+        optimizeMethod(methodBody);
+        optimizedCode.addAll(methodBody);
+        optimizedCode.add(element);
+        methodBody = null;
+      } else if (methodBody != null) {
+        methodBody.add(element);
+      } else {
+        optimizedCode.add(element);
+      }
+    }
+    return optimizedCode;
+  }
+
+  /** Get the number of rewritten instruction sequences. */
+  public int getRewrites() {
+    return this.rewrites;
+  }
+
+  private void optimizeMethod(List<CodeElement> code) {
+    boolean changed;
+    do {
+      changed = loadShortConstants(code);
+      changed |= fuseBranches(code);
+      changed |= loadPrintStreamFirst(code);
+      changed |= threadJumps(code);
+      changed |= removeUnreachableCode(code);
+      changed |= removeRedundantJumps(code);
+      changed |= removeUnusedLabels(code);
+    } while (changed);
+  }
+
+  // Rewrites
+  /* Replace ldc with iconst_n, bipush, sipush or fconst_n for small constants. */
+  private boolean loadShortConstants(List<CodeElement> code) {
+    boolean changed = false;
+    for (int i = 0; i < code.size(); i++) {
+      if (hasOpcode(code, i, Opcode.LDC)) {
+        Instruction shortLoad = getShortConstantLoad(getOperand(code, i));
+        if (shortLoad != null) {
+          code.set(i, shortLoad);
+          changed = countRewrite();
+        }
+      }
+    }
+    return changed;
+  }
+
+  /* Fuse comparisons, materialized booleans and negations with the branches that test them. */
+  private boolean fuseBranches(List<CodeElement> code) {
+    boolean changed = false;
+    Map<String, Integer> references = countLabelReferences(code);
+    for (int i = 0; i < code.size(); i++) {
+      if (isIntComparison(code, i)) { // isub, ifXX L -> if_icmpXX L
+        code.set(i, new Instruction(
+            getOpcode(code, i + 1).getIntComparison(), getOperand(code, i + 1)));
+        code.remove(i + 1);
+        changed = countRewrite();
+      } else if (isTestedBoolean(code, i, references)) {
+        // ifXX T, iconst_0, goto C, T:, iconst_1, C:, ifeq L -> ifNotXX L
+        Opcode branch = getOpcode(code, i);
+        Opcode fusedBranch = hasOpcode(code, i + 6, Opcode.IFEQ)
+            ? branch.getNegatedBranch() : branch;
+        code.set(i, new Instruction(fusedBranch, getOperand(code, i + 6)));
+        code.subList(i + 1, i + 7).clear();
+        changed = countRewrite();
+      } else if (isTestedNegation(code, i)) {
+        // iconst_1, iadd, iconst_2, irem, ifeq L -> ifne L (booleans are 0 or 1)
+        code.set(i, new Instruction(
+            getOpcode(code, i + 4).getNegatedBranch(), getOperand(code, i + 4)));
+        code.subList(i + 1, i + 5).clear();
+        changed = countRewrite();
+      } else if (isTestedConstant(code, i)) { // iconst_n, ifeq L -> goto L or nothing
+        boolean isZero = hasOpcode(code, i, Opcode.ICONST_0);
+        boolean jumps = isZero == hasOpcode(code, i + 1, Opcode.IFEQ);
+        if (jumps) {
+          code.set(i, new Instruction(Opcode.GOTO, getOperand(code, i + 1)));
+          code.remove(i + 1);
+        } else {
+          code.subList(i, i + 2).clear();
+        }
+        changed = countRewrite();
+      }
+    }
+    return changed;
+  }
+
+  /* Replace "value, getstatic, swap" with "getstatic, value" for values of a single load. */
+  private boolean loadPrintStreamFirst(List<CodeElement> code) {
+    boolean changed = false;
+    for (int i = 0; i + 2 < code.size(); i++) {
+      if (SINGLE_LOADS.contains(getOpcode(code, i))
+          && hasOpcode(code, i + 1, Opcode.GETSTATIC)
+          && PRINT_STREAM.equals(getOperand(code, i + 1))
+          && hasOpcode(code, i + 2, Opcode.SWAP)) {
+        CodeElement load = code.get(i);
+        code.set(i, code.get(i + 1));
+        code.set(i + 1, load);
+        code.remove(i + 2);
+        changed = countRewrite();
+      }
+    }
+    return changed;
+  }
+
+  /* Let jumps to a goto jump to the final target of the goto instead. */
+  private boolean threadJumps(List<CodeElement> code) {
+    boolean changed = false;
+    Map<String, Integer> labelIndices = getLabelIndices(code);
+    for (int i = 0; i < code.size(); i++) {
+      if (isBranch(code, i)) {
+        String label = getLabel(code, i);
+        String target = resolveJumpTarget(code, labelIndices, label);
+        if (!target.equals(label)) {
+          code.set(i, new Instruction(getOpcode(code, i), new LabelReference(target)));
+          changed = countRewrite();
+        }
+      }
+    }
+    return changed;
+  }
+
+  /* Remove instructions and line numbers after a goto or return up to the next label. */
+  private boolean removeUnreachableCode(List<CodeElement> code) {
+    boolean changed = false;
+    for (int i = 0; i < code.size(); i++) {
+      Opcode opcode = getOpcode(code, i);
+      if ((opcode == null) || !opcode.isUnconditionalJump()) {
+        continue;
+      }
+      int next = i + 1;
+      while (next < code.size() && !(code.get(next) instanceof Label)) {
+        if ((code.get(next) instanceof Instruction) || (code.get(next) instanceof LineNumber)) {
+          code.remove(next);
+          changed = countRewrite();
+        } else {
+          next++;
+        }
+      }
+    }
+    return changed;
+  }
+
+  /* Remove gotos to a label that directly follows them. */
+  private boolean removeRedundantJumps(List<CodeElement> code) {
+    boolean changed = false;
+    for (int i = 0; i < code.size(); i++) {
+      if (!hasOpcode(code, i, Opcode.GOTO)) {
+        continue;
+      }
+      String target = getLabel(code, i);
+      for (int next = i + 1; next < code.size() && (getOpcode(code, next) == null); next++) {
+        if ((code.get(next) instanceof Label label) && label.name().equals(target)) {
+          code.remove(i--);
+          changed = countRewrite();
+          break;
+        }
+      }
+    }
+    return changed;
+  }
+
+  private boolean removeUnusedLabels(List<CodeElement> code) {
+    Map<String, Integer> references = countLabelReferences(code);
+    int size = code.size();
+    code.removeIf(element -> (element instanceof Label label)
+        && !references.containsKey(label.name()));
+    this.rewrites += size - code.size();
+    return code.size() < size;
+  }
+
+  // Patterns
+  private static boolean isIntComparison(List<CodeElement> code, int i) {
+    Opcode branch = getOpcode(code, i + 1);
+    return hasOpcode(code, i, Opcode.ISUB) && (branch != null)
+        && (branch.getIntComparison() != null);
+  }
+
+  private static boolean isTestedBoolean(
+      List<CodeElement> code, int i, Map<String, Integer> references) {
+    if (!isBranch(code, i) || hasOpcode(code, i, Opcode.GOTO) || (i + 6 >= code.size())
+        || !hasOpcode(code, i + 1, Opcode.ICONST_0) || !hasOpcode(code, i + 2, Opcode.GOTO)) {
+      return false;
+    }
+    String trueLabel = getLabel(code, i);
+    String continueLabel = getLabel(code, i + 2);
+    return isLabel(code, i + 3, trueLabel)
+        && hasOpcode(code, i + 4, Opcode.ICONST_1)
+        && isLabel(code, i + 5, continueLabel)
+        && (hasOpcode(code, i + 6, Opcode.IFEQ) || hasOpcode(code, i + 6, Opcode.IFNE))
+        && references.get(trueLabel) == 1
+        && references.get(continueLabel) == 1;
+  }
+
+  private static boolean isTestedNegation(List<CodeElement> code, int i) {
+    return hasOpcode(code, i, Opcode.ICONST_1) && hasOpcode(code, i + 1, Opcode.IADD)
+        && hasOpcode(code, i + 2, Opcode.ICONST_2) && hasOpcode(code, i + 3, Opcode.IREM)
+        && (hasOpcode(code, i + 4, Opcode.IFEQ) || hasOpcode(code, i + 4, Opcode.IFNE));
+  }
+
+  private static boolean isTestedConstant(List<CodeElement> code, int i) {
+    return (hasOpcode(code, i, Opcode.ICONST_0) || hasOpcode(code, i, Opcode.ICONST_1))
+        && (hasOpcode(code, i + 1, Opcode.IFEQ) || hasOpcode(code, i + 1, Opcode.IFNE));
+  }
+
+  // Helpers
+  private boolean countRewrite() {
+    this.rewrites++;
+    return true;
+  }
+
+  /* Get the shortest load of an int or float constant, or null to keep ldc. */
+  static Instruction getShortConstantLoad(Operand constant) {
+    if (constant instanceof FloatValue floatValue) {
+      int bits = Float.floatToIntBits(floatValue.value());
+      Opcode[] floatConstants = { Opcode.FCONST_0, Opcode.FCONST_1, Opcode.FCONST_2 };
+      for (int n = 0; n < floatConstants.length; n++) { // keeps -0.0, which is not fconst_0
+        if (bits == Float.floatToIntBits(n)) {
+          return new Instruction(floatConstants[n]);
+        }
+      }
+      return null;
+    }
+    if (!(constant instanceof IntValue intValue)) { // e.g., strings
+      return null;
+    }
+
+    int value = intValue.value();
+    Opcode[] intConstants = { Opcode.ICONST_M1, Opcode.ICONST_0, Opcode.ICONST_1,
+        Opcode.ICONST_2, Opcode.ICONST_3, Opcode.ICONST_4, Opcode.ICONST_5 };
+    if ((value >= -1) && (value <= 5)) {
+      return new Instruction(intConstants[value + 1]);
+    } else if ((value >= Byte.MIN_VALUE) && (value <= Byte.MAX_VALUE)) {
+      return new Instruction(Opcode.BIPUSH, value);
+    } else if ((value >= Short.MIN_VALUE) && (value <= Short.MAX_VALUE)) {
+      return new Instruction(Opcode.SIPUSH, value);
+    }
+    return null;
+  }
+
+  /* Follow gotos from the given label, unless they form a cycle. */
+  private static String resolveJumpTarget(
+      List<CodeElement> code, Map<String, Integer> labelIndices, String label) {
+    Set<String> visited = new HashSet<>();
+    String target = label;
+    while (visited.add(target) && labelIndices.containsKey(target)) {
+      int next = labelIndices.get(target) + 1;
+      while (next < code.size() && !(code.get(next) instanceof Instruction)) {
+        next++;
+      }
+      if (!hasOpcode(code, next, Opcode.GOTO)) {
+        return target;
+      }
+      target = getLabel(code, next);
+    }
+    return label;
+  }
+
+  private static Map<String, Integer> countLabelReferences(List<CodeElement> code) {
+    Map<String, Integer> references = new HashMap<>();
+    for (int i = 0; i < code.size(); i++) {
+      if (isBranch(code, i)) {
+        references.merge(getLabel(code, i), 1, Integer::sum);
+      }
+    }
+    return references;
+  }
+
+  private static Map<String, Integer> getLabelIndices(List<CodeElement> code) {
+    Map<String, Integer> labelIndices = new HashMap<>();
+    for (int i = 0; i < code.size(); i++) {
+      if (code.get(i) instanceof Label label) {
+        labelIndices.put(label.name(), i);
+      }
+    }
+    return labelIndices;
+  }
+
+  private static boolean isLabel(List<CodeElement> code, int i, String name) {
+    return (code.get(i) instanceof Label label) && label.name().equals(name);
+  }
+
+  private static boolean isBranch(List<CodeElement> code, int i) {
+    Opcode opcode = getOpcode(code, i);
+    return (opcode != null) && opcode.isBranch();
+  }
+
+  private static boolean hasOpcode(List<CodeElement> code, int i, Opcode opcode) {
+    return getOpcode(code, i) == opcode;
+  }
+
+  /* Get the opcode of the element at the given index, or null if it is no instruction. */
+  private static Opcode getOpcode(List<CodeElement> code, int i) {
+    if ((i < code.size()) && (code.get(i) instanceof Instruction instruction)) {
+      return instruction.opcode();
+    }
+    return null;
+  }
+
+  private static Operand getOperand(List<CodeElement> code, int i) {
+    return ((Instruction) code.get(i)).operand();
+  }
+
+  /* Get the label that the branch at the given index jumps to. */
+  private static String getLabel(List<CodeElement> code, int i) {
+    return ((LabelReference) getOperand(code, i)).name();
+  }
+}
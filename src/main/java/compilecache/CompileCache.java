@@ -0,0 +1,192 @@
+package compilecache;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache for compiled outputs, keyed by a hash of the source and
+ * everything else that determines the output. Each entry is a single file, and
+ * its modification time marks its last use, i.e., eviction removes the least
+ * recently used entries once the cache exceeds its size limit.
+ *
+ * <p>Several threads and processes may share a cache directory. Entries appear
+ * atomically by moving completely written temporary files, readers treat
+ * entries that vanish due to eviction as misses, and a lock file serializes
+ * evictions.
+ */
+public class CompileCache {
+  private static final String ENTRY_SUFFIX = ".entry";
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+  private static final String LOCK_FILE_NAME = "cache.lock";
+  private static final Duration TEMPORARY_FILE_LIFETIME = Duration.ofHours(1);
+  // File locks belong to the whole JVM, i.e., threads need to take turns on their own
+  private static final Object EVICTION_MONITOR = new Object();
+
+  private final Path directory;
+  private final long maxBytes;
+
+  /**
+   * On-disk cache in the given directory, which is created if necessary.
+   *
+   * @param directory Directory of the cache entries
+   * @param maxBytes  Maximum total size of all entries in bytes
+   * @throws IOException If the directory cannot be created
+   */
+  public CompileCache(Path directory, long maxBytes) throws IOException {
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("The cache size limit must not be negative.");
+    }
+    this.directory = Files.createDirectories(directory);
+    this.maxBytes = maxBytes;
+  }
+
+  public Path getDirectory() {
+    return this.directory;
+  }
+
+  public long getMaxBytes() {
+    return this.maxBytes;
+  }
+
+  /**
+   * Compute the key of a compilation, i.e., a SHA-256 hash of the source and
+   * the parts that influence the output, e.g., compiler version and options.
+   *
+   * @param source Content of the source file
+   * @param parts  Further inputs of the compilation in a fixed order
+   * @return Hexadecimal hash
+   */
+  public static String computeKey(byte[] source, List<String> parts) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Every JVM supports SHA-256.", e);
+    }
+    for (String part : parts) { // length prefixes keep the parts apart
+      byte[] bytes = part.getBytes(StandardCharsets.UTF_8);
+      digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) ':');
+      digest.update(bytes);
+    }
+    digest.update(source);
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Copy the cached output for the given key to the target file, and mark the
+   * entry as recently used.
+   *
+   * @param key    Key of the compilation
+   * @param target Path of the output file
+   * @return True, if the cache contained an entry for the key
+   * @throws IOException If the entry exists but cannot be copied
+   */
+  public boolean restore(String key, Path target) throws IOException {
+    Path entry = getEntryPath(key);
+    try {
+      Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+      Files.copy(entry, target, REPLACE_EXISTING);
+      return true;
+    } catch (NoSuchFileException e) { // missing or evicted in the meantime
+      return false;
+    }
+  }
+
+  /**
+   * Store a copy of the output file for the given key, and evict the least
+   * recently used entries if the cache exceeds its size limit afterwards.
+   *
+   * @param key    Key of the compilation
+   * @param output Path of the written output file
+   * @throws IOException If the output cannot be copied into the cache
+   */
+  public void store(String key, Path output) throws IOException {
+    if (Files.size(output) > this.maxBytes) {
+      return;
+    }
+    Path temporaryFile = Files.createTempFile(this.directory, key, TEMPORARY_SUFFIX);
+    try {
+      Files.copy(output, temporaryFile, REPLACE_EXISTING);
+      Files.move(temporaryFile, getEntryPath(key), ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+    evict();
+  }
+
+  /**
+   * Remove the least recently used entries until the cache fits its size
+   * limit, and temporary files that crashed compilations left behind.
+   *
+   * @throws IOException If the directory cannot be listed or locked
+   */
+  void evict() throws IOException {
+    synchronized (EVICTION_MONITOR) {
+      try (FileChannel lockChannel = FileChannel.open(
+          this.directory.resolve(LOCK_FILE_NAME), CREATE, WRITE)) {
+        lockChannel.lock(); // closing the channel releases the lock
+        List<CacheEntry> entries = listEntries();
+        long totalBytes = entries.stream().mapToLong(CacheEntry::bytes).sum();
+        entries.sort(Comparator.comparing(CacheEntry::lastUse));
+        for (CacheEntry entry : entries) {
+          if (totalBytes <= this.maxBytes) {
+            break;
+          }
+          Files.deleteIfExists(entry.path());
+          totalBytes -= entry.bytes();
+        }
+      }
+    }
+  }
+
+  /* List the entries with their sizes, and delete outdated temporary files on the way. */
+  private List<CacheEntry> listEntries() throws IOException {
+    List<CacheEntry> entries = new ArrayList<>();
+    Instant outdated = Instant.now().minus(TEMPORARY_FILE_LIFETIME);
+    try (Stream<Path> files = Files.list(this.directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        String fileName = file.getFileName().toString();
+        try {
+          FileTime lastModified = Files.getLastModifiedTime(file);
+          if (fileName.endsWith(ENTRY_SUFFIX)) {
+            entries.add(new CacheEntry(file, Files.size(file), lastModified));
+          } else if (fileName.endsWith(TEMPORARY_SUFFIX)
+              && lastModified.toInstant().isBefore(outdated)) {
+            Files.deleteIfExists(file);
+          }
+        } catch (NoSuchFileException e) { // evicted or moved by another compilation
+          continue;
+        }
+      }
+    }
+    return entries;
+  }
+
+  private Path getEntryPath(String key) {
+    return this.directory.resolve(key + ENTRY_SUFFIX);
+  }
+
+  /* Entry in the cache directory with its size and time of last use. */
+  private record CacheEntry(Path path, long bytes, FileTime lastUse) {
+  }
+}
@@ -0,0 +1,64 @@
+package incremental;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory results per function of earlier compilations of a single source
+ * file with the same options. Compilations reuse the results of functions
+ * whose fingerprints and callee signatures did not change, and replace the
+ * results of the other functions.
+ *
+ * <p>The caches live as long as the JVM, e.g., the compile daemon keeps one
+ * per recently compiled source file. Concurrent compilations of the same file
+ * may share a cache, as results are immutable and checked before each reuse,
+ * i.e., a race costs at most a reuse.
+ */
+public class FunctionCache {
+  private static final int MAX_SOURCE_FILES = 64;
+  // Least recently used caches are dropped first
+  private static final LinkedHashMap<String, FunctionCache> CACHES =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FunctionCache> eldest) {
+          return size() > MAX_SOURCE_FILES;
+        }
+      };
+
+  private final ConcurrentHashMap<String, FunctionResult> results = new ConcurrentHashMap<>();
+
+  /**
+   * Get the cache for compilations of the given source file with the given
+   * options, and create it if necessary.
+   *
+   * @param sourceFile Path of the source file
+   * @param options    Options that influence the results, e.g., optimizations
+   * @return Cache of the source file and options
+   */
+  public static synchronized FunctionCache forSourceFile(Path sourceFile, List<String> options) {
+    String key = sourceFile.toAbsolutePath().normalize() + "\0" + String.join(",", options);
+    return CACHES.computeIfAbsent(key, k -> new FunctionCache());
+  }
+
+  /** Get the results of a function, or null if no compilation stored any. */
+  public FunctionResult get(String functionName) {
+    return this.results.get(functionName);
+  }
+
+  public void put(String functionName, FunctionResult result) {
+    this.results.put(functionName, result);
+  }
+
+  /** Remove the results of functions that the source file no longer defines. */
+  public void retainAll(Collection<String> functionNames) {
+    this.results.keySet().retainAll(functionNames);
+  }
+
+  public int size() {
+    return this.results.size();
+  }
+}
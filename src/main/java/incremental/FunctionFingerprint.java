@@ -0,0 +1,92 @@
+package incremental;
+
+import analysis.DepthFirstAdapter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.TreeSet;
+import node.AFuncExpr;
+import node.AFuncStat;
+import node.Node;
+import node.Token;
+
+/**
+ * Fingerprint of a function's subtree, i.e., a SHA-256 hash of its node
+ * classes and tokens, with the names of the functions it calls.
+ *
+ * <p>Token lines are relative to the first line of the function, so a function
+ * keeps its fingerprint when lines before it are added or removed. Positions
+ * within lines are part of the hash, as they appear in type errors.
+ *
+ * @param hash      Hexadecimal hash of the subtree
+ * @param startLine Line of the first token, or -1 for functions without tokens
+ * @param callees   Names of the called functions
+ */
+public record FunctionFingerprint(String hash, int startLine, Set<String> callees) {
+  /** Compute the fingerprint of the given function or main function. */
+  public static FunctionFingerprint of(Node function) {
+    Fingerprinter fingerprinter = new Fingerprinter();
+    function.apply(fingerprinter);
+    return new FunctionFingerprint(HexFormat.of().formatHex(fingerprinter.digest.digest()),
+        fingerprinter.startLine, Collections.unmodifiableSet(fingerprinter.callees));
+  }
+
+  /* Depth first walker that hashes nodes in source order. */
+  private static class Fingerprinter extends DepthFirstAdapter {
+    private final MessageDigest digest;
+    private final TreeSet<String> callees = new TreeSet<>();
+    private int startLine = -1;
+
+    Fingerprinter() {
+      try {
+        this.digest = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("Every JVM supports SHA-256.", e);
+      }
+    }
+
+    @Override
+    public void defaultIn(Node node) {
+      update(node.getClass().getSimpleName());
+    }
+
+    @Override
+    public void defaultOut(Node node) {
+      update(")"); // closes the children, e.g., of nested blocks
+    }
+
+    @Override
+    public void defaultCase(Node node) {
+      Token token = (Token) node;
+      if (this.startLine < 0) {
+        this.startLine = token.getLine();
+      }
+      update(node.getClass().getSimpleName());
+      update("%d:%d".formatted(token.getLine() - this.startLine, token.getPos()));
+      update(token.getText());
+    }
+
+    @Override
+    public void inAFuncExpr(AFuncExpr node) {
+      defaultIn(node);
+      this.callees.add(node.getId().getText());
+    }
+
+    @Override
+    public void inAFuncStat(AFuncStat node) {
+      defaultIn(node);
+      this.callees.add(node.getId().getText());
+    }
+
+    /* Length prefixes keep the parts apart, e.g., tokens "ab" and "c" from "a" and "bc". */
+    private void update(String part) {
+      byte[] bytes = part.getBytes(StandardCharsets.UTF_8);
+      this.digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+      this.digest.update((byte) ':');
+      this.digest.update(bytes);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package incremental;
+
+import codegeneration.CodeElement;
+import codegeneration.CodeElement.LineNumber;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import typecheck.TypeError;
+
+/**
+ * Results of compiling a single function, with everything that they depend on,
+ * i.e., the fingerprint of the function and the signatures of its callees.
+ * Each result is null until a compilation computes it, e.g., the liveness
+ * command computes no code.
+ *
+ * @param hash             Hash of the function's fingerprint
+ * @param startLine        First line of the function that the results refer to
+ * @param calleeSignatures Method descriptor per called function, or null for
+ *                         unknown functions
+ * @param typeErrors       Type errors of the function
+ * @param liveness         Results of the liveness analysis
+ * @param code             Code of the method, after the optional peephole
+ *                         optimization
+ */
+public record FunctionResult(String hash, int startLine, Map<String, String> calleeSignatures,
+    List<TypeError> typeErrors, LivenessReport liveness, List<CodeElement> code) {
+  /** Results of a function that no compilation has processed yet. */
+  public FunctionResult(FunctionFingerprint fingerprint, Map<String, String> calleeSignatures) {
+    this(fingerprint.hash(), fingerprint.startLine(), calleeSignatures, null, null, null);
+  }
+
+  /**
+   * Check if these results still hold for a function, i.e., if neither the
+   * function nor the signatures of its callees changed.
+   *
+   * @param fingerprint      Current fingerprint of the function
+   * @param calleeSignatures Current method descriptor per called function
+   * @return True, if the results can be reused
+   */
+  public boolean matches(FunctionFingerprint fingerprint, Map<String, String> calleeSignatures) {
+    return this.hash.equals(fingerprint.hash())
+        && this.calleeSignatures.equals(calleeSignatures);
+  }
+
+  /** Get these results for the function at the given line, i.e., with moved line numbers. */
+  public FunctionResult movedTo(int newStartLine) {
+    int lineOffset = newStartLine - this.startLine;
+    if (lineOffset == 0) {
+      return this;
+    }
+    List<TypeError> movedErrors = (this.typeErrors == null) ? null : this.typeErrors.stream()
+        .map(error -> error.withLineOffset(lineOffset)).toList();
+    LivenessReport movedLiveness = (this.liveness == null)
+        ? null : this.liveness.withLineOffset(lineOffset);
+    List<CodeElement> movedCode = (this.code == null) ? null : this.code.stream()
+        .map(element -> (element instanceof LineNumber lineNumber)
+            ? new LineNumber(lineNumber.line() + lineOffset, lineNumber.description())
+            : element)
+        .toList();
+    return new FunctionResult(this.hash, newStartLine, this.calleeSignatures,
+        movedErrors, movedLiveness, movedCode);
+  }
+
+  public FunctionResult withTypeErrors(List<TypeError> newTypeErrors) {
+    return new FunctionResult(this.hash, this.startLine, this.calleeSignatures,
+        List.copyOf(newTypeErrors), this.liveness, this.code);
+  }
+
+  public FunctionResult withLiveness(LivenessReport newLiveness) {
+    return new FunctionResult(this.hash, this.startLine, this.calleeSignatures,
+        this.typeErrors, Objects.requireNonNull(newLiveness), this.code);
+  }
+
+  public FunctionResult withCode(List<CodeElement> newCode) {
+    return new FunctionResult(this.hash, this.startLine, this.calleeSignatures,
+        this.typeErrors, this.liveness, List.copyOf(newCode));
+  }
+}
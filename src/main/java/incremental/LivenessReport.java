@@ -0,0 +1,36 @@
+package incremental;
+
+import java.util.List;
+import livenessanalysis.UnusedValue;
+import symboltable.Symbol;
+
+/**
+ * Results of the liveness analysis for a single function, as reported by the
+ * liveness command. Unused values keep no statements, i.e., cached reports do
+ * not hold on to the AST of an earlier compilation.
+ *
+ * @param unusedArguments    Declared arguments that are never read
+ * @param unusedDeclarations Declared variables that are never assigned
+ * @param unusedValues       Variable values that are assigned but never read
+ * @param minimumRegisters   Approximate minimum number of registers
+ */
+public record LivenessReport(List<Symbol> unusedArguments, List<Symbol> unusedDeclarations,
+    List<UnusedValue> unusedValues, int minimumRegisters) {
+  /** Report for the given results, without the statements of unused values. */
+  public LivenessReport {
+    unusedValues = moveValues(unusedValues, 0);
+  }
+
+  /** Get the same report after its function moved by the given number of lines. */
+  public LivenessReport withLineOffset(int lineOffset) {
+    return new LivenessReport(this.unusedArguments, this.unusedDeclarations,
+        moveValues(this.unusedValues, lineOffset), this.minimumRegisters);
+  }
+
+  private static List<UnusedValue> moveValues(List<UnusedValue> unusedValues, int lineOffset) {
+    return unusedValues.stream()
+        .map(value -> new UnusedValue(value.getLineNumber() + lineOffset,
+            value.getStatementType(), value.getSymbol()))
+        .toList();
+  }
+}
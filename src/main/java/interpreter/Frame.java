@@ -0,0 +1,35 @@
+package interpreter;
+
+/**
+ * Local variables of a single function call, indexed by the variable numbers
+ * of the symbol table. Like the local slots of the JVM, booleans and ints
+ * share the int array, and each type only gets an array if the function has
+ * variables of that type.
+ */
+final class Frame {
+  private static final int[] NO_INTS = new int[0];
+  private static final float[] NO_FLOATS = new float[0];
+  private static final String[] NO_STRINGS = new String[0];
+
+  final int[] ints;
+  final float[] floats;
+  final String[] strings;
+  // Return value of the call, in the field of the function's return type
+  int intResult;
+  float floatResult;
+  String stringResult;
+
+  /**
+   * Frame with uninitialized variables for a call of a function.
+   *
+   * @param slots      Number of variables of the function
+   * @param hasInts    Flag indicating if a variable is a boolean or int
+   * @param hasFloats  Flag indicating if a variable is a float
+   * @param hasStrings Flag indicating if a variable is a string
+   */
+  Frame(int slots, boolean hasInts, boolean hasFloats, boolean hasStrings) {
+    this.ints = hasInts ? new int[slots] : NO_INTS;
+    this.floats = hasFloats ? new float[slots] : NO_FLOATS;
+    this.strings = hasStrings ? new String[slots] : NO_STRINGS;
+  }
+}
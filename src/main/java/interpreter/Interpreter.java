@@ -0,0 +1,675 @@
+package interpreter;
+
+import codegeneration.ClassFileAssembler;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import node.AAddExpr;
+import node.AAndExpr;
+import node.AAssignStat;
+import node.ABlockStat;
+import node.ABooleanExpr;
+import node.AConcatExpr;
+import node.ADeclStat;
+import node.ADivExpr;
+import node.AEmptyStat;
+import node.AEqExpr;
+import node.AFloatExpr;
+import node.AFunc;
+import node.AFuncExpr;
+import node.AFuncStat;
+import node.AGtExpr;
+import node.AGteqExpr;
+import node.AIdExpr;
+import node.AIfStat;
+import node.AIfelseStat;
+import node.AInitStat;
+import node.AIntExpr;
+import node.ALtExpr;
+import node.ALteqExpr;
+import node.AMain;
+import node.AModExpr;
+import node.AMulExpr;
+import node.ANeqExpr;
+import node.ANotExpr;
+import node.AOrExpr;
+import node.APrg;
+import node.APrintStat;
+import node.APrintlnStat;
+import node.AReturnStat;
+import node.AStringExpr;
+import node.ASubExpr;
+import node.AUminusExpr;
+import node.AUplusExpr;
+import node.AWhileStat;
+import node.Node;
+import node.PExpr;
+import node.PFunc;
+import node.PStat;
+import node.TIdentifier;
+import symboltable.FunctionArgumentTypeList;
+import symboltable.Symbol;
+import symboltable.SymbolTable;
+import symboltable.Type;
+
+/**
+ * Interpreter that executes the type-checked AST without generating code. It
+ * compiles each function once into a tree of closures, which are specialized
+ * by the types of the type checker, and runs them on flat frames of primitive
+ * locals, i.e., neither values are boxed nor AST nodes are visited at runtime.
+ *
+ * <p>Outputs and runtime errors equal those of the compiled program, e.g.,
+ * floats are 32 bits wide, comparisons with NaN are false except for !=, and
+ * integer divisions by zero throw an ArithmeticException.
+ */
+public class Interpreter {
+  private final SymbolTable symbolTable;
+  private final HashMap<String, Function> functions;
+  private Function main;
+  private int compiledNodes;
+
+  /* Statement that returns true if it executed a return statement. */
+  private interface StatementCode {
+    boolean execute(Frame frame);
+  }
+
+  private interface BooleanCode {
+    boolean evaluate(Frame frame);
+  }
+
+  private interface IntCode {
+    int evaluate(Frame frame);
+  }
+
+  private interface FloatCode {
+    float evaluate(Frame frame);
+  }
+
+  private interface StringCode {
+    String evaluate(Frame frame);
+  }
+
+  /* Call that runs a function on a new frame and returns the frame with the result. */
+  private interface Call {
+    Frame execute(Frame caller);
+  }
+
+  /* Passes the value of an argument from the caller's frame into the callee's frame. */
+  private interface ArgumentCode {
+    void pass(Frame caller, Frame callee);
+  }
+
+  /* Function with the layout of its frames, whose body is compiled after all signatures. */
+  private static final class Function {
+    final int slots;
+    final boolean hasInts;
+    final boolean hasFloats;
+    final boolean hasStrings;
+    StatementCode body;
+
+    Function(int slots, boolean hasInts, boolean hasFloats, boolean hasStrings) {
+      this.slots = slots;
+      this.hasInts = hasInts;
+      this.hasFloats = hasFloats;
+      this.hasStrings = hasStrings;
+    }
+
+    Frame newFrame() {
+      return new Frame(this.slots, this.hasInts, this.hasFloats, this.hasStrings);
+    }
+  }
+
+  /**
+   * Interpreter for a type-checked program.
+   *
+   * @param symbolTable Filled symbol table for the type-checked AST
+   */
+  public Interpreter(SymbolTable symbolTable) {
+    this.symbolTable = symbolTable;
+    this.functions = new HashMap<>();
+  }
+
+  /** Get the number of AST nodes that were compiled into closures. */
+  public int getCompiledNodes() {
+    return this.compiledNodes;
+  }
+
+  /**
+   * Compile the functions and the main function of a program into closures.
+   * Calls refer to functions instead of their bodies, so functions may call
+   * themselves and functions that are defined later.
+   *
+   * @param program Type-checked program
+   */
+  public void compile(APrg program) {
+    for (PFunc function : program.getFunc()) {
+      String functionName = ((AFunc) function).getId().getText();
+      this.functions.put(functionName, createFunction(functionName));
+    }
+    this.main = createFunction("main");
+
+    for (PFunc function : program.getFunc()) {
+      AFunc func = (AFunc) function;
+      this.functions.get(func.getId().getText()).body = compileBlock(
+          concat(func.getDeclarations(), func.getStatements()));
+    }
+    AMain mainFunction = (AMain) program.getMain();
+    this.main.body = compileBlock(
+        concat(mainFunction.getDeclarations(), mainFunction.getStatements()));
+  }
+
+  /** Run the main function of the compiled program. */
+  public void run() {
+    this.main.body.execute(this.main.newFrame());
+  }
+
+  /* Create a function whose frames hold all variables of its scope. */
+  private Function createFunction(String scopeName) {
+    boolean hasInts = false;
+    boolean hasFloats = false;
+    boolean hasStrings = false;
+    List<Type> types = new ArrayList<>();
+    FunctionArgumentTypeList argumentTypes = this.symbolTable.getFunctionArgumentTypes(scopeName);
+    for (int i = 0; i < argumentTypes.getNumberOfArguments(); i++) {
+      types.add(argumentTypes.getArgumentType(i));
+    }
+    for (Symbol symbol : this.symbolTable.getNonArgumentSymbols(scopeName)) {
+      types.add(symbol.getType());
+    }
+    for (Type type : types) {
+      hasFloats |= type.equals(Type.FLOAT);
+      hasStrings |= type.equals(Type.STRING);
+      hasInts |= type.equals(Type.BOOLEAN) || type.equals(Type.INT);
+    }
+    return new Function(this.symbolTable.countSymbolsInScope(scopeName),
+        hasInts, hasFloats, hasStrings);
+  }
+
+  private static List<PStat> concat(List<PStat> declarations, List<PStat> statements) {
+    List<PStat> all = new ArrayList<>(declarations);
+    all.addAll(statements);
+    return all;
+  }
+
+  // Statements
+  private StatementCode compileBlock(List<PStat> statements) {
+    List<StatementCode> codes = new ArrayList<>();
+    for (PStat statement : statements) {
+      StatementCode code = compileStatement(statement);
+      if (code != null) {
+        codes.add(code);
+      }
+    }
+    StatementCode[] block = codes.toArray(new StatementCode[0]);
+    return frame -> {
+      for (StatementCode statement : block) {
+        if (statement.execute(frame)) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+
+  /* Compile a statement, or return null for statements without effect. */
+  private StatementCode compileStatement(PStat node) {
+    this.compiledNodes++;
+    if (node instanceof ADeclStat || node instanceof AEmptyStat) {
+      return null;
+    } else if (node instanceof AInitStat initStat) {
+      return compileAssignment(initStat, initStat.getId(), initStat.getExpr());
+    } else if (node instanceof AAssignStat assignStat) {
+      return compileAssignment(assignStat, assignStat.getId(), assignStat.getExpr());
+    } else if (node instanceof ABlockStat blockStat) {
+      return compileBlock(blockStat.getBody());
+    } else if (node instanceof AIfStat ifStat) {
+      BooleanCode condition = compileBoolean(ifStat.getExpr());
+      StatementCode thenBlock = compileNonNullStatement(ifStat.getThenBlock());
+      return frame -> condition.evaluate(frame) && thenBlock.execute(frame);
+    } else if (node instanceof AIfelseStat ifelseStat) {
+      BooleanCode condition = compileBoolean(ifelseStat.getExpr());
+      StatementCode thenBlock = compileNonNullStatement(ifelseStat.getThenBlock());
+      StatementCode elseBlock = compileNonNullStatement(ifelseStat.getElseBlock());
+      return frame -> condition.evaluate(frame) ? thenBlock.execute(frame)
+          : elseBlock.execute(frame);
+    } else if (node instanceof AWhileStat whileStat) {
+      BooleanCode condition = compileBoolean(whileStat.getExpr());
+      StatementCode body = compileNonNullStatement(whileStat.getBody());
+      return frame -> {
+        while (condition.evaluate(frame)) {
+          if (body.execute(frame)) {
+            return true;
+          }
+        }
+        return false;
+      };
+    } else if (node instanceof AFuncStat funcStat) {
+      Call call = compileCall(funcStat.getId(), funcStat.getArgs());
+      return frame -> {
+        call.execute(frame); // ignore return value
+        return false;
+      };
+    } else if (node instanceof APrintStat printStat) {
+      return compilePrint(printStat.getExpr(), false);
+    } else if (node instanceof APrintlnStat printlnStat) {
+      return compilePrint(printlnStat.getExpr(), true);
+    } else if (node instanceof AReturnStat returnStat) {
+      return compileReturn(returnStat);
+    }
+    throw new IllegalStateException("Unexpected statement " + node.getClass().getSimpleName());
+  }
+
+  private StatementCode compileNonNullStatement(PStat node) {
+    StatementCode code = compileStatement(node);
+    return (code != null) ? code : frame -> false;
+  }
+
+  private StatementCode compileAssignment(Node node, TIdentifier id, PExpr expr) {
+    Symbol symbol = this.symbolTable.getSymbol(node, id.getText());
+    int slot = symbol.getVariableNumber();
+    switch (symbol.getType()) {
+      case BOOLEAN: {
+        BooleanCode value = compileBoolean(expr);
+        return frame -> {
+          frame.ints[slot] = value.evaluate(frame) ? 1 : 0;
+          return false;
+        };
+      }
+      case FLOAT: { // int values are converted like i2f
+        FloatCode value = compileFloatOperand(expr);
+        return frame -> {
+          frame.floats[slot] = value.evaluate(frame);
+          return false;
+        };
+      }
+      case STRING: {
+        StringCode value = compileString(expr);
+        return frame -> {
+          frame.strings[slot] = value.evaluate(frame);
+          return false;
+        };
+      }
+      default: {
+        IntCode value = compileInt(expr);
+        return frame -> {
+          frame.ints[slot] = value.evaluate(frame);
+          return false;
+        };
+      }
+    }
+  }
+
+  /* Compile a print statement, which prints like PrintStream.print of the expression's type. */
+  private StatementCode compilePrint(PExpr expr, boolean newLine) {
+    switch (expr.getType()) {
+      case BOOLEAN: {
+        BooleanCode value = compileBoolean(expr);
+        return frame -> {
+          print(String.valueOf(value.evaluate(frame)), newLine);
+          return false;
+        };
+      }
+      case FLOAT: {
+        FloatCode value = compileFloat(expr);
+        return frame -> {
+          print(String.valueOf(value.evaluate(frame)), newLine);
+          return false;
+        };
+      }
+      case STRING: {
+        StringCode value = compileString(expr);
+        return frame -> {
+          print(String.valueOf(value.evaluate(frame)), newLine);
+          return false;
+        };
+      }
+      default: {
+        IntCode value = compileInt(expr);
+        return frame -> {
+          print(String.valueOf(value.evaluate(frame)), newLine);
+          return false;
+        };
+      }
+    }
+  }
+
+  /* Print on the current standard output, e.g., the stream of a daemon's request. */
+  private static void print(String value, boolean newLine) {
+    PrintStream out = System.out;
+    if (newLine) {
+      out.println(value);
+    } else {
+      out.print(value);
+    }
+  }
+
+  /* Compile a return statement, whose value has the exact return type of its function. */
+  private StatementCode compileReturn(AReturnStat node) {
+    PExpr expr = node.getExpr();
+    if (expr == null) {
+      return frame -> true;
+    }
+    switch (expr.getType()) {
+      case BOOLEAN: {
+        BooleanCode value = compileBoolean(expr);
+        return frame -> {
+          frame.intResult = value.evaluate(frame) ? 1 : 0;
+          return true;
+        };
+      }
+      case FLOAT: {
+        FloatCode value = compileFloat(expr);
+        return frame -> {
+          frame.floatResult = value.evaluate(frame);
+          return true;
+        };
+      }
+      case STRING: {
+        StringCode value = compileString(expr);
+        return frame -> {
+          frame.stringResult = value.evaluate(frame);
+          return true;
+        };
+      }
+      default: {
+        IntCode value = compileInt(expr);
+        return frame -> {
+          frame.intResult = value.evaluate(frame);
+          return true;
+        };
+      }
+    }
+  }
+
+  // Function calls
+  private Call compileCall(TIdentifier id, List<PExpr> args) {
+    Function function = this.functions.get(id.getText());
+    FunctionArgumentTypeList argumentTypes =
+        this.symbolTable.getFunctionArgumentTypes(id.getText());
+    ArgumentCode[] arguments = new ArgumentCode[args.size()];
+    for (int i = 0; i < args.size(); i++) {
+      arguments[i] = compileArgument(args.get(i), argumentTypes.getArgumentType(i), i);
+    }
+    return caller -> {
+      Frame callee = function.newFrame();
+      for (ArgumentCode argument : arguments) {
+        argument.pass(caller, callee);
+      }
+      function.body.execute(callee);
+      return callee;
+    };
+  }
+
+  /* Compile an argument, which is stored in the slot of its position like in JVM methods. */
+  private ArgumentCode compileArgument(PExpr expr, Type type, int slot) {
+    switch (type) {
+      case BOOLEAN: {
+        BooleanCode value = compileBoolean(expr);
+        return (caller, callee) -> callee.ints[slot] = value.evaluate(caller) ? 1 : 0;
+      }
+      case FLOAT: {
+        FloatCode value = compileFloat(expr);
+        return (caller, callee) -> callee.floats[slot] = value.evaluate(caller);
+      }
+      case STRING: {
+        StringCode value = compileString(expr);
+        return (caller, callee) -> callee.strings[slot] = value.evaluate(caller);
+      }
+      default: {
+        IntCode value = compileInt(expr);
+        return (caller, callee) -> callee.ints[slot] = value.evaluate(caller);
+      }
+    }
+  }
+
+  // Expressions
+  private BooleanCode compileBoolean(PExpr node) {
+    this.compiledNodes++;
+    if (node instanceof ABooleanExpr booleanExpr) {
+      boolean value = Boolean.parseBoolean(booleanExpr.getLit().getText());
+      return frame -> value;
+    } else if (node instanceof AIdExpr idExpr) {
+      int slot = getSlot(idExpr);
+      return frame -> frame.ints[slot] != 0;
+    } else if (node instanceof AFuncExpr funcExpr) {
+      Call call = compileCall(funcExpr.getId(), funcExpr.getArgs());
+      return frame -> call.execute(frame).intResult != 0;
+    } else if (node instanceof ANotExpr notExpr) {
+      BooleanCode operand = compileBoolean(notExpr.getExpr());
+      return frame -> !operand.evaluate(frame);
+    } else if (node instanceof AAndExpr andExpr) { // short-circuit
+      BooleanCode left = compileBoolean(andExpr.getLeft());
+      BooleanCode right = compileBoolean(andExpr.getRight());
+      return frame -> left.evaluate(frame) && right.evaluate(frame);
+    } else if (node instanceof AOrExpr orExpr) {
+      BooleanCode left = compileBoolean(orExpr.getLeft());
+      BooleanCode right = compileBoolean(orExpr.getRight());
+      return frame -> left.evaluate(frame) || right.evaluate(frame);
+    } else if (node instanceof AEqExpr eqExpr) {
+      return compileEquality(eqExpr.getLeft(), eqExpr.getRight(), false);
+    } else if (node instanceof ANeqExpr neqExpr) {
+      return compileEquality(neqExpr.getLeft(), neqExpr.getRight(), true);
+    } else if (node instanceof ALtExpr ltExpr) {
+      return compileOrdering(ltExpr.getLeft(), ltExpr.getRight(), Ordering.LT);
+    } else if (node instanceof ALteqExpr lteqExpr) {
+      return compileOrdering(lteqExpr.getLeft(), lteqExpr.getRight(), Ordering.LTEQ);
+    } else if (node instanceof AGtExpr gtExpr) {
+      return compileOrdering(gtExpr.getLeft(), gtExpr.getRight(), Ordering.GT);
+    } else if (node instanceof AGteqExpr gteqExpr) {
+      return compileOrdering(gteqExpr.getLeft(), gteqExpr.getRight(), Ordering.GTEQ);
+    }
+    throw new IllegalStateException("Unexpected boolean expression "
+        + node.getClass().getSimpleName());
+  }
+
+  /* Compile == or != for strings (by equals), booleans, ints and mixed numbers. */
+  private BooleanCode compileEquality(PExpr leftExpr, PExpr rightExpr, boolean negated) {
+    Type leftType = leftExpr.getType();
+    Type rightType = rightExpr.getType();
+    if (leftType.equals(Type.STRING)) {
+      StringCode left = compileString(leftExpr);
+      StringCode right = compileString(rightExpr);
+      return frame -> left.evaluate(frame).equals(right.evaluate(frame)) != negated;
+    } else if (leftType.equals(Type.BOOLEAN)) {
+      BooleanCode left = compileBoolean(leftExpr);
+      BooleanCode right = compileBoolean(rightExpr);
+      return frame -> (left.evaluate(frame) == right.evaluate(frame)) != negated;
+    } else if (leftType.equals(Type.FLOAT) || rightType.equals(Type.FLOAT)) {
+      FloatCode left = compileFloatOperand(leftExpr);
+      FloatCode right = compileFloatOperand(rightExpr);
+      // NaN is unequal to every value, i.e., == is false and != is true
+      return negated ? frame -> left.evaluate(frame) != right.evaluate(frame)
+          : frame -> left.evaluate(frame) == right.evaluate(frame);
+    }
+    IntCode left = compileInt(leftExpr);
+    IntCode right = compileInt(rightExpr);
+    return negated ? frame -> left.evaluate(frame) != right.evaluate(frame)
+        : frame -> left.evaluate(frame) == right.evaluate(frame);
+  }
+
+  private enum Ordering {
+    LT, LTEQ, GT, GTEQ
+  }
+
+  /* Compile <, <=, > or >= for ints and mixed numbers, which are false for NaN. */
+  private BooleanCode compileOrdering(PExpr leftExpr, PExpr rightExpr, Ordering ordering) {
+    if (leftExpr.getType().equals(Type.FLOAT) || rightExpr.getType().equals(Type.FLOAT)) {
+      FloatCode left = compileFloatOperand(leftExpr);
+      FloatCode right = compileFloatOperand(rightExpr);
+      return switch (ordering) {
+        case LT -> frame -> left.evaluate(frame) < right.evaluate(frame);
+        case LTEQ -> frame -> left.evaluate(frame) <= right.evaluate(frame);
+        case GT -> frame -> left.evaluate(frame) > right.evaluate(frame);
+        case GTEQ -> frame -> left.evaluate(frame) >= right.evaluate(frame);
+      };
+    }
+    IntCode left = compileInt(leftExpr);
+    IntCode right = compileInt(rightExpr);
+    return switch (ordering) {
+      case LT -> frame -> left.evaluate(frame) < right.evaluate(frame);
+      case LTEQ -> frame -> left.evaluate(frame) <= right.evaluate(frame);
+      case GT -> frame -> left.evaluate(frame) > right.evaluate(frame);
+      case GTEQ -> frame -> left.evaluate(frame) >= right.evaluate(frame);
+    };
+  }
+
+  /* Compile an int expression, whose arithmetic overflows and divides like the JVM's. */
+  private IntCode compileInt(PExpr node) {
+    this.compiledNodes++;
+    if (node instanceof AIntExpr intExpr) {
+      int value = Integer.parseInt(intExpr.getLit().getText());
+      return frame -> value;
+    } else if (node instanceof AIdExpr idExpr) {
+      int slot = getSlot(idExpr);
+      return frame -> frame.ints[slot];
+    } else if (node instanceof AFuncExpr funcExpr) {
+      Call call = compileCall(funcExpr.getId(), funcExpr.getArgs());
+      return frame -> call.execute(frame).intResult;
+    } else if (node instanceof AUplusExpr uplusExpr) {
+      return compileInt(uplusExpr.getExpr());
+    } else if (node instanceof AUminusExpr uminusExpr) {
+      IntCode operand = compileInt(uminusExpr.getExpr());
+      return frame -> -operand.evaluate(frame);
+    } else if (node instanceof AAddExpr addExpr) {
+      IntCode left = compileInt(addExpr.getLeft());
+      IntCode right = compileInt(addExpr.getRight());
+      return frame -> left.evaluate(frame) + right.evaluate(frame);
+    } else if (node instanceof ASubExpr subExpr) {
+      IntCode left = compileInt(subExpr.getLeft());
+      IntCode right = compileInt(subExpr.getRight());
+      return frame -> left.evaluate(frame) - right.evaluate(frame);
+    } else if (node instanceof AMulExpr mulExpr) {
+      IntCode left = compileInt(mulExpr.getLeft());
+      IntCode right = compileInt(mulExpr.getRight());
+      return frame -> left.evaluate(frame) * right.evaluate(frame);
+    } else if (node instanceof ADivExpr divExpr) {
+      IntCode left = compileInt(divExpr.getLeft());
+      IntCode right = compileInt(divExpr.getRight());
+      return frame -> left.evaluate(frame) / right.evaluate(frame);
+    } else if (node instanceof AModExpr modExpr) {
+      IntCode left = compileInt(modExpr.getLeft());
+      IntCode right = compileInt(modExpr.getRight());
+      return frame -> left.evaluate(frame) % right.evaluate(frame);
+    }
+    throw new IllegalStateException("Unexpected int expression "
+        + node.getClass().getSimpleName());
+  }
+
+  /* Compile an operand of float arithmetic, i.e., convert ints like i2f. */
+  private FloatCode compileFloatOperand(PExpr node) {
+    if (node.getType().equals(Type.INT)) {
+      IntCode value = compileInt(node);
+      return frame -> (float) value.evaluate(frame);
+    }
+    return compileFloat(node);
+  }
+
+  private FloatCode compileFloat(PExpr node) {
+    this.compiledNodes++;
+    if (node instanceof AFloatExpr floatExpr) {
+      float value = Float.parseFloat(floatExpr.getLit().getText());
+      return frame -> value;
+    } else if (node instanceof AIdExpr idExpr) {
+      int slot = getSlot(idExpr);
+      return frame -> frame.floats[slot];
+    } else if (node instanceof AFuncExpr funcExpr) {
+      Call call = compileCall(funcExpr.getId(), funcExpr.getArgs());
+      return frame -> call.execute(frame).floatResult;
+    } else if (node instanceof AUplusExpr uplusExpr) {
+      return compileFloatOperand(uplusExpr.getExpr());
+    } else if (node instanceof AUminusExpr uminusExpr) {
+      FloatCode operand = compileFloatOperand(uminusExpr.getExpr());
+      return frame -> -operand.evaluate(frame);
+    } else if (node instanceof AAddExpr addExpr) {
+      FloatCode left = compileFloatOperand(addExpr.getLeft());
+      FloatCode right = compileFloatOperand(addExpr.getRight());
+      return frame -> left.evaluate(frame) + right.evaluate(frame);
+    } else if (node instanceof ASubExpr subExpr) {
+      FloatCode left = compileFloatOperand(subExpr.getLeft());
+      FloatCode right = compileFloatOperand(subExpr.getRight());
+      return frame -> left.evaluate(frame) - right.evaluate(frame);
+    } else if (node instanceof AMulExpr mulExpr) {
+      FloatCode left = compileFloatOperand(mulExpr.getLeft());
+      FloatCode right = compileFloatOperand(mulExpr.getRight());
+      return frame -> left.evaluate(frame) * right.evaluate(frame);
+    } else if (node instanceof ADivExpr divExpr) {
+      FloatCode left = compileFloatOperand(divExpr.getLeft());
+      FloatCode right = compileFloatOperand(divExpr.getRight());
+      return frame -> left.evaluate(frame) / right.evaluate(frame);
+    }
+    throw new IllegalStateException("Unexpected float expression "
+        + node.getClass().getSimpleName());
+  }
+
+  private StringCode compileString(PExpr node) {
+    this.compiledNodes++;
+    if (node instanceof AStringExpr stringExpr) { // escapes as in Jasmin's string constants
+      String value = ClassFileAssembler.parseStringLiteral(stringExpr.getLit().getText());
+      return frame -> value;
+    } else if (node instanceof AIdExpr idExpr) {
+      int slot = getSlot(idExpr);
+      return frame -> frame.strings[slot];
+    } else if (node instanceof AFuncExpr funcExpr) {
+      Call call = compileCall(funcExpr.getId(), funcExpr.getArgs());
+      return frame -> call.execute(frame).stringResult;
+    } else if (node instanceof AConcatExpr) {
+      return compileConcat(node);
+    }
+    throw new IllegalStateException("Unexpected string expression "
+        + node.getClass().getSimpleName());
+  }
+
+  /* Compile a chain of concats, which appends all operands to a single StringBuilder. */
+  private StringCode compileConcat(PExpr node) {
+    List<PExpr> operands = new ArrayList<>();
+    collectConcatOperands(node, operands);
+    List<StringCode> parts = new ArrayList<>();
+    for (PExpr operand : operands) {
+      parts.add(compileConcatOperand(operand));
+    }
+    StringCode[] codes = parts.toArray(new StringCode[0]);
+    return frame -> {
+      StringBuilder builder = new StringBuilder();
+      for (StringCode code : codes) {
+        builder.append(code.evaluate(frame));
+      }
+      return builder.toString();
+    };
+  }
+
+  private static void collectConcatOperands(PExpr node, List<PExpr> operands) {
+    if (node instanceof AConcatExpr concatExpr) {
+      collectConcatOperands(concatExpr.getLeft(), operands);
+      collectConcatOperands(concatExpr.getRight(), operands);
+    } else {
+      operands.add(node);
+    }
+  }
+
+  /* Compile an operand of a concat into its text, as StringBuilder.append of its type. */
+  private StringCode compileConcatOperand(PExpr operand) {
+    switch (operand.getType()) {
+      case BOOLEAN: {
+        BooleanCode value = compileBoolean(operand);
+        return frame -> String.valueOf(value.evaluate(frame));
+      }
+      case FLOAT: {
+        FloatCode value = compileFloat(operand);
+        return frame -> String.valueOf(value.evaluate(frame));
+      }
+      case STRING: {
+        StringCode value = compileString(operand);
+        return frame -> String.valueOf(value.evaluate(frame));
+      }
+      default: {
+        IntCode value = compileInt(operand);
+        return frame -> String.valueOf(value.evaluate(frame));
+      }
+    }
+  }
+
+  private int getSlot(AIdExpr node) {
+    return this.symbolTable.getSymbol(node, node.getId().getText()).getVariableNumber();
+  }
+}
@@ -1,17 +1,16 @@
 package lineevaluation;
 
 import analysis.ReversedDepthFirstAdapter;
-import java.util.HashMap;
 import node.Node;
 import node.Token;
 
 /**
  * Helper that determines the line and position of all nodes by applying
- * reversed depth first search to the AST.
+ * reversed depth first search to the AST. Tokens already know their line and
+ * position, so only non-token nodes occupy an entry in the position table.
  */
 public class LineEvaluator extends ReversedDepthFirstAdapter {
-  private final HashMap<Node, Integer> lines;
-  private final HashMap<Node, Integer> positions;
+  private final NodePositionTable positions;
   private int lastLine;
   private int lastPos;
 
@@ -20,32 +19,50 @@ public class LineEvaluator extends ReversedDepthFirstAdapter {
    * reversed depth first search to the AST.
    */
   public LineEvaluator() {
-    this.lines = new HashMap<>();
-    this.positions = new HashMap<>();
+    this.positions = new NodePositionTable();
     this.lastLine = -1;
     this.lastPos = -1;
   }
 
+  /**
+   * Get the line of a node, i.e., the line of its first token.
+   *
+   * @throws IllegalArgumentException If the line evaluator has not visited the node
+   */
   public int getLine(Node node) {
-    return this.lines.get(node);
+    if (node instanceof Token token) {
+      return token.getLine();
+    }
+    if (!this.positions.contains(node)) {
+      throw new IllegalArgumentException("Unknown node " + node);
+    }
+    return this.positions.getLine(node);
   }
 
+  /**
+   * Get the position of a node, i.e., the position of its first token.
+   *
+   * @throws IllegalArgumentException If the line evaluator has not visited the node
+   */
   public int getPosition(Node node) {
-    return this.positions.get(node);
+    if (node instanceof Token token) {
+      return token.getPos();
+    }
+    if (!this.positions.contains(node)) {
+      throw new IllegalArgumentException("Unknown node " + node);
+    }
+    return this.positions.getPosition(node);
   }
 
   /** Add the last line number and position to a non-token node. */
   public void defaultOut(Node node) {
-    this.lines.put(node, this.lastLine);
-    this.positions.put(node, this.lastPos);
+    this.positions.put(node, this.lastLine, this.lastPos);
   }
 
-  /** Create line number and position for a token node. */
+  /** Remember the line number and position of a token node. */
   public void defaultCase(Node node) {
     Token token = (Token) node;
     this.lastLine = token.getLine();
     this.lastPos = token.getPos();
-    this.lines.put(node, this.lastLine);
-    this.positions.put(node, this.lastPos);
   }
 }
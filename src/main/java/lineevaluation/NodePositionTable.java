@@ -0,0 +1,85 @@
+package lineevaluation;
+
+import node.Node;
+
+/**
+ * Memory-efficient map from AST nodes to their line and position. It uses open
+ * addressing with node identities as keys and stores both numbers packed into
+ * a single primitive long per node, i.e., without boxed entries.
+ */
+class NodePositionTable {
+  private static final int INITIAL_CAPACITY = 1024; // power of two
+
+  private Node[] keys;
+  private long[] values;
+  private int size;
+
+  NodePositionTable() {
+    this.keys = new Node[INITIAL_CAPACITY];
+    this.values = new long[INITIAL_CAPACITY];
+    this.size = 0;
+  }
+
+  /* Store the line and position of the given node. */
+  void put(Node node, int line, int position) {
+    if (2 * (this.size + 1) > this.keys.length) { // keep the load factor at 0.5 at most
+      resize(2 * this.keys.length);
+    }
+
+    int index = findIndex(this.keys, node);
+    if (this.keys[index] == null) {
+      this.keys[index] = node;
+      this.size++;
+    }
+    this.values[index] = pack(line, position);
+  }
+
+  /* Check if the table contains the given node. */
+  boolean contains(Node node) {
+    return this.keys[findIndex(this.keys, node)] != null;
+  }
+
+  /* Get the line of the given node, which needs to be in the table. */
+  int getLine(Node node) {
+    return (int) (this.values[findIndex(this.keys, node)] >> 32);
+  }
+
+  /* Get the position of the given node, which needs to be in the table. */
+  int getPosition(Node node) {
+    return (int) this.values[findIndex(this.keys, node)];
+  }
+
+  private static long pack(int line, int position) {
+    return ((long) line << 32) | (position & 0xFFFFFFFFL);
+  }
+
+  /* Find the slot of the node, or the empty slot where it belongs (linear probing). */
+  private static int findIndex(Node[] keys, Node node) {
+    int mask = keys.length - 1;
+    int index = mix(System.identityHashCode(node)) & mask;
+    while ((keys[index] != null) && (keys[index] != node)) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  /* Spread the bits of identity hash codes over the table. */
+  private static int mix(int hash) {
+    int mixed = hash * 0x9E3779B9;
+    return mixed ^ (mixed >>> 16);
+  }
+
+  private void resize(int capacity) {
+    Node[] newKeys = new Node[capacity];
+    long[] newValues = new long[capacity];
+    for (int i = 0; i < this.keys.length; i++) {
+      if (this.keys[i] != null) {
+        int index = findIndex(newKeys, this.keys[i]);
+        newKeys[index] = this.keys[i];
+        newValues[index] = this.values[i];
+      }
+    }
+    this.keys = newKeys;
+    this.values = newValues;
+  }
+}
@@ -1,7 +1,14 @@
 package livenessanalysis;
 
 import analysis.DepthFirstAdapter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.PriorityQueue;
 import lineevaluation.LineEvaluator;
 import node.AAssignStat;
@@ -23,15 +30,21 @@ import symboltable.Symbol;
 import symboltable.SymbolTable;
 
 /**
- * Dataflow graph with one node per statement. Nodes register the symbol
- * definition and usage across the program.
+ * Dataflow graph with one node per statement and an additional end node.
+ * Nodes register the symbol definition and usage across the program. Edges
+ * follow the control flow, e.g., a condition's node branches into the then-
+ * and else-blocks, and the last statements of a loop body point on the loop's
+ * head.
  */
 public class DataflowGraph extends DepthFirstAdapter {
   private final SymbolTable symbolTable;
   private final LineEvaluator lineEvaluator;
+  private final SymbolIndex symbolIndex;
   private DataflowNode start;
   private DataflowNode end;
   private DataflowNode current;
+  private List<DataflowNode> pending;
+  private final List<DataflowNode> returns;
   private int currentNumber;
 
   /**
@@ -47,13 +60,16 @@ public class DataflowGraph extends DepthFirstAdapter {
       SymbolTable symbolTable, LineEvaluator lineEvaluator, Node astStart) {
     this.symbolTable = symbolTable;
     this.lineEvaluator = lineEvaluator;
+    this.symbolIndex = new SymbolIndex();
     this.start = null;
     this.end = null;
     this.currentNumber = 0;
     this.current = null;
+    this.pending = new ArrayList<>();
+    this.returns = new ArrayList<>();
 
     astStart.apply(this);
-    this.end = this.current;
+    this.end = addEndNode(astStart);
     generateInAndOutSets();
   }
 
@@ -62,20 +78,21 @@ public class DataflowGraph extends DepthFirstAdapter {
   public void inAFunc(AFunc node) {
     this.start = getNewSymbolNode(node);
     this.current = this.start;
+    this.pending = new ArrayList<>(List.of(this.start));
   }
 
   @Override
   public void inAMain(AMain node) {
     this.start = getNewSymbolNode(node);
     this.current = this.start;
+    this.pending = new ArrayList<>(List.of(this.start));
   }
 
   // Argument definitions: add arguments to the start's def-set
   @Override
   public void inADeclArg(ADeclArg node) {
     String id = node.getId().getText();
-    String scopeName = symbolTable.determineScope(node);
-    Symbol defSymbol = symbolTable.getSymbol(scopeName, id);
+    Symbol defSymbol = symbolTable.getSymbol(node, id);
     current.addDef(defSymbol);
   }
 
@@ -83,114 +100,113 @@ public class DataflowGraph extends DepthFirstAdapter {
   @Override
   public void inAInitStat(AInitStat node) {
     String id = node.getId().getText();
-    String scopeName = symbolTable.determineScope(node);
-    Symbol defSymbol = symbolTable.getSymbol(scopeName, id);
+    Symbol defSymbol = symbolTable.getSymbol(node, id);
 
-    DataflowNode successor = getNewSymbolNode(node);
-    successor.addDef(defSymbol);
-
-    this.current.addEdgeTo(successor);
-    this.current = successor;
+    addStatementNode(node).addDef(defSymbol);
   }
 
   @Override
   public void inAAssignStat(AAssignStat node) {
     String id = node.getId().getText();
-    String scopeName = symbolTable.determineScope(node);
-    Symbol defSymbol = symbolTable.getSymbol(scopeName, id);
+    Symbol defSymbol = symbolTable.getSymbol(node, id);
 
-    DataflowNode successor = getNewSymbolNode(node);
-    successor.addDef(defSymbol);
-
-    this.current.addEdgeTo(successor);
-    this.current = successor;
+    addStatementNode(node).addDef(defSymbol);
   }
 
   // Possibly reading statements: create new nodes
   @Override
   public void inADeclStat(ADeclStat node) {
-    DataflowNode successor = getNewSymbolNode(node);
-    this.current.addEdgeTo(successor);
-    this.current = successor;
+    addStatementNode(node);
   }
 
   @Override
   public void inAPrintStat(APrintStat node) {
-    DataflowNode successor = getNewSymbolNode(node);
-    this.current.addEdgeTo(successor);
-    this.current = successor;
+    addStatementNode(node);
   }
 
   @Override
   public void inAPrintlnStat(APrintlnStat node) {
-    DataflowNode successor = getNewSymbolNode(node);
-    this.current.addEdgeTo(successor);
-    this.current = successor;
+    addStatementNode(node);
   }
 
   @Override
   public void inAFuncStat(AFuncStat node) {
-    DataflowNode successor = getNewSymbolNode(node);
-    this.current.addEdgeTo(successor);
-    this.current = successor;
+    addStatementNode(node);
   }
 
+  // Control structures: the condition's node branches into the bodies
   @Override
   public void caseAIfStat(AIfStat node) {
-    DataflowNode successor = getNewSymbolNode(node);
-    this.current.addEdgeTo(successor);
-    this.current = successor;
-
+    DataflowNode condition = addStatementNode(node);
     node.getExpr().apply(this);
     node.getThenBlock().apply(this);
+
+    // a failed condition skips the then-block
+    this.pending.add(condition);
   }
 
   @Override
-  public void inAIfelseStat(AIfelseStat node) {
-    DataflowNode successor = getNewSymbolNode(node);
-    this.current.addEdgeTo(successor);
-    this.current = successor;
-
+  public void caseAIfelseStat(AIfelseStat node) {
+    DataflowNode condition = addStatementNode(node);
     node.getExpr().apply(this);
     node.getThenBlock().apply(this);
+    List<DataflowNode> thenExits = this.pending;
+
+    this.pending = new ArrayList<>(List.of(condition));
     node.getElseBlock().apply(this);
+    this.pending.addAll(thenExits);
   }
 
   @Override
-  public void inAWhileStat(AWhileStat node) {
-    DataflowNode successor = getNewSymbolNode(node);
-    this.current.addEdgeTo(successor);
-    this.current = successor;
-
+  public void caseAWhileStat(AWhileStat node) {
+    DataflowNode head = addStatementNode(node);
     node.getExpr().apply(this);
     node.getBody().apply(this);
 
-    // current is the last statement of while-body now and needs to point on the
-    // head of this while loop
-    this.current.addEdgeTo(successor);
+    // the last statements of the while-body point on the head of this while loop,
+    // and a failed condition leaves the loop
+    this.pending.forEach(exit -> exit.addEdgeTo(head));
+    this.pending = new ArrayList<>(List.of(head));
   }
 
   @Override
   public void inAReturnStat(AReturnStat node) {
-    DataflowNode successor = getNewSymbolNode(node);
-    this.current.addEdgeTo(successor);
-    this.current = successor;
+    DataflowNode returnNode = addStatementNode(node);
+    this.returns.add(returnNode);
+    this.pending = new ArrayList<>(); // following statements are unreachable
   }
 
   // Expressions: add symbol to current DataflowNode's use-set ("read" statement)
   @Override
   public void outAIdExpr(AIdExpr node) {
     String id = node.getId().getText();
-    String scopeName = symbolTable.determineScope(node);
-    Symbol symbol = symbolTable.getSymbol(scopeName, id);
+    Symbol symbol = symbolTable.getSymbol(node, id);
     this.current.addUse(symbol);
   }
 
   // Helpers
+  /* Create a node for the given statement that succeeds all pending nodes. */
+  private DataflowNode addStatementNode(Node node) {
+    DataflowNode successor = getNewSymbolNode(node);
+    this.pending.forEach(predecessor -> predecessor.addEdgeTo(successor));
+    this.pending = new ArrayList<>(List.of(successor));
+    this.current = successor;
+    return successor;
+  }
+
+  /* Create the end node, i.e., the function's exit after the last statement or a return. */
+  private DataflowNode addEndNode(Node astStart) {
+    DataflowNode endNode = new DataflowNode(++currentNumber,
+        this.lineEvaluator.getLine(astStart), "FunctionEnd", null, this.symbolIndex);
+    this.pending.forEach(predecessor -> predecessor.addEdgeTo(endNode));
+    this.returns.forEach(returnNode -> returnNode.addEdgeTo(endNode));
+    return endNode;
+  }
+
   private DataflowNode getNewSymbolNode(Node node) {
     int lineNumber = this.lineEvaluator.getLine(node);
     String statementType = node.getClass().getSimpleName();
-    return new DataflowNode(++currentNumber, lineNumber, statementType);
+    return new DataflowNode(++currentNumber, lineNumber, statementType, node, this.symbolIndex);
   }
 
   DataflowNode getStart() {
@@ -201,6 +217,10 @@ public class DataflowGraph extends DepthFirstAdapter {
     return this.end;
   }
 
+  int countNodes() {
+    return this.currentNumber;
+  }
+
   /** Print the resulting dataflow graph including relevant sets. */
   public void printGraph() {
     PriorityQueue<DataflowNode> printQueue = new PriorityQueue<>();
@@ -222,65 +242,61 @@ public class DataflowGraph extends DepthFirstAdapter {
   }
 
   /*
-   * Analyze the dataflow graph using Algorithm 10.4 from Appel, "Modern Compiler
-   * Impl. in Java" to determine in- and out-sets. Initial in- and out-sets are
-   * empty. The sets can be used to determine unused variables.
+   * Analyze the dataflow graph using a worklist variant of Algorithm 10.4 from
+   * Appel, "Modern Compiler Impl. in Java" to determine in- and out-sets.
+   * Initial in- and out-sets are empty. The worklist processes nodes in reverse
+   * postorder of the reversed graph, and only re-queues the predecessors of
+   * nodes whose in-set changed. The sets can be used to determine unused
+   * variables. All sets are bitsets, so that updates work on whole words and
+   * directly report changes.
    */
   void generateInAndOutSets() {
-    if (this.end.getPredecessors().isEmpty()) {
-      return;
+    List<DataflowNode> order = getReversePostorderFromEnd();
+    int[] positions = new int[this.currentNumber + 1];
+    for (int i = 0; i < order.size(); i++) {
+      positions[order.get(i).getNumber()] = i;
     }
-    boolean changes = true;
-    PriorityQueue<DataflowNode> queue = new PriorityQueue<>();
-
-    while (changes) {
-      changes = false;
-
-      DataflowNode curr;
-      queue.add(this.end);
-      while (queue.peek() != null) {
-        curr = queue.poll();
-        int currNumber = curr.getNumber();
-
-        HashSet<Symbol> oldIn = new HashSet<>(curr.getIn());
-        HashSet<Symbol> oldOut = new HashSet<>(curr.getOut());
-        curr.addIn(getUseJointOutMinusDef(curr));
-        curr.addOut(getJoinedSuccessorIns(curr));
-
-        if (differentElementsIn(oldIn, curr.getIn())
-            || differentElementsIn(oldOut, curr.getOut())) {
-          changes = true;
-        }
+
+    BitSet worklist = new BitSet(order.size());
+    worklist.set(0, order.size());
+    for (int i = worklist.nextSetBit(0); i >= 0; i = worklist.nextSetBit(0)) {
+      worklist.clear(i);
+      DataflowNode curr = order.get(i);
+
+      curr.updateOut();
+      if (curr.updateIn()) {
         for (DataflowNode predecessor : curr.getPredecessors()) {
-          if (predecessor.getNumber() < currNumber) {
-            queue.add(predecessor);
-          }
+          worklist.set(positions[predecessor.getNumber()]);
         }
       }
     }
   }
 
-  /* use[n] joint with (out[n]-def[n]). */
-  private HashSet<Symbol> getUseJointOutMinusDef(DataflowNode node) {
-    HashSet<Symbol> returnSet = new HashSet<>(node.getUse());
-
-    HashSet<Symbol> difference = new HashSet<>(node.getOut());
-    difference.removeAll(node.getDef());
-    returnSet.addAll(difference);
-
-    return returnSet;
-  }
-
-  private HashSet<Symbol> getJoinedSuccessorIns(DataflowNode node) {
-    HashSet<Symbol> returnSet = new HashSet<>();
-    HashSet<DataflowNode> successors = node.getSuccessors();
-
-    successors.forEach(successor -> returnSet.addAll(successor.getIn()));
-
-    return returnSet;
-  }
+  /* Order all nodes that reach the end in reverse postorder of the reversed graph. */
+  private List<DataflowNode> getReversePostorderFromEnd() {
+    List<DataflowNode> postorder = new ArrayList<>();
+    HashSet<DataflowNode> visited = new HashSet<>();
+    Deque<Iterator<DataflowNode>> stack = new ArrayDeque<>();
+    Deque<DataflowNode> path = new ArrayDeque<>();
+
+    visited.add(this.end);
+    path.push(this.end);
+    stack.push(this.end.getPredecessors().iterator());
+    while (!stack.isEmpty()) { // iterative depth-first search, even for long functions
+      Iterator<DataflowNode> predecessors = stack.peek();
+      if (predecessors.hasNext()) {
+        DataflowNode predecessor = predecessors.next();
+        if (visited.add(predecessor)) {
+          path.push(predecessor);
+          stack.push(predecessor.getPredecessors().iterator());
+        }
+      } else {
+        stack.pop();
+        postorder.add(path.pop());
+      }
+    }
 
-  private boolean differentElementsIn(HashSet<Symbol> setA, HashSet<Symbol> setB) {
-    return !setA.containsAll(setB) || !setB.containsAll(setA);
+    Collections.reverse(postorder);
+    return postorder;
   }
 }
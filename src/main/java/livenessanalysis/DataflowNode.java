@@ -1,6 +1,8 @@
 package livenessanalysis;
 
+import java.util.Collection;
 import java.util.HashSet;
+import node.Node;
 import symboltable.Symbol;
 
 /** Node in a dataflow graph. */
@@ -8,12 +10,13 @@ public class DataflowNode implements Comparable<DataflowNode> {
   private final int number;
   private final int lineNumber;
   private final String statementType;
+  private final Node statement;
   private final HashSet<DataflowNode> predecessors;
   private final HashSet<DataflowNode> successors;
-  private final HashSet<Symbol> use;
-  private final HashSet<Symbol> def;
-  private final HashSet<Symbol> in;
-  private final HashSet<Symbol> out;
+  private final SymbolSet use;
+  private final SymbolSet def;
+  private final SymbolSet in;
+  private final SymbolSet out;
 
   /**
    * Node in a dataflow graph.
@@ -22,15 +25,29 @@ public class DataflowNode implements Comparable<DataflowNode> {
    * @param statementType Related statement of this node.
    */
   public DataflowNode(int number, int lineNumber, String statementType) {
+    this(number, lineNumber, statementType, null, new SymbolIndex());
+  }
+
+  /**
+   * Node in a dataflow graph for a statement of the AST.
+   *
+   * @param number        Identifier of this node.
+   * @param statementType Related statement of this node.
+   * @param statement     Related statement in the AST, or null for end nodes.
+   * @param symbols       Index of symbols shared by all nodes of the graph.
+   */
+  DataflowNode(int number, int lineNumber, String statementType, Node statement,
+      SymbolIndex symbols) {
     this.number = number;
     this.lineNumber = lineNumber;
     this.statementType = statementType;
+    this.statement = statement;
     this.predecessors = new HashSet<>();
     this.successors = new HashSet<>();
-    this.in = new HashSet<>();
-    this.out = new HashSet<>();
-    this.def = new HashSet<>();
-    this.use = new HashSet<>();
+    this.in = new SymbolSet(symbols);
+    this.out = new SymbolSet(symbols);
+    this.def = new SymbolSet(symbols);
+    this.use = new SymbolSet(symbols);
   }
 
   private void addSuccessor(DataflowNode node) {
@@ -58,7 +75,7 @@ public class DataflowNode implements Comparable<DataflowNode> {
     this.def.add(symbol);
   }
 
-  public HashSet<Symbol> getDef() {
+  public SymbolSet getDef() {
     return this.def;
   }
 
@@ -66,26 +83,41 @@ public class DataflowNode implements Comparable<DataflowNode> {
     this.use.add(symbol);
   }
 
-  public HashSet<Symbol> getUse() {
+  public SymbolSet getUse() {
     return this.use;
   }
 
-  void addIn(HashSet<Symbol> symbols) {
+  void addIn(Collection<Symbol> symbols) {
     this.in.addAll(symbols);
   }
 
-  HashSet<Symbol> getIn() {
+  SymbolSet getIn() {
     return this.in;
   }
 
-  void addOut(HashSet<Symbol> symbols) {
+  void addOut(Collection<Symbol> symbols) {
     this.out.addAll(symbols);
   }
 
-  public HashSet<Symbol> getOut() {
+  public SymbolSet getOut() {
     return this.out;
   }
 
+  /* Join in[n] with use[n] and out[n]-def[n], and report if in[n] changed. */
+  boolean updateIn() {
+    boolean changed = this.in.addAllExcept(this.use, null);
+    return this.in.addAllExcept(this.out, this.def) || changed;
+  }
+
+  /* Join out[n] with the in-sets of all successors, and report if out[n] changed. */
+  boolean updateOut() {
+    boolean changed = false;
+    for (DataflowNode successor : this.successors) {
+      changed |= this.out.addAllExcept(successor.getIn(), null);
+    }
+    return changed;
+  }
+
   public int getNumber() {
     return this.number;
   }
@@ -106,6 +138,10 @@ public class DataflowNode implements Comparable<DataflowNode> {
     return statementType;
   }
 
+  Node getStatement() {
+    return statement;
+  }
+
   /** Generate a string representation including all relevant sets. */
   public String toString() {
     return "#%d, %s on line %d:\tDef: %s Use: %s, In: %s, Out: %s, Edges to: %s".formatted(
@@ -53,7 +53,7 @@ public class InterferenceGraph {
     while (queue.peek() != null) {
       DataflowNode curr = queue.poll();
 
-      HashSet<Symbol> currOut = curr.getOut();
+      SymbolSet currOut = curr.getOut();
       for (Symbol currSymbol : currOut) {
         InterferenceGraphNode currNode = nodes.get(currSymbol);
         currOut.forEach(symbol -> nodes.get(symbol).addNeighbor(currNode));
@@ -96,4 +96,13 @@ public class InterferenceGraph {
   public int countColors() {
     return colors;
   }
+
+  /** Count the edges, i.e., pairs of simultaneously live symbols. */
+  public int countEdges() {
+    int neighborhoods = 0;
+    for (InterferenceGraphNode node : this.nodes) {
+      neighborhoods += node.countNeighbors();
+    }
+    return neighborhoods / 2; // each edge connects two neighbors
+  }
 }
@@ -37,6 +37,10 @@ public class InterferenceGraphNode {
     neighbors.add(node);
   }
 
+  int countNeighbors() {
+    return neighbors.size();
+  }
+
   void removeSelfNeighborhood() {
     neighbors.remove(this);
   }
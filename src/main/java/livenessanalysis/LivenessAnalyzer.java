@@ -1,11 +1,13 @@
 package livenessanalysis;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import lineevaluation.LineEvaluator;
 import node.Node;
 import node.Start;
@@ -17,7 +19,10 @@ import symboltable.SymbolTable;
 public class LivenessAnalyzer {
   private final SymbolTable symbolTable;
   private final LineEvaluator lineEvaluator;
+  private final List<String> functionNames;
   private final HashMap<String, DataflowGraph> dataflowGraphs;
+  private final HashMap<String, InterferenceGraph> interferenceGraphs;
+  private final HashMap<String, Long> analysisNanosPerFunction;
 
   /**
    * Analyzer for live variables.
@@ -27,9 +32,47 @@ public class LivenessAnalyzer {
    * @param symbolTable   Filled symbol table for the corresponding AST.
    */
   public LivenessAnalyzer(Start ast, SymbolTable symbolTable, LineEvaluator lineEvaluator) {
+    this(ast, symbolTable, lineEvaluator, 1);
+  }
+
+  /**
+   * Analyzer for live variables. With more than one worker, it analyzes the
+   * functions concurrently on a fork-join pool, i.e., it builds the dataflow
+   * graphs, solves liveness and builds the interference graphs per function.
+   *
+   * @param ast           Abstract syntax tree to analyze.
+   * @param lineEvaluator Line evaluator that has been applied to the AST.
+   * @param symbolTable   Filled symbol table for the corresponding AST.
+   * @param workers       Number of concurrently analyzed functions.
+   */
+  public LivenessAnalyzer(
+      Start ast, SymbolTable symbolTable, LineEvaluator lineEvaluator, int workers) {
+    this(ast, symbolTable, lineEvaluator, workers, symbolTable.getScopeNames());
+  }
+
+  /**
+   * Analyzer for live variables of the given functions only, e.g., of the
+   * functions that changed since an earlier analysis. Results per function
+   * only contain the given functions.
+   *
+   * @param ast           Abstract syntax tree to analyze.
+   * @param lineEvaluator Line evaluator that has been applied to the AST.
+   * @param symbolTable   Filled symbol table for the corresponding AST.
+   * @param workers       Number of concurrently analyzed functions.
+   * @param functionNames Names of the analyzed functions.
+   */
+  public LivenessAnalyzer(Start ast, SymbolTable symbolTable, LineEvaluator lineEvaluator,
+      int workers, Collection<String> functionNames) {
     this.symbolTable = symbolTable;
     this.lineEvaluator = lineEvaluator;
-    this.dataflowGraphs = createDataflowGraphs(ast);
+    this.functionNames = new ArrayList<>(functionNames);
+    this.interferenceGraphs = new HashMap<>();
+    this.analysisNanosPerFunction = new HashMap<>();
+    if (workers > 1) {
+      this.dataflowGraphs = analyzeFunctionsConcurrently(ast, workers);
+    } else {
+      this.dataflowGraphs = createDataflowGraphs(ast);
+    }
   }
 
   /**
@@ -42,22 +85,77 @@ public class LivenessAnalyzer {
     HashMap<String, DataflowGraph> dataflowGraphs = new HashMap<>();
     HashMap<String, Node> functionSubTrees = findFunctionSubtrees(ast);
 
-    for (String scopeName : symbolTable.getScopeNames()) {
+    for (String scopeName : this.functionNames) {
       Node functionSubTree = functionSubTrees.get(scopeName);
+      long startNanos = System.nanoTime();
       DataflowGraph dataflowGraph = new DataflowGraph(
           this.symbolTable, this.lineEvaluator, functionSubTree);
+      this.analysisNanosPerFunction.put(scopeName, System.nanoTime() - startNanos);
       dataflowGraphs.put(scopeName, dataflowGraph);
     }
 
     return dataflowGraphs;
   }
 
+  /**
+   * Create one dataflow graph (including in- and out-sets) and one interference
+   * graph per function. Each function is a separate task, and the results are
+   * merged in the order of the scope names, i.e., independent of scheduling.
+   *
+   * @param ast     Abstract syntax tree to analyze.
+   * @param workers Number of concurrently analyzed functions.
+   * @return Map with one dataflow graph per function.
+   */
+  private HashMap<String, DataflowGraph> analyzeFunctionsConcurrently(Start ast, int workers) {
+    HashMap<String, DataflowGraph> dataflowGraphs = new HashMap<>();
+    HashMap<String, Node> functionSubTrees = findFunctionSubtrees(ast);
+    List<String> scopeNames = this.functionNames;
+    List<ForkJoinTask<FunctionLiveness>> tasks = new ArrayList<>();
+
+    ForkJoinPool pool = new ForkJoinPool(workers);
+    try {
+      for (String scopeName : scopeNames) {
+        Node functionSubTree = functionSubTrees.get(scopeName);
+        tasks.add(pool.submit(() -> {
+          long startNanos = System.nanoTime();
+          DataflowGraph dataflowGraph = new DataflowGraph(
+              this.symbolTable, this.lineEvaluator, functionSubTree);
+          InterferenceGraph interferenceGraph = new InterferenceGraph(
+              this.symbolTable, dataflowGraph.getEnd(), scopeName);
+          return new FunctionLiveness(
+              dataflowGraph, interferenceGraph, System.nanoTime() - startNanos);
+        }));
+      }
+
+      for (int i = 0; i < scopeNames.size(); i++) {
+        FunctionLiveness functionLiveness = tasks.get(i).join();
+        dataflowGraphs.put(scopeNames.get(i), functionLiveness.dataflowGraph());
+        this.interferenceGraphs.put(scopeNames.get(i), functionLiveness.interferenceGraph());
+        this.analysisNanosPerFunction.put(scopeNames.get(i), functionLiveness.analysisNanos());
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    return dataflowGraphs;
+  }
+
+  /* Analysis results of a single function. */
+  private record FunctionLiveness(
+      DataflowGraph dataflowGraph, InterferenceGraph interferenceGraph, long analysisNanos) {
+  }
+
   private HashMap<String, Node> findFunctionSubtrees(Start ast) {
     FunctionSubTreeExtractor functionSubTreeExtractor = new FunctionSubTreeExtractor();
     ast.apply(functionSubTreeExtractor);
     return functionSubTreeExtractor.getFunctionSubTrees();
   }
 
+  /** Get the names of the analyzed functions. */
+  public List<String> getFunctionNames() {
+    return this.functionNames;
+  }
+
   /** Print the dataflow graph for a single function. */
   public void printDataflowGraph(String functionName) {
     DataflowGraph dataflowGraph = this.dataflowGraphs.get(functionName);
@@ -72,7 +170,7 @@ public class LivenessAnalyzer {
    */
   public HashMap<String, Integer> getMinimumRegistersPerFunction() {
     HashMap<String, Integer> minimumRegistersPerFunction = new HashMap<>();
-    for (String functionName : this.symbolTable.getScopeNames()) {
+    for (String functionName : this.functionNames) {
       int minimumRegisters = getMinimumRegisters(functionName);
       minimumRegistersPerFunction.put(functionName, minimumRegisters);
     }
@@ -86,7 +184,7 @@ public class LivenessAnalyzer {
    */
   public HashMap<String, List<Symbol>> getUnusedArgumentsPerFunction() {
     HashMap<String, List<Symbol>> unusedArgsPerFunction = new HashMap<>();
-    for (String functionName : this.symbolTable.getScopeNames()) {
+    for (String functionName : this.functionNames) {
       List<Symbol> unusedArguments = getUnusedArguments(functionName);
       unusedArgsPerFunction.put(functionName, unusedArguments);
     }
@@ -100,7 +198,7 @@ public class LivenessAnalyzer {
    */
   public HashMap<String, List<Symbol>> getUnusedVariableDeclarationssPerFunction() {
     HashMap<String, List<Symbol>> unusedVarsPerFunction = new HashMap<>();
-    for (String functionName : this.symbolTable.getScopeNames()) {
+    for (String functionName : this.functionNames) {
       List<Symbol> unusedVariables = getUnusedVariableDeclarations(functionName);
       unusedVarsPerFunction.put(functionName, unusedVariables);
     }
@@ -114,7 +212,7 @@ public class LivenessAnalyzer {
    */
   public HashMap<String, List<UnusedValue>> getUnusedVariableValuesPerFunction() {
     HashMap<String, List<UnusedValue>> unusedValuesPerFunction = new HashMap<>();
-    for (String functionName : this.symbolTable.getScopeNames()) {
+    for (String functionName : this.functionNames) {
       DataflowGraph dataflowGraph = this.dataflowGraphs.get(functionName);
       DataflowNode dataflowGraphStart = dataflowGraph.getStart();
       List<UnusedValue> unusedValues = getUnusedVariableValues(dataflowGraphStart);
@@ -131,10 +229,50 @@ public class LivenessAnalyzer {
    * @return Minimum number of required registers.
    */
   public int getMinimumRegisters(String functionName) {
-    DataflowGraph dataflowGraph = this.dataflowGraphs.get(functionName);
-    InterferenceGraph interferenceGraphAnalyzer = new InterferenceGraph(
-        symbolTable, dataflowGraph.getEnd(), functionName);
-    return interferenceGraphAnalyzer.countColors();
+    return getInterferenceGraph(functionName).countColors();
+  }
+
+  /** Count the nodes of a function's dataflow graph, including start and end. */
+  public int countDataflowNodes(String functionName) {
+    return this.dataflowGraphs.get(functionName).countNodes();
+  }
+
+  /** Count the edges of a function's interference graph. */
+  public int countInterferenceEdges(String functionName) {
+    return getInterferenceGraph(functionName).countEdges();
+  }
+
+  /**
+   * Get the wall time per function for building its dataflow graph and solving
+   * liveness. Concurrent analyses include building the interference graphs.
+   *
+   * @return Analysis time in nanoseconds per function.
+   */
+  public HashMap<String, Long> getAnalysisNanosPerFunction() {
+    return this.analysisNanosPerFunction;
+  }
+
+  /* Build interference graphs lazily, unless the concurrent analysis built them. */
+  private InterferenceGraph getInterferenceGraph(String functionName) {
+    return this.interferenceGraphs.computeIfAbsent(
+        functionName, name -> new InterferenceGraph(
+            symbolTable, this.dataflowGraphs.get(name).getEnd(), name));
+  }
+
+  /**
+   * Allocate JVM local slots per function, such that non-interfering symbols
+   * of the same JVM type share a slot.
+   *
+   * @return Local slot allocation per function.
+   */
+  public HashMap<String, LocalSlotAllocation> getLocalSlotAllocationsPerFunction() {
+    HashMap<String, LocalSlotAllocation> allocationsPerFunction = new HashMap<>();
+    for (String functionName : this.functionNames) {
+      DataflowGraph dataflowGraph = this.dataflowGraphs.get(functionName);
+      allocationsPerFunction.put(functionName, new LocalSlotAllocation(
+          this.symbolTable, dataflowGraph.getStart(), functionName));
+    }
+    return allocationsPerFunction;
   }
 
   /**
@@ -146,8 +284,8 @@ public class LivenessAnalyzer {
   private List<Symbol> getUnusedArguments(String functionName) {
     DataflowGraph dataflowGraph = this.dataflowGraphs.get(functionName);
     DataflowNode startNode = dataflowGraph.getStart();
-    HashSet<Symbol> definedArguments = startNode.getDef();
-    HashSet<Symbol> usedArguments = startNode.getOut();
+    SymbolSet definedArguments = startNode.getDef();
+    SymbolSet usedArguments = startNode.getOut();
     return findDefinedButUnusedSymbols(definedArguments, usedArguments);
   }
 
@@ -174,7 +312,7 @@ public class LivenessAnalyzer {
    * @return List of all used (i.e., written) symbols in the function.
    */
   static List<Symbol> getAllUsedSymbols(DataflowNode dataflowGraphStart) {
-    HashSet<Symbol> usedSymbols = new HashSet<>();
+    SymbolSet usedSymbols = new SymbolSet();
 
     PriorityQueue<DataflowNode> queue = new PriorityQueue<>();
     queue.add(dataflowGraphStart);
@@ -182,7 +320,7 @@ public class LivenessAnalyzer {
     while (queue.peek() != null) {
       final DataflowNode curr = queue.poll();
 
-      HashSet<Symbol> currDef = curr.getDef();
+      SymbolSet currDef = curr.getDef();
       usedSymbols.addAll(currDef);
 
       for (DataflowNode successor : curr.getSuccessors()) {
@@ -213,13 +351,13 @@ public class LivenessAnalyzer {
       final DataflowNode curr = queue.poll();
 
       if (isWriteStatement(curr.getStatementType())) {
-        HashSet<Symbol> currDef = curr.getDef();
-        HashSet<Symbol> currOut = curr.getOut();
+        SymbolSet currDef = curr.getDef();
+        SymbolSet currOut = curr.getOut();
 
         List<UnusedValue> currUnused = findDefinedButUnusedSymbols(currDef, currOut)
             .stream()
             .map(symbol -> new UnusedValue(
-                curr.getLineNumber(), curr.getStatementType(), symbol))
+                curr.getLineNumber(), curr.getStatementType(), symbol, curr.getStatement()))
             .toList();
         unusedValues.addAll(currUnused);
       }
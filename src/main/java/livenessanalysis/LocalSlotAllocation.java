@@ -0,0 +1,133 @@
+package livenessanalysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import symboltable.Symbol;
+import symboltable.SymbolComparator;
+import symboltable.SymbolTable;
+import symboltable.Type;
+
+/**
+ * Allocation of JVM local slots for the symbols of a single function. Symbols
+ * that never interfere and have the same JVM type share a slot. Arguments keep
+ * their slots, as the JVM passes them in the first slots.
+ *
+ * <p>Two symbols interfere, if they are live simultaneously, or if one symbol
+ * is written while the other one is live. The latter edges are not part of the
+ * InterferenceGraph, but a write must never overwrite a live value.
+ */
+public class LocalSlotAllocation {
+  private final HashMap<Symbol, Integer> slots;
+  private int slotCount;
+
+  /**
+   * Allocate local slots by coloring the interference graph of a function.
+   *
+   * @param symbolTable   Filled symbol table.
+   * @param dataflowStart Start node of the function's dataflow graph.
+   * @param functionName  Name of the function to allocate slots for.
+   */
+  LocalSlotAllocation(SymbolTable symbolTable, DataflowNode dataflowStart, String functionName) {
+    this.slots = new HashMap<>();
+    this.slotCount = 0;
+
+    HashMap<Symbol, InterferenceGraphNode> nodes = generateGraph(
+        symbolTable, dataflowStart, functionName);
+    colorGraph(nodes, symbolTable.getNumberOfArguments(functionName));
+  }
+
+  /* Add edges between simultaneously live symbols and between written and live symbols. */
+  private HashMap<Symbol, InterferenceGraphNode> generateGraph(
+      SymbolTable symbolTable, DataflowNode dataflowStart, String functionName) {
+    HashMap<Symbol, InterferenceGraphNode> nodes = symbolTable
+        .generateInterferenceGraphNodes(functionName);
+    HashSet<DataflowNode> visited = new HashSet<>();
+    PriorityQueue<DataflowNode> queue = new PriorityQueue<>();
+    queue.add(dataflowStart);
+    visited.add(dataflowStart);
+
+    while (queue.peek() != null) {
+      DataflowNode curr = queue.poll();
+
+      SymbolSet currOut = curr.getOut();
+      for (Symbol currSymbol : currOut) {
+        InterferenceGraphNode currNode = nodes.get(currSymbol);
+        currOut.forEach(symbol -> nodes.get(symbol).addNeighbor(currNode));
+      }
+      for (Symbol defSymbol : curr.getDef()) {
+        InterferenceGraphNode defNode = nodes.get(defSymbol);
+        currOut.forEach(symbol -> {
+          nodes.get(symbol).addNeighbor(defNode);
+          defNode.addNeighbor(nodes.get(symbol));
+        });
+      }
+
+      for (DataflowNode successor : curr.getSuccessors()) {
+        if (visited.add(successor)) {
+          queue.add(successor);
+        }
+      }
+    }
+
+    nodes.forEach((symbol, node) -> node.removeSelfNeighborhood());
+    return nodes;
+  }
+
+  /*
+   * Color the graph with slot numbers. Arguments keep their variable numbers,
+   * the remaining symbols get the lowest slot that no neighbor uses and that
+   * only holds symbols of the same JVM type. Processing the symbols in order of
+   * their variable numbers makes the allocation deterministic.
+   */
+  private void colorGraph(HashMap<Symbol, InterferenceGraphNode> nodes, int numberOfArguments) {
+    List<Symbol> symbols = nodes.keySet().stream().sorted(new SymbolComparator()).toList();
+    List<String> slotTypes = new ArrayList<>();
+
+    for (Symbol symbol : symbols) {
+      InterferenceGraphNode node = nodes.get(symbol);
+      String slotType = getSlotType(symbol.getType());
+      int slot = 0;
+      if (symbol.getVariableNumber() < numberOfArguments) {
+        slot = symbol.getVariableNumber();
+      } else {
+        HashSet<Integer> neighborSlots = node.getColorsInNeighborhood();
+        while ((slot < slotTypes.size())
+            && (neighborSlots.contains(slot) || !slotTypes.get(slot).equals(slotType))) {
+          slot++;
+        }
+      }
+
+      if (slot == slotTypes.size()) {
+        slotTypes.add(slotType);
+      }
+      node.setColor(slot);
+      this.slots.put(symbol, slot);
+    }
+    this.slotCount = slotTypes.size();
+  }
+
+  /* Determine the kind of JVM local, i.e., booleans are stored as int. */
+  private static String getSlotType(Type type) {
+    switch (type) {
+      case FLOAT:
+        return "F";
+      case STRING:
+        return "A";
+      default:
+        return "I";
+    }
+  }
+
+  /** Get the local slot of the given symbol. */
+  public int getSlot(Symbol symbol) {
+    return this.slots.get(symbol);
+  }
+
+  /** Count the local slots that all symbols of the function need. */
+  public int getSlotCount() {
+    return this.slotCount;
+  }
+}
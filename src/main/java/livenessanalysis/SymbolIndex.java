@@ -0,0 +1,26 @@
+package livenessanalysis;
+
+import java.util.Arrays;
+import symboltable.Symbol;
+
+/**
+ * Symbols of a single scope by their variable numbers. All symbol sets of a
+ * dataflow graph share one index, so that each set only stores its bits.
+ */
+class SymbolIndex {
+  private Symbol[] symbols = new Symbol[Long.SIZE];
+
+  /** Remember a symbol, so that sets sharing this index can return it for its number. */
+  void register(Symbol symbol) {
+    int index = symbol.getVariableNumber();
+    if (index >= this.symbols.length) {
+      this.symbols = Arrays.copyOf(this.symbols, Math.max(index + 1, 2 * this.symbols.length));
+    }
+    this.symbols[index] = symbol;
+  }
+
+  /** Get the symbol with the given variable number, or null if none was registered. */
+  Symbol get(int variableNumber) {
+    return (variableNumber < this.symbols.length) ? this.symbols[variableNumber] : null;
+  }
+}
@@ -0,0 +1,180 @@
+package livenessanalysis;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import symboltable.Symbol;
+
+/**
+ * Set of symbols from a single scope, stored as a bitset indexed by the
+ * symbols' variable numbers. Unions and differences work on whole words, and
+ * each modifying operation reports if the set changed. Iteration follows the
+ * variable numbers, whose symbols come from an index that sets of the same
+ * dataflow graph share.
+ */
+public class SymbolSet extends AbstractSet<Symbol> {
+  private static final int WORD_SIZE = Long.SIZE;
+
+  private final SymbolIndex symbols;
+  private long[] words;
+
+  /** Empty set of symbols with an index of its own. */
+  public SymbolSet() {
+    this(new SymbolIndex());
+  }
+
+  /** Empty set of symbols that shares the given index with other sets. */
+  SymbolSet(SymbolIndex symbols) {
+    this.symbols = symbols;
+    this.words = new long[1];
+  }
+
+  /* Make sure that the set can hold the given number of words. */
+  private void ensureCapacity(int wordCount) {
+    if (wordCount > this.words.length) {
+      int newWordCount = Math.max(wordCount, 2 * this.words.length);
+      this.words = Arrays.copyOf(this.words, newWordCount);
+    }
+  }
+
+  @Override
+  public boolean add(Symbol symbol) {
+    int index = symbol.getVariableNumber();
+    ensureCapacity(index / WORD_SIZE + 1);
+    long mask = 1L << index;
+    boolean added = (this.words[index / WORD_SIZE] & mask) == 0;
+    this.words[index / WORD_SIZE] |= mask;
+    this.symbols.register(symbol);
+    return added;
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Symbol> symbols) {
+    if (symbols instanceof SymbolSet symbolSet) {
+      return addAllExcept(symbolSet, null);
+    }
+    return super.addAll(symbols);
+  }
+
+  /**
+   * Add all symbols from one set that are not in another set, i.e., join this
+   * set with the difference of both sets.
+   *
+   * @param added    Symbols to add
+   * @param excluded Symbols to skip, or null to add all symbols
+   * @return True, if this set changed
+   */
+  boolean addAllExcept(SymbolSet added, SymbolSet excluded) {
+    ensureCapacity(added.words.length);
+    boolean changed = false;
+    for (int i = 0; i < added.words.length; i++) {
+      long addedWord = added.words[i];
+      if ((excluded != null) && (i < excluded.words.length)) {
+        addedWord &= ~excluded.words[i];
+      }
+
+      long newBits = addedWord & ~this.words[i];
+      if (newBits != 0) {
+        this.words[i] |= newBits;
+        changed = true;
+        while ((added.symbols != this.symbols) && (newBits != 0)) { // copy foreign symbols
+          int index = i * WORD_SIZE + Long.numberOfTrailingZeros(newBits);
+          this.symbols.register(added.symbols.get(index));
+          newBits &= newBits - 1;
+        }
+      }
+    }
+    return changed;
+  }
+
+  @Override
+  public boolean contains(Object object) {
+    if (!(object instanceof Symbol symbol)) {
+      return false;
+    }
+    int index = symbol.getVariableNumber();
+    return (index / WORD_SIZE < this.words.length)
+        && ((this.words[index / WORD_SIZE] & (1L << index)) != 0)
+        && (this.symbols.get(index) == symbol);
+  }
+
+  @Override
+  public boolean remove(Object object) {
+    if (!contains(object)) {
+      return false;
+    }
+    int index = ((Symbol) object).getVariableNumber();
+    this.words[index / WORD_SIZE] &= ~(1L << index);
+    return true;
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (long word : this.words) {
+      size += Long.bitCount(word);
+    }
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (long word : this.words) {
+      if (word != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Iterator<Symbol> iterator() {
+    return new Iterator<>() {
+      private int next = nextSetBit(0);
+      private int last = -1;
+
+      @Override
+      public boolean hasNext() {
+        return next >= 0;
+      }
+
+      @Override
+      public Symbol next() {
+        if (next < 0) {
+          throw new NoSuchElementException();
+        }
+        last = next;
+        next = nextSetBit(next + 1);
+        return symbols.get(last);
+      }
+
+      @Override
+      public void remove() {
+        if (last < 0) {
+          throw new IllegalStateException();
+        }
+        SymbolSet.this.remove(symbols.get(last));
+        last = -1;
+      }
+    };
+  }
+
+  /* Find the next index with a set bit, starting at the given index. */
+  private int nextSetBit(int fromIndex) {
+    int wordIndex = fromIndex / WORD_SIZE;
+    if (wordIndex >= this.words.length) {
+      return -1;
+    }
+
+    long word = this.words[wordIndex] & (-1L << fromIndex);
+    while (word == 0) {
+      if (++wordIndex == this.words.length) {
+        return -1;
+      }
+      word = this.words[wordIndex];
+    }
+    return wordIndex * WORD_SIZE + Long.numberOfTrailingZeros(word);
+  }
+}
@@ -1,5 +1,6 @@
 package livenessanalysis;
 
+import node.Node;
 import symboltable.Symbol;
 
 /** Data class for a variable value that is never read. */
@@ -7,6 +8,7 @@ public class UnusedValue {
   private final int lineNumber;
   private final String statementType;
   private final Symbol symbol;
+  private final Node statement;
 
   /**
    * Data class for a variable value that is never read.
@@ -16,9 +18,22 @@ public class UnusedValue {
    * @param symbol        Symbol that is never read.
    */
   public UnusedValue(int lineNumber, String statementType, Symbol symbol) {
+    this(lineNumber, statementType, symbol, null);
+  }
+
+  /**
+   * Data class for a variable value that is never read.
+   *
+   * @param lineNumber    Line number of the declaration or write statement.
+   * @param statementType Type of declaration or write statement.
+   * @param symbol        Symbol that is never read.
+   * @param statement     Declaration or write statement in the AST.
+   */
+  public UnusedValue(int lineNumber, String statementType, Symbol symbol, Node statement) {
     this.lineNumber = lineNumber;
     this.statementType = statementType;
     this.symbol = symbol;
+    this.statement = statement;
   }
 
   public String getStatementType() {
@@ -32,4 +47,8 @@ public class UnusedValue {
   public int getLineNumber() {
     return this.lineNumber;
   }
+
+  public Node getStatement() {
+    return this.statement;
+  }
 }
@@ -0,0 +1,398 @@
+package optimization;
+
+import analysis.DepthFirstAdapter;
+import java.util.HashMap;
+import java.util.HashSet;
+import node.AAddExpr;
+import node.AAndExpr;
+import node.AAssignStat;
+import node.ABooleanExpr;
+import node.AConcatExpr;
+import node.ADivExpr;
+import node.AEqExpr;
+import node.AFloatExpr;
+import node.AFunc;
+import node.AGtExpr;
+import node.AGteqExpr;
+import node.AIdExpr;
+import node.AInitStat;
+import node.AIntExpr;
+import node.ALtExpr;
+import node.ALteqExpr;
+import node.AMain;
+import node.AModExpr;
+import node.AMulExpr;
+import node.ANeqExpr;
+import node.ANotExpr;
+import node.AOrExpr;
+import node.AStringExpr;
+import node.ASubExpr;
+import node.AUminusExpr;
+import node.AUplusExpr;
+import node.Node;
+import node.PExpr;
+import node.TBooleanLiteral;
+import node.TFloatLiteral;
+import node.TIntLiteral;
+import node.TStringLiteral;
+import symboltable.Symbol;
+import symboltable.SymbolTable;
+import symboltable.Type;
+
+/**
+ * Depth first walker for the type-checked AST that replaces constant
+ * expressions by literals. It folds arithmetic, comparison, boolean and concat
+ * expressions with literal operands, and propagates the literal values of
+ * initialized variables that are never assigned afterwards.
+ *
+ * <p>Expressions whose evaluation fails or whose result has no exact literal
+ * keep their runtime evaluation, e.g., divisions by zero.
+ */
+public class ConstantFolder extends DepthFirstAdapter {
+  private final SymbolTable symbolTable;
+  private final HashMap<Symbol, Object> constants;
+  private final HashSet<Symbol> assignedSymbols;
+  private int foldedExpressions;
+
+  /**
+   * Depth first walker that replaces constant expressions by literals.
+   *
+   * @param symbolTable Filled symbol table for the type-checked AST
+   */
+  public ConstantFolder(SymbolTable symbolTable) {
+    this.symbolTable = symbolTable;
+    this.constants = new HashMap<>();
+    this.assignedSymbols = new HashSet<>();
+    this.foldedExpressions = 0;
+  }
+
+  /** Get the number of expressions that were replaced by literals. */
+  public int getFoldedExpressions() {
+    return this.foldedExpressions;
+  }
+
+  // Function definitions: propagate constants per function
+  @Override
+  public void inAMain(AMain node) {
+    startFunction(node);
+  }
+
+  @Override
+  public void inAFunc(AFunc node) {
+    startFunction(node);
+  }
+
+  private void startFunction(Node functionNode) {
+    this.constants.clear();
+    this.assignedSymbols.clear();
+    functionNode.apply(new DepthFirstAdapter() {
+      @Override
+      public void inAAssignStat(AAssignStat node) {
+        assignedSymbols.add(symbolTable.getSymbol(node, node.getId().getText()));
+      }
+    });
+  }
+
+  // Variables
+  @Override
+  public void outAInitStat(AInitStat node) {
+    Symbol symbol = symbolTable.getSymbol(node, node.getId().getText());
+    Object value = getConstant(node.getExpr());
+    if ((value != null) && !this.assignedSymbols.contains(symbol)) {
+      this.constants.put(symbol, value);
+    }
+  }
+
+  @Override
+  public void outAIdExpr(AIdExpr node) {
+    Symbol symbol = symbolTable.getSymbol(node, node.getId().getText());
+    Object value = this.constants.get(symbol);
+    if (value != null) {
+      replaceByLiteral(node, value);
+    }
+  }
+
+  // Arithmetic operations
+  @Override
+  public void outAAddExpr(AAddExpr node) {
+    Object left = getConstant(node.getLeft());
+    Object right = getConstant(node.getRight());
+    if ((left instanceof Number leftNumber) && (right instanceof Number rightNumber)) {
+      if (node.getType() == Type.FLOAT) {
+        replaceByLiteral(node, leftNumber.floatValue() + rightNumber.floatValue());
+      } else {
+        replaceByLiteral(node, leftNumber.intValue() + rightNumber.intValue());
+      }
+    }
+  }
+
+  @Override
+  public void outASubExpr(ASubExpr node) {
+    Object left = getConstant(node.getLeft());
+    Object right = getConstant(node.getRight());
+    if ((left instanceof Number leftNumber) && (right instanceof Number rightNumber)) {
+      if (node.getType() == Type.FLOAT) {
+        replaceByLiteral(node, leftNumber.floatValue() - rightNumber.floatValue());
+      } else {
+        replaceByLiteral(node, leftNumber.intValue() - rightNumber.intValue());
+      }
+    }
+  }
+
+  @Override
+  public void outAMulExpr(AMulExpr node) {
+    Object left = getConstant(node.getLeft());
+    Object right = getConstant(node.getRight());
+    if ((left instanceof Number leftNumber) && (right instanceof Number rightNumber)) {
+      if (node.getType() == Type.FLOAT) {
+        replaceByLiteral(node, leftNumber.floatValue() * rightNumber.floatValue());
+      } else {
+        replaceByLiteral(node, leftNumber.intValue() * rightNumber.intValue());
+      }
+    }
+  }
+
+  @Override
+  public void outADivExpr(ADivExpr node) {
+    Object left = getConstant(node.getLeft());
+    Object right = getConstant(node.getRight());
+    if ((left instanceof Number leftNumber) && (right instanceof Number rightNumber)) {
+      if (node.getType() == Type.FLOAT) {
+        replaceByLiteral(node, leftNumber.floatValue() / rightNumber.floatValue());
+      } else if (rightNumber.intValue() != 0) { // keep the runtime exception
+        replaceByLiteral(node, leftNumber.intValue() / rightNumber.intValue());
+      }
+    }
+  }
+
+  @Override
+  public void outAModExpr(AModExpr node) {
+    Object left = getConstant(node.getLeft());
+    Object right = getConstant(node.getRight());
+    if ((left instanceof Integer leftInt) && (right instanceof Integer rightInt)
+        && (rightInt != 0)) {
+      replaceByLiteral(node, leftInt % rightInt);
+    }
+  }
+
+  // Unary operations
+  @Override
+  public void outAUminusExpr(AUminusExpr node) {
+    Object value = getConstant(node.getExpr());
+    if (value instanceof Number number) {
+      if (node.getType() == Type.FLOAT) {
+        replaceByLiteral(node, -number.floatValue());
+      } else {
+        replaceByLiteral(node, -number.intValue());
+      }
+    }
+  }
+
+  @Override
+  public void outAUplusExpr(AUplusExpr node) {
+    Object value = getConstant(node.getExpr());
+    if (value != null) {
+      replaceByLiteral(node, value);
+    }
+  }
+
+  @Override
+  public void outANotExpr(ANotExpr node) {
+    if (getConstant(node.getExpr()) instanceof Boolean value) {
+      replaceByLiteral(node, !value);
+    }
+  }
+
+  // Boolean operations: a literal operand that does not decide the result is dropped, and a
+  // deciding left literal replaces the operation, as the right operand is never evaluated
+  @Override
+  public void outAAndExpr(AAndExpr node) {
+    Object left = getConstant(node.getLeft());
+    Object right = getConstant(node.getRight());
+    if ((left instanceof Boolean leftValue) && (right instanceof Boolean rightValue)) {
+      replaceByLiteral(node, leftValue && rightValue);
+    } else if (Boolean.FALSE.equals(left)) {
+      replaceByLiteral(node, false);
+    } else if (Boolean.TRUE.equals(left)) {
+      replaceByOperand(node, node.getRight());
+    } else if (Boolean.TRUE.equals(right)) {
+      replaceByOperand(node, node.getLeft());
+    }
+  }
+
+  @Override
+  public void outAOrExpr(AOrExpr node) {
+    Object left = getConstant(node.getLeft());
+    Object right = getConstant(node.getRight());
+    if ((left instanceof Boolean leftValue) && (right instanceof Boolean rightValue)) {
+      replaceByLiteral(node, leftValue || rightValue);
+    } else if (Boolean.TRUE.equals(left)) {
+      replaceByLiteral(node, true);
+    } else if (Boolean.FALSE.equals(left)) {
+      replaceByOperand(node, node.getRight());
+    } else if (Boolean.FALSE.equals(right)) {
+      replaceByOperand(node, node.getLeft());
+    }
+  }
+
+  // Comparison expressions
+  @Override
+  public void outAEqExpr(AEqExpr node) {
+    Boolean equal = evaluateEquality(node.getLeft(), node.getRight());
+    if (equal != null) {
+      replaceByLiteral(node, equal);
+    }
+  }
+
+  @Override
+  public void outANeqExpr(ANeqExpr node) {
+    Boolean equal = evaluateEquality(node.getLeft(), node.getRight());
+    if (equal != null) {
+      replaceByLiteral(node, !equal);
+    }
+  }
+
+  @Override
+  public void outALtExpr(ALtExpr node) {
+    Integer comparison = compareNumbers(node.getLeft(), node.getRight());
+    if (comparison != null) {
+      replaceByLiteral(node, comparison < 0);
+    }
+  }
+
+  @Override
+  public void outALteqExpr(ALteqExpr node) {
+    Integer comparison = compareNumbers(node.getLeft(), node.getRight());
+    if (comparison != null) {
+      replaceByLiteral(node, comparison <= 0);
+    }
+  }
+
+  @Override
+  public void outAGtExpr(AGtExpr node) {
+    Integer comparison = compareNumbers(node.getLeft(), node.getRight());
+    if (comparison != null) {
+      replaceByLiteral(node, comparison > 0);
+    }
+  }
+
+  @Override
+  public void outAGteqExpr(AGteqExpr node) {
+    Integer comparison = compareNumbers(node.getLeft(), node.getRight());
+    if (comparison != null) {
+      replaceByLiteral(node, comparison >= 0);
+    }
+  }
+
+  // String operations
+  @Override
+  public void outAConcatExpr(AConcatExpr node) {
+    Object left = getConstant(node.getLeft());
+    Object right = getConstant(node.getRight());
+    if (right == null) {
+      return;
+    } else if (left != null) {
+      replaceByLiteral(node, toConcatString(left) + toConcatString(right));
+    } else if (node.getLeft() instanceof AConcatExpr leftConcat) {
+      // concats are associative, i.e., (a § "b") § "c" equals a § "bc"
+      Object leftRight = getConstant(leftConcat.getRight());
+      if (leftRight != null) {
+        replaceByLiteral(leftConcat.getRight(),
+            toConcatString(leftRight) + toConcatString(right), Type.STRING);
+        replaceByOperand(node, leftConcat);
+      }
+    }
+  }
+
+  // Helpers
+  /* Get the value of a literal expression, or null if it is no literal with an exact value. */
+  private static Object getConstant(PExpr expr) {
+    try {
+      if (expr instanceof ABooleanExpr booleanExpr) {
+        return Boolean.parseBoolean(booleanExpr.getLit().getText());
+      } else if (expr instanceof AIntExpr intExpr) {
+        return Integer.parseInt(intExpr.getLit().getText());
+      } else if (expr instanceof AFloatExpr floatExpr) {
+        return Float.parseFloat(floatExpr.getLit().getText());
+      } else if (expr instanceof AStringExpr stringExpr) {
+        String text = stringExpr.getLit().getText();
+        return text.contains("\\") ? null : text.substring(1, text.length() - 1);
+      }
+    } catch (NumberFormatException e) {
+      return null; // e.g., an int literal that exceeds the JVM's range
+    }
+    return null;
+  }
+
+  private static Boolean evaluateEquality(PExpr left, PExpr right) {
+    Object leftValue = getConstant(left);
+    Object rightValue = getConstant(right);
+    if ((leftValue instanceof Number) && (rightValue instanceof Number)) {
+      Integer comparison = compareNumbers(left, right);
+      return (comparison != null) ? comparison == 0 : null;
+    } else if ((leftValue != null) && (rightValue != null)) {
+      return leftValue.equals(rightValue);
+    }
+    return null;
+  }
+
+  /* Compare two numeric literals like the JVM, i.e., as floats if one of them is a float. */
+  private static Integer compareNumbers(PExpr left, PExpr right) {
+    Object leftValue = getConstant(left);
+    Object rightValue = getConstant(right);
+    if ((leftValue instanceof Integer leftInt) && (rightValue instanceof Integer rightInt)) {
+      return Integer.compare(leftInt, rightInt);
+    } else if ((leftValue instanceof Number leftNumber)
+        && (rightValue instanceof Number rightNumber)) {
+      float leftFloat = leftNumber.floatValue();
+      float rightFloat = rightNumber.floatValue();
+      return (leftFloat < rightFloat) ? -1 : ((leftFloat > rightFloat) ? 1 : 0);
+    }
+    return null;
+  }
+
+  /* Convert a value like StringBuilder.append does. */
+  private static String toConcatString(Object value) {
+    return (value instanceof Float floatValue) ? Float.toString(floatValue) : value.toString();
+  }
+
+  /* Replace an expression by a literal with its type, unless the value has no exact literal. */
+  private void replaceByLiteral(PExpr node, Object value) {
+    replaceByLiteral(node, value, node.getType());
+  }
+
+  /* Replace an expression by a literal of the given type, e.g., operands by merged strings. */
+  private void replaceByLiteral(PExpr node, Object value, Type type) {
+    PExpr literal;
+    switch (type) {
+      case BOOLEAN:
+        literal = new ABooleanExpr(new TBooleanLiteral(value.toString()));
+        break;
+      case FLOAT:
+        float floatValue = ((Number) value).floatValue();
+        String floatText = Float.toString(floatValue);
+        if (!Float.isFinite(floatValue) || floatText.contains("E")) {
+          return;
+        }
+        literal = new AFloatExpr(new TFloatLiteral(floatText));
+        break;
+      case INT:
+        literal = new AIntExpr(new TIntLiteral(Integer.toString(((Number) value).intValue())));
+        break;
+      case STRING:
+        literal = new AStringExpr(new TStringLiteral("\"%s\"".formatted(value)));
+        break;
+      default:
+        return;
+    }
+    literal.setType(type);
+    node.replaceBy(literal);
+    this.foldedExpressions++;
+  }
+
+  /* Replace an expression by one of its operands, which has the same type. */
+  private void replaceByOperand(PExpr node, PExpr operand) {
+    node.replaceBy(operand);
+    this.foldedExpressions++;
+  }
+}
@@ -0,0 +1,238 @@
+package optimization;
+
+import analysis.DepthFirstAdapter;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import livenessanalysis.LivenessAnalyzer;
+import livenessanalysis.UnusedValue;
+import node.AAssignStat;
+import node.ABlockStat;
+import node.ABooleanExpr;
+import node.ADeclStat;
+import node.ADivExpr;
+import node.AEmptyStat;
+import node.AFunc;
+import node.AFuncExpr;
+import node.AIdExpr;
+import node.AIfStat;
+import node.AIfelseStat;
+import node.AInitStat;
+import node.AIntExpr;
+import node.AMain;
+import node.AModExpr;
+import node.AReturnStat;
+import node.AWhileStat;
+import node.Node;
+import node.PExpr;
+import node.PStat;
+import symboltable.Symbol;
+import symboltable.SymbolTable;
+import symboltable.Type;
+
+/**
+ * Depth first walker for the type-checked AST that removes dead code based on
+ * the results of a liveness analysis of the same AST. It removes writes of
+ * values that are never read, unless their expressions have side effects, and
+ * declarations of variables that are neither written nor read. It also removes
+ * unreachable statements after returns, and branches and loops under constant
+ * conditions.
+ *
+ * <p>Removing a write may render earlier writes dead, so callers should repeat
+ * the liveness analysis and elimination until nothing changes.
+ */
+public class DeadCodeEliminator extends DepthFirstAdapter {
+  private final SymbolTable symbolTable;
+  private final Set<Node> deadStores;
+  private final Set<Symbol> unwrittenSymbols;
+  private final Set<Symbol> readSymbols;
+  private int removedStatements;
+
+  /**
+   * Depth first walker that removes dead code.
+   *
+   * @param symbolTable      Filled symbol table for the type-checked AST
+   * @param livenessAnalyzer Liveness analyzer that has been applied to the AST
+   */
+  public DeadCodeEliminator(SymbolTable symbolTable, LivenessAnalyzer livenessAnalyzer) {
+    this.symbolTable = symbolTable;
+    this.deadStores = Collections.newSetFromMap(new IdentityHashMap<>());
+    this.unwrittenSymbols = new HashSet<>();
+    this.readSymbols = new HashSet<>();
+    this.removedStatements = 0;
+
+    for (List<UnusedValue> unusedValues
+        : livenessAnalyzer.getUnusedVariableValuesPerFunction().values()) {
+      unusedValues.forEach(unusedValue -> this.deadStores.add(unusedValue.getStatement()));
+    }
+    livenessAnalyzer.getUnusedVariableDeclarationssPerFunction()
+        .values().forEach(this.unwrittenSymbols::addAll);
+  }
+
+  /** Get the number of removed statements, including replaced control structures. */
+  public int getRemovedStatements() {
+    return this.removedStatements;
+  }
+
+  // Function definitions: collect read symbols and remove unreachable statements
+  @Override
+  public void inAMain(AMain node) {
+    collectReadSymbols(node);
+  }
+
+  @Override
+  public void outAMain(AMain node) {
+    removeUnreachableStatements(node.getStatements());
+  }
+
+  @Override
+  public void inAFunc(AFunc node) {
+    collectReadSymbols(node);
+  }
+
+  @Override
+  public void outAFunc(AFunc node) {
+    removeUnreachableStatements(node.getStatements());
+  }
+
+  @Override
+  public void outABlockStat(ABlockStat node) {
+    removeUnreachableStatements(node.getBody());
+  }
+
+  private void collectReadSymbols(Node functionNode) {
+    this.readSymbols.clear();
+    functionNode.apply(new DepthFirstAdapter() {
+      @Override
+      public void outAIdExpr(AIdExpr node) {
+        readSymbols.add(symbolTable.getSymbol(node, node.getId().getText()));
+      }
+    });
+  }
+
+  // Variable statements
+  @Override
+  public void outADeclStat(ADeclStat node) {
+    Symbol symbol = symbolTable.getSymbol(node, node.getId().getText());
+    if (this.unwrittenSymbols.contains(symbol) && !this.readSymbols.contains(symbol)) {
+      removeStatement(node);
+    }
+  }
+
+  @Override
+  public void outAInitStat(AInitStat node) {
+    if (this.deadStores.contains(node) && !hasSideEffects(node.getExpr())) {
+      removeStatement(node);
+    }
+  }
+
+  @Override
+  public void outAAssignStat(AAssignStat node) {
+    if (this.deadStores.contains(node) && !hasSideEffects(node.getExpr())) {
+      removeStatement(node);
+    }
+  }
+
+  // Control structures with constant conditions
+  @Override
+  public void outAIfStat(AIfStat node) {
+    Boolean condition = getConstantCondition(node.getExpr());
+    if (Boolean.TRUE.equals(condition)) {
+      replaceStatement(node, node.getThenBlock());
+    } else if (Boolean.FALSE.equals(condition)) {
+      removeStatement(node);
+    }
+  }
+
+  @Override
+  public void outAIfelseStat(AIfelseStat node) {
+    Boolean condition = getConstantCondition(node.getExpr());
+    if (Boolean.TRUE.equals(condition)) {
+      replaceStatement(node, node.getThenBlock());
+    } else if (Boolean.FALSE.equals(condition)) {
+      replaceStatement(node, node.getElseBlock());
+    }
+  }
+
+  @Override
+  public void outAWhileStat(AWhileStat node) {
+    if (Boolean.FALSE.equals(getConstantCondition(node.getExpr()))) {
+      removeStatement(node);
+    }
+  }
+
+  // Helpers
+  private static Boolean getConstantCondition(PExpr expr) {
+    if (expr instanceof ABooleanExpr booleanExpr) {
+      return Boolean.parseBoolean(booleanExpr.getLit().getText());
+    }
+    return null;
+  }
+
+  /* Check if an expression calls a function or may divide an int by zero. */
+  private static boolean hasSideEffects(PExpr expr) {
+    boolean[] sideEffects = {false};
+    expr.apply(new DepthFirstAdapter() {
+      @Override
+      public void inAFuncExpr(AFuncExpr node) {
+        sideEffects[0] = true;
+      }
+
+      @Override
+      public void inADivExpr(ADivExpr node) {
+        sideEffects[0] |= (node.getType() == Type.INT) && !isNonZeroIntLiteral(node.getRight());
+      }
+
+      @Override
+      public void inAModExpr(AModExpr node) {
+        sideEffects[0] |= !isNonZeroIntLiteral(node.getRight());
+      }
+    });
+    return sideEffects[0];
+  }
+
+  private static boolean isNonZeroIntLiteral(PExpr expr) {
+    return (expr instanceof AIntExpr intExpr) && !intExpr.getLit().getText().equals("0");
+  }
+
+  /* Remove all statements after a statement that always returns. */
+  private void removeUnreachableStatements(LinkedList<PStat> statements) {
+    for (int i = 0; i < statements.size() - 1; i++) {
+      if (alwaysReturns(statements.get(i))) {
+        while (statements.size() > i + 1) {
+          removeStatement(statements.getLast());
+        }
+      }
+    }
+  }
+
+  private static boolean alwaysReturns(PStat statement) {
+    if (statement instanceof AReturnStat) {
+      return true;
+    } else if (statement instanceof ABlockStat block) {
+      return !block.getBody().isEmpty() && alwaysReturns(block.getBody().getLast());
+    } else if (statement instanceof AIfelseStat ifElse) {
+      return alwaysReturns(ifElse.getThenBlock()) && alwaysReturns(ifElse.getElseBlock());
+    }
+    return false;
+  }
+
+  /* Remove a statement from its list, or replace it by an empty statement otherwise. */
+  private void removeStatement(PStat statement) {
+    Node parent = statement.parent();
+    if ((parent instanceof ABlockStat) || (parent instanceof AMain) || (parent instanceof AFunc)) {
+      statement.replaceBy(null);
+    } else {
+      statement.replaceBy(new AEmptyStat());
+    }
+    this.removedStatements++;
+  }
+
+  private void replaceStatement(PStat statement, PStat replacement) {
+    statement.replaceBy(replacement);
+    this.removedStatements++;
+  }
+}
@@ -0,0 +1,40 @@
+package optimization;
+
+/** Optional optimizations of the compiler, which the command line can enable. */
+public enum Optimization {
+  /** Share JVM local slots between non-interfering variables of the same type. */
+  REGISTER_ALLOCATION("registers"),
+  /** Replace constant expressions and variables with constant values by literals. */
+  CONSTANT_FOLDING("constants"),
+  /** Remove dead stores, unused declarations and unreachable statements. */
+  DEAD_CODE_ELIMINATION("deadcode"),
+  /** Rewrite short sequences of emitted instructions into shorter or faster ones. */
+  PEEPHOLE("peephole");
+
+  private final String optionName;
+
+  Optimization(String optionName) {
+    this.optionName = optionName;
+  }
+
+  /** Get the name of this optimization on the command line. */
+  public String getOptionName() {
+    return this.optionName;
+  }
+
+  /**
+   * Find the optimization with the given name on the command line.
+   *
+   * @param optionName Name of the optimization on the command line
+   * @return Optimization with the given name
+   * @throws IllegalArgumentException If no optimization has the given name
+   */
+  public static Optimization fromOptionName(String optionName) {
+    for (Optimization optimization : values()) {
+      if (optimization.optionName.equals(optionName)) {
+        return optimization;
+      }
+    }
+    throw new IllegalArgumentException("Unknown optimization \"%s\".".formatted(optionName));
+  }
+}
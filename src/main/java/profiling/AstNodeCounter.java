@@ -0,0 +1,21 @@
+package profiling;
+
+import analysis.DepthFirstAdapter;
+import node.Node;
+
+/** Depth first walker for the AST that counts its nodes (excluding tokens). */
+public class AstNodeCounter extends DepthFirstAdapter {
+  private int nodes = 0;
+
+  /** Count the nodes of the (sub-)AST below the given node, including itself. */
+  public static int countNodes(Node astStart) {
+    AstNodeCounter counter = new AstNodeCounter();
+    astStart.apply(counter);
+    return counter.nodes;
+  }
+
+  @Override
+  public void defaultIn(Node node) {
+    this.nodes++;
+  }
+}
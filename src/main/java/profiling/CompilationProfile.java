@@ -0,0 +1,160 @@
+package profiling;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Metrics of a single compilation, i.e., the metrics per phase in the order of
+ * their execution and named metrics per function (e.g., the number of dataflow
+ * nodes). It formats the metrics as human-readable text or as JSON, whose keys
+ * and units stay stable to compare profiles across releases.
+ */
+public class CompilationProfile {
+  private final String programName;
+  private final List<PhaseMetrics> phases;
+  private final LinkedHashMap<String, LinkedHashMap<String, Long>> metricsPerFunction;
+
+  /**
+   * Metrics of a single compilation.
+   *
+   * @param programName Name of the compiled program
+   */
+  public CompilationProfile(String programName) {
+    this.programName = programName;
+    this.phases = new ArrayList<>();
+    this.metricsPerFunction = new LinkedHashMap<>();
+  }
+
+  public String getProgramName() {
+    return this.programName;
+  }
+
+  /** Add the metrics of a finished phase. */
+  public void addPhase(PhaseMetrics phaseMetrics) {
+    this.phases.add(phaseMetrics);
+  }
+
+  public List<PhaseMetrics> getPhases() {
+    return this.phases;
+  }
+
+  /**
+   * Get the metrics of a phase.
+   *
+   * @param phaseName Name of the phase
+   * @return Metrics of the phase, or null if it did not run
+   */
+  public PhaseMetrics getPhase(String phaseName) {
+    for (PhaseMetrics phaseMetrics : this.phases) {
+      if (phaseMetrics.getName().equals(phaseName)) {
+        return phaseMetrics;
+      }
+    }
+    return null;
+  }
+
+  /** Add a named metric of a function. */
+  public void addFunctionMetric(String functionName, String metricName, long value) {
+    this.metricsPerFunction.computeIfAbsent(functionName, name -> new LinkedHashMap<>())
+        .put(metricName, value);
+  }
+
+  /** Get the named metrics per function, in the order of their first metric. */
+  public Map<String, LinkedHashMap<String, Long>> getMetricsPerFunction() {
+    return this.metricsPerFunction;
+  }
+
+  /** Sum up the wall times of all phases. */
+  public long getTotalWallNanos() {
+    return this.phases.stream().mapToLong(PhaseMetrics::getWallNanos).sum();
+  }
+
+  /** Format the profile as table of phases and a list of functions. */
+  public String toText() {
+    StringBuilder text = new StringBuilder();
+    text.append("Profile of %s\n".formatted(this.programName));
+    text.append("%-16s %10s %10s %16s  %s\n".formatted(
+        "Phase", "Wall [ms]", "CPU [ms]", "Allocated [KiB]", "Sizes"));
+    for (PhaseMetrics phase : this.phases) {
+      String row = "%-16s %10s %10s %16s  %s".formatted(phase.getName(),
+          formatNanosAsMillis(phase.getWallNanos()), formatNanosAsMillis(phase.getCpuNanos()),
+          formatBytesAsKibibytes(phase.getAllocatedBytes()), formatMetrics(phase.getSizes()));
+      text.append(row.stripTrailing()).append('\n');
+    }
+    text.append("%-16s %10s\n".formatted("total", formatNanosAsMillis(getTotalWallNanos())));
+
+    if (!this.metricsPerFunction.isEmpty()) {
+      text.append("Functions\n");
+      this.metricsPerFunction.forEach((function, metrics) -> text.append(
+          "  %s: %s\n".formatted(function, formatMetrics(metrics))));
+    }
+    return text.toString();
+  }
+
+  /** Format the profile as JSON object with times in nanoseconds and sizes in bytes. */
+  public String toJson() {
+    StringBuilder json = new StringBuilder();
+    json.append("{\n");
+    json.append("  \"program\": %s,\n".formatted(quote(this.programName)));
+    json.append("  \"totalWallNanos\": %d,\n".formatted(getTotalWallNanos()));
+
+    json.append("  \"phases\": [");
+    StringJoiner phaseObjects = new StringJoiner(",\n", "\n", "\n  ");
+    phaseObjects.setEmptyValue("");
+    for (PhaseMetrics phase : this.phases) {
+      phaseObjects.add(("    {\"name\": %s, \"wallNanos\": %d, \"cpuNanos\": %d, "
+          + "\"allocatedBytes\": %d, \"sizes\": %s}").formatted(quote(phase.getName()),
+          phase.getWallNanos(), phase.getCpuNanos(), phase.getAllocatedBytes(),
+          toJsonObject(phase.getSizes())));
+    }
+    json.append(phaseObjects).append("],\n");
+
+    json.append("  \"functions\": {");
+    StringJoiner functionObjects = new StringJoiner(",\n", "\n", "\n  ");
+    functionObjects.setEmptyValue("");
+    this.metricsPerFunction.forEach((function, metrics) -> functionObjects.add(
+        "    %s: %s".formatted(quote(function), toJsonObject(metrics))));
+    json.append(functionObjects).append("}\n");
+
+    json.append("}\n");
+    return json.toString();
+  }
+
+  private static String formatNanosAsMillis(long nanos) {
+    return (nanos < 0) ? "n/a" : "%.3f".formatted(nanos / 1e6);
+  }
+
+  private static String formatBytesAsKibibytes(long bytes) {
+    return (bytes < 0) ? "n/a" : "%.1f".formatted(bytes / 1024.0);
+  }
+
+  private static String formatMetrics(Map<String, Long> metrics) {
+    StringJoiner joiner = new StringJoiner(", ");
+    metrics.forEach((name, value) -> joiner.add("%s=%d".formatted(name, value)));
+    return joiner.toString();
+  }
+
+  private static String toJsonObject(Map<String, Long> metrics) {
+    StringJoiner joiner = new StringJoiner(", ", "{", "}");
+    metrics.forEach((name, value) -> joiner.add("%s: %d".formatted(quote(name), value)));
+    return joiner.toString();
+  }
+
+  /* Quote a string for JSON. Escapes quotes, backslashes and control characters. */
+  private static String quote(String value) {
+    StringBuilder quoted = new StringBuilder("\"");
+    for (char c : value.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        quoted.append('\\').append(c);
+      } else if (c < 0x20) {
+        quoted.append("\\u%04x".formatted((int) c));
+      } else {
+        quoted.append(c);
+      }
+    }
+    return quoted.append('"').toString();
+  }
+}
@@ -0,0 +1,83 @@
+package profiling;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Metrics of a single compiler phase, i.e., its wall time, CPU time,
+ * allocated bytes and the sizes of the data structures it produced (e.g., the
+ * number of AST nodes). Sizes keep the order in which they were added.
+ */
+public class PhaseMetrics {
+  private final String name;
+  private final long wallNanos;
+  private final long cpuNanos;
+  private final long allocatedBytes;
+  private final LinkedHashMap<String, Long> sizes;
+
+  /**
+   * Metrics of a single compiler phase.
+   *
+   * @param name           Name of the phase
+   * @param wallNanos      Elapsed wall time in nanoseconds
+   * @param cpuNanos       CPU time of the measuring thread in nanoseconds, or -1
+   * @param allocatedBytes Allocated bytes of the measuring thread, or -1
+   */
+  public PhaseMetrics(String name, long wallNanos, long cpuNanos, long allocatedBytes) {
+    this.name = name;
+    this.wallNanos = wallNanos;
+    this.cpuNanos = cpuNanos;
+    this.allocatedBytes = allocatedBytes;
+    this.sizes = new LinkedHashMap<>();
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  public long getWallNanos() {
+    return this.wallNanos;
+  }
+
+  public long getCpuNanos() {
+    return this.cpuNanos;
+  }
+
+  public long getAllocatedBytes() {
+    return this.allocatedBytes;
+  }
+
+  /**
+   * Get the metrics of this phase without a phase that ran within it, i.e.,
+   * so that the total of all phases counts the nested phase only once.
+   * Measurements that are missing in either phase remain -1.
+   *
+   * @param nestedPhase Metrics of the nested phase, or null if it did not run
+   * @return Metrics of the exclusive part of this phase, with the same sizes
+   */
+  public PhaseMetrics without(PhaseMetrics nestedPhase) {
+    if (nestedPhase == null) {
+      return this;
+    }
+    PhaseMetrics exclusiveMetrics = new PhaseMetrics(this.name,
+        this.wallNanos - nestedPhase.wallNanos,
+        difference(this.cpuNanos, nestedPhase.cpuNanos),
+        difference(this.allocatedBytes, nestedPhase.allocatedBytes));
+    exclusiveMetrics.sizes.putAll(this.sizes);
+    return exclusiveMetrics;
+  }
+
+  private static long difference(long total, long nested) {
+    return (total < 0 || nested < 0) ? -1 : total - nested;
+  }
+
+  /** Add the size of a data structure that the phase produced. */
+  public PhaseMetrics addSize(String sizeName, long size) {
+    this.sizes.put(sizeName, size);
+    return this;
+  }
+
+  public Map<String, Long> getSizes() {
+    return this.sizes;
+  }
+}
@@ -0,0 +1,59 @@
+package profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Stopwatch for a single compiler phase. It measures the wall time, the CPU
+ * time and the allocated bytes of the current thread, i.e., work on other
+ * threads (e.g., concurrent liveness workers) only counts towards wall time.
+ * Unsupported measurements are reported as -1.
+ */
+public class PhaseTimer {
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+  private final long startWallNanos;
+  private final long startCpuNanos;
+  private final long startAllocatedBytes;
+
+  private PhaseTimer() {
+    this.startCpuNanos = currentCpuNanos();
+    this.startAllocatedBytes = currentAllocatedBytes();
+    this.startWallNanos = System.nanoTime();
+  }
+
+  /** Start measuring a phase on the current thread. */
+  public static PhaseTimer start() {
+    return new PhaseTimer();
+  }
+
+  /**
+   * Stop measuring the phase. Call it on the thread that started the timer.
+   *
+   * @param phaseName Name of the measured phase
+   * @return Metrics of the phase without sizes
+   */
+  public PhaseMetrics stop(String phaseName) {
+    long wallNanos = System.nanoTime() - this.startWallNanos;
+    long cpuNanos = difference(currentCpuNanos(), this.startCpuNanos);
+    long allocatedBytes = difference(currentAllocatedBytes(), this.startAllocatedBytes);
+    return new PhaseMetrics(phaseName, wallNanos, cpuNanos, allocatedBytes);
+  }
+
+  private static long difference(long end, long start) {
+    return (end < 0 || start < 0) ? -1 : end - start;
+  }
+
+  private static long currentCpuNanos() {
+    return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+  }
+
+  private static long currentAllocatedBytes() {
+    if (THREADS instanceof com.sun.management.ThreadMXBean allocationBean
+        && allocationBean.isThreadAllocatedMemorySupported()
+        && allocationBean.isThreadAllocatedMemoryEnabled()) {
+      return allocationBean.getCurrentThreadAllocatedBytes();
+    }
+    return -1;
+  }
+}
@@ -78,17 +78,18 @@ public class StackDepthEvaluator extends DepthFirstAdapter {
   @Override
   public void caseAReturnStat(AReturnStat node) {
     PExpr expr = node.getExpr();
-    Type type = expr.getType();
-    if (!type.equals(Type.NONE)) {
-      incrementDepthCounter(1); // return value is pushed on the stack
+    if (expr != null) {
+      expr.apply(this); // return value is pushed on the stack
+      decrementDepthCounter(1); // ireturn (or freturn, areturn) pops 1
     }
   }
 
   @Override
   public void caseAFuncExpr(AFuncExpr node) {
-    int numberOfArgs = node.getArgs().size();
-    incrementDepthCounter(numberOfArgs); // parameters are pushed on the stack
-    decrementDepthCounter(numberOfArgs);
+    for (PExpr arg : node.getArgs()) {
+      arg.apply(this); // parameters are pushed on the stack
+    }
+    decrementDepthCounter(node.getArgs().size());
 
     Type type = node.getType();
     if (!type.equals(Type.NONE)) {
@@ -98,9 +99,10 @@ public class StackDepthEvaluator extends DepthFirstAdapter {
 
   @Override
   public void caseAFuncStat(AFuncStat node) {
-    int numberOfArgs = node.getArgs().size();
-    incrementDepthCounter(numberOfArgs); // parameters are pushed on the stack
-    decrementDepthCounter(numberOfArgs);
+    for (PExpr arg : node.getArgs()) {
+      arg.apply(this); // parameters are pushed on the stack
+    }
+    decrementDepthCounter(node.getArgs().size());
     incrementDepthCounter(1); // return value is pushed on the stack
     decrementDepthCounter(1); // return value popped
   }
@@ -110,7 +112,7 @@ public class StackDepthEvaluator extends DepthFirstAdapter {
   public void caseAIfStat(AIfStat node) {
     // evaluate condition
     node.getExpr().apply(this);
-    decrementDepthCounter(1); // ifeq pops 1
+    decrementDepthCounter(1); // if_icmpeq (or fcmpX, ifeq) pops 2, ldc pushes 1
 
     // evaluate body
     node.getThenBlock().apply(this);
@@ -120,7 +122,7 @@ public class StackDepthEvaluator extends DepthFirstAdapter {
   public void caseAIfelseStat(AIfelseStat node) {
     // evaluate condition
     node.getExpr().apply(this);
-    decrementDepthCounter(1); // ifeq pops 1
+    decrementDepthCounter(1); // if_icmpeq (or fcmpX, ifeq) pops 2, ldc pushes 1
 
     // evaluate then-body
     node.getThenBlock().apply(this);
@@ -133,7 +135,7 @@ public class StackDepthEvaluator extends DepthFirstAdapter {
   public void caseAWhileStat(AWhileStat node) {
     // evaluate head
     node.getExpr().apply(this);
-    decrementDepthCounter(1); // ifeq pops 1
+    decrementDepthCounter(1); // if_icmpeq (or fcmpX, ifeq) pops 2, ldc pushes 1
 
     // evaluate body
     node.getBody().apply(this);
@@ -199,14 +201,16 @@ public class StackDepthEvaluator extends DepthFirstAdapter {
   }
 
   // Boolean operations
+  // Short-circuit code pops the left operand before evaluating the right one, and
+  // pushes 1 result. Counting both operands at once is a safe upper bound.
   @Override
   public void outAAndExpr(AAndExpr node) {
-    decrementDepthCounter(1); // iand pops 2 arguments and pushes 1 result
+    decrementDepthCounter(1);
   }
 
   @Override
   public void outAOrExpr(AOrExpr node) {
-    decrementDepthCounter(1); // ior pops 2 arguments and pushes 1 result
+    decrementDepthCounter(1);
   }
 
   // Unary operations
@@ -227,39 +231,39 @@ public class StackDepthEvaluator extends DepthFirstAdapter {
   // Comparison expressions (calculate a boolean value with true=1, false=0)
   @Override
   public void outAEqExpr(AEqExpr node) {
-    decrementDepthCounter(1); // ifeq pops 1
+    decrementDepthCounter(1); // if_icmpeq (or fcmpX, ifeq) pops 2, ldc pushes 1
   }
 
   @Override
   public void outANeqExpr(ANeqExpr node) {
-    decrementDepthCounter(1); // ifne pops 1
+    decrementDepthCounter(1); // if_icmpne (or fcmpX, ifne) pops 2, ldc pushes 1
   }
 
   @Override
   public void outALteqExpr(ALteqExpr node) {
-    decrementDepthCounter(1); // ifle pops 1
+    decrementDepthCounter(1); // if_icmple (or fcmpX, ifle) pops 2, ldc pushes 1
   }
 
   @Override
   public void outALtExpr(ALtExpr node) {
-    decrementDepthCounter(1); // iflt pops 1
+    decrementDepthCounter(1); // if_icmplt (or fcmpX, iflt) pops 2, ldc pushes 1
   }
 
   @Override
   public void outAGteqExpr(AGteqExpr node) {
-    decrementDepthCounter(1); // ifge pops 1
+    decrementDepthCounter(1); // if_icmpge (or fcmpX, ifge) pops 2, ldc pushes 1
   }
 
   @Override
   public void outAGtExpr(AGtExpr node) {
-    decrementDepthCounter(1); // ifgt pops 1
+    decrementDepthCounter(1); // if_icmpgt (or fcmpX, ifgt) pops 2, ldc pushes 1
   }
 
   // String operations
   @Override
   public void inAConcatExpr(AConcatExpr node) {
-    incrementDepthCounter(2); // new StringBuffer and dup each push 1
-    decrementDepthCounter(1); // invokespecial <init> pops 1
+    incrementDepthCounter(3); // new StringBuilder, dup and its capacity each push 1
+    decrementDepthCounter(2); // invokespecial <init> pops 2
   }
 
   @Override
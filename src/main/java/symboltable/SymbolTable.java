@@ -2,6 +2,7 @@ package symboltable;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import livenessanalysis.InterferenceGraphNode;
 import node.AFunc;
@@ -21,6 +22,8 @@ public class SymbolTable {
   private final HashMap<String, Type> functionReturnTypeTable;
   private final HashMap<String, HashMap<String, Symbol>> symbolTablePerScope;
   private final HashMap<String, Integer> nextFreeSymbolNumberPerScope;
+  private final IdentityHashMap<Node, String> scopePerNode;
+  private final IdentityHashMap<Node, Symbol> symbolPerNode;
 
   /** Create a new symbol table with empty collections. */
   public SymbolTable() {
@@ -28,6 +31,8 @@ public class SymbolTable {
     this.functionReturnTypeTable = new HashMap<>();
     this.symbolTablePerScope = new HashMap<>();
     this.nextFreeSymbolNumberPerScope = new HashMap<>();
+    this.scopePerNode = new IdentityHashMap<>();
+    this.symbolPerNode = new IdentityHashMap<>();
   }
 
   /** Creates the data structures for a new function scope. */
@@ -75,6 +80,29 @@ public class SymbolTable {
     return scopeSymbolTable.get(id);
   }
 
+  /**
+   * Get the symbol that a node refers to, e.g., the variable of an identifier
+   * expression. Uses the resolved symbol, if available.
+   *
+   * @param node Node that refers to a symbol.
+   * @param id   Identifier of the symbol.
+   * @return Symbol, or null if the scope does not contain the identifier.
+   */
+  public Symbol getSymbol(Node node, String id) {
+    Symbol symbol = this.symbolPerNode.get(node);
+    return (symbol != null) ? symbol : getSymbol(determineScope(node), id);
+  }
+
+  /** Remember the scope of a node, so that determineScope needs no walk for it. */
+  public void addResolvedScope(Node node, String scopeName) {
+    this.scopePerNode.put(node, scopeName);
+  }
+
+  /** Remember the symbol that a node refers to. */
+  public void addResolvedSymbol(Node node, Symbol symbol) {
+    this.symbolPerNode.put(node, symbol);
+  }
+
   public void addFunctionArgumentType(String functionId, Type argumentType) {
     FunctionArgumentTypeList functionArgumentList = functionArgumentListTable.get(functionId);
     functionArgumentList.addArgumentType(argumentType);
@@ -97,10 +125,33 @@ public class SymbolTable {
   }
 
   /**
-   * Determines the scope from the parent node class and identifier.
-   * Walks up the AST until it finds a function definition.
+   * Get the signature of a function as JVM method descriptor, e.g., "(IF)I"
+   * for int arguments and float results. Callers depend on the signatures of
+   * their callees, but not on the bodies.
+   *
+   * @param functionId Name of the function
+   * @return Method descriptor, or null for unknown functions
+   */
+  public String getFunctionDescriptor(String functionId) {
+    FunctionArgumentTypeList argumentTypeList = functionArgumentListTable.get(functionId);
+    Type returnType = functionReturnTypeTable.get(functionId);
+    if ((argumentTypeList == null) || (returnType == null)) {
+      return null;
+    }
+    return "(" + argumentTypeList.getJvmTypeString() + ")" + returnType.getJvmType();
+  }
+
+  /**
+   * Determines the scope from the parent node class and identifier. Uses the
+   * resolved scope, if available, and walks up the AST until it finds a
+   * function definition otherwise.
    */
   public String determineScope(Node node) {
+    String scopeName = this.scopePerNode.get(node);
+    return (scopeName != null) ? scopeName : findScope(node);
+  }
+
+  private String findScope(Node node) {
     Node parent = node.parent();
     Class<? extends Node> parentClass = parent.getClass();
     if (parentClass == AMain.class) {
@@ -113,7 +164,7 @@ public class SymbolTable {
       System.exit(0);
       return "";
     } else {
-      return determineScope(parent);
+      return findScope(parent);
     }
   }
 
@@ -1,6 +1,9 @@
 package symboltable;
 
 import analysis.DepthFirstAdapter;
+import java.util.ArrayList;
+import java.util.List;
+import node.AAssignStat;
 import node.ABooleanRtp;
 import node.ABooleanTp;
 import node.ADeclArg;
@@ -8,13 +11,16 @@ import node.ADeclStat;
 import node.AFloatRtp;
 import node.AFloatTp;
 import node.AFunc;
+import node.AIdExpr;
 import node.AInitStat;
 import node.AIntRtp;
 import node.AIntTp;
 import node.AMain;
 import node.ANoneRtp;
+import node.AReturnStat;
 import node.AStringRtp;
 import node.AStringTp;
+import node.Node;
 import node.PRtp;
 import node.PTp;
 import node.TIdentifier;
@@ -22,15 +28,23 @@ import node.TIdentifier;
 /**
  * Depth first walker for the AST that fills the symbol table with functions and
  * variables. It does not check any types, because it focuses on declarations
- * and function heads.
+ * and function heads. It also resolves the scope and symbol of each node that
+ * refers to a variable, so that later passes look them up instead of walking
+ * the AST.
  */
 public class SymbolTableBuilder extends DepthFirstAdapter {
   private final SymbolErrorHandler errorHandler;
   private final SymbolTable symbolTable;
+  private final List<Node> unresolvedNodes;
+  private final List<String> unresolvedIds;
+  private String currentScope;
 
+  /** Depth first walker for the AST that fills the symbol table. */
   public SymbolTableBuilder() {
     errorHandler = new SymbolErrorHandler();
     symbolTable = new SymbolTable();
+    unresolvedNodes = new ArrayList<>();
+    unresolvedIds = new ArrayList<>();
   }
 
   public SymbolTable getSymbolTable() {
@@ -41,6 +55,12 @@ public class SymbolTableBuilder extends DepthFirstAdapter {
   @Override
   public void inAMain(AMain node) {
     symbolTable.addNewScope("main", Type.NONE);
+    currentScope = "main";
+  }
+
+  @Override
+  public void outAMain(AMain node) {
+    resolveSymbols();
   }
 
   @Override
@@ -50,6 +70,12 @@ public class SymbolTableBuilder extends DepthFirstAdapter {
     Type returnType = determineInternalReturnType(node.getReturnType());
 
     symbolTable.addNewScope(idText, returnType);
+    currentScope = idText;
+  }
+
+  @Override
+  public void outAFunc(AFunc node) {
+    resolveSymbols();
   }
 
   /**
@@ -58,8 +84,9 @@ public class SymbolTableBuilder extends DepthFirstAdapter {
    */
   @Override
   public void inADeclArg(ADeclArg node) {
-    String scopeName = symbolTable.determineScope(node);
+    String scopeName = currentScope;
     String argName = node.getId().getText();
+    addResolvableNode(node, argName);
     Type argType = determineInternalType(node.getType());
 
     symbolTable.addFunctionArgumentType(scopeName, argType);
@@ -68,11 +95,12 @@ public class SymbolTableBuilder extends DepthFirstAdapter {
 
   // Variable statements
   @Override
-  public void caseAInitStat(AInitStat node) {
+  public void inAInitStat(AInitStat node) {
     TIdentifier id = node.getId();
     String idText = id.getText();
+    addResolvableNode(node, idText);
 
-    String scopeName = symbolTable.determineScope(node);
+    String scopeName = currentScope;
     if (symbolTable.containsSymbol(scopeName, idText)) {
       errorHandler.printAlreadyDefinedError(id);
     } else {
@@ -82,11 +110,12 @@ public class SymbolTableBuilder extends DepthFirstAdapter {
   }
 
   @Override
-  public void caseADeclStat(ADeclStat node) {
+  public void inADeclStat(ADeclStat node) {
     TIdentifier id = node.getId();
     String idText = id.getText();
+    addResolvableNode(node, idText);
 
-    String scopeName = symbolTable.determineScope(node);
+    String scopeName = currentScope;
     if (symbolTable.containsSymbol(scopeName, idText)) {
       errorHandler.printAlreadyDefinedError(id);
     } else {
@@ -95,7 +124,41 @@ public class SymbolTableBuilder extends DepthFirstAdapter {
     }
   }
 
+  // Variable references and returns: resolve scopes and symbols
+  @Override
+  public void inAAssignStat(AAssignStat node) {
+    addResolvableNode(node, node.getId().getText());
+  }
+
+  @Override
+  public void inAIdExpr(AIdExpr node) {
+    addResolvableNode(node, node.getId().getText());
+  }
+
+  @Override
+  public void inAReturnStat(AReturnStat node) {
+    symbolTable.addResolvedScope(node, currentScope);
+  }
+
   // Helpers
+  /* Resolve the node's scope now and its symbol after all declarations of the scope. */
+  private void addResolvableNode(Node node, String id) {
+    symbolTable.addResolvedScope(node, currentScope);
+    unresolvedNodes.add(node);
+    unresolvedIds.add(id);
+  }
+
+  private void resolveSymbols() {
+    for (int i = 0; i < unresolvedNodes.size(); i++) {
+      Symbol symbol = symbolTable.getSymbol(currentScope, unresolvedIds.get(i));
+      if (symbol != null) { // undefined variables remain unresolved
+        symbolTable.addResolvedSymbol(unresolvedNodes.get(i), symbol);
+      }
+    }
+    unresolvedNodes.clear();
+    unresolvedIds.clear();
+  }
+
   Type determineInternalType(PTp treeType) {
     if (treeType instanceof ABooleanTp) {
       return Type.BOOLEAN;
@@ -2,6 +2,7 @@ package typecheck;
 
 import analysis.DepthFirstAdapter;
 import java.util.LinkedList;
+import java.util.List;
 import lineevaluation.LineEvaluator;
 import node.AAssignStat;
 import node.AFuncExpr;
@@ -188,6 +189,21 @@ public class TypeChecker extends DepthFirstAdapter {
     }
   }
 
+  /** Get all type errors in the order of their detection, including printed earlier errors. */
+  public List<TypeError> getErrors() {
+    return this.errorHandler.getErrors();
+  }
+
+  /**
+   * Print and count the errors of an earlier type check, e.g., of a function
+   * that has not changed since then instead of checking it again.
+   *
+   * @param previousErrors Errors of the earlier type check
+   */
+  public void printErrors(List<TypeError> previousErrors) {
+    this.errorHandler.printErrors(previousErrors);
+  }
+
   public boolean errorsOccurred() {
     return this.errorHandler.errorsOccurred();
   }
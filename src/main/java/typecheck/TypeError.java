@@ -0,0 +1,21 @@
+package typecheck;
+
+/**
+ * Type error at a line and position of the source file.
+ *
+ * @param line     Line of the erroneous node
+ * @param position Position of the erroneous node within its line
+ * @param message  Description of the error
+ */
+public record TypeError(int line, int position, String message) {
+  /** Get the same error after its function moved by the given number of lines. */
+  public TypeError withLineOffset(int lineOffset) {
+    return new TypeError(this.line + lineOffset, this.position, this.message);
+  }
+
+  /** Get the error as printed by the type checker. */
+  @Override
+  public String toString() {
+    return "Type-Error at (%d,%d): %s".formatted(this.line, this.position, this.message);
+  }
+}
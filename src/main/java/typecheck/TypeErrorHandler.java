@@ -1,5 +1,7 @@
 package typecheck;
 
+import java.util.ArrayList;
+import java.util.List;
 import lineevaluation.LineEvaluator;
 import node.Node;
 import node.TIdentifier;
@@ -7,118 +9,109 @@ import symboltable.Type;
 
 /**
  * Generator for specialized type errors. Usually, it prints the error message
- * to generate a full list of errors. It only fails for unexpected behaviour.
+ * to generate a full list of errors, and keeps the errors for later reuse. It
+ * only fails for unexpected behaviour.
  */
 public class TypeErrorHandler {
-  private int errorNumber;
+  private final List<TypeError> errors;
   LineEvaluator lineEvaluator;
 
   public TypeErrorHandler(LineEvaluator lineEvaluator) {
-    this.errorNumber = 0;
+    this.errors = new ArrayList<>();
     this.lineEvaluator = lineEvaluator;
   }
 
   // Error generators
   void printFlawedExpressionError(TIdentifier id) {
-    errorNumberIncrement();
-    String errorHead = generateErrorHeadId(id);
     String errorMessage = "cannot be assigned, because the expression contains incompatible types.";
-    System.out.println(errorHead + errorMessage);
+    printError(id, generateIdentifierPrefix(id) + errorMessage);
   }
 
   void printIncompatibleError(TIdentifier id, Type varType, Type exprType) {
-    errorNumberIncrement();
-    String errorHead = generateErrorHeadId(id);
     String errorMessage = ("cannot be assigned, because the expression type is incompatible."
         + " Expected \"%s\", but found \"%s\".")
         .formatted(varType.toString().toLowerCase(), exprType.toString().toLowerCase());
-    System.out.println(errorHead + errorMessage);
+    printError(id, generateIdentifierPrefix(id) + errorMessage);
   }
 
   void printNotDeclaredError(TIdentifier id) {
-    errorNumberIncrement();
-    System.out.println(generateErrorHeadId(id) + "has not been declared before usage.");
+    printError(id, generateIdentifierPrefix(id) + "has not been declared before usage.");
   }
 
   void printConditionError(Node node, String statementName, Type wrongType) {
-    errorNumberIncrement();
-    String errorHead = generateErrorHeadNode(node);
     if (wrongType.equals(Type.ERROR)) {
       String errorMessage = "Expression in " + statementName + " condition contains type errors.";
-      System.out.println(errorHead + errorMessage);
+      printError(node, errorMessage);
     } else {
       String errorMessage = ("Expression in %s condition has incompatible type."
           + " Expected \"boolean\" but found \"%s\".")
           .formatted(statementName, wrongType.toString().toLowerCase());
-      System.out.println(errorHead + errorMessage);
+      printError(node, errorMessage);
     }
   }
 
   void printWrongNumberOfArgumentsError(
       TIdentifier functioIdentifier, int expectedNumber, int givenNumber) {
-    errorNumberIncrement();
-    String errorHead = generateErrorHeadId(functioIdentifier);
     String errorMessage = "Function requires %d arguments but got %d.".formatted(
         expectedNumber, givenNumber);
-    System.out.println(errorHead + errorMessage);
+    printError(functioIdentifier, generateIdentifierPrefix(functioIdentifier) + errorMessage);
   }
 
   void printWrongArgumentTypeError(
       TIdentifier functioIdentifier, int argPosition, Type expectedType, Type givenType) {
-    errorNumberIncrement();
-    String errorHead = generateErrorHeadId(functioIdentifier);
     String errorMessage = "Argument %d has the wrong type. Expected %s but got %s.".formatted(
         argPosition, expectedType, givenType);
-    System.out.println(errorHead + errorMessage);
+    printError(functioIdentifier, generateIdentifierPrefix(functioIdentifier) + errorMessage);
   }
 
   void printWrongReturnTypeError(
       Node returnNode, Type expectedType, Type givenType) {
-    errorNumberIncrement();
-    String errorHead = generateErrorHeadNode(returnNode);
     String errorMessage = "Return expression has the wrong type. Expected %s but got %s.".formatted(
         expectedType, givenType);
-    System.out.println(errorHead + errorMessage);
+    printError(returnNode, errorMessage);
   }
 
   void printPrintError(Node node) {
-    errorNumberIncrement();
-    String errorHead = generateErrorHeadNode(node);
-    String errorMessage = "Expression in print statement contains type errors.";
-    System.out.println(errorHead + errorMessage);
+    printError(node, "Expression in print statement contains type errors.");
   }
 
   void printPrintNoneError(Node node) {
-    errorNumberIncrement();
-    String errorHead = generateErrorHeadNode(node);
-    String errorMessage = "Cannot print none.";
-    System.out.println(errorHead + errorMessage);
+    printError(node, "Cannot print none.");
   }
 
   void throwInternalError(TIdentifier id) { // Should never happen
-    String errorHead = generateErrorHeadId(id);
     String errorMessage = "could not be initialized, because an internal type error occurred.";
-    System.err.println(errorHead + errorMessage);
+    System.err.println(new TypeError(id.getLine(), id.getPos(),
+        generateIdentifierPrefix(id) + errorMessage));
     System.exit(0);
   }
 
+  /* Print errors of an earlier type check again, e.g., of an unchanged function. */
+  void printErrors(List<TypeError> previousErrors) {
+    for (TypeError error : previousErrors) {
+      System.out.println(error);
+      this.errors.add(error);
+    }
+  }
+
   // Helpers
-  private String generateErrorHeadId(TIdentifier id) {
-    return "Type-Error at (%d,%d): Identifier \"%s\" ".formatted(
-        id.getLine(), id.getPos(), id.getText());
+  private String generateIdentifierPrefix(TIdentifier id) {
+    return "Identifier \"%s\" ".formatted(id.getText());
   }
 
-  private String generateErrorHeadNode(Node node) {
-    return "Type-Error at (%d,%d): ".formatted(
-        this.lineEvaluator.getLine(node), this.lineEvaluator.getPosition(node));
+  private void printError(Node node, String message) {
+    TypeError error = new TypeError(
+        this.lineEvaluator.getLine(node), this.lineEvaluator.getPosition(node), message);
+    System.out.println(error);
+    this.errors.add(error);
   }
 
-  private void errorNumberIncrement() {
-    this.errorNumber++;
+  List<TypeError> getErrors() {
+    return this.errors;
   }
 
   int getErrorNumber() {
-    return this.errorNumber;
+    return this.errors.size();
   }
 
   boolean errorsOccurred() {
@@ -0,0 +1,150 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BatchCompilerTest {
+  private final String pathTestFilesCorrect = "src/test/resources/correct/";
+  private final String pathTestFilesFailParser = "src/test/resources/failParser/";
+
+  private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+  private final PrintStream originalOut = System.out;
+
+  @TempDir
+  Path tempDirectory;
+
+  @BeforeEach
+  public void setUpStreams() {
+    System.setOut(new PrintStream(outContent));
+  }
+
+  @AfterEach
+  public void restoreStreams() {
+    System.setOut(originalOut);
+  }
+
+  private Path copyToTempDirectory(String sourceFilePath) throws IOException {
+    Path source = Paths.get(sourceFilePath);
+    return Files.copy(source, tempDirectory.resolve(source.getFileName()));
+  }
+
+  @Test
+  public void collectSourceFilesFromDirectory() throws IOException {
+    copyToTempDirectory(pathTestFilesCorrect + "Int.easy");
+    copyToTempDirectory(pathTestFilesCorrect + "If.easy");
+    Files.writeString(tempDirectory.resolve("notes.txt"), "no source file");
+
+    List<String> sourceFiles = BatchCompiler.collectSourceFiles(
+        List.of(tempDirectory.toString()));
+
+    assertEquals(2, sourceFiles.size());
+    assertTrue(sourceFiles.get(0).endsWith("If.easy"));
+    assertTrue(sourceFiles.get(1).endsWith("Int.easy"));
+  }
+
+  @Test
+  public void compileCorrectFilesConcurrently() throws IOException {
+    Path intFile = copyToTempDirectory(pathTestFilesCorrect + "Int.easy");
+    Path ifFile = copyToTempDirectory(pathTestFilesCorrect + "If.easy");
+    Path whileFile = copyToTempDirectory(pathTestFilesCorrect + "While.easy");
+    List<String> sourceFiles = List.of(
+        intFile.toString(), ifFile.toString(), whileFile.toString());
+
+    BatchCompiler batchCompiler = new BatchCompiler(
+        sourceFiles, 2, EasyCompiler.OutputFormat.JASMIN, false);
+
+    assertEquals(0, batchCompiler.compileAll());
+    assertTrue(Files.exists(tempDirectory.resolve("Int.j")));
+    assertTrue(Files.exists(tempDirectory.resolve("If.j")));
+    assertTrue(Files.exists(tempDirectory.resolve("While.j")));
+    assertTrue(outContent.toString().contains("Compiled 3 of 3 files successfully."));
+  }
+
+  @Test
+  public void failingFileResultsInErrorStatus() throws IOException {
+    Path correctFile = copyToTempDirectory(pathTestFilesCorrect + "Minimal.easy");
+    Path failingFile = copyToTempDirectory(pathTestFilesFailParser + "FailMissingBrace.easy");
+    List<String> sourceFiles = List.of(failingFile.toString(), correctFile.toString());
+
+    BatchCompiler batchCompiler = new BatchCompiler(
+        sourceFiles, 2, EasyCompiler.OutputFormat.JASMIN, false);
+
+    assertEquals(1, batchCompiler.compileAll());
+    assertTrue(Files.exists(tempDirectory.resolve("Minimal.j")));
+    assertFalse(Files.exists(tempDirectory.resolve("FailMissingBrace.j")));
+    assertTrue(outContent.toString().contains("Compiled 1 of 2 files successfully."));
+  }
+
+  @Test
+  public void outputsArePrintedPerFileInGivenOrder() throws IOException {
+    Path failingFile = copyToTempDirectory(pathTestFilesFailParser + "FailMissingBrace.easy");
+    Path correctFile = copyToTempDirectory(pathTestFilesCorrect + "Minimal.easy");
+    List<String> sourceFiles = List.of(failingFile.toString(), correctFile.toString());
+
+    BatchCompiler batchCompiler = new BatchCompiler(
+        sourceFiles, 2, EasyCompiler.OutputFormat.JASMIN, false);
+    batchCompiler.compileAll();
+
+    String output = outContent.toString();
+    int failingHead = output.indexOf(failingFile + ":");
+    int parserError = output.indexOf("Parser-Error: ");
+    int correctHead = output.indexOf(correctFile + ":");
+    int successMessage = output.indexOf("Successful!");
+    assertTrue(failingHead < parserError);
+    assertTrue(parserError < correctHead);
+    assertTrue(correctHead < successMessage);
+  }
+
+  @Test
+  public void invalidFilePathDoesNotStopBatch() throws IOException {
+    Path correctFile = copyToTempDirectory(pathTestFilesCorrect + "Minimal.easy");
+    List<String> sourceFiles = List.of("1.easy", correctFile.toString());
+
+    BatchCompiler batchCompiler = new BatchCompiler(
+        sourceFiles, 1, EasyCompiler.OutputFormat.JASMIN, false);
+
+    assertEquals(1, batchCompiler.compileAll());
+    assertTrue(outContent.toString().contains("Invalid file path '1.easy'."));
+    assertTrue(Files.exists(tempDirectory.resolve("Minimal.j")));
+  }
+
+  @Test
+  public void unexpectedErrorDoesNotStopBatch() throws IOException {
+    Path brokenFile = copyToTempDirectory(pathTestFilesCorrect + "Int.easy");
+    Path correctFile = copyToTempDirectory(pathTestFilesCorrect + "Minimal.easy");
+    List<String> sourceFiles = List.of(brokenFile.toString(), correctFile.toString());
+
+    BatchCompiler batchCompiler = new BatchCompiler(
+        sourceFiles, 1, EasyCompiler.OutputFormat.JASMIN, false) {
+      @Override
+      BatchResult compileFile(String sourceFilePath,
+          ThreadLocalOutputStream routedOut, ThreadLocalOutputStream routedErr) {
+        if (sourceFilePath.equals(brokenFile.toString())) {
+          throw new StackOverflowError();
+        }
+        return super.compileFile(sourceFilePath, routedOut, routedErr);
+      }
+    };
+
+    assertEquals(1, batchCompiler.compileAll());
+    String output = outContent.toString();
+    int brokenHead = output.indexOf(brokenFile + ":");
+    int unexpectedError = output.indexOf("An unexpected error occurred: ");
+    int correctHead = output.indexOf(correctFile + ":");
+    assertTrue(brokenHead < unexpectedError);
+    assertTrue(unexpectedError < correctHead);
+    assertTrue(Files.exists(tempDirectory.resolve("Minimal.j")));
+    assertTrue(output.contains("Compiled 1 of 2 files successfully."));
+  }
+}
@@ -0,0 +1,169 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ClassFileGenerationTest {
+  private final String pathAlgorithms = "src/test/resources/algorithms/";
+  private final String pathTestFilesCorrect = "src/test/resources/correct/";
+
+  private final Runtime runtime = Runtime.getRuntime();
+  private Process classProcess;
+  private String inputStreamString;
+
+  private void generateClassFile(String directory, String testName) {
+    String testFilePath = String.format("%s%s.easy", directory, testName);
+    EasyCompiler easyCompiler = new EasyCompiler(testFilePath);
+    easyCompiler.compile(EasyCompiler.OutputFormat.CLASS);
+  }
+
+  private void setupClassExecutionProcess(String directory, String testName) {
+    try {
+      String command = String.format("java %s", testName);
+      classProcess = runtime.exec(command, null, new File(directory));
+      inputStreamString = new BufferedReader(new InputStreamReader(classProcess.getInputStream()))
+          .lines().collect(Collectors.joining("\n"));
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  @AfterAll
+  public void cleanTestFiles() {
+    try {
+      Process process = runtime.exec("sh clean.sh", null, new File("src/test/resources"));
+      process.waitFor();
+    } catch (IOException | InterruptedException e) {
+      e.printStackTrace();
+    }
+  }
+
+  // ----------------------
+  // Test correct snippets
+  // ----------------------
+  @Test
+  public void resultArithmeticComparisons() throws InterruptedException {
+    String testName = "ArithmeticComparisons";
+    generateClassFile(pathTestFilesCorrect, testName);
+    setupClassExecutionProcess(pathTestFilesCorrect, testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals(
+        "truefalsefalsetruefalse\ntruetruefalsetruetruefalse\ntruefalsefalsetrue\ntruefalsefalsefalse\ntruefalsetruetrue\ntruefalsetruefalse",
+        inputStreamString);
+  }
+
+  @Test
+  public void resultBooleanExpressions() throws InterruptedException {
+    String testName = "BooleanExpressions";
+    generateClassFile(pathTestFilesCorrect, testName);
+    setupClassExecutionProcess(pathTestFilesCorrect, testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals("truetruetruetrue\ntruetruetruetrue\ntruefalsetruefalse", inputStreamString);
+  }
+
+  @Test
+  public void resultFloatWithCast() throws InterruptedException {
+    String testName = "FloatWithCast";
+    generateClassFile(pathTestFilesCorrect, testName);
+    setupClassExecutionProcess(pathTestFilesCorrect, testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals(
+        "3.0\n-2.0\n3.0\n1.5\n6.4\n3.5\n5.0\n-4.0\n10.0\n-0.5\n1414.014.014.014.014.014.014.0",
+        inputStreamString);
+  }
+
+  @Test
+  public void resultFloatComparisons() throws InterruptedException {
+    String testName = "FloatComparisons";
+    generateClassFile(pathTestFilesCorrect, testName);
+    setupClassExecutionProcess(pathTestFilesCorrect, testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals(
+        "truefalsetruefalse\ntruetruetruefalse\nfalsefalsefalsefalsefalsetrue\n0.3\ntrue",
+        inputStreamString);
+  }
+
+  @Test
+  public void resultFunctionArguments() throws InterruptedException {
+    String testName = "FunctionArguments";
+    generateClassFile(pathTestFilesCorrect, testName);
+    setupClassExecutionProcess(pathTestFilesCorrect, testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals("true\n1.0\n2\nabc\ntrue\n1.0\n2\nabc", inputStreamString);
+  }
+
+  @Test
+  public void resultShortCircuit() throws InterruptedException {
+    String testName = "ShortCircuit";
+    generateClassFile(pathTestFilesCorrect, testName);
+    setupClassExecutionProcess(pathTestFilesCorrect, testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals("afalse\nctrue\nefthen\nhhh3\nielse", inputStreamString);
+  }
+
+  @Test
+  public void resultStringConcats() throws InterruptedException {
+    String testName = "StringConcats";
+    generateClassFile(pathTestFilesCorrect, testName);
+    setupClassExecutionProcess(pathTestFilesCorrect, testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals("aaaccacc\natrueafalsea2a3a0.5a0.4\ntrue10.4c\ntrue0.52a", inputStreamString);
+  }
+
+  @Test
+  public void resultUnaries() throws InterruptedException {
+    String testName = "Unaries";
+    generateClassFile(pathTestFilesCorrect, testName);
+    setupClassExecutionProcess(pathTestFilesCorrect, testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals("-2\n3\n0\n0\nfalse\ntrue\n-3\n6\n-3\n3\ntrue\ntrue\nfalse", inputStreamString);
+  }
+
+  // ------------------------
+  // Test correct algorithms
+  // ------------------------
+  @Test
+  public void resultEuclid() throws InterruptedException {
+    String testName = "Euclid";
+    generateClassFile(pathAlgorithms, testName);
+    setupClassExecutionProcess(pathAlgorithms, testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals("true\n14\n3/4", inputStreamString);
+  }
+
+  @Test
+  public void resultFibonacci() throws InterruptedException {
+    String testName = "Fibonacci";
+    generateClassFile(pathAlgorithms, testName);
+    setupClassExecutionProcess(pathAlgorithms, testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals("0\n1\n1\n2\n3\n5\n8\n13\n21\n34\n55\n89", inputStreamString);
+  }
+
+  @Test
+  public void resultSarrus() throws InterruptedException {
+    String testName = "Sarrus";
+    generateClassFile(pathAlgorithms, testName);
+    setupClassExecutionProcess(pathAlgorithms, testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals("-8", inputStreamString);
+  }
+}
@@ -1,9 +1,12 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.List;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
@@ -162,6 +165,31 @@ public class CodeGenerationTest {
         inputStreamString);
   }
 
+  @Test
+  public void resultFloatComparisons() throws InterruptedException {
+    String testName = "FloatComparisons";
+    generateJasminFile(testName);
+    generateClassFromJasminFile(testName);
+    setupClassExecutionProcess(testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals(
+        "truefalsetruefalse\ntruetruetruefalse\nfalsefalsefalsefalsefalsetrue\n0.3\ntrue",
+        inputStreamString);
+  }
+
+  @Test
+  public void floatComparisonsUseFcmp() {
+    EasyCompiler easyCompiler = new EasyCompiler(pathTestFilesCorrect + "FloatComparisons.easy");
+    easyCompiler.generateCode();
+    List<String> code = easyCompiler.getJasminCode();
+
+    assertFalse(code.contains("\tisub"));
+    assertTrue(code.contains("\tfcmpl"));
+    assertTrue(code.contains("\tfcmpg")); // < and <= are false for NaN
+    assertEquals(4, code.stream().filter(line -> line.equals("\ti2f")).count()); // mixed only
+  }
+
   @Test
   public void resultFunctionReturnTypes() throws InterruptedException {
     String testName = "FunctionReturnTypes";
@@ -254,6 +282,29 @@ public class CodeGenerationTest {
     assertEquals("falsetrue\n3.14162.1\n42", inputStreamString);
   }
 
+  @Test
+  public void resultShortCircuit() throws InterruptedException {
+    String testName = "ShortCircuit";
+    generateJasminFile(testName);
+    generateClassFromJasminFile(testName);
+    setupClassExecutionProcess(testName);
+
+    assertEquals(0, classProcess.waitFor());
+    assertEquals("afalse\nctrue\nefthen\nhhh3\nielse", inputStreamString);
+  }
+
+  @Test
+  public void conditionsBranchWithoutBooleanValues() {
+    EasyCompiler easyCompiler = new EasyCompiler(pathTestFilesCorrect + "ShortCircuit.easy");
+    easyCompiler.generateCode();
+    List<String> code = easyCompiler.getJasminCode();
+
+    assertFalse(code.contains("\tiand"));
+    assertFalse(code.contains("\tior"));
+    assertFalse(code.contains("\tisub")); // int comparisons use if_icmpXX directly
+    assertTrue(code.stream().anyMatch(line -> line.startsWith("\tif_icmpge "))); // i < 3
+  }
+
   @Test
   public void resultStringComparisons() throws InterruptedException {
     String testName = "StringComparisons";
@@ -276,6 +327,21 @@ public class CodeGenerationTest {
     assertEquals("aaaccacc\natrueafalsea2a3a0.5a0.4\ntrue10.4c\ntrue0.52a", inputStreamString);
   }
 
+  @Test
+  public void concatChainsShareOneStringBuilder() {
+    EasyCompiler easyCompiler = new EasyCompiler(pathTestFilesCorrect + "StringConcats.easy");
+    easyCompiler.generateCode();
+    List<String> code = easyCompiler.getJasminCode();
+
+    // 16 concat operators in 12 chains, e.g., true § 1 § 0.4 § "c" needs a single builder
+    assertEquals(12, code.stream().filter(line -> line.equals(
+        "\tnew java/lang/StringBuilder")).count());
+    assertEquals(12, code.stream().filter(line -> line.equals(
+        "\tinvokevirtual java/lang/StringBuilder/toString()Ljava/lang/String;")).count());
+    assertTrue(code.contains("\tldc 17")); // capacity of "c" § a
+    assertFalse(code.stream().anyMatch(line -> line.contains("StringBuffer")));
+  }
+
   @Test
   public void resultStringExpressions() throws InterruptedException {
     String testName = "StringExpressions";
@@ -0,0 +1,132 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CompileDaemonTest {
+  private final String pathTestFilesCorrect = "src/test/resources/correct/";
+  private final String pathTestFilesFailTypeCheck = "src/test/resources/failTypeCheck/";
+
+  private CompileDaemon compileDaemon;
+  private Thread daemonThread;
+  private Path socketPath;
+
+  @TempDir
+  Path tempDirectory;
+
+  @BeforeEach
+  public void startDaemon() throws IOException {
+    socketPath = tempDirectory.resolve("daemon.sock");
+    compileDaemon = new CompileDaemon(socketPath, 4);
+    daemonThread = new Thread(() -> {
+      try {
+        compileDaemon.serve();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    });
+    daemonThread.start();
+  }
+
+  @AfterEach
+  public void stopDaemon() throws IOException, InterruptedException {
+    compileDaemon.close();
+    daemonThread.join();
+  }
+
+  private Path copyToTempDirectory(String sourceFilePath) throws IOException {
+    Path source = Paths.get(sourceFilePath);
+    return Files.copy(source, tempDirectory.resolve(source.getFileName()));
+  }
+
+  private String send(String... args) throws IOException {
+    CompileDaemon.DaemonResponse response = CompileDaemon.send(
+        socketPath, tempDirectory, List.of(args));
+    assertEquals(0, response.exitStatus());
+    return new String(response.output());
+  }
+
+  /* Execute the arguments within this JVM, i.e., without daemon, and capture the outputs. */
+  private String executeDirectly(String... args) {
+    PrintStream originalOut = System.out;
+    PrintStream originalErr = System.err;
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(output, true));
+    System.setErr(new PrintStream(output, true));
+    try {
+      EasyCompiler.execute(args, tempDirectory, false);
+    } finally {
+      System.setOut(originalOut);
+      System.setErr(originalErr);
+    }
+    return output.toString();
+  }
+
+  @Test
+  public void compileRelativeToClientDirectory() throws IOException {
+    copyToTempDirectory(pathTestFilesCorrect + "Minimal.easy");
+    assertEquals("Successful!%n".formatted(), send("-compile", "Minimal.easy"));
+    assertTrue(Files.exists(tempDirectory.resolve("Minimal.j")));
+  }
+
+  @Test
+  public void reportSameDiagnosticsAsCommandLine() throws IOException {
+    copyToTempDirectory(pathTestFilesFailTypeCheck + "FailBadPrint.easy");
+    copyToTempDirectory(pathTestFilesCorrect + "Minimal.easy");
+    String[] typeCheck = { "-typeCheck", "FailBadPrint.easy" };
+    String[] liveness = { "-liveness", "Minimal.easy" };
+
+    String daemonOutput = send(typeCheck);
+    assertFalse(daemonOutput.isEmpty());
+    assertEquals(executeDirectly(typeCheck), daemonOutput);
+    assertEquals(executeDirectly(liveness), send(liveness));
+  }
+
+  @Test
+  public void rejectBatchMode() throws IOException {
+    CompileDaemon.DaemonResponse response = CompileDaemon.send(
+        socketPath, tempDirectory, List.of("-batch", "."));
+    assertEquals(1, response.exitStatus());
+    assertEquals("The compile daemon does not support batch, daemon and REPL mode.%n".formatted(),
+        new String(response.output()));
+  }
+
+  @Test
+  public void handleConcurrentRequests() throws Exception {
+    List<String> testNames = List.of("First", "Second", "Third", "Fourth", "Fifth", "Sixth",
+        "Seventh", "Eighth");
+    ExecutorService clients = Executors.newFixedThreadPool(testNames.size());
+    try {
+      List<Future<String>> outputs = new ArrayList<>();
+      for (String testName : testNames) {
+        Path sourceFile = tempDirectory.resolve(testName + ".easy");
+        Files.copy(Path.of(pathTestFilesCorrect + "Minimal.easy"), sourceFile);
+        outputs.add(clients.submit(() -> send("-compile", sourceFile.getFileName().toString(),
+            "-format", "class")));
+      }
+      for (Future<String> output : outputs) {
+        assertEquals("Successful!%n".formatted(), output.get());
+      }
+    } finally {
+      clients.shutdownNow();
+    }
+    for (String testName : testNames) {
+      assertTrue(Files.exists(tempDirectory.resolve(testName + ".class")));
+    }
+  }
+}
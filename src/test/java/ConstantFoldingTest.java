@@ -0,0 +1,68 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.List;
+import optimization.Optimization;
+import org.junit.jupiter.api.Test;
+
+public class ConstantFoldingTest extends ProgramOutputTest {
+  private String runProgram(String testFilePath, boolean foldConstants) {
+    return runProgram(testFilePath, foldConstants
+        ? EnumSet.of(Optimization.CONSTANT_FOLDING) : EnumSet.noneOf(Optimization.class));
+  }
+
+  private List<String> generateMainMethod(String testFilePath) {
+    return getMainMethod(generateCode(testFilePath, EnumSet.of(Optimization.CONSTANT_FOLDING)));
+  }
+
+  @Test
+  public void foldConstantExpressions() {
+    String expectedOutput = String.join("\n",
+        "7", "4.0", "1.5", "true", "a10.4true", "0", "true", "3xy", "0", "49", "s23truefalse", "");
+    String testFilePath = pathTestFilesOptimization + "ConstantExpressions.easy";
+
+    assertEquals(expectedOutput, runProgram(testFilePath, false));
+    assertEquals(expectedOutput, runProgram(testFilePath, true));
+  }
+
+  @Test
+  public void foldedExpressionsNeedNoRuntimeOperations() {
+    List<String> mainMethod = generateMainMethod(
+        pathTestFilesOptimization + "ConstantExpressions.easy");
+
+    assertTrue(mainMethod.contains("\tldc 7"));
+    assertTrue(mainMethod.contains("\tldc \"a10.4true\""));
+    assertTrue(mainMethod.contains("\tldc \"xy\""));
+    assertFalse(mainMethod.contains("\timul"));
+    assertFalse(mainMethod.contains("\tfmul"));
+    assertFalse(mainMethod.contains("\tfdiv"));
+    assertFalse(mainMethod.contains("\tirem"));
+  }
+
+  @Test
+  public void reassignedVariablesKeepTheirLoads() {
+    List<String> mainMethod = generateMainMethod(
+        pathTestFilesOptimization + "ConstantExpressions.easy");
+
+    assertTrue(mainMethod.contains("\tisub")); // counter - 1 and the loop condition
+  }
+
+  @Test
+  public void foldedConstantsKeepProgramOutputs() {
+    String[] testFilePaths = {
+        pathTestFilesCorrect + "Int.easy",
+        pathTestFilesCorrect + "Unaries.easy",
+        pathTestFilesCorrect + "StringConcats.easy",
+        pathTestFilesCorrect + "BooleanExpressions.easy",
+        pathAlgorithms + "Binomial.easy",
+        pathAlgorithms + "Euclid.easy",
+        pathAlgorithms + "Fibonacci.easy",
+        pathAlgorithms + "Sarrus.easy" };
+
+    for (String testFilePath : testFilePaths) {
+      assertEquals(runProgram(testFilePath, false), runProgram(testFilePath, true));
+    }
+  }
+}
@@ -0,0 +1,55 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.List;
+import optimization.Optimization;
+import org.junit.jupiter.api.Test;
+
+public class DeadCodeEliminationTest extends ProgramOutputTest {
+  @Test
+  public void removeDeadCodeAndKeepOutputs() {
+    String testFilePath = pathTestFilesOptimization + "DeadCode.easy";
+    String expectedOutput = String.join("\n", "called", "4", "live", "6", "");
+
+    assertEquals(expectedOutput, runProgram(testFilePath, EnumSet.noneOf(Optimization.class)));
+    assertEquals(expectedOutput,
+        runProgram(testFilePath, EnumSet.of(Optimization.DEAD_CODE_ELIMINATION)));
+  }
+
+  @Test
+  public void removeDeadStoresAndUnreachableStatements() {
+    String testFilePath = pathTestFilesOptimization + "DeadCode.easy";
+    List<String> code = generateCode(testFilePath, EnumSet.of(Optimization.DEAD_CODE_ELIMINATION));
+    List<String> unoptimizedCode = generateCode(testFilePath, EnumSet.noneOf(Optimization.class));
+
+    assertTrue(code.size() < unoptimizedCode.size());
+    assertFalse(code.contains("\tldc \"unreachable\""));
+    assertFalse(code.contains("\tldc \"never\""));
+    assertFalse(code.contains("\tldc \"dead\""));
+    assertFalse(code.contains("\t.line 15 ; init statement")); // a = 1
+    assertFalse(code.contains("\t.line 16 ; init statement")); // b = 2
+    assertFalse(code.contains("\t.line 17 ; declaration statement")); // c
+    assertTrue(code.contains("\t.line 21 ; assign statement")); // a = 3
+    assertTrue(code.contains("\t.line 23 ; assign statement")); // kept = sideEffect(5)
+    assertTrue(code.contains("\tldc \"called\""));
+  }
+
+  @Test
+  public void eliminatedDeadCodeKeepsProgramOutputs() {
+    String[] testFilePaths = {
+        pathTestFilesCorrect + "Int.easy",
+        pathTestFilesCorrect + "IfElseComplex.easy",
+        pathTestFilesCorrect + "FunctionReturnTypes.easy",
+        pathAlgorithms + "Binomial.easy",
+        pathAlgorithms + "Euclid.easy",
+        pathAlgorithms + "Fibonacci.easy",
+        pathAlgorithms + "Sarrus.easy" };
+
+    for (String testFilePath : testFilePaths) {
+      assertEquals(runProgram(testFilePath, EnumSet.noneOf(Optimization.class)),
+          runProgram(testFilePath, EnumSet.allOf(Optimization.class)));
+    }
+  }
+}
@@ -1,11 +1,24 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import compilecache.CompileCache;
+import incremental.FunctionCache;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import optimization.Optimization;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import profiling.CompilationProfile;
+import profiling.PhaseMetrics;
 
 public class EasyCompilerTest {
   private final String pathMinimalProgram = "src/test/resources/correct/Minimal.easy";
@@ -15,6 +28,9 @@ public class EasyCompilerTest {
   private final PrintStream originalOut = System.out;
   private final PrintStream originalErr = System.err;
 
+  @TempDir
+  Path tempDirectory;
+
   @BeforeEach
   public void setUpStreams() {
     System.setOut(new PrintStream(outContent));
@@ -82,4 +98,190 @@ public class EasyCompilerTest {
     assertTrue(outContent.toString().contains("Parser-Error: "));
     assertFalse(outContent.toString().contains("Successful!"));
   }
+
+  // ---------------------
+  // Test compile-and-run
+  // ---------------------
+  @Test
+  public void callWithRunFlagShouldPrintProgramOutput() {
+    String[] args = { "-run", "src/test/resources/algorithms/Euclid.easy" };
+    EasyCompiler.main(args);
+    assertEquals("true%n14%n3/4%n".formatted(), outContent.toString());
+    assertFalse(Files.exists(Path.of("src/test/resources/algorithms/Euclid.class")));
+  }
+
+  @Test
+  public void runtimeErrorMessageShouldBePrinted() throws IOException {
+    Path sourceFile = tempDirectory.resolve("DivisionByZero.easy");
+    Files.writeString(sourceFile, "none <- main() {\n  int a = 0;\n  println(1 / a);\n}\n");
+
+    EasyCompiler easyCompiler = new EasyCompiler(sourceFile.toString());
+    assertFalse(easyCompiler.run(new String[0]));
+    assertTrue(outContent.toString().contains("Runtime-Error: java.lang.ArithmeticException"));
+  }
+
+  @Test
+  public void nestedReturnValuesAndArgumentsShouldFitTheStackLimit() throws IOException {
+    Path sourceFile = tempDirectory.resolve("NestedExpressions.easy");
+    Files.writeString(sourceFile, "int <- scaled(int x) {\n  return x * (x + 1);\n}\n\n"
+        + "none <- main() {\n  int a = 2;\n  println(scaled(a * (a + a * (a + 1))));\n}\n");
+
+    EasyCompiler easyCompiler = new EasyCompiler(sourceFile.toString());
+    assertTrue(easyCompiler.run(new String[0]));
+    assertEquals("272%n".formatted(), outContent.toString());
+  }
+
+  @Test
+  public void streamedJasminFileShouldEqualGeneratedCode() throws IOException {
+    Path sourceFile = tempDirectory.resolve("Euclid.easy");
+    Files.copy(Path.of("src/test/resources/algorithms/Euclid.easy"), sourceFile);
+
+    EasyCompiler streamingCompiler = new EasyCompiler(sourceFile.toString());
+    streamingCompiler.setOptimizations(EnumSet.allOf(Optimization.class));
+    assertTrue(streamingCompiler.compile(EasyCompiler.OutputFormat.JASMIN));
+
+    EasyCompiler easyCompiler = new EasyCompiler(sourceFile.toString());
+    easyCompiler.setOptimizations(EnumSet.allOf(Optimization.class));
+    assertTrue(easyCompiler.generateCode());
+    assertEquals(easyCompiler.getJasminCode(),
+        Files.readAllLines(tempDirectory.resolve("Euclid.j")));
+  }
+
+  @Test
+  public void invalidProgramShouldNotCreateJasminFile() throws IOException {
+    Path sourceFile = tempDirectory.resolve("Invalid.easy");
+    Files.writeString(sourceFile, "none <- main() {\n  int a = true;\n}\n");
+
+    EasyCompiler easyCompiler = new EasyCompiler(sourceFile.toString());
+    assertFalse(easyCompiler.compile(EasyCompiler.OutputFormat.JASMIN));
+    assertFalse(Files.exists(tempDirectory.resolve("Invalid.j")));
+  }
+
+  @Test
+  public void cachedCompilationShouldSkipAllPhases() throws IOException {
+    Path sourceFile = tempDirectory.resolve("Euclid.easy");
+    Files.copy(Path.of("src/test/resources/algorithms/Euclid.easy"), sourceFile);
+    CompileCache compileCache = new CompileCache(tempDirectory.resolve("cache"), 1024 * 1024);
+
+    EasyCompiler firstCompiler = new EasyCompiler(sourceFile.toString());
+    firstCompiler.setCompileCache(compileCache);
+    assertTrue(firstCompiler.compile(EasyCompiler.OutputFormat.CLASS));
+    byte[] classFile = Files.readAllBytes(tempDirectory.resolve("Euclid.class"));
+    Files.delete(tempDirectory.resolve("Euclid.class"));
+
+    EasyCompiler cachedCompiler = new EasyCompiler(sourceFile.toString());
+    cachedCompiler.setCompileCache(compileCache);
+    cachedCompiler.setProfiling(true);
+    assertTrue(cachedCompiler.compile(EasyCompiler.OutputFormat.CLASS));
+    assertArrayEquals(classFile, Files.readAllBytes(tempDirectory.resolve("Euclid.class")));
+    List<String> phaseNames = cachedCompiler.getProfile().getPhases().stream()
+        .map(PhaseMetrics::getName).toList();
+    assertEquals(List.of("cache"), phaseNames);
+    assertEquals(1L, cachedCompiler.getProfile().getPhase("cache").getSizes().get("hits"));
+
+    EasyCompiler optimizingCompiler = new EasyCompiler(sourceFile.toString());
+    optimizingCompiler.setCompileCache(compileCache);
+    optimizingCompiler.setOptimizations(EnumSet.allOf(Optimization.class));
+    optimizingCompiler.setProfiling(true);
+    assertTrue(optimizingCompiler.compile(EasyCompiler.OutputFormat.CLASS));
+    assertEquals(0L, optimizingCompiler.getProfile().getPhase("cache").getSizes().get("hits"));
+  }
+
+  @Test
+  public void incrementalCompilationShouldReuseUnchangedFunctions() throws IOException {
+    Path sourceFile = tempDirectory.resolve("Euclid.easy");
+    String source = Files.readString(Path.of("src/test/resources/algorithms/Euclid.easy"));
+    Files.writeString(sourceFile, source);
+    FunctionCache functionCache = FunctionCache.forSourceFile(sourceFile, List.of());
+
+    EasyCompiler firstCompiler = new EasyCompiler(sourceFile.toString());
+    firstCompiler.setFunctionCache(functionCache);
+    firstCompiler.setProfiling(true);
+    assertTrue(firstCompiler.generateCode());
+    assertEquals(0L, firstCompiler.getProfile().getPhase("fingerprints").getSizes()
+        .get("reusedFunctions"));
+
+    // Moved abs() keeps its code, changed main() is compiled again
+    Files.writeString(sourceFile, "\n" + source.replace("int a = 42;", "int a = 24;"));
+    EasyCompiler incrementalCompiler = new EasyCompiler(sourceFile.toString());
+    incrementalCompiler.setFunctionCache(functionCache);
+    incrementalCompiler.setProfiling(true);
+    assertTrue(incrementalCompiler.generateCode());
+    assertEquals(1L, incrementalCompiler.getProfile().getPhase("fingerprints").getSizes()
+        .get("reusedFunctions"));
+
+    EasyCompiler fullCompiler = new EasyCompiler(sourceFile.toString());
+    assertTrue(fullCompiler.generateCode());
+    assertEquals(fullCompiler.getJasminCode(), incrementalCompiler.getJasminCode());
+  }
+
+  @Test
+  public void incrementalTypeCheckShouldReplayErrorsOfUnchangedFunctions() throws IOException {
+    Path sourceFile = tempDirectory.resolve("Invalid.easy");
+    Files.writeString(sourceFile, "int <- f() {\n  return true;\n}\n\n"
+        + "none <- main() {\n  int a = 1;\n}\n");
+    FunctionCache functionCache = FunctionCache.forSourceFile(sourceFile, List.of());
+
+    EasyCompiler firstCompiler = new EasyCompiler(sourceFile.toString());
+    firstCompiler.setFunctionCache(functionCache);
+    assertFalse(firstCompiler.typeCheck());
+    String errors = outContent.toString();
+    assertTrue(errors.contains("Type-Error at (2,"));
+    outContent.reset();
+
+    EasyCompiler incrementalCompiler = new EasyCompiler(sourceFile.toString());
+    incrementalCompiler.setFunctionCache(functionCache);
+    assertFalse(incrementalCompiler.typeCheck());
+    assertEquals(errors, outContent.toString());
+  }
+
+  // ----------------
+  // Test profiling
+  // ----------------
+  @Test
+  public void profileShouldContainPhasesAndFunctions() {
+    EasyCompiler easyCompiler = new EasyCompiler("src/test/resources/algorithms/Euclid.easy");
+    easyCompiler.setProfiling(true);
+    assertTrue(easyCompiler.run(new String[0]));
+
+    CompilationProfile profile = easyCompiler.getProfile();
+    List<String> phaseNames = profile.getPhases().stream().map(PhaseMetrics::getName).toList();
+    assertEquals(List.of("parse", "lineEvaluation", "symbolTable", "typeCheck", "liveness",
+        "codeGeneration", "assembly", "execution"), phaseNames);
+    assertEquals(2L, profile.getPhase("symbolTable").getSizes().get("functions"));
+    assertTrue(profile.getPhase("parse").getSizes().get("astNodes") > 0);
+    assertTrue(profile.getPhase("parse").getWallNanos() > 0);
+    assertEquals(List.of("abs", "main"), List.copyOf(profile.getMetricsPerFunction().keySet()));
+    assertEquals(6L, profile.getMetricsPerFunction().get("main").get("interferenceEdges"));
+  }
+
+  @Test
+  public void streamedOutputShouldNotCountCodeGenerationTwice() throws IOException {
+    Path sourceFile = tempDirectory.resolve("Euclid.easy");
+    Files.copy(Path.of("src/test/resources/algorithms/Euclid.easy"), sourceFile);
+
+    EasyCompiler easyCompiler = new EasyCompiler(sourceFile.toString());
+    easyCompiler.setProfiling(true);
+    long start = System.nanoTime();
+    assertTrue(easyCompiler.compile(EasyCompiler.OutputFormat.JASMIN));
+    long wallNanos = System.nanoTime() - start;
+
+    CompilationProfile profile = easyCompiler.getProfile();
+    List<String> phaseNames = profile.getPhases().stream().map(PhaseMetrics::getName).toList();
+    assertEquals(List.of("parse", "lineEvaluation", "symbolTable", "typeCheck", "liveness",
+        "codeGeneration", "output"), phaseNames);
+    assertTrue(profile.getPhase("output").getWallNanos() >= 0);
+    assertTrue(profile.getTotalWallNanos() <= wallNanos);
+  }
+
+  @Test
+  public void callWithProfileFlagShouldPrintJsonToStderr() {
+    String[] args = { "-run", "src/test/resources/algorithms/Euclid.easy", "--profile=json" };
+    EasyCompiler.main(args);
+    assertEquals("true%n14%n3/4%n".formatted(), outContent.toString());
+    String profile = errContent.toString();
+    assertTrue(profile.startsWith("{"));
+    assertTrue(profile.contains("\"program\": \"Euclid\""));
+    assertTrue(profile.contains("{\"name\": \"liveness\", \"wallNanos\": "));
+  }
 }
@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import optimization.Optimization;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import programgeneration.ProgramGenerator;
+
+/** Stress tests that compile and run large generated programs. */
+public class GeneratedProgramsTest {
+  private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+  private final PrintStream originalOut = System.out;
+
+  @TempDir
+  Path tempDirectory;
+
+  @BeforeEach
+  public void setUpStreams() {
+    System.setOut(new PrintStream(outContent));
+  }
+
+  @AfterEach
+  public void restoreStreams() {
+    System.setOut(originalOut);
+  }
+
+  private String writeProgram(String programName, long seed, ProgramGenerator.Settings settings)
+      throws IOException {
+    Path sourceFile = tempDirectory.resolve(programName + ".easy");
+    Files.writeString(sourceFile, new ProgramGenerator(seed, settings).generate());
+    return sourceFile.toString();
+  }
+
+  @Test
+  public void typeCheckManyFunctions() throws IOException {
+    String sourceFilePath = writeProgram(
+        "ManyFunctions", 1, ProgramGenerator.Settings.withFunctions(1000));
+    EasyCompiler easyCompiler = new EasyCompiler(sourceFilePath);
+
+    assertTrue(easyCompiler.typeCheck());
+    assertEquals(0, easyCompiler.getSymbolErrorNumber());
+    assertEquals(0, easyCompiler.getTypeErrorNumber());
+  }
+
+  @Test
+  public void runDeepNestingAndLongExpressions() throws IOException {
+    ProgramGenerator.Settings settings = new ProgramGenerator.Settings(8, 10, 3, 12, 40, 20);
+    for (long seed = 0; seed < 5; seed++) {
+      EasyCompiler easyCompiler = new EasyCompiler(writeProgram("Nested" + seed, seed, settings));
+      assertTrue(easyCompiler.run(new String[0]));
+    }
+  }
+
+  @Test
+  public void sharedSlotsKeepOutputsOfGeneratedPrograms() throws IOException {
+    ProgramGenerator.Settings settings = ProgramGenerator.Settings.withFunctions(40);
+    for (long seed = 0; seed < 5; seed++) {
+      String sourceFilePath = writeProgram("Generated" + seed, seed, settings);
+
+      outContent.reset();
+      assertTrue(new EasyCompiler(sourceFilePath).run(new String[0]));
+      String expectedOutput = outContent.toString();
+
+      EasyCompiler easyCompiler = new EasyCompiler(sourceFilePath);
+      easyCompiler.setOptimizations(EnumSet.of(Optimization.REGISTER_ALLOCATION));
+      outContent.reset();
+      assertTrue(easyCompiler.run(new String[0]));
+      assertEquals(expectedOutput, outContent.toString());
+    }
+  }
+}
@@ -0,0 +1,107 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import optimization.Optimization;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import programgeneration.ProgramGenerator;
+
+/** Tests that the interpreter prints the same outputs as the compiled programs. */
+public class InterpreterTest extends ProgramOutputTest {
+  // Terminating programs, e.g., WhileComplex.easy loops forever
+  private static final List<String> CORRECT_PROGRAMS = List.of(
+      "ArithmeticComparisons", "BooleanAnd", "BooleanComparisons", "BooleanExpressions",
+      "BooleanOr", "Comments", "EmptyStatements", "Float", "FloatComparisons", "FloatWithCast",
+      "FunctionArguments", "FunctionReturnTypes", "If", "IfElse", "IfElseComplex", "IfWhileIf",
+      "Int", "Minimal", "Print", "ShortCircuit", "StringComparisons", "StringConcats",
+      "StringExpressions", "Unaries", "While");
+  private static final List<String> ALGORITHMS = List.of(
+      "Binomial", "Euclid", "Fibonacci", "Sarrus");
+
+  @TempDir
+  Path tempDirectory;
+
+  private String interpretProgram(String testFilePath, EnumSet<Optimization> optimizations) {
+    EasyCompiler easyCompiler = new EasyCompiler(testFilePath);
+    easyCompiler.setOptimizations(optimizations);
+    outContent.reset();
+    assertTrue(easyCompiler.interpret(), testFilePath);
+    return outContent.toString();
+  }
+
+  private void assertSameOutput(String testFilePath, EnumSet<Optimization> optimizations) {
+    assertEquals(runProgram(testFilePath, optimizations),
+        interpretProgram(testFilePath, optimizations), testFilePath);
+  }
+
+  @Test
+  public void correctProgramsShouldPrintCompiledOutput() {
+    for (String program : CORRECT_PROGRAMS) {
+      assertSameOutput(pathTestFilesCorrect + program + ".easy",
+          EnumSet.noneOf(Optimization.class));
+    }
+  }
+
+  @Test
+  public void algorithmsShouldPrintCompiledOutput() {
+    for (String program : ALGORITHMS) {
+      assertSameOutput(pathAlgorithms + program + ".easy", EnumSet.noneOf(Optimization.class));
+    }
+  }
+
+  @Test
+  public void optimizedProgramsShouldPrintCompiledOutput() {
+    for (String program : CORRECT_PROGRAMS) {
+      assertSameOutput(pathTestFilesCorrect + program + ".easy",
+          EnumSet.allOf(Optimization.class));
+    }
+  }
+
+  @Test
+  public void generatedProgramsShouldPrintCompiledOutput() throws IOException {
+    ProgramGenerator.Settings settings = ProgramGenerator.Settings.withFunctions(40);
+    for (long seed = 0; seed < 5; seed++) {
+      Path sourceFile = tempDirectory.resolve("Generated" + seed + ".easy");
+      Files.writeString(sourceFile, new ProgramGenerator(seed, settings).generate());
+      assertSameOutput(sourceFile.toString(), EnumSet.noneOf(Optimization.class));
+    }
+  }
+
+  @Test
+  public void runtimeErrorShouldEqualCompiledProgram() throws IOException {
+    Path sourceFile = tempDirectory.resolve("DivisionByZero.easy");
+    Files.writeString(sourceFile,
+        "none <- main() {\n  int a = 0;\n  println(\"before\");\n  println(1 % a);\n}\n");
+
+    String expectedOutput =
+        "before%nRuntime-Error: java.lang.ArithmeticException: / by zero%n".formatted();
+
+    assertFalse(new EasyCompiler(sourceFile.toString()).run(new String[0]));
+    assertEquals(expectedOutput, outContent.toString());
+    outContent.reset();
+    assertFalse(new EasyCompiler(sourceFile.toString()).interpret());
+    assertEquals(expectedOutput, outContent.toString());
+  }
+
+  @Test
+  public void typeErrorsShouldPreventExecution() {
+    EasyCompiler easyCompiler = new EasyCompiler(
+        "src/test/resources/failTypeCheck/FailBadExpressions.easy");
+    assertFalse(easyCompiler.interpret());
+    assertFalse(outContent.toString().contains("Runtime-Error"));
+  }
+
+  @Test
+  public void callWithInterpretFlagShouldPrintProgramOutput() {
+    String[] args = { "-interpret", "src/test/resources/algorithms/Euclid.easy" };
+    EasyCompiler.main(args);
+    assertEquals("true%n14%n3/4%n".formatted(), outContent.toString());
+    assertTrue(Files.notExists(Path.of("src/test/resources/algorithms/Euclid.class")));
+  }
+}
@@ -68,11 +68,28 @@ public class MinimumRegisterAnalysisTest {
   }
 
   @Test
-  public void euclidNeeds5Registers() {
+  public void euclidNeeds4Registers() {
     EasyCompiler easyCompiler = new EasyCompiler(pathAlgorithms + "Euclid.easy");
     HashMap<String, Integer> minimumRegisters = easyCompiler.getMinimumRegistersPerFunction();
     assertEquals(2, minimumRegisters.keySet().size());
-    assertEquals(5, minimumRegisters.get("main"));
+    assertEquals(4, minimumRegisters.get("main"));
     assertEquals(1, minimumRegisters.get("abs"));
   }
+
+  @Test
+  public void concurrentAnalysisEqualsSequentialAnalysis() {
+    for (String testFile : new String[] {
+        pathAlgorithms + "Euclid.easy", pathTestFilesCorrect + "FunctionArguments.easy" }) {
+      EasyCompiler sequentialCompiler = new EasyCompiler(testFile);
+      EasyCompiler concurrentCompiler = new EasyCompiler(testFile);
+      concurrentCompiler.setLivenessWorkers(4);
+
+      assertEquals(sequentialCompiler.getMinimumRegistersPerFunction(),
+          concurrentCompiler.getMinimumRegistersPerFunction());
+      assertEquals(sequentialCompiler.getUnusedArgumentsPerFunction().toString(),
+          concurrentCompiler.getUnusedArgumentsPerFunction().toString());
+      assertEquals(sequentialCompiler.getUnusedVariableDeclarationsPerFunction().toString(),
+          concurrentCompiler.getUnusedVariableDeclarationsPerFunction().toString());
+    }
+  }
 }
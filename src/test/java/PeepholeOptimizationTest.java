@@ -0,0 +1,44 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.List;
+import optimization.Optimization;
+import org.junit.jupiter.api.Test;
+
+public class PeepholeOptimizationTest extends ProgramOutputTest {
+  @Test
+  public void peepholeOptimizedCodeIsShorter() {
+    String testFilePath = pathAlgorithms + "Euclid.easy";
+    List<String> code = generateCode(testFilePath, EnumSet.of(Optimization.PEEPHOLE));
+    List<String> unoptimizedCode = generateCode(testFilePath, EnumSet.noneOf(Optimization.class));
+
+    assertTrue(code.size() < unoptimizedCode.size());
+    assertFalse(code.contains("\tisub"));
+    assertFalse(code.contains("\tldc 0"));
+    assertFalse(code.contains("\tldc 1"));
+  }
+
+  @Test
+  public void peepholeOptimizedCodeKeepsProgramOutputs() {
+    String[] testFilePaths = {
+        pathTestFilesCorrect + "BooleanAnd.easy",
+        pathTestFilesCorrect + "BooleanComparisons.easy",
+        pathTestFilesCorrect + "BooleanOr.easy",
+        pathTestFilesCorrect + "IfElseComplex.easy",
+        pathTestFilesCorrect + "IfWhileIf.easy",
+        pathTestFilesCorrect + "Int.easy",
+        pathTestFilesCorrect + "StringComparisons.easy",
+        pathTestFilesCorrect + "Unaries.easy",
+        pathAlgorithms + "Binomial.easy",
+        pathAlgorithms + "Euclid.easy",
+        pathAlgorithms + "Fibonacci.easy",
+        pathAlgorithms + "Sarrus.easy" };
+
+    for (String testFilePath : testFilePaths) {
+      assertEquals(runProgram(testFilePath, EnumSet.noneOf(Optimization.class)),
+          runProgram(testFilePath, EnumSet.of(Optimization.PEEPHOLE)));
+    }
+  }
+}
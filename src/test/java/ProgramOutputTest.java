@@ -0,0 +1,55 @@
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.EnumSet;
+import java.util.List;
+import optimization.Optimization;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * Base of tests that run programs in memory and compare their outputs, e.g.,
+ * with and without optimizations. The standard output of each test is
+ * captured in outContent.
+ */
+abstract class ProgramOutputTest {
+  protected final String pathAlgorithms = "src/test/resources/algorithms/";
+  protected final String pathTestFilesCorrect = "src/test/resources/correct/";
+  protected final String pathTestFilesOptimization = "src/test/resources/optimization/";
+
+  protected final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+  private final PrintStream originalOut = System.out;
+
+  @BeforeEach
+  public void setUpStreams() {
+    System.setOut(new PrintStream(outContent));
+  }
+
+  @AfterEach
+  public void restoreStreams() {
+    System.setOut(originalOut);
+  }
+
+  /* Compile and run a terminating program, and get its output. */
+  protected String runProgram(String testFilePath, EnumSet<Optimization> optimizations) {
+    EasyCompiler easyCompiler = new EasyCompiler(testFilePath);
+    easyCompiler.setOptimizations(optimizations);
+    outContent.reset();
+    assertTrue(easyCompiler.run(new String[0]));
+    return outContent.toString();
+  }
+
+  protected List<String> generateCode(String testFilePath, EnumSet<Optimization> optimizations) {
+    EasyCompiler easyCompiler = new EasyCompiler(testFilePath);
+    easyCompiler.setOptimizations(optimizations);
+    assertTrue(easyCompiler.generateCode());
+    return easyCompiler.getJasminCode();
+  }
+
+  /* Get the code of the main method, which follows all other methods. */
+  protected static List<String> getMainMethod(List<String> code) {
+    int mainMethod = code.indexOf(".method public static main([Ljava/lang/String;)V");
+    return code.subList(mainMethod, code.size());
+  }
+}
@@ -0,0 +1,72 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.EnumSet;
+import java.util.List;
+import optimization.Optimization;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RegisterAllocationTest {
+  private final String pathAlgorithms = "src/test/resources/algorithms/";
+  private final String pathTestFilesLiveness = "src/test/resources/liveness/";
+
+  private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+  private final PrintStream originalOut = System.out;
+
+  @BeforeEach
+  public void setUpStreams() {
+    System.setOut(new PrintStream(outContent));
+  }
+
+  @AfterEach
+  public void restoreStreams() {
+    System.setOut(originalOut);
+  }
+
+  private String runProgram(String testFilePath, boolean allocateRegisters) {
+    EasyCompiler easyCompiler = new EasyCompiler(testFilePath);
+    if (allocateRegisters) {
+      easyCompiler.setOptimizations(EnumSet.of(Optimization.REGISTER_ALLOCATION));
+    }
+    outContent.reset();
+    assertTrue(easyCompiler.run(new String[0]));
+    return outContent.toString();
+  }
+
+  @Test
+  public void nonInterferingVariablesShareSlots() {
+    EasyCompiler easyCompiler = new EasyCompiler(pathTestFilesLiveness + "sharedSlots.easy");
+    easyCompiler.setOptimizations(EnumSet.of(Optimization.REGISTER_ALLOCATION));
+
+    assertTrue(easyCompiler.generateCode());
+    List<String> code = easyCompiler.getJasminCode();
+    int sumMethod = code.indexOf(".method public static sum(II)I");
+    int mainMethod = code.indexOf(".method public static main([Ljava/lang/String;)V");
+    assertEquals("\t.limit locals 4", code.get(sumMethod + 2)); // 6 symbols
+    assertEquals("\t.limit locals 6", code.get(mainMethod + 2)); // 11 symbols
+  }
+
+  @Test
+  public void sharedSlotsKeepProgramOutputs() {
+    String[] testFilePaths = {
+        pathTestFilesLiveness + "sharedSlots.easy",
+        pathAlgorithms + "Binomial.easy",
+        pathAlgorithms + "Euclid.easy",
+        pathAlgorithms + "Fibonacci.easy",
+        pathAlgorithms + "Sarrus.easy" };
+
+    for (String testFilePath : testFilePaths) {
+      assertEquals(runProgram(testFilePath, false), runProgram(testFilePath, true));
+    }
+  }
+
+  @Test
+  public void valueBeforeSkippedLoopIsKept() {
+    String output = runProgram(pathTestFilesLiveness + "sharedSlots.easy", true);
+    assertEquals("1%n8%n3.0%nab%n30%n19%n".formatted(), output);
+  }
+}
@@ -0,0 +1,107 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ReplTest {
+  private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+  private final PrintStream originalOut = System.out;
+  private final Repl repl = new Repl();
+
+  @BeforeEach
+  public void setUpStreams() {
+    System.setOut(new PrintStream(outContent));
+  }
+
+  @AfterEach
+  public void restoreStreams() {
+    System.setOut(originalOut);
+  }
+
+  private String evaluate(String snippet) {
+    outContent.reset();
+    assertTrue(repl.evaluate(snippet), outContent::toString);
+    return outContent.toString();
+  }
+
+  @Test
+  public void statementsShouldRunImmediately() {
+    assertEquals("3%n".formatted(), evaluate("println(1 + 2);"));
+  }
+
+  @Test
+  public void variablesShouldKeepTheirValues() {
+    evaluate("int a = 40;\nboolean b = true;\nfloat f = 0.5;\nstring s = \"x\";");
+    evaluate("a = a + 2;\nf = f * 3.0;\ns = s \u00a7 a;");
+    assertEquals("42%ntrue%n1.5%nx42%n".formatted(),
+        evaluate("println(a);\nprintln(b);\nprintln(f);\nprintln(s);"));
+  }
+
+  @Test
+  public void redeclaredVariablesShouldReplaceEarlierOnes() {
+    evaluate("int a = 1;");
+    evaluate("string a = \"one\";");
+    assertEquals("one%n".formatted(), evaluate("println(a);"));
+  }
+
+  @Test
+  public void definedFunctionsShouldBeCallable() {
+    assertEquals("Defined function twice.%nDefined function half.%n".formatted(),
+        evaluate("int <- twice(int x) {\n  return 2 * x;\n}\n"
+            + "int <- half(int x) { return x / 2; }"));
+    assertEquals("42%n".formatted(), evaluate("println(twice(21));"));
+
+    evaluate("int <- twice(int x) {\n  return x + x + 1;\n}");
+    assertEquals("43%n10%n".formatted(), evaluate("println(twice(21));\nprintln(half(20));"));
+  }
+
+  @Test
+  public void invalidSnippetsShouldLeaveTheSessionUnchanged() {
+    evaluate("int <- one() { return 1; }");
+    outContent.reset();
+    assertFalse(repl.evaluate("int <- one() { return true; }"));
+    assertTrue(outContent.toString().startsWith("Type-Error"));
+    assertFalse(repl.evaluate("println(1)"));
+    assertTrue(outContent.toString().contains("Parser-Error"));
+    assertEquals("1%n".formatted(), evaluate("println(one());"));
+  }
+
+  @Test
+  public void runtimeErrorsShouldKeepEarlierValues() {
+    evaluate("int a = 1;");
+    outContent.reset();
+    assertFalse(repl.evaluate("a = 5;\na = a / 0;"));
+    assertTrue(outContent.toString().startsWith("Runtime-Error: java.lang.ArithmeticException"));
+    assertEquals("1%n".formatted(), evaluate("println(a);"));
+  }
+
+  @Test
+  public void snippetsShouldBeCompleteWithBalancedBraces() {
+    assertTrue(Repl.isComplete("println(1);\n"));
+    assertTrue(Repl.isComplete("int <- one() {\n  return 1;\n}\n"));
+    assertFalse(Repl.isComplete("int <- one() {\n"));
+    assertFalse(Repl.isComplete("println(\"}\"\n"));
+    assertFalse(Repl.isComplete("int a = 1; /* open\n"));
+    assertTrue(Repl.isComplete("int a = 1; // comment\n"));
+  }
+
+  @Test
+  public void serveShouldEvaluateMultiLineSnippetsAndCommands() throws IOException {
+    String input = "int <- square(int x) {\n  return x * x;\n}\nint a = square(3);\n"
+        + "println(a);\n:vars\n:quit\nprintln(0);\n";
+    repl.serve(new BufferedReader(new StringReader(input)));
+    String output = outContent.toString();
+    assertTrue(output.contains("Defined function square.%n".formatted()));
+    assertTrue(output.contains("easy> 9%n".formatted()));
+    assertTrue(output.contains("int a = 9%n".formatted()));
+    assertFalse(output.contains("0%n".formatted()));
+  }
+}
@@ -31,15 +31,8 @@ public class UnusedVariableAnalysisTest {
     HashMap<String, List<UnusedValue>> unusedValues = easyCompiler
         .getUnusedVariableValuesPerFunction();
     assertEquals(2, unusedValues.keySet().size());
-    assertEquals(1, unusedValues.get("main").size()); // limitation in loops
+    assertEquals(0, unusedValues.get("main").size()); // b is read in the loop's condition
     assertEquals(0, unusedValues.get("abs").size());
-
-    UnusedValue unusedVariable = unusedValues.get("main").get(0);
-    assertEquals(33, unusedVariable.getLineNumber());
-    assertEquals("AAssignStat", unusedVariable.getStatementType());
-    Symbol unusedSymbol = unusedVariable.getSymbol();
-    assertEquals(1, unusedSymbol.getVariableNumber());
-    assertEquals(Type.INT, unusedSymbol.getType());
   }
 
   @Test
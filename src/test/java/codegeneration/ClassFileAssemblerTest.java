@@ -0,0 +1,68 @@
+package codegeneration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ClassFileAssemblerTest {
+  /* Class loader that defines a single class from the given bytes. */
+  private static class ByteArrayClassLoader extends ClassLoader {
+    Class<?> defineClass(String name, byte[] classFile) {
+      return defineClass(name, classFile, 0, classFile.length);
+    }
+  }
+
+  @Test
+  public void stripCommentsOutsideOfStrings() {
+    assertEquals("\t.line 3 ", ClassFileAssembler.stripComment("\t.line 3 ; if statement"));
+    assertEquals("\tldc \"a ; b\"", ClassFileAssembler.stripComment("\tldc \"a ; b\""));
+    assertEquals(".method public static main([Ljava/lang/String;)V",
+        ClassFileAssembler.stripComment(".method public static main([Ljava/lang/String;)V"));
+  }
+
+  @Test
+  public void parseStringLiteralWithEscapes() {
+    assertEquals("Hello world!", ClassFileAssembler.parseStringLiteral("\"Hello world!\""));
+    assertEquals("a\nb\\c", ClassFileAssembler.parseStringLiteral("\"a\\nb\\\\c\""));
+  }
+
+  @Test
+  public void assembleFunctionWithLoop() throws ReflectiveOperationException {
+    // Sum up all numbers from n down to 1.
+    List<String> code = List.of(
+        ".source Sum.java",
+        ".class Sum",
+        ".super java/lang/Object",
+        ".method public static sum(I)I",
+        "\t.limit stack 2",
+        "\t.limit locals 2",
+        "\t.line 1 ; init statement",
+        "\tldc 0",
+        "\tistore 1",
+        "\tH1:",
+        "\tiload 0",
+        "\tifle C1",
+        "\tiload 1",
+        "\tiload 0",
+        "\tiadd",
+        "\tistore 1",
+        "\tiload 0",
+        "\tldc 1",
+        "\tisub",
+        "\tistore 0",
+        "\tgoto H1",
+        "\tC1:",
+        "\tiload 1",
+        "\tireturn",
+        ".end method");
+
+    byte[] classFile = ClassFileAssembler.assemble(code);
+    Class<?> sumClass = new ByteArrayClassLoader().defineClass("Sum", classFile);
+    Method sum = sumClass.getMethod("sum", int.class);
+
+    assertEquals(55, sum.invoke(null, 10));
+    assertEquals(0, sum.invoke(null, 0));
+  }
+}
@@ -0,0 +1,71 @@
+package codegeneration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import codegeneration.CodeElement.Blank;
+import codegeneration.CodeElement.Instruction;
+import codegeneration.CodeElement.Label;
+import codegeneration.CodeElement.LineNumber;
+import codegeneration.CodeElement.MethodHeader;
+import codegeneration.CodeElement.StackLimit;
+import codegeneration.Operand.FloatValue;
+import codegeneration.Operand.LabelReference;
+import codegeneration.Operand.MemberReference;
+import codegeneration.Operand.StringValue;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CodeElementTest {
+  @Test
+  public void parseJasminIntoElements() {
+    assertEquals(new MethodHeader(true, "main", "([Ljava/lang/String;)V"),
+        CodeElement.fromJasmin(".method public static main([Ljava/lang/String;)V"));
+    assertEquals(new StackLimit(3), CodeElement.fromJasmin("\t.limit stack 3"));
+    assertEquals(new LineNumber(4, "init statement"),
+        CodeElement.fromJasmin("\t.line 4 ; init statement"));
+    assertEquals(new Label("C1"), CodeElement.fromJasmin("\tC1:"));
+    assertEquals(new Instruction(Opcode.LDC, new StringValue("a ; b")),
+        CodeElement.fromJasmin("\tldc \"a ; b\""));
+    assertEquals(new Instruction(Opcode.LDC, new FloatValue(2.5f)),
+        CodeElement.fromJasmin("\tldc 2.5"));
+    assertEquals(new Instruction(Opcode.IFEQ, new LabelReference("C1")),
+        CodeElement.fromJasmin("\tifeq C1"));
+    assertEquals(new Instruction(Opcode.GETSTATIC,
+        new MemberReference("java/lang/System", "out", "Ljava/io/PrintStream;")),
+        CodeElement.fromJasmin("\tgetstatic java/lang/System/out Ljava/io/PrintStream;"));
+    assertEquals(new Instruction(Opcode.ISTORE, 4), CodeElement.fromJasmin("\tistore 4"));
+    assertEquals(new Blank(), CodeElement.fromJasmin(""));
+  }
+
+  @Test
+  public void translateElementsIntoJasmin() {
+    List<String> code = List.of(
+        ".method public static sum(II)I",
+        "\t.limit stack 2",
+        "\t.limit locals 2",
+        "",
+        "\t.line 2 ; return statement",
+        "\tiload 0",
+        "\tiload 1",
+        "\tiadd",
+        "\tireturn",
+        "\tC1:",
+        "\tldc \"say \\\"hi\\\"\\n\"",
+        "\tinvokestatic Sum/sum(II)I",
+        ".end method");
+
+    assertEquals(code, CodeElement.toJasmin(CodeElement.fromJasmin(code)));
+  }
+
+  @Test
+  public void rejectOperandsThatDoNotFitTheOpcode() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new Instruction(Opcode.GOTO, new StringValue("C1")));
+    assertThrows(IllegalArgumentException.class, () -> new Instruction(Opcode.ILOAD));
+    assertThrows(IllegalArgumentException.class, () -> new Instruction(Opcode.IADD, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new Instruction(Opcode.INVOKESTATIC, new MemberReference("A", "x", "I")));
+    assertThrows(IllegalArgumentException.class, () -> CodeElement.fromJasmin("\tiload x"));
+  }
+}
@@ -0,0 +1,35 @@
+package codegeneration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import codegeneration.CodeElement.Blank;
+import codegeneration.CodeElement.ClassHeader;
+import codegeneration.CodeElement.Instruction;
+import codegeneration.CodeElement.MethodEnd;
+import codegeneration.CodeElement.MethodHeader;
+import codegeneration.CodeElement.SuperClass;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class JasminWriterTest {
+  @Test
+  public void writeMethodsOneAfterAnother() {
+    StringWriter stringWriter = new StringWriter();
+    JasminWriter jasminWriter = new JasminWriter(stringWriter);
+    List<CodeElement> header = List.of(
+        new ClassHeader("Program"), new SuperClass("java/lang/Object"));
+    List<CodeElement> method = List.of(new MethodHeader(true, "main", "()V"),
+        new Instruction(Opcode.RETURN), new MethodEnd(), new Blank());
+
+    jasminWriter.write(header);
+    jasminWriter.write(method);
+
+    List<CodeElement> program = new ArrayList<>(header);
+    program.addAll(method);
+    String expected = String.join(System.lineSeparator(), CodeElement.toJasmin(program))
+        + System.lineSeparator();
+    assertEquals(expected, stringWriter.toString());
+  }
+}
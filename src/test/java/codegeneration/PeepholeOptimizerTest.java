@@ -0,0 +1,184 @@
+package codegeneration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import codegeneration.Operand.FloatValue;
+import codegeneration.Operand.IntValue;
+import codegeneration.Operand.StringValue;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class PeepholeOptimizerTest {
+  /* Class loader that defines a single class from the given bytes. */
+  private static class ByteArrayClassLoader extends ClassLoader {
+    Class<?> defineClass(String name, byte[] classFile) {
+      return defineClass(name, classFile, 0, classFile.length);
+    }
+  }
+
+  private static List<String> wrapMethod(String signature, List<String> body) {
+    List<String> code = new ArrayList<>(List.of(
+        ".source Max.java",
+        ".class Max",
+        ".super java/lang/Object",
+        ".method public static " + signature,
+        "\t.limit stack 4",
+        "\t.limit locals 2"));
+    code.addAll(body);
+    code.addAll(List.of("", "\treturn", ".end method"));
+    return code;
+  }
+
+  /* Optimize the given method body and get the optimized body as Jasmin code. */
+  private static List<String> optimizeMethodBody(String signature, List<String> body) {
+    List<CodeElement> optimizedCode = new PeepholeOptimizer().optimize(
+        CodeElement.fromJasmin(wrapMethod(signature, body)));
+    return CodeElement.toJasmin(optimizedCode.subList(6, optimizedCode.size() - 1));
+  }
+
+  @Test
+  public void loadShortConstants() {
+    assertEquals("\ticonst_m1",
+        PeepholeOptimizer.getShortConstantLoad(new IntValue(-1)).toJasmin());
+    assertEquals("\ticonst_5", PeepholeOptimizer.getShortConstantLoad(new IntValue(5)).toJasmin());
+    assertEquals("\tbipush 100",
+        PeepholeOptimizer.getShortConstantLoad(new IntValue(100)).toJasmin());
+    assertEquals("\tsipush -3000",
+        PeepholeOptimizer.getShortConstantLoad(new IntValue(-3000)).toJasmin());
+    assertEquals("\tfconst_2",
+        PeepholeOptimizer.getShortConstantLoad(new FloatValue(2.0f)).toJasmin());
+    assertNull(PeepholeOptimizer.getShortConstantLoad(new IntValue(40000)));
+    assertNull(PeepholeOptimizer.getShortConstantLoad(new FloatValue(-0.0f)));
+    assertNull(PeepholeOptimizer.getShortConstantLoad(new StringValue("1")));
+  }
+
+  @Test
+  public void fuseComparisonWithBranch() {
+    List<String> body = List.of(
+        "\t.line 2 ; if-else statement",
+        "\tiload 0",
+        "\tiload 1",
+        "\tisub",
+        "\tifgt T1",
+        "\tldc 0",
+        "\tgoto C1",
+        "\tT1:",
+        "\tldc 1",
+        "\tC1:",
+        "\tifeq C2",
+        "\tiload 0",
+        "\tireturn",
+        "\tgoto C3",
+        "\tC2:",
+        "\tiload 1",
+        "\tireturn",
+        "\tC3:");
+
+    assertEquals(List.of(
+        "\t.line 2 ; if-else statement",
+        "\tiload 0",
+        "\tiload 1",
+        "\tif_icmple C2",
+        "\tiload 0",
+        "\tireturn",
+        "\tC2:",
+        "\tiload 1",
+        "\tireturn",
+        ""), optimizeMethodBody("max(II)I", body));
+  }
+
+  @Test
+  public void keepBranchesFollowedByLabels() {
+    // if (a) return; b = b;
+    List<String> body = List.of(
+        "\tiload 0",
+        "\tifeq C1",
+        "\treturn",
+        "\tC1:",
+        "\tiload 1",
+        "\tistore 1",
+        "\tiload 1",
+        "\tistore 1");
+
+    List<String> expected = new ArrayList<>(body);
+    expected.addAll(List.of("", "\treturn"));
+    assertEquals(expected, optimizeMethodBody("run(ZI)V", body));
+  }
+
+  @Test
+  public void optimizedCodeKeepsBehavior() throws ReflectiveOperationException {
+    // Compare with the minimal int value, whose difference to 1 overflows.
+    List<String> code = wrapMethod("max(II)I", List.of(
+        "\tiload 0",
+        "\tiload 1",
+        "\tisub",
+        "\tifgt T1",
+        "\tldc 0",
+        "\tgoto C1",
+        "\tT1:",
+        "\tldc 1",
+        "\tC1:",
+        "\tldc 1",
+        "\tiadd",
+        "\tldc 2",
+        "\tirem",
+        "\tifeq C2",
+        "\tiload 1",
+        "\tireturn",
+        "\tgoto C3",
+        "\tC2:",
+        "\tiload 0",
+        "\tireturn",
+        "\tC3:"));
+
+    byte[] classFile = ClassFileAssembler.assembleElements(
+        new PeepholeOptimizer().optimize(CodeElement.fromJasmin(code)));
+    Class<?> maxClass = new ByteArrayClassLoader().defineClass("Max", classFile);
+    Method max = maxClass.getMethod("max", int.class, int.class);
+
+    assertEquals(7, max.invoke(null, 7, 3));
+    assertEquals(7, max.invoke(null, 3, 7));
+    assertEquals(1, max.invoke(null, Integer.MIN_VALUE, 1));
+  }
+
+  @Test
+  public void loadPrintStreamBeforeSingleLoads() {
+    List<String> body = List.of(
+        "\tldc \"a\"",
+        "\tgetstatic java/lang/System/out Ljava/io/PrintStream;",
+        "\tswap",
+        "\tinvokevirtual java/io/PrintStream/println(Ljava/lang/String;)V");
+
+    assertEquals(List.of(
+        "\tgetstatic java/lang/System/out Ljava/io/PrintStream;",
+        "\tldc \"a\"",
+        "\tinvokevirtual java/io/PrintStream/println(Ljava/lang/String;)V",
+        "",
+        "\treturn"), optimizeMethodBody("main([Ljava/lang/String;)V", body));
+  }
+
+  @Test
+  public void removeConstantConditionsAndUnreachableCode() {
+    // while (true) println(1);
+    List<String> body = List.of(
+        "\tH1:",
+        "\tldc 1",
+        "\tifeq C1",
+        "\tgetstatic java/lang/System/out Ljava/io/PrintStream;",
+        "\tldc 1",
+        "\tinvokevirtual java/io/PrintStream/println(I)V",
+        "\tgoto H1",
+        "\tC1:");
+
+    assertEquals(List.of(
+        "\tH1:",
+        "\tgetstatic java/lang/System/out Ljava/io/PrintStream;",
+        "\ticonst_1",
+        "\tinvokevirtual java/io/PrintStream/println(I)V",
+        "\tgoto H1",
+        ""), optimizeMethodBody("main([Ljava/lang/String;)V", body));
+  }
+}
@@ -0,0 +1,109 @@
+package compilecache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CompileCacheTest {
+  private final byte[] source = "none <- main() {}".getBytes(StandardCharsets.UTF_8);
+
+  @TempDir
+  Path tempDirectory;
+
+  private Path writeOutput(String name, int bytes) throws IOException {
+    return Files.write(tempDirectory.resolve(name), new byte[bytes]);
+  }
+
+  @Test
+  public void keysDependOnSourceAndParts() {
+    String key = CompileCache.computeKey(source, List.of("1.0", "Program", "JASMIN"));
+    assertEquals(64, key.length());
+    assertEquals(key, CompileCache.computeKey(source, List.of("1.0", "Program", "JASMIN")));
+    assertNotEquals(key, CompileCache.computeKey(source, List.of("1.0", "Program", "CLASS")));
+    assertNotEquals(key, CompileCache.computeKey(source, List.of("1.0", "ProgramJASMIN")));
+    byte[] otherSource = "none <- main() { }".getBytes(StandardCharsets.UTF_8);
+    assertNotEquals(key, CompileCache.computeKey(otherSource, List.of("1.0", "Program", "JASMIN")));
+  }
+
+  @Test
+  public void restoreStoredOutput() throws IOException {
+    CompileCache cache = new CompileCache(tempDirectory.resolve("cache"), 1024);
+    Path output = Files.writeString(tempDirectory.resolve("Program.j"), ".class Program");
+    Path target = tempDirectory.resolve("Restored.j");
+
+    assertFalse(cache.restore("key", target));
+    cache.store("key", output);
+    assertTrue(cache.restore("key", target));
+    assertEquals(".class Program", Files.readString(target));
+  }
+
+  @Test
+  public void evictLeastRecentlyUsedEntries() throws IOException {
+    CompileCache cache = new CompileCache(tempDirectory.resolve("cache"), 250);
+    Path target = tempDirectory.resolve("Restored.j");
+    cache.store("first", writeOutput("First.j", 100));
+    cache.store("second", writeOutput("Second.j", 100));
+    Files.setLastModifiedTime(cache.getDirectory().resolve("first.entry"),
+        FileTime.fromMillis(1000));
+    Files.setLastModifiedTime(cache.getDirectory().resolve("second.entry"),
+        FileTime.fromMillis(2000));
+
+    assertTrue(cache.restore("first", target)); // makes "second" the least recently used entry
+    cache.store("third", writeOutput("Third.j", 100));
+
+    assertTrue(cache.restore("first", target));
+    assertFalse(cache.restore("second", target));
+    assertTrue(cache.restore("third", target));
+  }
+
+  @Test
+  public void skipOutputsLargerThanTheCache() throws IOException {
+    CompileCache cache = new CompileCache(tempDirectory.resolve("cache"), 10);
+    cache.store("large", writeOutput("Large.j", 100));
+    assertFalse(cache.restore("large", tempDirectory.resolve("Restored.j")));
+  }
+
+  @Test
+  public void shareCacheBetweenConcurrentCompilations() throws Exception {
+    CompileCache cache = new CompileCache(tempDirectory.resolve("cache"), 1000);
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> stores = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        Path output = writeOutput("Output%d.j".formatted(i), 100);
+        String key = "key" + (i % 8);
+        stores.add(pool.submit(() -> {
+          cache.store(key, output);
+          return null;
+        }));
+      }
+      for (Future<?> store : stores) {
+        store.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    long entryBytes;
+    try (Stream<Path> files = Files.list(cache.getDirectory())) {
+      entryBytes = files.filter(file -> file.toString().endsWith(".entry"))
+          .mapToLong(file -> file.toFile().length()).sum();
+    }
+    assertEquals(800, entryBytes);
+  }
+}
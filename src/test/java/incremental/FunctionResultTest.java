@@ -0,0 +1,80 @@
+package incremental;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import codegeneration.CodeElement;
+import codegeneration.CodeElement.Instruction;
+import codegeneration.CodeElement.LineNumber;
+import codegeneration.CodeElement.MethodHeader;
+import codegeneration.Opcode;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import livenessanalysis.UnusedValue;
+import org.junit.jupiter.api.Test;
+import symboltable.Symbol;
+import symboltable.Type;
+import typecheck.TypeError;
+
+public class FunctionResultTest {
+  private final FunctionFingerprint fingerprint = new FunctionFingerprint("abc", 3, Set.of("f"));
+  private final Map<String, String> calleeSignatures = Map.of("f", "(I)I");
+
+  @Test
+  public void newResultsShouldBeEmpty() {
+    FunctionResult result = new FunctionResult(fingerprint, calleeSignatures);
+    assertEquals(3, result.startLine());
+    assertNull(result.typeErrors());
+    assertNull(result.liveness());
+    assertNull(result.code());
+  }
+
+  @Test
+  public void resultsShouldOnlyMatchUnchangedFunctionsAndCallees() {
+    FunctionResult result = new FunctionResult(fingerprint, calleeSignatures);
+    assertTrue(result.matches(fingerprint, Map.of("f", "(I)I")));
+    assertTrue(result.matches(new FunctionFingerprint("abc", 7, Set.of("f")), calleeSignatures));
+    assertFalse(result.matches(new FunctionFingerprint("abd", 3, Set.of("f")), calleeSignatures));
+    assertFalse(result.matches(fingerprint, Map.of("f", "(F)I")));
+  }
+
+  @Test
+  public void movedResultsShouldShiftLineNumbers() {
+    Symbol symbol = new Symbol(Type.INT, 1);
+    List<CodeElement> code = List.of(new MethodHeader(true, "f", "(I)I"),
+        new LineNumber(4, "return statement"), new Instruction(Opcode.ILOAD, 0));
+    FunctionResult result = new FunctionResult(fingerprint, calleeSignatures)
+        .withTypeErrors(List.of(new TypeError(4, 2, "Cannot print none.")))
+        .withLiveness(new LivenessReport(List.of(), List.of(),
+            List.of(new UnusedValue(5, "assignment", symbol)), 2))
+        .withCode(code);
+
+    assertSame(result, result.movedTo(3));
+    FunctionResult movedResult = result.movedTo(5);
+    assertEquals(5, movedResult.startLine());
+    assertEquals(List.of(new TypeError(6, 2, "Cannot print none.")), movedResult.typeErrors());
+    assertEquals(7, movedResult.liveness().unusedValues().get(0).getLineNumber());
+    assertEquals(2, movedResult.liveness().minimumRegisters());
+    assertEquals(List.of(code.get(0), new LineNumber(6, "return statement"), code.get(2)),
+        movedResult.code());
+  }
+
+  @Test
+  public void cachesShouldBeSharedPerSourceFileAndOptions() {
+    FunctionCache cache = FunctionCache.forSourceFile(Path.of("Program.easy"), List.of());
+    assertSame(cache, FunctionCache.forSourceFile(Path.of("./Program.easy"), List.of()));
+    assertNotSame(cache, FunctionCache.forSourceFile(Path.of("Program.easy"), List.of("PEEPHOLE")));
+
+    cache.put("main", new FunctionResult(fingerprint, calleeSignatures));
+    cache.put("f", new FunctionResult(fingerprint, calleeSignatures));
+    cache.retainAll(List.of("main"));
+    assertEquals(1, cache.size());
+    assertNull(cache.get("f"));
+  }
+}
@@ -0,0 +1,45 @@
+package lineevaluation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import node.AEmptyStat;
+import node.Node;
+import org.junit.jupiter.api.Test;
+
+public class NodePositionTableTest {
+  @Test
+  public void storeLinesAndPositionsOfManyNodes() {
+    NodePositionTable table = new NodePositionTable();
+    List<Node> nodes = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) { // exceeds the initial capacity
+      Node node = new AEmptyStat();
+      nodes.add(node);
+      table.put(node, i + 1, i % 80);
+    }
+
+    for (int i = 0; i < nodes.size(); i++) {
+      assertTrue(table.contains(nodes.get(i)));
+      assertEquals(i + 1, table.getLine(nodes.get(i)));
+      assertEquals(i % 80, table.getPosition(nodes.get(i)));
+    }
+    assertFalse(table.contains(new AEmptyStat()));
+  }
+
+  @Test
+  public void overwriteAndStoreNegativeValues() {
+    NodePositionTable table = new NodePositionTable();
+    Node node = new AEmptyStat();
+
+    table.put(node, -1, -1);
+    assertEquals(-1, table.getLine(node));
+    assertEquals(-1, table.getPosition(node));
+
+    table.put(node, 7, 12);
+    assertEquals(7, table.getLine(node));
+    assertEquals(12, table.getPosition(node));
+  }
+}
@@ -0,0 +1,86 @@
+package livenessanalysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import symboltable.Symbol;
+import symboltable.Type;
+
+public class SymbolSetTest {
+  private final Symbol s0 = new Symbol(Type.INT, 0);
+  private final Symbol s1 = new Symbol(Type.FLOAT, 1);
+  private final Symbol s70 = new Symbol(Type.STRING, 70);
+  private final Symbol s130 = new Symbol(Type.BOOLEAN, 130);
+
+  @Test
+  public void addAndContainSymbolsBeyondFirstWord() {
+    SymbolSet symbols = new SymbolSet();
+
+    assertTrue(symbols.add(s130));
+    assertTrue(symbols.add(s0));
+    assertFalse(symbols.add(s0));
+
+    assertEquals(2, symbols.size());
+    assertTrue(symbols.contains(s0));
+    assertTrue(symbols.contains(s130));
+    assertFalse(symbols.contains(s70));
+    assertFalse(symbols.contains(new Symbol(Type.INT, 0)));
+  }
+
+  @Test
+  public void iterateInOrderOfVariableNumbers() {
+    SymbolSet symbols = new SymbolSet();
+    symbols.addAll(List.of(s130, s1, s70, s0));
+
+    assertEquals(List.of(s0, s1, s70, s130), List.copyOf(symbols));
+  }
+
+  @Test
+  public void addAllExceptReportsChanges() {
+    SymbolSet added = new SymbolSet();
+    added.addAll(List.of(s0, s1, s130));
+    SymbolSet excluded = new SymbolSet();
+    excluded.add(s1);
+    SymbolSet symbols = new SymbolSet();
+
+    assertTrue(symbols.addAllExcept(added, excluded));
+    assertEquals(List.of(s0, s130), List.copyOf(symbols));
+    assertFalse(symbols.addAllExcept(added, excluded));
+    assertTrue(symbols.addAll(added));
+    assertEquals(List.of(s0, s1, s130), List.copyOf(symbols));
+  }
+
+  @Test
+  public void setsShareTheSymbolsOfTheirIndex() {
+    SymbolIndex index = new SymbolIndex();
+    SymbolSet added = new SymbolSet(index);
+    added.addAll(List.of(s0, s70));
+    SymbolSet symbols = new SymbolSet(index);
+
+    assertTrue(symbols.addAll(added));
+    assertTrue(added.remove(s70));
+    assertEquals(List.of(s0, s70), List.copyOf(symbols));
+    assertEquals(List.of(s0), List.copyOf(added));
+    assertEquals(s70, index.get(70));
+  }
+
+  @Test
+  public void removeSymbols() {
+    SymbolSet symbols = new SymbolSet();
+    symbols.addAll(List.of(s0, s70, s130));
+
+    assertTrue(symbols.remove(s70));
+    assertFalse(symbols.remove(s70));
+    Iterator<Symbol> iterator = symbols.iterator();
+    iterator.next();
+    iterator.remove();
+
+    assertEquals(List.of(s130), List.copyOf(symbols));
+    symbols.remove(s130);
+    assertTrue(symbols.isEmpty());
+  }
+}
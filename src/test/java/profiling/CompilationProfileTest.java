@@ -0,0 +1,83 @@
+package profiling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class CompilationProfileTest {
+  private CompilationProfile createProfile() {
+    CompilationProfile profile = new CompilationProfile("Program");
+    profile.addPhase(new PhaseMetrics("parse", 2_000_000, 1_500_000, 4096)
+        .addSize("astNodes", 42));
+    profile.addPhase(new PhaseMetrics("typeCheck", 1_000_000, -1, -1));
+    profile.addFunctionMetric("main", "symbols", 3);
+    profile.addFunctionMetric("main", "dataflowNodes", 7);
+    return profile;
+  }
+
+  @Test
+  public void phasesKeepTheirOrderAndSizes() {
+    CompilationProfile profile = createProfile();
+
+    assertEquals("parse", profile.getPhases().get(0).getName());
+    assertEquals(42L, profile.getPhase("parse").getSizes().get("astNodes"));
+    assertNull(profile.getPhase("liveness"));
+    assertEquals(3_000_000, profile.getTotalWallNanos());
+  }
+
+  @Test
+  public void nestedPhasesAreSubtracted() {
+    PhaseMetrics nested = new PhaseMetrics("codeGeneration", 3_000_000, 2_000_000, -1);
+    PhaseMetrics outer = new PhaseMetrics("output", 5_000_000, 2_500_000, 8192)
+        .addSize("bytes", 100);
+
+    PhaseMetrics exclusive = outer.without(nested);
+    assertEquals("output", exclusive.getName());
+    assertEquals(2_000_000, exclusive.getWallNanos());
+    assertEquals(500_000, exclusive.getCpuNanos());
+    assertEquals(-1, exclusive.getAllocatedBytes());
+    assertEquals(100L, exclusive.getSizes().get("bytes"));
+    assertSame(outer, outer.without(null));
+  }
+
+  @Test
+  public void textShowsMillisecondsAndMissingMeasurements() {
+    String text = createProfile().toText();
+
+    assertTrue(text.startsWith("Profile of Program\n"));
+    assertTrue(text.contains("astNodes=42"));
+    assertTrue(text.matches("(?s).*typeCheck +1[.,]000 +n/a +n/a\n.*"));
+    assertTrue(text.contains("  main: symbols=3, dataflowNodes=7\n"));
+  }
+
+  @Test
+  public void jsonContainsRawValues() {
+    String expected = """
+        {
+          "program": "Program",
+          "totalWallNanos": 3000000,
+          "phases": [
+            {"name": "parse", "wallNanos": 2000000, "cpuNanos": 1500000, \
+        "allocatedBytes": 4096, "sizes": {"astNodes": 42}},
+            {"name": "typeCheck", "wallNanos": 1000000, "cpuNanos": -1, \
+        "allocatedBytes": -1, "sizes": {}}
+          ],
+          "functions": {
+            "main": {"symbols": 3, "dataflowNodes": 7}
+          }
+        }
+        """;
+    assertEquals(expected, createProfile().toJson());
+  }
+
+  @Test
+  public void jsonEscapesNames() {
+    CompilationProfile profile = new CompilationProfile("a\"b\\c");
+
+    assertTrue(profile.toJson().contains("\"program\": \"a\\\"b\\\\c\""));
+    assertTrue(profile.toJson().contains("\"phases\": [],"));
+  }
+}
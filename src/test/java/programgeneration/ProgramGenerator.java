@@ -0,0 +1,329 @@
+package programgeneration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import symboltable.Type;
+
+/**
+ * Seeded generator for valid and type-correct Easy programs of tunable size.
+ * Equal seeds and settings always generate equal programs.
+ *
+ * <p>Generated programs terminate and print a bounded amount of text: Outermost
+ * loops run twice and nested loops once, and prints and function calls only
+ * occur outside of loops and conditions. A function calls its predecessor unless its number is a
+ * multiple of four, and main calls every function once.
+ */
+public class ProgramGenerator {
+  private static final Type[] VALUE_TYPES = {Type.BOOLEAN, Type.FLOAT, Type.INT, Type.STRING};
+  private static final String INDENT = "  ";
+
+  private final Settings settings;
+  private final Random random;
+  private final List<Function> functions;
+
+  /**
+   * Size knobs of generated programs.
+   *
+   * @param functions          Number of functions besides main
+   * @param localsPerFunction  Number of declared variables per function,
+   *                           besides loop counters
+   * @param statementsPerBlock Number of statements per block
+   * @param nestingDepth       Depth of nested while and if statements per
+   *                           function
+   * @param expressionDepth    Number of operators in a chain of arithmetic or
+   *                           boolean operations
+   * @param concatLength       Number of operands in a chain of string concats
+   */
+  public record Settings(int functions, int localsPerFunction, int statementsPerBlock,
+      int nestingDepth, int expressionDepth, int concatLength) {
+
+    public Settings {
+      if ((functions < 0) || (localsPerFunction < 0) || (statementsPerBlock < 1)
+          || (nestingDepth < 0) || (expressionDepth < 0) || (concatLength < 1)) {
+        throw new IllegalArgumentException("Invalid generator settings.");
+      }
+    }
+
+    /** Settings for a program with the given number of small functions. */
+    public static Settings withFunctions(int functions) {
+      return new Settings(functions, 6, 4, 2, 3, 3);
+    }
+  }
+
+  /* Signature of a generated function. */
+  private record Function(String name, Type returnType, List<Type> argumentTypes) {
+  }
+
+  /* Variable that is visible in the function under generation. */
+  private record Variable(String name, Type type) {
+  }
+
+  /**
+   * Generator for Easy programs.
+   *
+   * @param seed     Seed for all random decisions
+   * @param settings Size knobs of generated programs
+   */
+  public ProgramGenerator(long seed, Settings settings) {
+    this.settings = settings;
+    this.random = new Random(seed);
+    this.functions = new ArrayList<>();
+  }
+
+  /**
+   * Generate the source code of a program. Each call generates a new program.
+   *
+   * @return Source code of a valid Easy program
+   */
+  public String generate() {
+    this.functions.clear();
+    StringBuilder source = new StringBuilder();
+    for (int i = 0; i < this.settings.functions(); i++) {
+      Function function = generateSignature("f" + i);
+      new FunctionWriter(source, i > 0 && i % 4 != 0 ? this.functions.get(i - 1) : null)
+          .writeFunction(function);
+      this.functions.add(function);
+      source.append('\n');
+    }
+    writeMain(source);
+    return source.toString();
+  }
+
+  private Function generateSignature(String name) {
+    Type returnType = this.random.nextInt(VALUE_TYPES.length + 1) == 0
+        ? Type.NONE : randomValueType();
+    List<Type> argumentTypes = new ArrayList<>();
+    int arguments = this.random.nextInt(4);
+    for (int i = 0; i < arguments; i++) {
+      argumentTypes.add(randomValueType());
+    }
+    return new Function(name, returnType, argumentTypes);
+  }
+
+  private void writeMain(StringBuilder source) {
+    source.append("none <- main() {\n");
+    for (Function function : this.functions) {
+      String call = generateCall(function, List.of());
+      if (function.returnType() == Type.NONE) {
+        source.append(INDENT).append(call).append(";\n");
+      } else {
+        source.append(INDENT).append("println(").append(call).append(");\n");
+      }
+    }
+    source.append("}\n");
+  }
+
+  private String generateCall(Function function, List<Variable> variables) {
+    List<String> arguments = new ArrayList<>();
+    for (Type argumentType : function.argumentTypes()) {
+      arguments.add(generateOperand(argumentType, variables));
+    }
+    return "%s(%s)".formatted(function.name(), String.join(", ", arguments));
+  }
+
+  /* Literal or variable of the given type. */
+  private String generateOperand(Type type, List<Variable> variables) {
+    List<Variable> candidates = variables.stream().filter(v -> v.type() == type).toList();
+    if (!candidates.isEmpty() && this.random.nextBoolean()) {
+      return candidates.get(this.random.nextInt(candidates.size())).name();
+    }
+    return generateLiteral(type);
+  }
+
+  private String generateLiteral(Type type) {
+    return switch (type) {
+      case BOOLEAN -> this.random.nextBoolean() ? "true" : "false";
+      case FLOAT -> "%d.%d".formatted(this.random.nextInt(100), this.random.nextInt(10));
+      case INT -> Integer.toString(this.random.nextInt(100));
+      default -> "\"s%d\"".formatted(this.random.nextInt(100));
+    };
+  }
+
+  /* Chain of operations with the given type, e.g., ((a + 1) * b). */
+  private String generateExpression(Type type, List<Variable> variables) {
+    if (type == Type.STRING) {
+      StringBuilder concat = new StringBuilder(generateOperand(Type.STRING, variables));
+      for (int i = 1; i < this.settings.concatLength(); i++) {
+        concat.append(" \u00a7 ").append(generateOperand(randomValueType(), variables));
+      }
+      return concat.toString();
+    }
+
+    String expression = generateOperand(type, variables);
+    for (int i = 0; i < this.settings.expressionDepth(); i++) {
+      expression = switch (type) {
+        case BOOLEAN -> generateBooleanOperation(expression, variables);
+        case FLOAT -> generateArithmeticOperation(expression, Type.FLOAT, variables);
+        default -> generateArithmeticOperation(expression, Type.INT, variables);
+      };
+    }
+    return expression;
+  }
+
+  private String generateArithmeticOperation(String left, Type type, List<Variable> variables) {
+    return switch (this.random.nextInt(6)) {
+      case 0 -> "(%s + %s)".formatted(left, generateOperand(type, variables));
+      case 1 -> "(%s - %s)".formatted(left, generateOperand(type, variables));
+      case 2 -> "(%s * %s)".formatted(left, generateOperand(type, variables));
+      case 3 -> type == Type.INT // divisors are positive literals
+          ? "(%s / %d)".formatted(left, this.random.nextInt(9) + 1)
+          : "(%s / %d.5)".formatted(left, this.random.nextInt(9));
+      case 4 -> type == Type.INT
+          ? "(%s %% %d)".formatted(left, this.random.nextInt(9) + 1)
+          : "(%s + %s)".formatted(left, generateOperand(type, variables));
+      default -> "-(%s)".formatted(left);
+    };
+  }
+
+  private String generateBooleanOperation(String left, List<Variable> variables) {
+    return switch (this.random.nextInt(5)) {
+      case 0 -> "(%s && %s)".formatted(left, generateOperand(Type.BOOLEAN, variables));
+      case 1 -> "(%s || %s)".formatted(left, generateOperand(Type.BOOLEAN, variables));
+      case 2 -> "!(%s)".formatted(left);
+      case 3 -> "(%s == (%s < %s))".formatted(left,
+          generateOperand(Type.INT, variables), generateOperand(Type.INT, variables));
+      default -> "(%s != (%s >= %s))".formatted(left,
+          generateOperand(Type.INT, variables), generateOperand(Type.INT, variables));
+    };
+  }
+
+  private Type randomValueType() {
+    return VALUE_TYPES[this.random.nextInt(VALUE_TYPES.length)];
+  }
+
+  /* Writer for the declarations and statements of a single function. */
+  private class FunctionWriter {
+    private final StringBuilder source;
+    private final Function callee;
+    private final List<Variable> variables;
+    private final List<Variable> assignableVariables;
+    private int loopCounters;
+    private int loopDepth;
+
+    FunctionWriter(StringBuilder source, Function callee) {
+      this.source = source;
+      this.callee = callee;
+      this.variables = new ArrayList<>();
+      this.assignableVariables = new ArrayList<>();
+      this.loopCounters = 0;
+      this.loopDepth = 0;
+    }
+
+    void writeFunction(Function function) {
+      List<String> arguments = new ArrayList<>();
+      for (int i = 0; i < function.argumentTypes().size(); i++) {
+        Variable argument = new Variable("a" + i, function.argumentTypes().get(i));
+        arguments.add("%s %s".formatted(typeName(argument.type()), argument.name()));
+        this.variables.add(argument);
+        this.assignableVariables.add(argument);
+      }
+
+      StringBuilder declarations = new StringBuilder();
+      for (int i = 0; i < settings.localsPerFunction(); i++) {
+        Variable local = new Variable("v" + i, randomValueType());
+        declarations.append(INDENT).append("%s %s = %s;\n".formatted(typeName(local.type()),
+            local.name(), generateExpression(local.type(), this.variables)));
+        this.variables.add(local);
+        this.assignableVariables.add(local);
+      }
+
+      StringBuilder body = new StringBuilder();
+      writeBlock(body, 1, settings.nestingDepth());
+      if (function.returnType() != Type.NONE) {
+        body.append(INDENT).append("return %s;\n".formatted(
+            generateExpression(function.returnType(), this.variables)));
+      }
+      for (int i = 0; i < this.loopCounters; i++) {
+        declarations.append(INDENT).append("int l%d = 0;\n".formatted(i));
+      }
+
+      this.source.append("%s <- %s(%s) {\n".formatted(
+          typeName(function.returnType()), function.name(), String.join(", ", arguments)));
+      this.source.append(declarations).append(body).append("}\n");
+    }
+
+    /* Write simple statements and, up to the remaining depth, one nested statement. */
+    private void writeBlock(StringBuilder body, int indent, int remainingDepth) {
+      int nestedStatement = remainingDepth > 0
+          ? random.nextInt(settings.statementsPerBlock()) : -1;
+      for (int i = 0; i < settings.statementsPerBlock(); i++) {
+        if (i == nestedStatement) {
+          writeNestedStatement(body, indent, remainingDepth);
+        } else {
+          writeSimpleStatement(body, indent);
+        }
+      }
+    }
+
+    private void writeSimpleStatement(StringBuilder body, int indent) {
+      boolean topLevel = indent == 1;
+      int choice = random.nextInt(topLevel ? 4 : 2);
+      if ((choice == 0 || choice == 1) && !this.assignableVariables.isEmpty()) {
+        Variable target = this.assignableVariables.get(
+            random.nextInt(this.assignableVariables.size()));
+        appendLine(body, indent, "%s = %s;".formatted(
+            target.name(), generateExpression(target.type(), this.variables)));
+      } else if (choice == 2 && topLevel) {
+        appendLine(body, indent, "%s(%s);".formatted(random.nextBoolean() ? "print" : "println",
+            generateExpression(randomValueType(), this.variables)));
+      } else if (choice == 3 && this.callee != null) {
+        writeCall(body, indent);
+      } else {
+        appendLine(body, indent, ";");
+      }
+    }
+
+    /* Call the callee as a statement, or assign its result to a variable of the same type. */
+    private void writeCall(StringBuilder body, int indent) {
+      String call = generateCall(this.callee, this.variables);
+      for (Variable variable : this.assignableVariables) {
+        if (variable.type() == this.callee.returnType()) {
+          appendLine(body, indent, "%s = %s;".formatted(variable.name(), call));
+          return;
+        }
+      }
+      if (this.callee.returnType() == Type.NONE) {
+        appendLine(body, indent, call + ";");
+      } else {
+        appendLine(body, indent, "println(%s);".formatted(call));
+      }
+    }
+
+    private void writeNestedStatement(StringBuilder body, int indent, int remainingDepth) {
+      String condition = generateExpression(Type.BOOLEAN, this.variables);
+      switch (random.nextInt(3)) {
+        case 0 -> {
+          String counter = "l" + this.loopCounters++;
+          appendLine(body, indent, "%s = %d;".formatted(counter, this.loopDepth == 0 ? 2 : 1));
+          appendLine(body, indent, "while (%s > 0) {".formatted(counter));
+          appendLine(body, indent + 1, "%s = %s - 1;".formatted(counter, counter));
+          this.loopDepth++;
+          writeBlock(body, indent + 1, remainingDepth - 1);
+          this.loopDepth--;
+          appendLine(body, indent, "}");
+        }
+        case 1 -> {
+          appendLine(body, indent, "if (%s) {".formatted(condition));
+          writeBlock(body, indent + 1, remainingDepth - 1);
+          appendLine(body, indent, "}");
+        }
+        default -> {
+          appendLine(body, indent, "if (%s) {".formatted(condition));
+          writeBlock(body, indent + 1, remainingDepth - 1);
+          appendLine(body, indent, "} else {");
+          writeBlock(body, indent + 1, 0);
+          appendLine(body, indent, "}");
+        }
+      }
+    }
+
+    private void appendLine(StringBuilder body, int indent, String line) {
+      body.append(INDENT.repeat(indent)).append(line).append('\n');
+    }
+  }
+
+  private static String typeName(Type type) {
+    return type.name().toLowerCase();
+  }
+}
@@ -0,0 +1,40 @@
+package programgeneration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class ProgramGeneratorTest {
+  @Test
+  public void equalSeedsGenerateEqualPrograms() {
+    ProgramGenerator.Settings settings = ProgramGenerator.Settings.withFunctions(20);
+    String program = new ProgramGenerator(42, settings).generate();
+
+    assertEquals(program, new ProgramGenerator(42, settings).generate());
+    assertNotEquals(program, new ProgramGenerator(43, settings).generate());
+  }
+
+  @Test
+  public void generateRequestedFunctionsAndMain() {
+    String program = new ProgramGenerator(1, ProgramGenerator.Settings.withFunctions(50))
+        .generate();
+
+    for (int i = 0; i < 50; i++) {
+      assertTrue(program.contains(" <- f%d(".formatted(i)));
+    }
+    assertTrue(program.contains("none <- main() {"));
+  }
+
+  @Test
+  public void rejectInvalidSettings() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new ProgramGenerator.Settings(-1, 6, 4, 2, 3, 3));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ProgramGenerator.Settings(10, 6, 0, 2, 3, 3));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ProgramGenerator.Settings(10, 6, 4, 2, 3, 0));
+  }
+}
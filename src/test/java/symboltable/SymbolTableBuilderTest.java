@@ -0,0 +1,73 @@
+package symboltable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import analysis.DepthFirstAdapter;
+import java.io.PushbackReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import lexer.Lexer;
+import node.AAssignStat;
+import node.AIdExpr;
+import node.Start;
+import org.junit.jupiter.api.Test;
+import parser.Parser;
+
+public class SymbolTableBuilderTest {
+  private final String program = """
+      int <- inc(int n) {
+        int result = n + 1;
+        return result;
+      }
+
+      none <- main() {
+        int n = 2;
+        n = inc(n) + n;
+        println(n);
+      }
+      """;
+
+  private Start parse(String source) throws Exception {
+    Lexer lexer = new Lexer(new PushbackReader(new StringReader(source), 1024));
+    return new Parser(lexer).parse();
+  }
+
+  @Test
+  public void resolvesScopesAndSymbolsOfVariableReferences() throws Exception {
+    Start ast = parse(program);
+    SymbolTableBuilder symbolTableBuilder = new SymbolTableBuilder();
+    ast.apply(symbolTableBuilder);
+    SymbolTable symbolTable = symbolTableBuilder.getSymbolTable();
+
+    List<AIdExpr> idExpressions = new ArrayList<>();
+    List<AAssignStat> assignments = new ArrayList<>();
+    ast.apply(new DepthFirstAdapter() {
+      @Override
+      public void inAIdExpr(AIdExpr node) {
+        idExpressions.add(node);
+      }
+
+      @Override
+      public void inAAssignStat(AAssignStat node) {
+        assignments.add(node);
+      }
+    });
+
+    assertEquals(5, idExpressions.size());
+    assertEquals("inc", symbolTable.determineScope(idExpressions.get(0)));
+    assertEquals("inc", symbolTable.determineScope(idExpressions.get(1)));
+    assertEquals("main", symbolTable.determineScope(idExpressions.get(2)));
+    assertEquals("main", symbolTable.determineScope(idExpressions.get(3)));
+    assertEquals("main", symbolTable.determineScope(idExpressions.get(4)));
+    assertSame(symbolTable.getSymbol("inc", "n"),
+        symbolTable.getSymbol(idExpressions.get(0), "n"));
+    assertSame(symbolTable.getSymbol("inc", "result"),
+        symbolTable.getSymbol(idExpressions.get(1), "result"));
+    assertSame(symbolTable.getSymbol("main", "n"),
+        symbolTable.getSymbol(idExpressions.get(2), "n"));
+    assertSame(symbolTable.getSymbol("main", "n"),
+        symbolTable.getSymbol(assignments.get(0), "n"));
+  }
+}